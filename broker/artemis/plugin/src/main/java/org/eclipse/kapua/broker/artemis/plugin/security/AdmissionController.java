@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.artemis.plugin.security;
+
+import org.eclipse.kapua.broker.artemis.plugin.security.metric.LoginMetric;
+import org.eclipse.kapua.commons.cache.LocalCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control for the external connection attempts.<br>
+ * It rejects, before any authentication service round trip, the connection attempts exceeding the configured rate (token bucket per broker).<br>
+ * While the broker bucket is under pressure (less than half of the burst available) every account gets at most its share of the broker rate,
+ * so a single account reconnecting all its devices cannot starve the other accounts.<br>
+ * The account is identified by the connection username since the devices of an account usually share the same user
+ * (the account id is not known before the authentication).
+ *
+ * @since 2.1.0
+ */
+public class AdmissionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionController.class);
+
+    private final LoginMetric loginMetric;
+    private final LongSupplier nanoClock;
+    private final boolean enabled;
+    private final TokenBucket brokerBucket;
+    private final double accountRate;
+    private final double accountBurst;
+    private final LocalCache<String, TokenBucket> accountBuckets;
+
+    /**
+     * Constructor.
+     *
+     * @param loginMetric      the login metrics
+     * @param rate             connection attempts per second admitted by the broker (0 or less disables the admission control)
+     * @param burst            connection attempts admitted at once by the broker
+     * @param accountShare     share (0..1] of the broker rate and burst granted to an account while the broker is under pressure
+     * @param accountCacheSize max number of accounts tracked
+     * @param accountCacheTtl  account tracking ttl (in seconds)
+     * @since 2.1.0
+     */
+    public AdmissionController(LoginMetric loginMetric, int rate, int burst, double accountShare, int accountCacheSize, int accountCacheTtl) {
+        this(loginMetric, rate, burst, accountShare, accountCacheSize, accountCacheTtl, System::nanoTime);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param loginMetric      the login metrics
+     * @param rate             connection attempts per second admitted by the broker (0 or less disables the admission control)
+     * @param burst            connection attempts admitted at once by the broker
+     * @param accountShare     share (0..1] of the broker rate and burst granted to an account while the broker is under pressure
+     * @param accountCacheSize max number of accounts tracked
+     * @param accountCacheTtl  account tracking ttl (in seconds)
+     * @param nanoClock        the clock refilling the buckets (in nanoseconds, like {@link System#nanoTime()})
+     * @since 2.1.0
+     */
+    AdmissionController(LoginMetric loginMetric, int rate, int burst, double accountShare, int accountCacheSize, int accountCacheTtl, LongSupplier nanoClock) {
+        this.loginMetric = loginMetric;
+        this.nanoClock = nanoClock;
+        enabled = rate > 0;
+        brokerBucket = new TokenBucket(rate, Math.max(burst, 1), nanoClock.getAsLong());
+        accountRate = rate * accountShare;
+        accountBurst = Math.max(burst * accountShare, 1);
+        accountBuckets = new LocalCache<>(accountCacheSize, accountCacheTtl, null);
+        logger.info("Admission control enabled: {} - rate: {}/s - burst: {} - account share: {}", enabled, rate, burst, accountShare);
+    }
+
+    /**
+     * Try to admit a connection attempt. If admitted, the caller must call {@link #release()} once the authentication is completed.
+     *
+     * @param username the connection username
+     * @return true if the connection attempt is admitted
+     * @since 2.1.0
+     */
+    public boolean admit(String username) {
+        if (!enabled) {
+            return true;
+        }
+        long now = nanoClock.getAsLong();
+        TokenBucket accountBucket = null;
+        if (brokerBucket.isUnderPressure(now)) {
+            accountBucket = getAccountBucket(username, now);
+            if (!accountBucket.tryAcquire(now)) {
+                loginMetric.getAdmissionAccountRejected().inc();
+                return false;
+            }
+        }
+        if (!brokerBucket.tryAcquire(now)) {
+            //the attempt is not admitted, so it must not consume the account share
+            if (accountBucket != null) {
+                accountBucket.refund();
+            }
+            loginMetric.getAdmissionRejected().inc();
+            return false;
+        }
+        loginMetric.getAdmissionInProgress().inc();
+        return true;
+    }
+
+    /**
+     * Release an admitted connection attempt
+     *
+     * @since 2.1.0
+     */
+    public void release() {
+        if (enabled) {
+            loginMetric.getAdmissionInProgress().dec();
+        }
+    }
+
+    private TokenBucket getAccountBucket(String username, long now) {
+        String key = String.valueOf(username);
+        TokenBucket accountBucket = accountBuckets.get(key);
+        if (accountBucket == null) {
+            //no synchronization needed. At the worst a concurrent attempt of the same account gets a fresh bucket
+            accountBucket = new TokenBucket(accountRate, accountBurst, now);
+            accountBuckets.put(key, accountBucket);
+        }
+        return accountBucket;
+    }
+
+    static class TokenBucket {
+
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(double ratePerSecond, double capacity, long now) {
+            tokensPerNano = ratePerSecond / 1_000_000_000d;
+            this.capacity = capacity;
+            tokens = capacity;
+            lastRefill = now;
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens--;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized void refund() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        synchronized boolean isUnderPressure(long now) {
+            refill(now);
+            return tokens < capacity / 2;
+        }
+
+        private void refill(long now) {
+            if (now > lastRefill) {
+                tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+                lastRefill = now;
+            }
+        }
+    }
+}
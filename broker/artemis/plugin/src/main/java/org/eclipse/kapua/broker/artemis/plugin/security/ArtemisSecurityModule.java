@@ -25,6 +25,7 @@ import org.eclipse.kapua.broker.artemis.plugin.security.metric.LoginMetric;
 import org.eclipse.kapua.broker.artemis.plugin.security.setting.BrokerSetting;
 import org.eclipse.kapua.broker.artemis.plugin.security.setting.BrokerSettingKey;
 import org.eclipse.kapua.client.security.KapuaMessageListener;
+import org.eclipse.kapua.client.security.MetricsClientSecurity;
 import org.eclipse.kapua.client.security.ServiceClient;
 import org.eclipse.kapua.client.security.ServiceClientMessagingImpl;
 import org.eclipse.kapua.client.security.amqpclient.Client;
@@ -66,11 +67,23 @@ public class ArtemisSecurityModule extends AbstractKapuaModule {
                         brokerSettings.getInt(BrokerSettingKey.CACHE_SESSION_CONTEXT_SIZE),
                         brokerSettings.getInt(BrokerSettingKey.CACHE_SESSION_CONTEXT_TTL),
                         null),
+                brokerSettings.getInt(BrokerSettingKey.CACHE_ACL_DECISION_SIZE, 64),
                 metricsSecurityPlugin,
                 runWithLock
         );
     }
 
+    @Singleton
+    @Provides
+    AdmissionController admissionController(LoginMetric loginMetric, BrokerSetting brokerSettings) {
+        return new AdmissionController(loginMetric,
+                brokerSettings.getInt(BrokerSettingKey.ADMISSION_RATE, 0),
+                brokerSettings.getInt(BrokerSettingKey.ADMISSION_BURST, 1000),
+                brokerSettings.getDouble(BrokerSettingKey.ADMISSION_ACCOUNT_SHARE, 1d),
+                brokerSettings.getInt(BrokerSettingKey.ADMISSION_ACCOUNT_CACHE_SIZE, 10000),
+                brokerSettings.getInt(BrokerSettingKey.ADMISSION_ACCOUNT_CACHE_TTL, 60));
+    }
+
     public static final String REQUEST_QUEUE = "$SYS/SVC/auth/request";
     public static final String RESPONSE_QUEUE_PATTERN = "$SYS/SVC/auth/response/%s_%s";
 
@@ -80,8 +93,13 @@ public class ArtemisSecurityModule extends AbstractKapuaModule {
             KapuaMessageListener messageListener,
             @Named("clusterName") String clusterName,
             @Named("brokerHost") String brokerHost,
-            SystemSetting systemSetting) {
-        return new ServiceClientMessagingImpl(messageListener, buildClient(systemSetting, clusterName, brokerHost, messageListener));
+            SystemSetting systemSetting,
+            BrokerSetting brokerSettings,
+            MetricsClientSecurity metricsClientSecurity) {
+        return new ServiceClientMessagingImpl(messageListener, buildClient(systemSetting, clusterName, brokerHost, messageListener),
+                metricsClientSecurity,
+                brokerSettings.getInt(BrokerSettingKey.AUTH_CLIENT_MAX_IN_FLIGHT_REQUESTS, 1000),
+                brokerSettings.getLong(BrokerSettingKey.AUTH_CLIENT_RETRY_AFTER, 5000L));
     }
 
     public Client buildClient(SystemSetting systemSetting, String clusterName, String brokerHost, KapuaMessageListener messageListener) {
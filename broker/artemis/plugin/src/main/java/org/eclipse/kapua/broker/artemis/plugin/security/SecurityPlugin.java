@@ -28,6 +28,7 @@ import org.eclipse.kapua.broker.artemis.plugin.security.metric.PublishMetric;
 import org.eclipse.kapua.broker.artemis.plugin.security.metric.SubscribeMetric;
 import org.eclipse.kapua.broker.artemis.plugin.security.setting.BrokerSetting;
 import org.eclipse.kapua.broker.artemis.plugin.security.setting.BrokerSettingKey;
+import org.eclipse.kapua.client.security.KapuaServiceClientOverloadException;
 import org.eclipse.kapua.client.security.ServiceClient.EntityType;
 import org.eclipse.kapua.client.security.ServiceClient.SecurityAction;
 import org.eclipse.kapua.client.security.bean.AuthRequest;
@@ -73,6 +74,7 @@ public class SecurityPlugin implements ActiveMQSecurityManager5 {
     private final PublishMetric publishMetric;
     private final SubscribeMetric subscribeMetric;
     private final PluginUtility pluginUtility;
+    private final AdmissionController admissionController;
 
     protected ServerContext serverContext;
     //to avoid deadlock this field will be initialized by the first internal login call
@@ -87,6 +89,7 @@ public class SecurityPlugin implements ActiveMQSecurityManager5 {
         subscribeMetric = kapuaLocator.getComponent(SubscribeMetric.class);
         serverContext = KapuaLocator.getInstance().getComponent(ServerContext.class);
         pluginUtility = KapuaLocator.getInstance().getComponent(PluginUtility.class);
+        admissionController = kapuaLocator.getComponent(AdmissionController.class);
         final BrokerSetting brokerSettings = kapuaLocator.getComponent(BrokerSetting.class);
         usernameScopeIdCache = new LocalCache<>(
                 brokerSettings.getInt(BrokerSettingKey.CACHE_SCOPE_ID_SIZE),
@@ -131,9 +134,20 @@ public class SecurityPlugin implements ActiveMQSecurityManager5 {
                     remotingConnection.getProtocolName(),//transportProtocol
                     (String) remotingConnection.getTransportConnection().getConnectorConfig().getCombinedParams().get("sslEnabled"),//sslEnabled
                     getPeerCertificates(remotingConnection));//clientsCertificates
-            return pluginUtility.isInternal(remotingConnection) ?
-                    authenticateInternalConn(connectionInfo, connectionId, username, password, remotingConnection) :
-                    authenticateExternalConn(connectionInfo, connectionId, username, password, remotingConnection);
+            if (pluginUtility.isInternal(remotingConnection)) {
+                return authenticateInternalConn(connectionInfo, connectionId, username, password, remotingConnection);
+            }
+            //reject the excess connection attempts before any authentication service round trip
+            //(not logged at info level since during a reconnect storm there may be thousands of them per second: they are counted by the admission metrics)
+            if (!admissionController.admit(username)) {
+                logger.debug("Authenticate external: connection attempt not admitted (rate exceeded) - user: {} - clientId: {} - connectionId: {}", username, clientId, connectionId);
+                return null;
+            }
+            try {
+                return authenticateExternalConn(connectionInfo, connectionId, username, password, remotingConnection);
+            } finally {
+                admissionController.release();
+            }
         }
     }
 
@@ -207,6 +221,11 @@ public class SecurityPlugin implements ActiveMQSecurityManager5 {
             }
             loginMetric.getExternalConnector().getSuccess().inc();
             return subject;
+        } catch (KapuaServiceClientOverloadException e) {
+            //MQTT 3.1.1 cannot carry a retry after hint so the client is refused and will retry with its own back off
+            loginMetric.getExternalConnector().getFailure().inc();
+            logger.warn("Authenticate external: authentication service overloaded, rejecting clientId: {} - retry after {} ms", connectionInfo.getClientId(), e.getRetryAfter());
+            return null;
         } catch (Exception e) {
             loginMetric.getExternalConnector().getFailure().inc();
             logger.error("Authenticate external: error: {}", e.getMessage());
@@ -12,8 +12,12 @@
  *******************************************************************************/
 package org.eclipse.kapua.broker.artemis.plugin.security;
 
-import java.util.Base64;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.ActiveMQExceptionType;
@@ -26,7 +30,6 @@ import org.apache.activemq.artemis.core.server.plugin.ActiveMQServerPlugin;
 import org.apache.activemq.artemis.core.transaction.Transaction;
 import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
 import org.apache.activemq.artemis.utils.critical.CriticalComponent;
-import org.apache.commons.lang3.SerializationUtils;
 import org.eclipse.kapua.broker.artemis.plugin.security.connector.AcceptorHandler;
 import org.eclipse.kapua.broker.artemis.plugin.security.event.BrokerEvent;
 import org.eclipse.kapua.broker.artemis.plugin.security.event.BrokerEvent.EventType;
@@ -108,6 +111,9 @@ public class ServerPlugin implements ActiveMQServerPlugin {
     private final PluginUtility pluginUtility;
 
     protected BrokerEventHandler brokerEventHandler;
+    //connection ids waiting for the next batched disconnect event
+    private final Queue<String> pendingDisconnections = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean disconnectionScheduled = new AtomicBoolean();
     protected AcceptorHandler acceptorHandler;
     protected String version;
     protected ServerContext serverContext;
@@ -176,6 +182,7 @@ public class ServerPlugin implements ActiveMQServerPlugin {
      */
     @Override
     public void afterCreateConnection(RemotingConnection connection) throws ActiveMQException {
+        serverContext.getSecurityContext().addConnection(pluginUtility.getConnectionId(connection), connection);
         connection.addCloseListener(() -> cleanUpConnectionData(connection, Failure.CLOSED));
         connection.addFailureListener(new FailureListener() {
 
@@ -198,6 +205,7 @@ public class ServerPlugin implements ActiveMQServerPlugin {
     @Override
     public void afterDestroyConnection(RemotingConnection connection) throws ActiveMQException {
         ActiveMQServerPlugin.super.afterDestroyConnection(connection);
+        serverContext.getSecurityContext().removeConnection(pluginUtility.getConnectionId(connection), connection);
         cleanUpConnectionData(connection, Failure.DESTROY);
     }
 
@@ -229,7 +237,7 @@ public class ServerPlugin implements ActiveMQServerPlugin {
             logger.debug("Publishing message on address {} from clientId: {} - clientIp: {}", address, sessionContext.getClientId(), sessionContext.getClientIp());
             message.putStringProperty(MessageConstants.HEADER_KAPUA_CLIENT_ID, sessionContext.getClientId());
             message.putStringProperty(MessageConstants.HEADER_KAPUA_CONNECTOR_NAME, sessionContext.getConnectorName());
-            message.putStringProperty(MessageConstants.HEADER_KAPUA_SESSION, Base64.getEncoder().encodeToString(SerializationUtils.serialize(sessionContext.getKapuaSession())));
+            message.putStringProperty(MessageConstants.HEADER_KAPUA_SESSION, sessionContext.getEncodedKapuaSession());
             message.putLongProperty(MessageConstants.HEADER_KAPUA_RECEIVED_TIMESTAMP, KapuaDateUtils.getKapuaSysDate().getEpochSecond());
             message.putStringProperty(MessageConstants.HEADER_KAPUA_MESSAGE_TYPE, getMessgeType(address));
             message.putStringProperty(MessageConstants.HEADER_KAPUA_ACCOUNT_NAME, sessionContext.getAccountName());
@@ -240,7 +248,7 @@ public class ServerPlugin implements ActiveMQServerPlugin {
                     sessionContext.setMissing(true);
                 }
                 // FIX #164
-                message.putStringProperty(MessageConstants.HEADER_KAPUA_CONNECTION_ID, Base64.getEncoder().encodeToString(SerializationUtils.serialize(sessionContext.getKapuaConnectionId())));
+                message.putStringProperty(MessageConstants.HEADER_KAPUA_CONNECTION_ID, sessionContext.getEncodedKapuaConnectionId());
                 message.putBooleanProperty(MessageConstants.HEADER_KAPUA_BROKER_CONTEXT, false);
                 if (publishInfoMessageSizeLimit < messageSize) {
                     logger.info("Published message size over threshold. size: {} - destination: {} - account id: {} - username: {} - clientId: {}",
@@ -297,6 +305,8 @@ public class ServerPlugin implements ActiveMQServerPlugin {
             disconnectedClients = disconnectClient(brokerEvent.getScopeId(), brokerEvent.getClientId());
         } else if (EventType.disconnectClientByConnectionId.equals(brokerEvent.getEventType())) {
             disconnectedClients = disconnectClient(brokerEvent.getOldConnectionId());
+        } else if (EventType.disconnectClientsByConnectionId.equals(brokerEvent.getEventType())) {
+            disconnectedClients = disconnectPendingClients();
         }
         logger.info("Disconnected clients: {}", disconnectedClients);
         loginMetric.getDisconnectByEvent().inc(disconnectedClients);
@@ -306,38 +316,69 @@ public class ServerPlugin implements ActiveMQServerPlugin {
     private int disconnectClient(KapuaId scopeId, String clientId) {
         logger.info("Disconnecting client for scopeId: {} - client id: {}", scopeId.toCompactId(), clientId);
         String fullClientId = Utils.getFullClientId(scopeId, clientId);
-        return serverContext.getServer().getSessions().stream().map(session -> {
-            RemotingConnection remotingConnection = session.getRemotingConnection();
-            String clientIdToCheck = pluginUtility.getConnectionId(remotingConnection);
-            SessionContext sessionContext = serverContext.getSecurityContext().getSessionContextByClientId(clientIdToCheck);
-            String connectionFullClientId = Utils.getFullClientId(sessionContext);
-            if (fullClientId.equals(connectionFullClientId)) {
-                logger.info("\tclientId to check: {} - full client id: {}... CLOSE", clientIdToCheck, connectionFullClientId);
-                remotingConnection.disconnect(false);
-                remotingConnection.destroy();
-                return 1;
-            } else {
-                logger.info("\tclientId to check: {} - full client id: {}... no action", clientIdToCheck, connectionFullClientId);
-                return 0;
-            }
-        }).mapToInt(Integer::new).sum();
+        RemotingConnection remotingConnection = serverContext.getSecurityContext().getConnectionByClientId(fullClientId);
+        if (remotingConnection == null) {
+            logger.info("\tNo connection found for full client id: {}... no action", fullClientId);
+            return 0;
+        }
+        logger.info("\tfull client id: {} - connection id: {}... CLOSE", fullClientId, pluginUtility.getConnectionId(remotingConnection));
+        return disconnect(remotingConnection);
     }
 
     private int disconnectClient(String connectionId) {
         logger.info("Disconnecting client for connection: {}", connectionId);
-        return serverContext.getServer().getRemotingService().getConnections().stream().map(remotingConnection -> {
-            int removed = 0;
-            String connectionIdTmp = pluginUtility.getConnectionId(remotingConnection);
-            if (connectionId.equals(connectionIdTmp)) {
-                logger.info("\tconnection: {} - compared to: {} ... CLOSE", connectionId, connectionIdTmp);
-                remotingConnection.disconnect(false);
-                remotingConnection.destroy();
-                removed++;
+        RemotingConnection remotingConnection = serverContext.getSecurityContext().getConnection(connectionId);
+        if (remotingConnection == null) {
+            logger.info("\tNo connection found for connection id: {}... no action", connectionId);
+            return 0;
+        }
+        logger.info("\tconnection: {} ... CLOSE", connectionId);
+        return disconnect(remotingConnection);
+    }
+
+    private int disconnectPendingClients() {
+        //reset the flag before draining so connections queued from now on schedule a new event if not drained by this one
+        disconnectionScheduled.set(false);
+        List<String> connectionIds = new ArrayList<>();
+        String connectionId;
+        while ((connectionId = pendingDisconnections.poll()) != null) {
+            connectionIds.add(connectionId);
+        }
+        logger.info("Disconnecting {} clients", connectionIds.size());
+        int disconnectedClients = 0;
+        for (String pendingConnectionId : connectionIds) {
+            RemotingConnection remotingConnection = serverContext.getSecurityContext().getConnection(pendingConnectionId);
+            if (remotingConnection != null) {
+                disconnectedClients += disconnect(remotingConnection);
             } else {
-                logger.info("\tclientId to check: {} - compared to: {} ... no action", connectionId, connectionIdTmp);
+                logger.debug("\tNo connection found for connection id: {}... no action", pendingConnectionId);
+            }
+        }
+        return disconnectedClients;
+    }
+
+    private int disconnect(RemotingConnection remotingConnection) {
+        remotingConnection.disconnect(false);
+        remotingConnection.destroy();
+        return 1;
+    }
+
+    /**
+     * Queue the connection for disconnection. Connections queued before the batched disconnect event is processed are disconnected in a single pass.
+     *
+     * @param connectionId
+     */
+    private void scheduleDisconnection(String connectionId) {
+        pendingDisconnections.add(connectionId);
+        if (disconnectionScheduled.compareAndSet(false, true)) {
+            try {
+                brokerEventHandler.enqueueEvent(new BrokerEvent(EventType.disconnectClientsByConnectionId));
+            } catch (RuntimeException e) {
+                //let the next disconnection schedule the event again
+                disconnectionScheduled.set(false);
+                throw e;
             }
-            return removed;
-        }).mapToInt(Integer::new).sum();
+        }
     }
 
     protected void processDeviceConnectionEvent(ServiceEvent event) {
@@ -362,10 +403,8 @@ public class ServerPlugin implements ActiveMQServerPlugin {
                 return;
             }
 
-            BrokerEvent disconnectEvent = new BrokerEvent(EventType.disconnectClientByConnectionId, sessionContext, sessionContext);
-
-            logger.info("Submitting broker event to disconnect clientId: {}, connectionId: {}", fullClientId, sessionContext.getConnectionId());
-            brokerEventHandler.enqueueEvent(disconnectEvent);
+            logger.info("Scheduling disconnection of clientId: {}, connectionId: {}", fullClientId, sessionContext.getConnectionId());
+            scheduleDisconnection(sessionContext.getConnectionId());
         } catch (Exception e) {
             logger.warn("Error processing event: {}", e);
         }
@@ -409,7 +448,13 @@ public class ServerPlugin implements ActiveMQServerPlugin {
                         updateError(authRequest, exception);
                     }
                     serverContext.getSecurityContext().updateStealingLinkAndIllegalState(authRequest, connectionId, sessionContextByClient != null ? sessionContextByClient.getConnectionId() : null);
-                    serverContext.getAuthServiceClient().brokerDisconnect(authRequest);
+                    //don't hold the connection thread waiting for the disconnect response
+                    serverContext.getAuthServiceClient().brokerDisconnectAsync(authRequest).whenComplete((authResponse, error) -> {
+                        if (error != null) {
+                            loginMetric.getCleanupGenericFailure().inc();
+                            logger.error("Broker disconnect error for connection id: {} - {}", connectionId, error.getMessage(), error);
+                        }
+                    });
                 }
             } else {
                 logger.warn("Cannot find any session context for connection id: {}", connectionId);
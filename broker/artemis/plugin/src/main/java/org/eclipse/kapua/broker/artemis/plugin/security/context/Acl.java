@@ -13,8 +13,6 @@
 package org.eclipse.kapua.broker.artemis.plugin.security.context;
 
 import org.apache.activemq.artemis.core.config.WildcardConfiguration;
-import org.apache.activemq.artemis.core.settings.HierarchicalRepository;
-import org.apache.activemq.artemis.core.settings.impl.HierarchicalObjectRepository;
 import org.eclipse.kapua.KapuaIllegalArgumentException;
 import org.eclipse.kapua.broker.artemis.plugin.security.metric.LoginMetric;
 import org.eclipse.kapua.client.security.bean.AuthAcl;
@@ -24,6 +22,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
 
 public class Acl {
 
@@ -33,32 +34,42 @@ public class Acl {
     private static final char ANY_WORDS = '#';
     private static final char SEPARATOR = '/';
 
+    private static final WildcardConfiguration WILDCARD_CONFIGURATION = new WildcardConfiguration();
+
+    static {
+        WILDCARD_CONFIGURATION.setSingleWord(SINGLE_WORD);
+        WILDCARD_CONFIGURATION.setAnyWords(ANY_WORDS);
+        WILDCARD_CONFIGURATION.setDelimiter(SEPARATOR);
+    }
+
     private final LoginMetric loginMetric;
-    private final WildcardConfiguration wildcardConfiguration;
-    private final HierarchicalRepository<KapuaPrincipal> read;
-    private final HierarchicalRepository<KapuaPrincipal> write;
-    private final HierarchicalRepository<KapuaPrincipal> admin;
+    //shared by all the connections with the same ACLs but for the account name and the client id, which are bound at check time
+    private final AclTemplate template;
+    private final String accountName;
+    private final String clientId;
 
-    public Acl(LoginMetric loginMetric, KapuaPrincipal principal, List<AuthAcl> authAcls) throws KapuaIllegalArgumentException {
+    //decisions by address, one map per check type. The whole Acl is replaced when the connection ACLs change, so the decisions never need to be invalidated
+    private final KapuaPrincipal principal;
+    private final int decisionCacheSize;
+    private final Map<String, Boolean> readDecisions = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> writeDecisions = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> adminDecisions = new ConcurrentHashMap<>();
+
+    public Acl(LoginMetric loginMetric, KapuaPrincipal principal, String accountName, List<AuthAcl> authAcls, int decisionCacheSize) throws KapuaIllegalArgumentException {
         this.loginMetric = loginMetric;
-        wildcardConfiguration = new WildcardConfiguration();
-        wildcardConfiguration.setSingleWord(SINGLE_WORD);
-        wildcardConfiguration.setAnyWords(ANY_WORDS);
-        wildcardConfiguration.setDelimiter(SEPARATOR);
+        this.principal = principal;
+        this.decisionCacheSize = decisionCacheSize;
         if (principal == null) {
             throw new KapuaIllegalArgumentException("principal", null);
         }
-        read = new HierarchicalObjectRepository<>(wildcardConfiguration);
-        read.setDefault(null);
-        write = new HierarchicalObjectRepository<>(wildcardConfiguration);
-        write.setDefault(null);
-        admin = new HierarchicalObjectRepository<>(wildcardConfiguration);
-        admin.setDefault(null);
+        this.accountName = accountName;
+        this.clientId = principal.getClientId();
+        AclTemplate.Builder templateBuilder = new AclTemplate.Builder(WILDCARD_CONFIGURATION, accountName, clientId);
         StringBuilder aclLog = new StringBuilder();
         if (authAcls != null) {
             authAcls.forEach((authAcl) -> {
                 try {
-                    add(principal, authAcl.getMatch(), authAcl.getAction());
+                    add(templateBuilder, authAcl.getMatch(), authAcl.getAction());
                     aclLog.append("\n\t").append(authAcl.getMatch()).append(" - ").append(authAcl.getAction()).append(" - ").
                             append(principal.getName()).append("/").append(principal.getAccountId().toStringId()).append("/").append(principal.getClientId());
                 } catch (Exception e) {
@@ -68,55 +79,70 @@ public class Acl {
                 }
             });
         }
+        template = templateBuilder.build();
         logger.info("Acl: {}", aclLog);
     }
 
-    private void add(KapuaPrincipal principal, String match, Action action) throws KapuaIllegalArgumentException {
+    private void add(AclTemplate.Builder templateBuilder, String match, Action action) throws KapuaIllegalArgumentException {
         if (action == null) {
             throw new KapuaIllegalArgumentException("action", null);
         }
-        if (principal == null) {
-            throw new KapuaIllegalArgumentException("principal", null);
-        }
         if (match == null || match.trim().length() <= 0) {
             throw new KapuaIllegalArgumentException("match", match);
         }
+        templateBuilder.verify(match);
         switch (action) {
             case all:
-                read.addMatch(match, principal);
-                write.addMatch(match, principal);
-                admin.addMatch(match, principal);
+                templateBuilder.addRead(match).addWrite(match).addAdmin(match);
                 break;
             case read:
-                read.addMatch(match, principal);
+                templateBuilder.addRead(match);
                 break;
             case write:
-                write.addMatch(match, principal);
+                templateBuilder.addWrite(match);
                 break;
             case admin:
-                admin.addMatch(match, principal);
+                templateBuilder.addAdmin(match);
                 break;
             case readAdmin:
-                read.addMatch(match, principal);
-                admin.addMatch(match, principal);
+                templateBuilder.addRead(match).addAdmin(match);
                 break;
             case writeAdmin:
-                write.addMatch(match, principal);
-                admin.addMatch(match, principal);
+                templateBuilder.addWrite(match).addAdmin(match);
                 break;
         }
     }
 
     public boolean canRead(KapuaPrincipal principal, String address) {
-        return !containsAnyWordWildcardBeforeLastPosition(address) && principal.equals(read.getMatch(address));
+        return checkWithCache(readDecisions, principal, address, () -> !containsAnyWordWildcardBeforeLastPosition(address) && principal.equals(this.principal) && template.matchesRead(address, accountName, clientId));
     }
 
     public boolean canWrite(KapuaPrincipal principal, String address) {
-        return !containsWildcards(address) && principal.equals(write.getMatch(address));
+        return checkWithCache(writeDecisions, principal, address, () -> !containsWildcards(address) && principal.equals(this.principal) && template.matchesWrite(address, accountName, clientId));
     }
 
     public boolean canManage(KapuaPrincipal principal, String address) {
-        return !containsAnyWordWildcardBeforeLastPosition(address) && principal.equals(admin.getMatch(address));
+        return checkWithCache(adminDecisions, principal, address, () -> !containsAnyWordWildcardBeforeLastPosition(address) && principal.equals(this.principal) && template.matchesAdmin(address, accountName, clientId));
+    }
+
+    private boolean checkWithCache(Map<String, Boolean> decisions, KapuaPrincipal principal, String address, BooleanSupplier check) {
+        //decisions are cached only for the principal the acl was built for
+        if (decisionCacheSize <= 0 || !this.principal.equals(principal)) {
+            return check.getAsBoolean();
+        }
+        Boolean decision = decisions.get(address);
+        if (decision != null) {
+            loginMetric.getAclDecisionCacheHit().inc();
+            return decision;
+        }
+        loginMetric.getAclDecisionCacheMiss().inc();
+        decision = check.getAsBoolean();
+        if (decisions.size() >= decisionCacheSize) {
+            //devices usually use a handful of addresses, so if the cache is full just start over
+            decisions.clear();
+        }
+        decisions.put(address, decision);
+        return decision;
     }
 
     private boolean containsAnyWordWildcardBeforeLastPosition(String address) {
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.artemis.plugin.security.context;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import org.apache.activemq.artemis.core.config.WildcardConfiguration;
+import org.apache.activemq.artemis.core.settings.impl.Match;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The matches of an {@link Acl} with the account name and the client id replaced by placeholders.
+ * <p>
+ * Devices of a fleet usually get the very same ACLs, apart from their account name and client id: all the connections with the same template
+ * share a single interned instance, and only bind their own account name and client id when checking an address.
+ * The matching follows the same rules of the Artemis {@link org.apache.activemq.artemis.core.settings.impl.HierarchicalObjectRepository} it replaces,
+ * but for the account name and the client id, which are compared as they are: the repository compiled them into its regular expressions,
+ * so a client id containing regular expression metacharacters could match the addresses of other clients.
+ * Account names and client ids containing the delimiter or the wildcards are not replaced by placeholders and are matched like the rest of the match.
+ */
+public final class AclTemplate {
+
+    //NUL is not allowed in MQTT topic names, so placeholders cannot clash with the actual addresses
+    private static final String ACCOUNT_PLACEHOLDER = "\u0000a";
+    private static final String CLIENT_ID_PLACEHOLDER = "\u0000c";
+    private static final String ACCOUNT_GROUP = "account";
+    private static final String CLIENT_ID_GROUP = "clientId";
+
+    //templates are kept as long as an Acl references them
+    private static final Interner<AclTemplate> INTERNER = Interners.newWeakInterner();
+
+    private final List<Entry> read;
+    private final List<Entry> write;
+    private final List<Entry> admin;
+    private final String key;
+
+    private AclTemplate(List<Entry> read, List<Entry> write, List<Entry> admin) {
+        this.read = read;
+        this.write = write;
+        this.admin = admin;
+        StringBuilder keyBuilder = new StringBuilder();
+        appendKey(keyBuilder, 'r', read);
+        appendKey(keyBuilder, 'w', write);
+        appendKey(keyBuilder, 'a', admin);
+        key = keyBuilder.toString();
+    }
+
+    //length prefixed, so that different lists of matches never produce the same key
+    private static void appendKey(StringBuilder keyBuilder, char type, List<Entry> entries) {
+        for (Entry entry : entries) {
+            keyBuilder.append(type).append(entry.match.length()).append(':').append(entry.match);
+        }
+    }
+
+    public boolean matchesRead(String address, String accountName, String clientId) {
+        return matches(read, address, accountName, clientId);
+    }
+
+    public boolean matchesWrite(String address, String accountName, String clientId) {
+        return matches(write, address, accountName, clientId);
+    }
+
+    public boolean matchesAdmin(String address, String accountName, String clientId) {
+        return matches(admin, address, accountName, clientId);
+    }
+
+    private static boolean matches(List<Entry> entries, String address, String accountName, String clientId) {
+        for (Entry entry : entries) {
+            if (entry.matches(address, accountName, clientId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof AclTemplate && key.equals(((AclTemplate) o).key));
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
+    /**
+     * Collects the matches of an {@link Acl} into an {@link AclTemplate}.
+     */
+    public static class Builder {
+
+        private final WildcardConfiguration wildcardConfiguration;
+        private final String accountName;
+        private final String clientId;
+        private final List<Entry> read = new ArrayList<>();
+        private final List<Entry> write = new ArrayList<>();
+        private final List<Entry> admin = new ArrayList<>();
+
+        public Builder(WildcardConfiguration wildcardConfiguration, String accountName, String clientId) {
+            this.wildcardConfiguration = wildcardConfiguration;
+            this.accountName = isWord(accountName) ? accountName : null;
+            this.clientId = isWord(clientId) ? clientId : null;
+        }
+
+        //only plain words can be bound to a placeholder, which matches exactly one word
+        private boolean isWord(String identifier) {
+            return identifier != null && !identifier.isEmpty() &&
+                    !identifier.contains(wildcardConfiguration.getDelimiterString()) &&
+                    !identifier.contains(wildcardConfiguration.getAnyWordsString()) &&
+                    !identifier.contains(wildcardConfiguration.getSingleWordString());
+        }
+
+        public Builder addRead(String match) {
+            read.add(toEntry(match));
+            return this;
+        }
+
+        public Builder addWrite(String match) {
+            write.add(toEntry(match));
+            return this;
+        }
+
+        public Builder addAdmin(String match) {
+            admin.add(toEntry(match));
+            return this;
+        }
+
+        /**
+         * Verifies the match the same way the Artemis repositories do.
+         *
+         * @throws IllegalArgumentException if the match is not valid.
+         */
+        public void verify(String match) {
+            Match.verify(match, wildcardConfiguration);
+        }
+
+        /**
+         * @return the interned {@link AclTemplate}.
+         */
+        public AclTemplate build() {
+            return INTERNER.intern(new AclTemplate(
+                    Collections.unmodifiableList(new ArrayList<>(read)),
+                    Collections.unmodifiableList(new ArrayList<>(write)),
+                    Collections.unmodifiableList(new ArrayList<>(admin))));
+        }
+
+        private Entry toEntry(String match) {
+            String delimiter = wildcardConfiguration.getDelimiterString();
+            String[] words = match.split(Pattern.quote(delimiter), -1);
+            for (int i = 0; i < words.length; i++) {
+                if (accountName != null && words[i].equals(accountName)) {
+                    words[i] = ACCOUNT_PLACEHOLDER;
+                } else if (clientId != null && words[i].equals(clientId)) {
+                    words[i] = CLIENT_ID_PLACEHOLDER;
+                }
+            }
+            String templateMatch = String.join(delimiter, words);
+            boolean wildcard = templateMatch.contains(wildcardConfiguration.getAnyWordsString()) || templateMatch.contains(wildcardConfiguration.getSingleWordString());
+            return new Entry(templateMatch, wildcard ? compile(templateMatch) : null);
+        }
+
+        private Pattern compile(String templateMatch) {
+            String regex = Match.createPattern(templateMatch, wildcardConfiguration, false).pattern();
+            String word = "[^" + Pattern.quote(wildcardConfiguration.getDelimiterString()) + "]+";
+            regex = bindGroup(regex, ACCOUNT_PLACEHOLDER, ACCOUNT_GROUP, word);
+            regex = bindGroup(regex, CLIENT_ID_PLACEHOLDER, CLIENT_ID_GROUP, word);
+            return Pattern.compile(regex);
+        }
+
+        /**
+         * Replaces the first occurrence of the placeholder with a named group, and the following ones with a back reference to it.
+         */
+        private String bindGroup(String regex, String placeholder, String group, String word) {
+            int first = regex.indexOf(placeholder);
+            if (first < 0) {
+                return regex;
+            }
+            return regex.substring(0, first) + "(?<" + group + ">" + word + ")" +
+                    regex.substring(first + placeholder.length()).replace(placeholder, "\\k<" + group + ">");
+        }
+    }
+
+    private static final class Entry {
+
+        private final String match;
+        //null for matches without wildcards, which are compared as they are
+        private final Pattern pattern;
+        private final boolean hasAccount;
+        private final boolean hasClientId;
+
+        private Entry(String match, Pattern pattern) {
+            this.match = match;
+            this.pattern = pattern;
+            hasAccount = match.contains(ACCOUNT_PLACEHOLDER);
+            hasClientId = match.contains(CLIENT_ID_PLACEHOLDER);
+        }
+
+        private boolean matches(String address, String accountName, String clientId) {
+            if (pattern == null) {
+                return address.equals(bind(accountName, clientId));
+            }
+            Matcher matcher = pattern.matcher(address);
+            return matcher.matches() &&
+                    (!hasAccount || matcher.group(ACCOUNT_GROUP).equals(accountName)) &&
+                    (!hasClientId || matcher.group(CLIENT_ID_GROUP).equals(clientId));
+        }
+
+        private String bind(String accountName, String clientId) {
+            String bound = match;
+            if (hasAccount) {
+                bound = bound.replace(ACCOUNT_PLACEHOLDER, accountName);
+            }
+            if (hasClientId) {
+                bound = bound.replace(CLIENT_ID_PLACEHOLDER, clientId);
+            }
+            return bound;
+        }
+    }
+}
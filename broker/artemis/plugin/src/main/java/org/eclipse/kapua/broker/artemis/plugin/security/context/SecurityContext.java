@@ -13,6 +13,7 @@
 package org.eclipse.kapua.broker.artemis.plugin.security.context;
 
 import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
 import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.broker.artemis.plugin.security.MetricsSecurityPlugin;
 import org.eclipse.kapua.broker.artemis.plugin.security.RunWithLock;
@@ -68,6 +69,7 @@ public final class SecurityContext {
     private final LocalCache<String, ConnectionToken> connectionTokenCache;
     private final LocalCache<String, SessionContext> sessionContextCache;
     private final LocalCache<String, Acl> aclCache;
+    private final int aclDecisionCacheSize;
     private final MetricsSecurityPlugin metricsSecurityPlugin;
     private final RunWithLock runWithLock;
 
@@ -78,6 +80,8 @@ public final class SecurityContext {
     //by connection id context
     private final Map<String, SessionContext> sessionContextMap;
     private final Map<String, Acl> aclMap;
+    //remoting connections by connection id (kept in sync by the connection create/destroy callbacks) used to find the connections to be disconnected without scanning the whole server
+    private final Map<String, RemotingConnection> connectionMap;
 
     private final boolean printData;
     private ExecutorWrapper executorWrapper;
@@ -88,6 +92,7 @@ public final class SecurityContext {
                            LocalCache<String, ConnectionToken> connectionTokenCache,
                            LocalCache<String, SessionContext> sessionContextCache,
                            LocalCache<String, Acl> aclCache,
+                           int aclDecisionCacheSize,
                            MetricsSecurityPlugin metricsSecurityPlugin,
                            RunWithLock runWithLock) {
         this.loginMetric = loginMetric;
@@ -95,11 +100,13 @@ public final class SecurityContext {
         this.connectionTokenCache = connectionTokenCache;
         this.sessionContextCache = sessionContextCache;
         this.aclCache = aclCache;
+        this.aclDecisionCacheSize = aclDecisionCacheSize;
         this.metricsSecurityPlugin = metricsSecurityPlugin;
         this.runWithLock = runWithLock;
         this.sessionContextMapByClient = new ConcurrentHashMap<>();
         this.sessionContextMap = new ConcurrentHashMap<>();
         this.aclMap = new ConcurrentHashMap<>();
+        this.connectionMap = new ConcurrentHashMap<>();
     }
 
     public void init(ActiveMQServer server) {
@@ -139,7 +146,7 @@ public final class SecurityContext {
                 activeConnections.add(connectionId);
                 //fill by connection id context
                 sessionContextMap.put(connectionId, sessionContext);
-                aclMap.put(connectionId, new Acl(loginMetric, sessionContext.getPrincipal(), authAcls));
+                aclMap.put(connectionId, new Acl(loginMetric, sessionContext.getPrincipal(), sessionContext.getAccountName(), authAcls, aclDecisionCacheSize));
                 //fill by full client id context
                 sessionContextMapByClient.put(Utils.getFullClientId(sessionContext), sessionContext);
                 return true;
@@ -209,6 +216,30 @@ public final class SecurityContext {
         });
     }
 
+    public void addConnection(String connectionId, RemotingConnection remotingConnection) {
+        connectionMap.put(connectionId, remotingConnection);
+    }
+
+    public void removeConnection(String connectionId, RemotingConnection remotingConnection) {
+        //remove only if still mapped to the same connection
+        connectionMap.remove(connectionId, remotingConnection);
+    }
+
+    public RemotingConnection getConnection(String connectionId) {
+        return connectionMap.get(connectionId);
+    }
+
+    /**
+     * Get the remoting connection currently bound to the full client id (if any)
+     *
+     * @param fullClientId
+     * @return
+     */
+    public RemotingConnection getConnectionByClientId(String fullClientId) {
+        SessionContext sessionContext = sessionContextMapByClient.get(fullClientId);
+        return sessionContext != null ? connectionMap.get(sessionContext.getConnectionId()) : null;
+    }
+
     public SessionContext getSessionContextByClientId(String fullClientId) {
         return sessionContextMapByClient.get(fullClientId);
     }
@@ -325,6 +356,7 @@ public final class SecurityContext {
                 append(" - Connection count: ").append(server.getConnectionCount()).
                 append(" - Broker connections: ").append(server.getBrokerConnections().size()).append("\n");
         builder.append("## session context: ").append(sessionContextMap.size()).append("\n");
+        builder.append("## indexed connections: ").append(connectionMap.size()).append("\n");
         builder.append("## session context by client: ").append(sessionContextMapByClient.size()).append("\n");
         builder.append("## acl: ").append(aclMap.size()).append("\n");
         builder.append("## connection: ").append(activeConnections.size()).append("\n");
@@ -19,7 +19,11 @@ public class BrokerEvent {
 
     public enum EventType {
         disconnectClientByClientId,
-        disconnectClientByConnectionId
+        disconnectClientByConnectionId,
+        /**
+         * Disconnect, in a single pass, all the connections queued for disconnection since the previous event of this type
+         */
+        disconnectClientsByConnectionId
     }
 
     private EventType eventType;
@@ -29,6 +33,10 @@ public class BrokerEvent {
     private String connectionId;
     private String oldConnectionId;
 
+    public BrokerEvent(EventType eventType) {
+        this.eventType = eventType;
+    }
+
     public BrokerEvent(EventType eventType, SessionContext sessionContext, SessionContext oldSessionContext) {
         this.eventType = eventType;
         this.username = sessionContext.getUsername();
@@ -40,6 +40,13 @@ public class LoginMetric {
     private static final String SESSION_CONTEXT_BY_CLIENT_ID = "session_context_by_client_id";
     private static final String ACL_CACHE_HIT = "acl_cache_hit";
     private static final String ACL_CREATION = "acl_creation";
+    private static final String ACL_DECISION_CACHE = "acl_decision_cache";
+    private static final String ADMISSION = "admission";
+    private static final String ADMISSION_ACCOUNT = "admission_account";
+    private static final String REJECTED = "rejected";
+    private static final String IN_PROGRESS = "in_progress";
+    private static final String HIT = "hit";
+    private static final String MISS = "miss";
     private static final String DISCONNECT_BY_EVENT = DISCONNECT + "_by_event";
     private static final String ADD_CONNECTION = "add_connection";
     private static final String REMOVE_CONNECTION = "remove_connection";
@@ -55,6 +62,12 @@ public class LoginMetric {
     private final Counter sessionContextByClientIdFailure;//no session context is found by client id on disconnect on cleanupConnectionData (disconnect)
     private final Counter aclCacheHit;//acl found from cache (it happens when a client id disconnected but some address related to this client id deleted after)
     private final Counter aclCreationFailure;//error while creating acl
+    private final Counter aclDecisionCacheHit;//acl decision found in the connection decision cache
+    private final Counter aclDecisionCacheMiss;//acl decision evaluated against the acl wildcard matching
+
+    private final Counter admissionRejected;//connection attempts rejected by the broker admission control
+    private final Counter admissionAccountRejected;//connection attempts rejected by the account share of the broker admission control
+    private final Counter admissionInProgress;//admitted connection attempts waiting for the authentication to complete
 
     private final Counter invalidUserPassword;
     private final Counter disconnectByEvent;
@@ -78,6 +91,11 @@ public class LoginMetric {
         sessionContextByClientIdFailure = metricsService.getCounter(metricModuleName, COMPONENT_LOGIN, SESSION_CONTEXT_BY_CLIENT_ID, MetricsLabel.FAILURE);
         aclCacheHit = metricsService.getCounter(metricModuleName, COMPONENT_LOGIN, ACL_CACHE_HIT);
         aclCreationFailure = metricsService.getCounter(metricModuleName, COMPONENT_LOGIN, ACL_CREATION, MetricsLabel.FAILURE);
+        aclDecisionCacheHit = metricsService.getCounter(metricModuleName, COMPONENT_LOGIN, ACL_DECISION_CACHE, HIT);
+        aclDecisionCacheMiss = metricsService.getCounter(metricModuleName, COMPONENT_LOGIN, ACL_DECISION_CACHE, MISS);
+        admissionRejected = metricsService.getCounter(metricModuleName, COMPONENT_LOGIN, ADMISSION, REJECTED);
+        admissionAccountRejected = metricsService.getCounter(metricModuleName, COMPONENT_LOGIN, ADMISSION_ACCOUNT, REJECTED);
+        admissionInProgress = metricsService.getCounter(metricModuleName, COMPONENT_LOGIN, ADMISSION, IN_PROGRESS);
 
         invalidUserPassword = metricsService.getCounter(metricModuleName, COMPONENT_LOGIN, PASSWORD, MetricsLabel.FAILURE);
         disconnectByEvent = metricsService.getCounter(metricModuleName, COMPONENT_LOGIN, DISCONNECT_BY_EVENT, DISCONNECT);
@@ -160,6 +178,24 @@ public class LoginMetric {
         return aclCreationFailure;
     }
 
+    /**
+     * ACL decision (address and check type) found in the decision cache of the connection
+     *
+     * @return
+     */
+    public Counter getAclDecisionCacheHit() {
+        return aclDecisionCacheHit;
+    }
+
+    /**
+     * ACL decision (address and check type) not found in the decision cache of the connection, so evaluated with the ACL wildcard matching
+     *
+     * @return
+     */
+    public Counter getAclDecisionCacheMiss() {
+        return aclDecisionCacheMiss;
+    }
+
     /**
      * External connector - Add connection total time
      *
@@ -178,4 +214,31 @@ public class LoginMetric {
         return removeConnection;
     }
 
+    /**
+     * Connection attempts rejected by the broker admission control (broker rate exceeded)
+     *
+     * @return
+     */
+    public Counter getAdmissionRejected() {
+        return admissionRejected;
+    }
+
+    /**
+     * Connection attempts rejected by the broker admission control (account share of the broker rate exceeded)
+     *
+     * @return
+     */
+    public Counter getAdmissionAccountRejected() {
+        return admissionAccountRejected;
+    }
+
+    /**
+     * Admitted connection attempts waiting for the authentication to complete
+     *
+     * @return
+     */
+    public Counter getAdmissionInProgress() {
+        return admissionInProgress;
+    }
+
 }
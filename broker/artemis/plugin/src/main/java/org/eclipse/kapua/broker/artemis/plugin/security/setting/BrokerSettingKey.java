@@ -77,7 +77,39 @@ public enum BrokerSettingKey implements SettingKey {
     /**
      * Scope id cache ttl (in seconds)
      */
-    CACHE_SCOPE_ID_TTL("broker.cache.scope_id.ttl");
+    CACHE_SCOPE_ID_TTL("broker.cache.scope_id.ttl"),
+    /**
+     * Maximum number of ACL decisions (address and check type) cached for each connection (0 disables the cache)
+     */
+    CACHE_ACL_DECISION_SIZE("broker.cache.acl_decision.size"),
+    /**
+     * Maximum number of authentication service requests waiting for a response (further requests are rejected)
+     */
+    AUTH_CLIENT_MAX_IN_FLIGHT_REQUESTS("broker.auth_client.max_in_flight_requests"),
+    /**
+     * Time (in milliseconds) suggested to the rejected clients before retrying the connection
+     */
+    AUTH_CLIENT_RETRY_AFTER("broker.auth_client.retry_after"),
+    /**
+     * External connection attempts per second admitted by the broker (0 disables the admission control)
+     */
+    ADMISSION_RATE("broker.admission.rate"),
+    /**
+     * External connection attempts admitted at once by the broker
+     */
+    ADMISSION_BURST("broker.admission.burst"),
+    /**
+     * Share (0..1] of the admission rate and burst granted to a single account while the broker is under pressure
+     */
+    ADMISSION_ACCOUNT_SHARE("broker.admission.account_share"),
+    /**
+     * Max number of accounts tracked by the admission control
+     */
+    ADMISSION_ACCOUNT_CACHE_SIZE("broker.admission.account_cache.size"),
+    /**
+     * Account tracking ttl (in seconds)
+     */
+    ADMISSION_ACCOUNT_CACHE_TTL("broker.admission.account_cache.ttl");
 
     private String key;
 
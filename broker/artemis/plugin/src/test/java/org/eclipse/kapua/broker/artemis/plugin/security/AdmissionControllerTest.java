@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.artemis.plugin.security;
+
+import com.codahale.metrics.MetricRegistry;
+import org.eclipse.kapua.broker.artemis.plugin.security.metric.LoginMetric;
+import org.eclipse.kapua.commons.metric.MetricsServiceImpl;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Category(JUnitTests.class)
+public class AdmissionControllerTest {
+
+    private final AtomicLong now = new AtomicLong(123_456_789L);
+    private LoginMetric loginMetric;
+
+    @Before
+    public void setUp() {
+        loginMetric = new LoginMetric(new MetricsServiceImpl(new MetricRegistry()), "test");
+    }
+
+    @Test
+    public void admitEverythingWhenDisabledTest() {
+        AdmissionController admissionController = newAdmissionController(0, 1, 1);
+
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(admissionController.admit("user"));
+        }
+        Assert.assertEquals(0, loginMetric.getAdmissionRejected().getCount());
+        Assert.assertEquals(0, loginMetric.getAdmissionInProgress().getCount());
+    }
+
+    @Test
+    public void rejectAttemptsOverTheBrokerBurstTest() {
+        AdmissionController admissionController = newAdmissionController(10, 10, 1);
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(admissionController.admit("user-" + i));
+        }
+        Assert.assertFalse(admissionController.admit("user-10"));
+        Assert.assertEquals(1, loginMetric.getAdmissionRejected().getCount());
+        Assert.assertEquals(10, loginMetric.getAdmissionInProgress().getCount());
+
+        admissionController.release();
+        Assert.assertEquals(9, loginMetric.getAdmissionInProgress().getCount());
+    }
+
+    @Test
+    public void refillTheBrokerBucketAtTheConfiguredRateTest() {
+        AdmissionController admissionController = newAdmissionController(10, 10, 1);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(admissionController.admit("user-" + i));
+        }
+
+        // 10 attempts per second: a token every 100ms
+        advance(99);
+        Assert.assertFalse(admissionController.admit("user"));
+        advance(1);
+        Assert.assertTrue(admissionController.admit("user"));
+        Assert.assertFalse(admissionController.admit("user"));
+
+        // The bucket never holds more than the burst
+        advance(60_000);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(admissionController.admit("user-" + i));
+        }
+        Assert.assertFalse(admissionController.admit("user"));
+    }
+
+    @Test
+    public void limitAccountsToTheirShareUnderPressureTest() {
+        // Under pressure below 5 tokens, 2 attempts per account
+        AdmissionController admissionController = newAdmissionController(100, 10, 0.2);
+
+        // No pressure: a single account can take half of the burst
+        for (int i = 0; i < 6; i++) {
+            Assert.assertTrue(admissionController.admit("account-a"));
+        }
+
+        Assert.assertTrue(admissionController.admit("account-a"));
+        Assert.assertTrue(admissionController.admit("account-a"));
+        Assert.assertFalse(admissionController.admit("account-a"));
+        Assert.assertEquals(1, loginMetric.getAdmissionAccountRejected().getCount());
+
+        // The other accounts still get their share
+        Assert.assertTrue(admissionController.admit("account-b"));
+        Assert.assertTrue(admissionController.admit("account-b"));
+        Assert.assertEquals(1, loginMetric.getAdmissionAccountRejected().getCount());
+        Assert.assertEquals(0, loginMetric.getAdmissionRejected().getCount());
+    }
+
+    @Test
+    public void refundTheAccountShareWhenTheBrokerRejectsTest() {
+        AdmissionController admissionController = newAdmissionController(100, 10, 0.2);
+        for (int i = 0; i < 6; i++) {
+            Assert.assertTrue(admissionController.admit("account-a"));
+        }
+        Assert.assertTrue(admissionController.admit("account-b"));
+        Assert.assertTrue(admissionController.admit("account-b"));
+        Assert.assertTrue(admissionController.admit("account-c"));
+        Assert.assertTrue(admissionController.admit("account-c"));
+
+        // The broker bucket is empty: the attempts of account-d are rejected by the broker, and must not consume its share
+        for (int i = 0; i < 5; i++) {
+            Assert.assertFalse(admissionController.admit("account-d"));
+        }
+        Assert.assertEquals(5, loginMetric.getAdmissionRejected().getCount());
+        Assert.assertEquals(0, loginMetric.getAdmissionAccountRejected().getCount());
+
+        // 2 broker tokens are refilled in 20ms, and account-d has still its whole share
+        advance(20);
+        Assert.assertTrue(admissionController.admit("account-d"));
+        Assert.assertTrue(admissionController.admit("account-d"));
+    }
+
+    @Test
+    public void treatNullUsernameAsAnAccountTest() {
+        AdmissionController admissionController = newAdmissionController(100, 10, 0.2);
+        for (int i = 0; i < 6; i++) {
+            Assert.assertTrue(admissionController.admit("account-a"));
+        }
+
+        Assert.assertTrue(admissionController.admit(null));
+        Assert.assertTrue(admissionController.admit(null));
+        Assert.assertFalse(admissionController.admit(null));
+    }
+
+    private AdmissionController newAdmissionController(int rate, int burst, double accountShare) {
+        return new AdmissionController(loginMetric, rate, burst, accountShare, 100, 60, now::get);
+    }
+
+    private void advance(long millis) {
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
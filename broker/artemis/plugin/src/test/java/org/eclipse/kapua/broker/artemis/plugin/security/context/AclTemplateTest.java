@@ -0,0 +1,292 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.artemis.plugin.security.context;
+
+import org.apache.activemq.artemis.core.config.WildcardConfiguration;
+import org.apache.activemq.artemis.core.settings.HierarchicalRepository;
+import org.apache.activemq.artemis.core.settings.impl.HierarchicalObjectRepository;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the decisions of the {@link AclTemplate} with the ones of the Artemis {@link HierarchicalObjectRepository}
+ * the {@link Acl} used to build for each connection, with the account name, the client id and the username bound in the matches.
+ * <p>
+ * The repository compiles the bound account name and client id into its regular expressions, while the template compares them as they are:
+ * for identifiers containing regular expression metacharacters the repository is given the same matches and addresses with the identifiers renamed.
+ */
+@Category(JUnitTests.class)
+public class AclTemplateTest {
+
+    private static final WildcardConfiguration WILDCARD_CONFIGURATION = new WildcardConfiguration();
+
+    static {
+        WILDCARD_CONFIGURATION.setSingleWord('+');
+        WILDCARD_CONFIGURATION.setAnyWords('#');
+        WILDCARD_CONFIGURATION.setDelimiter('/');
+    }
+
+    private static final Pattern PLAIN_IDENTIFIER = Pattern.compile("[a-zA-Z0-9_\\-. :]*");
+
+    //the ACLs given to the devices and to the admins by the authentication service
+    private static final List<String> KAPUA_ACL_FORMATS = Arrays.asList(
+            "\\$EDC/{accountName}/#",
+            "\\$EDC/{accountName}/{clientId}/#",
+            "\\$EDC/{accountName}/{clientId}/MQTT/#",
+            "\\$EDC/{accountName}/+/+/REPLY/#",
+            "\\$EDC/{accountName}/+/+/NOTIFY/{clientId}/#",
+            "{accountName}/#",
+            "{accountName}/{clientId}/#",
+            "\\$EDC/#",
+            "#");
+
+    private static final List<String> ACL_FORMATS = new ArrayList<>(KAPUA_ACL_FORMATS);
+
+    static {
+        ACL_FORMATS.addAll(Arrays.asList(
+                "{accountName}/{username}/+/CONF-V1/#",
+                "{clientId}/{clientId}/+",
+                "{accountName}/{clientId}/{accountName}/#",
+                "{accountName}/+",
+                "{accountName}/{clientId}",
+                "\\$EDC/{accountName}/+/CONF-V1/REPLY/{clientId}"));
+    }
+
+    private static final List<String> FIXED_WORDS = Arrays.asList("$EDC", "\\$EDC", "CONF-V1", "REPLY", "x", "+", "#", "");
+
+    @Test
+    public void wildcardsTest() {
+        assertSameDecisions(
+                Arrays.asList("a/#", "b/+/c", "d/+", "e/f", "+/g/#", "#"),
+                new String[] {"acme", "device-1", "user"},
+                Arrays.asList("a", "a/", "a/b", "a/b/c", "b/x/c", "b/x/y/c", "b//c", "d", "d/", "d/x", "d/x/y", "e/f", "e/f/g", "e", "x/g", "x/g/y", "g",
+                        "a/#", "b/+/c", "d/+", "+/g/#", "#", "+", "", "/", "//"));
+
+        assertSameDecisions(
+                Arrays.asList("a/#", "b/+/c", "d/+", "e/f", "+/g/#", "\\$EDC/#", "$x/+"),
+                new String[] {"acme", "device-1", "user"},
+                Arrays.asList("a", "a/b", "b/x/c", "b/x/y/c", "d/x", "d/x/y", "e/f", "e/f/g", "x/g", "x/g/y", "g", "h", "#", "+", "+/+", "a/+", "b/#",
+                        "$EDC/a", "\\$EDC/a", "$x/a", "x/a"));
+    }
+
+    @Test
+    public void placeholdersTest() {
+        for (String[] identifiers : new String[][] {
+                {"acme", "device-1", "user"},
+                {"acme", "acme", "user"},
+                {"acme", "device-1", "acme"},
+                {"acme", "device-1", "device-1"},
+                {"acme", "CONF-V1", "user"},
+                {"REPLY", "MQTT", "user"},
+                {"acme", "x", "user"}}) {
+            assertSameDecisions(bind(ACL_FORMATS, identifiers), identifiers, addresses(identifiers, "kapua-sys", "other-device"));
+        }
+    }
+
+    @Test
+    public void specialCharactersTest() {
+        for (String identifier : Arrays.asList("dev.1", "dev:1", "dev 1", "dev*1", "dev.*", "a(b)", "a[b]", "a{1}", "a|b", "^a$", "a\\b", "\\Qa\\E", "$1", "*", ".*",
+                "dev#1", "dev+1", "#", "+", "a/b")) {
+            String[] identifiers = {"acme", identifier, "user"};
+            assertSameDecisions(bind(ACL_FORMATS, identifiers), identifiers, addresses(identifiers, "kapua-sys", "dev-1"));
+
+            identifiers = new String[] {identifier, "device-1", "user"};
+            assertSameDecisions(bind(ACL_FORMATS, identifiers), identifiers, addresses(identifiers, "kapua-sys", "dev-1"));
+        }
+    }
+
+    @Test
+    public void regularExpressionClientIdTest() {
+        String[] identifiers = {"acme", "dev|x", "user"};
+        List<String> matches = bind(KAPUA_ACL_FORMATS.subList(6, 7), identifiers);
+        AclTemplate template = build(matches, identifiers);
+
+        Assert.assertTrue(template.matchesRead("acme/dev|x/data", "acme", "dev|x"));
+        Assert.assertNotNull("The repository compiles the client id as a regular expression", reference(matches).getMatch("x/data"));
+        Assert.assertFalse("The client id must be compared as it is", template.matchesRead("x/data", "acme", "dev|x"));
+    }
+
+    @Test
+    public void crossAccountTest() {
+        String[] first = {"acme", "device-1", "user-1"};
+        String[] second = {"globex", "device-2", "user-2"};
+        //the ACLs of a device without any permission
+        List<String> deviceAclFormats = Arrays.asList(KAPUA_ACL_FORMATS.get(1), KAPUA_ACL_FORMATS.get(3), KAPUA_ACL_FORMATS.get(4), KAPUA_ACL_FORMATS.get(6));
+        AclTemplate firstTemplate = build(bind(deviceAclFormats, first), first);
+        AclTemplate secondTemplate = build(bind(deviceAclFormats, second), second);
+        Assert.assertSame("The connections with the same ACLs must share the template", firstTemplate, secondTemplate);
+
+        List<String> addresses = addresses(first, second[0], second[1]);
+        addresses.addAll(addresses(second, first[0], first[1]));
+        assertSameDecisions(secondTemplate, bind(deviceAclFormats, first), first, addresses);
+        assertSameDecisions(firstTemplate, bind(deviceAclFormats, second), second, addresses);
+
+        Assert.assertTrue(firstTemplate.matchesRead("acme/device-1/data", "acme", "device-1"));
+        Assert.assertFalse("The account of another connection must not be granted", firstTemplate.matchesRead("acme/device-1/data", "globex", "device-1"));
+        Assert.assertFalse("The client id of another connection must not be granted", firstTemplate.matchesRead("acme/device-1/data", "acme", "device-2"));
+        Assert.assertFalse("The account of another connection must not be granted", firstTemplate.matchesRead("$EDC/globex/device-1/MQTT/BIRTH", "acme", "device-1"));
+        Assert.assertFalse("The account of another connection must not be granted", firstTemplate.matchesRead("$EDC/globex/x/x/NOTIFY/device-1/y", "acme", "device-1"));
+    }
+
+    @Test
+    public void randomTest() {
+        Random random = new Random(42L);
+        String[][] bindings = {
+                {"acme", "device-1", "user-1"},
+                {"acme", "acme", "user-1"},
+                {"acme", "device-1", "acme"},
+                {"acme", "dev.1", "user-1"},
+                {"acme", "dev(1)", "user-1"},
+                {"acme", "dev|x", "x"},
+                {"acme", "#x", "user-1"},
+                {"acme", "+", "user-1"}};
+        for (int i = 0; i < 2000; i++) {
+            String[] identifiers = bindings[random.nextInt(bindings.length)];
+            List<String> words = new ArrayList<>(FIXED_WORDS);
+            words.addAll(Arrays.asList(identifiers));
+            words.addAll(Arrays.asList("kapua-sys", "device-2"));
+
+            List<String> matches = new ArrayList<>();
+            for (int m = random.nextInt(4) + 1; m > 0; m--) {
+                matches.add(randomPath(random, words));
+            }
+            List<String> addresses = new ArrayList<>();
+            for (int a = 0; a < 50; a++) {
+                addresses.add(randomPath(random, words));
+            }
+            assertSameDecisions(matches, identifiers, addresses);
+        }
+    }
+
+    private static String randomPath(Random random, List<String> words) {
+        StringBuilder path = new StringBuilder(words.get(random.nextInt(words.size())));
+        for (int w = random.nextInt(5); w > 0; w--) {
+            path.append('/').append(words.get(random.nextInt(words.size())));
+        }
+        return path.toString();
+    }
+
+    private static List<String> bind(List<String> formats, String[] identifiers) {
+        List<String> matches = new ArrayList<>(formats.size());
+        for (String format : formats) {
+            matches.add(format.replace("{accountName}", identifiers[0]).replace("{clientId}", identifiers[1]).replace("{username}", identifiers[2]));
+        }
+        return matches;
+    }
+
+    /**
+     * The addresses granted by the ACLs bound to the given identifiers, and the same addresses bound to the other account and client id.
+     */
+    private static List<String> addresses(String[] identifiers, String otherAccount, String otherClientId) {
+        List<String> addresses = new ArrayList<>();
+        for (String match : bind(ACL_FORMATS, identifiers)) {
+            for (String suffix : Arrays.asList("", "/x", "/x/y")) {
+                String address = match.replace("\\$", "$").replace("/#", "/data").replace("+", "any") + suffix;
+                addresses.add(address);
+                addresses.add(address.replace(identifiers[0], otherAccount));
+                addresses.add(address.replace(identifiers[1], otherClientId));
+                addresses.add(match + suffix);
+            }
+        }
+        return addresses;
+    }
+
+    private static void assertSameDecisions(List<String> matches, String[] identifiers, List<String> addresses) {
+        assertSameDecisions(build(matches, identifiers), matches, identifiers, addresses);
+    }
+
+    private static void assertSameDecisions(AclTemplate template, List<String> matches, String[] identifiers, List<String> addresses) {
+        Map<String, String> renames = renames(identifiers);
+        HierarchicalRepository<Boolean> reference = reference(rename(matches, renames));
+        for (String address : addresses) {
+            Assert.assertEquals(String.format("Address '%s' with matches %s bound to account '%s' and client id '%s'", address, matches, identifiers[0], identifiers[1]),
+                    reference.getMatch(rename(address, renames)) != null,
+                    template.matchesRead(address, identifiers[0], identifiers[1]));
+        }
+    }
+
+    private static AclTemplate build(List<String> matches, String[] identifiers) {
+        AclTemplate.Builder builder = new AclTemplate.Builder(WILDCARD_CONFIGURATION, identifiers[0], identifiers[1]);
+        for (String match : matches) {
+            try {
+                builder.verify(match);
+            } catch (IllegalArgumentException e) {
+                //skipped by the Acl
+                continue;
+            }
+            builder.addRead(match);
+        }
+        return builder.build();
+    }
+
+    private static HierarchicalRepository<Boolean> reference(List<String> matches) {
+        HierarchicalRepository<Boolean> reference = new HierarchicalObjectRepository<>(WILDCARD_CONFIGURATION);
+        reference.setDefault(null);
+        for (String match : matches) {
+            try {
+                reference.addMatch(match, Boolean.TRUE);
+            } catch (IllegalArgumentException e) {
+                //skipped by the Acl
+            }
+        }
+        return reference;
+    }
+
+    /**
+     * The account name and the client id which are bound to placeholders, and contain regular expression metacharacters,
+     * are renamed in the words given to the repository, so that it matches them as they are like the template does.
+     */
+    private static Map<String, String> renames(String[] identifiers) {
+        Map<String, String> renames = new HashMap<>();
+        if (isRenamed(identifiers[0])) {
+            renames.put(identifiers[0], "renamed-account");
+        }
+        if (isRenamed(identifiers[1])) {
+            renames.putIfAbsent(identifiers[1], "renamed-client");
+        }
+        return renames;
+    }
+
+    private static boolean isRenamed(String identifier) {
+        return !PLAIN_IDENTIFIER.matcher(identifier).matches() && !identifier.contains("/") && !identifier.contains("#") && !identifier.contains("+");
+    }
+
+    private static List<String> rename(List<String> paths, Map<String, String> renames) {
+        List<String> renamed = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            renamed.add(rename(path, renames));
+        }
+        return renamed;
+    }
+
+    private static String rename(String path, Map<String, String> renames) {
+        if (renames.isEmpty()) {
+            return path;
+        }
+        String[] words = path.split("/", -1);
+        for (int i = 0; i < words.length; i++) {
+            words[i] = renames.getOrDefault(words[i], words[i]);
+        }
+        return String.join("/", words);
+    }
+}
@@ -29,6 +29,11 @@ public enum AuthErrorCodes implements KapuaErrorCode {
     /**
      * An unexpected device status was detected
      */
-    UNEXPECTED_STATUS
+    UNEXPECTED_STATUS,
+
+    /**
+     * Too many requests waiting for the authentication service response
+     */
+    SERVICE_OVERLOADED
 
 }
@@ -98,10 +98,7 @@ public class KapuaMessageListener extends ClientMessageListener implements Close
             logger.error("Cannot find request container for requestId {}", response.getRequestId());
             metrics.getLoginCallbackTimeout().inc();
         } else {
-            synchronized (responseContainer) {
-                responseContainer.setResponse(response);
-                responseContainer.notify();
-            }
+            responseContainer.setResponse(response);
         }
     }
 
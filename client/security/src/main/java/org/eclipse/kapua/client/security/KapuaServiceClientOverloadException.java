@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.client.security;
+
+import org.eclipse.kapua.KapuaRuntimeException;
+
+/**
+ * Thrown when a request is rejected since too many requests are already waiting for the authentication service response.
+ *
+ * @since 2.1.0
+ */
+public class KapuaServiceClientOverloadException extends KapuaRuntimeException {
+
+    private static final long serialVersionUID = -2911725390214735581L;
+
+    private final long retryAfter;
+
+    /**
+     * Constructor.
+     *
+     * @param inFlightRequests The number of requests waiting for a response.
+     * @param retryAfter       The suggested time (in milliseconds) to wait before retrying.
+     * @since 2.1.0
+     */
+    public KapuaServiceClientOverloadException(int inFlightRequests, long retryAfter) {
+        super(AuthErrorCodes.SERVICE_OVERLOADED, inFlightRequests, retryAfter);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Gets the suggested time (in milliseconds) to wait before retrying.
+     *
+     * @return The suggested time (in milliseconds) to wait before retrying.
+     * @since 2.1.0
+     */
+    public long getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -13,6 +13,7 @@
 package org.eclipse.kapua.client.security;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
 import org.eclipse.kapua.commons.metric.MetricsLabel;
 import org.eclipse.kapua.commons.metric.MetricsService;
 
@@ -24,8 +25,16 @@ import javax.inject.Singleton;
 public class MetricsClientSecurity {
 
     private static final String CALLBACK = "callback";
+    private static final String REQUEST = "request";
+    private static final String REJECTED = "rejected";
+    private static final String COALESCED = "coalesced";
     private Counter loginCallbackError;
     private Counter loginCallbackTimeout;
+    private Counter requestRejected;
+    private Counter requestCoalesced;
+    private Histogram brokerConnectTime;
+    private Histogram brokerDisconnectTime;
+    private Histogram getEntityTime;
 
     @Inject
     public MetricsClientSecurity(MetricsService metricsService,
@@ -33,6 +42,11 @@ public class MetricsClientSecurity {
                                  String metricModuleName) {
         loginCallbackError = metricsService.getCounter(metricModuleName, CALLBACK, MetricsLabel.ERROR);
         loginCallbackTimeout = metricsService.getCounter(metricModuleName, CALLBACK, MetricsLabel.TIMEOUT);
+        requestRejected = metricsService.getCounter(metricModuleName, REQUEST, REJECTED);
+        requestCoalesced = metricsService.getCounter(metricModuleName, REQUEST, COALESCED);
+        brokerConnectTime = metricsService.getHistogram(metricModuleName, REQUEST, "broker_connect", MetricsLabel.TIME, MetricsLabel.MILLI_SECONDS);
+        brokerDisconnectTime = metricsService.getHistogram(metricModuleName, REQUEST, "broker_disconnect", MetricsLabel.TIME, MetricsLabel.MILLI_SECONDS);
+        getEntityTime = metricsService.getHistogram(metricModuleName, REQUEST, "get_entity", MetricsLabel.TIME, MetricsLabel.MILLI_SECONDS);
     }
 
     public Counter getLoginCallbackError() {
@@ -43,4 +57,49 @@ public class MetricsClientSecurity {
         return loginCallbackTimeout;
     }
 
+    /**
+     * Requests rejected since too many requests were waiting for a response
+     *
+     * @return
+     */
+    public Counter getRequestRejected() {
+        return requestRejected;
+    }
+
+    /**
+     * Entity requests served by an already in flight request for the same entity
+     *
+     * @return
+     */
+    public Counter getRequestCoalesced() {
+        return requestCoalesced;
+    }
+
+    /**
+     * Broker connect response time (ms)
+     *
+     * @return
+     */
+    public Histogram getBrokerConnectTime() {
+        return brokerConnectTime;
+    }
+
+    /**
+     * Broker disconnect response time (ms)
+     *
+     * @return
+     */
+    public Histogram getBrokerDisconnectTime() {
+        return brokerDisconnectTime;
+    }
+
+    /**
+     * Get entity response time (ms)
+     *
+     * @return
+     */
+    public Histogram getGetEntityTime() {
+        return getEntityTime;
+    }
+
 }
\ No newline at end of file
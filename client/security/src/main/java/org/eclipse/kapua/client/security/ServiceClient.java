@@ -12,6 +12,8 @@
  *******************************************************************************/
 package org.eclipse.kapua.client.security;
 
+import java.util.concurrent.CompletableFuture;
+
 import javax.jms.JMSException;
 
 import org.eclipse.kapua.client.security.bean.EntityRequest;
@@ -73,4 +75,34 @@ public interface ServiceClient {
      */
     public EntityResponse getEntity(EntityRequest entityRequest) throws JMSException, InterruptedException, JsonProcessingException;
 
+    /**
+     * Broker connect logic without waiting for the response.<br>
+     * The returned future completes with a null response if no response is received within the request timeout
+     * and fails with {@link KapuaServiceClientOverloadException} if too many requests are waiting for a response.
+     * @param authRequest
+     * @return
+     * @since 2.1.0
+     */
+    public CompletableFuture<AuthResponse> brokerConnectAsync(AuthRequest authRequest);
+
+    /**
+     * Broker disconnect logic without waiting for the response.<br>
+     * The returned future completes with a null response if no response is received within the request timeout
+     * and fails with {@link KapuaServiceClientOverloadException} if too many requests are waiting for a response.
+     * @param authRequest
+     * @return
+     * @since 2.1.0
+     */
+    public CompletableFuture<AuthResponse> brokerDisconnectAsync(AuthRequest authRequest);
+
+    /**
+     * Get entity logic without waiting for the response. Concurrent requests for the same entity share the same response.<br>
+     * The returned future completes with a null response if no response is received within the request timeout
+     * and fails with {@link KapuaServiceClientOverloadException} if too many requests are waiting for a response.
+     * @param entityRequest
+     * @return
+     * @since 2.1.0
+     */
+    public CompletableFuture<EntityResponse> getEntityAsync(EntityRequest entityRequest);
+
 }
@@ -12,22 +12,41 @@
  *******************************************************************************/
 package org.eclipse.kapua.client.security;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
 import javax.jms.JMSException;
+import javax.jms.TextMessage;
 
+import org.eclipse.kapua.KapuaErrorCodes;
+import org.eclipse.kapua.KapuaRuntimeException;
 import org.eclipse.kapua.client.security.amqpclient.Client;
 import org.eclipse.kapua.client.security.bean.AuthRequest;
 import org.eclipse.kapua.client.security.bean.AuthResponse;
 import org.eclipse.kapua.client.security.bean.EntityRequest;
 import org.eclipse.kapua.client.security.bean.EntityResponse;
 import org.eclipse.kapua.client.security.bean.Request;
+import org.eclipse.kapua.client.security.bean.Response;
 import org.eclipse.kapua.client.security.bean.ResponseContainer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Histogram;
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 /**
- * Security service. Implementation through AMQP messaging layer.
+ * Security service. Implementation through AMQP messaging layer.<br>
+ * Requests are pipelined on the messaging layer: the responses are correlated by the {@link KapuaMessageListener} and complete the request futures,
+ * so no thread is blocked waiting for a response unless the synchronous methods are used.
+ * The number of requests waiting for a response is bounded: once the limit is reached new requests are rejected with a {@link KapuaServiceClientOverloadException}.
  */
 public class ServiceClientMessagingImpl implements ServiceClient {
 
@@ -35,61 +54,186 @@ public class ServiceClientMessagingImpl implements ServiceClient {
 
     private static final int TIMEOUT = 5000;
     private final KapuaMessageListener messageListener;
+    private final MetricsClientSecurity metrics;
+    private final int maxInFlightRequests;
+    private final long retryAfter;
+    private final long requestTimeout;
+    private final Semaphore inFlightRequests;
+    //in flight entity requests by the request fields (see getEntityRequestKey)
+    private final ConcurrentMap<List<String>, CompletableFuture<EntityResponse>> inFlightEntityRequests = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor timeoutExecutor;
 
     private Client client;
 
-    public ServiceClientMessagingImpl(KapuaMessageListener messageListener, Client client) {
+    /**
+     * Constructor.
+     *
+     * @param messageListener     the listener correlating the responses to the requests
+     * @param client              the messaging client
+     * @param metrics             the client metrics
+     * @param maxInFlightRequests max number of requests waiting for a response
+     * @param retryAfter          time (ms) suggested to the rejected requesters before retrying
+     */
+    public ServiceClientMessagingImpl(KapuaMessageListener messageListener, Client client, MetricsClientSecurity metrics, int maxInFlightRequests, long retryAfter) {
+        this(messageListener, client, metrics, maxInFlightRequests, retryAfter, TIMEOUT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param messageListener     the listener correlating the responses to the requests
+     * @param client              the messaging client
+     * @param metrics             the client metrics
+     * @param maxInFlightRequests max number of requests waiting for a response
+     * @param retryAfter          time (ms) suggested to the rejected requesters before retrying
+     * @param requestTimeout      time (ms) after which a request not answered completes with a null response
+     */
+    public ServiceClientMessagingImpl(KapuaMessageListener messageListener, Client client, MetricsClientSecurity metrics, int maxInFlightRequests, long retryAfter, long requestTimeout) {
         this.messageListener = messageListener;
         this.client = client;
+        this.metrics = metrics;
+        this.maxInFlightRequests = maxInFlightRequests;
+        this.retryAfter = retryAfter;
+        this.requestTimeout = requestTimeout;
+        inFlightRequests = new Semaphore(maxInFlightRequests);
+        timeoutExecutor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "auth-service-client-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        //expired timeouts of the answered requests shouldn't fill the queue
+        timeoutExecutor.setRemoveOnCancelPolicy(true);
     }
 
     @Override
     public AuthResponse brokerConnect(AuthRequest authRequest)
             throws InterruptedException, JMSException, JsonProcessingException {//TODO review exception when Kapua code will be linked (throw KapuaException)
-        String requestId = MessageHelper.getNewRequestId();
-        authRequest.setRequestId(requestId);
-        authRequest.setAction(SecurityAction.brokerConnect.name());
-        ResponseContainer<AuthResponse> responseContainer = ResponseContainer.createAnRegisterNewMessageContainer(messageListener, authRequest);
-        logRequest(authRequest);
-        client.sendMessage(MessageHelper.getBrokerConnectMessage(client.createTextMessage(), authRequest));
-        synchronized (responseContainer) {
-            responseContainer.wait(TIMEOUT);
-        }
-        messageListener.removeCallback(requestId);
-        return responseContainer.getResponse();
+        return waitForResponse(brokerConnectAsync(authRequest));
     }
 
     @Override
     public AuthResponse brokerDisconnect(AuthRequest authRequest) throws JMSException, InterruptedException, JsonProcessingException {
-        String requestId = MessageHelper.getNewRequestId();
-        authRequest.setRequestId(requestId);
-        authRequest.setAction(SecurityAction.brokerDisconnect.name());
-        ResponseContainer<AuthResponse> responseContainer = ResponseContainer.createAnRegisterNewMessageContainer(messageListener, authRequest);
-        logRequest(authRequest);
-        client.sendMessage(MessageHelper.getBrokerDisconnectMessage(client.createTextMessage(), authRequest));
-        synchronized (responseContainer) {
-            responseContainer.wait(TIMEOUT);
-        }
-        messageListener.removeCallback(requestId);
-        return responseContainer.getResponse();
+        return waitForResponse(brokerDisconnectAsync(authRequest));
     }
 
     @Override
     public EntityResponse getEntity(EntityRequest entityRequest) throws JMSException, InterruptedException, JsonProcessingException {
-        String requestId = MessageHelper.getNewRequestId();
-        entityRequest.setRequestId(requestId);
-        ResponseContainer<EntityResponse> responseContainer = ResponseContainer.createAnRegisterNewMessageContainer(messageListener, entityRequest);
-        logRequest(entityRequest);
-        client.sendMessage(MessageHelper.getEntityMessage(client.createTextMessage(), entityRequest));
-        synchronized (responseContainer) {
-            responseContainer.wait(TIMEOUT);
+        return waitForResponse(getEntityAsync(entityRequest));
+    }
+
+    @Override
+    public CompletableFuture<AuthResponse> brokerConnectAsync(AuthRequest authRequest) {
+        authRequest.setRequestId(MessageHelper.getNewRequestId());
+        authRequest.setAction(SecurityAction.brokerConnect.name());
+        return sendAsync(authRequest, metrics.getBrokerConnectTime(),
+                textMessage -> MessageHelper.getBrokerConnectMessage(textMessage, authRequest));
+    }
+
+    @Override
+    public CompletableFuture<AuthResponse> brokerDisconnectAsync(AuthRequest authRequest) {
+        authRequest.setRequestId(MessageHelper.getNewRequestId());
+        authRequest.setAction(SecurityAction.brokerDisconnect.name());
+        return sendAsync(authRequest, metrics.getBrokerDisconnectTime(),
+                textMessage -> MessageHelper.getBrokerDisconnectMessage(textMessage, authRequest));
+    }
+
+    @Override
+    public CompletableFuture<EntityResponse> getEntityAsync(EntityRequest entityRequest) {
+        List<String> entityKey = getEntityRequestKey(entityRequest);
+        CompletableFuture<EntityResponse> entityResponse = new CompletableFuture<>();
+        CompletableFuture<EntityResponse> inFlightEntityResponse = inFlightEntityRequests.putIfAbsent(entityKey, entityResponse);
+        if (inFlightEntityResponse != null) {
+            metrics.getRequestCoalesced().inc();
+            return inFlightEntityResponse;
+        }
+        entityRequest.setRequestId(MessageHelper.getNewRequestId());
+        this.<EntityResponse>sendAsync(entityRequest, metrics.getGetEntityTime(),
+                textMessage -> MessageHelper.getEntityMessage(textMessage, entityRequest))
+                .whenComplete((response, error) -> {
+                    //remove before completing so the requests coming after the response will be sent again
+                    inFlightEntityRequests.remove(entityKey, entityResponse);
+                    if (error != null) {
+                        entityResponse.completeExceptionally(error);
+                    } else {
+                        entityResponse.complete(response);
+                    }
+                });
+        return entityResponse;
+    }
+
+    /**
+     * Gets the key of an entity request: two requests with the same key get the same answer, so they can share the same response.
+     * The key is made of every field of the request sent to the service but the request id.
+     *
+     * @param entityRequest the entity request
+     * @return the key of the entity request
+     */
+    private static List<String> getEntityRequestKey(EntityRequest entityRequest) {
+        return Arrays.asList(
+                entityRequest.getEntity(),
+                entityRequest.getName(),
+                entityRequest.getAction(),
+                entityRequest.getRequester(),
+                entityRequest.getClusterName());
+    }
+
+    private <R extends Response> CompletableFuture<R> sendAsync(Request request, Histogram responseTime, RequestMessageBuilder messageBuilder) {
+        if (!inFlightRequests.tryAcquire()) {
+            metrics.getRequestRejected().inc();
+            logger.warn("Request rejected: too many requests waiting for a response ({}) - action: {} - requester: {}",
+                    maxInFlightRequests, request.getAction(), request.getRequester());
+            CompletableFuture<R> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(new KapuaServiceClientOverloadException(maxInFlightRequests, retryAfter));
+            return rejected;
+        }
+        String requestId = request.getRequestId();
+        ResponseContainer<R> responseContainer = ResponseContainer.createAnRegisterNewMessageContainer(messageListener, request);
+        CompletableFuture<R> response = responseContainer.getFuture();
+        long start = System.nanoTime();
+        //a timed out request completes with a null response (as a not answered synchronous request)
+        ScheduledFuture<?> timeout = timeoutExecutor.schedule(() -> response.complete(null), requestTimeout, TimeUnit.MILLISECONDS);
+        response.whenComplete((r, error) -> {
+            timeout.cancel(false);
+            messageListener.removeCallback(requestId);
+            inFlightRequests.release();
+            if (r != null) {
+                responseTime.update(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        });
+        logRequest(request);
+        try {
+            client.sendMessage(messageBuilder.build(client.createTextMessage()));
+        } catch (JMSException | JsonProcessingException | RuntimeException e) {
+            response.completeExceptionally(e);
+        }
+        return response;
+    }
+
+    private <R extends Response> R waitForResponse(CompletableFuture<R> response) throws InterruptedException, JMSException, JsonProcessingException {
+        try {
+            //no timeout needed since the request future is completed, at most, on request timeout
+            return response.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof JMSException) {
+                throw (JMSException) cause;
+            } else if (cause instanceof JsonProcessingException) {
+                throw (JsonProcessingException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new KapuaRuntimeException(KapuaErrorCodes.INTERNAL_ERROR, cause, (Object[]) null);
         }
-        messageListener.removeCallback(requestId);
-        return responseContainer.getResponse();
     }
 
     private void logRequest(Request request) {
         logger.info("Request id: {} - action: {} - requester: {}",
                 request.getRequestId(), request.getAction(), request.getRequester());
     }
+
+    @FunctionalInterface
+    private interface RequestMessageBuilder {
+
+        TextMessage build(TextMessage textMessage) throws JMSException, JsonProcessingException;
+    }
 }
@@ -12,12 +12,15 @@
  *******************************************************************************/
 package org.eclipse.kapua.client.security.bean;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.eclipse.kapua.client.security.KapuaMessageListener;
 
 public class ResponseContainer<O extends Response> {
 
     private String requestId;
     private O response;
+    private final CompletableFuture<O> future = new CompletableFuture<>();
 
     public ResponseContainer(String requestId) {
         this.requestId = requestId;
@@ -29,6 +32,16 @@ public class ResponseContainer<O extends Response> {
 
     public void setResponse(O response) {
         this.response = response;
+        future.complete(response);
+    }
+
+    /**
+     * Get the future completed once the response is set
+     *
+     * @return
+     */
+    public CompletableFuture<O> getFuture() {
+        return future;
     }
 
     public String getRequestId() {
@@ -19,6 +19,7 @@ import java.util.Map;
 import org.eclipse.kapua.client.security.bean.ConnectionInfo;
 import org.eclipse.kapua.commons.model.id.KapuaEid;
 import org.eclipse.kapua.commons.security.KapuaSession;
+import org.eclipse.kapua.commons.security.KapuaSessionHeaderCodec;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.authentication.KapuaPrincipal;
 import org.slf4j.Logger;
@@ -47,12 +48,15 @@ public class SessionContext {
     private String transportProtocol;
     private Certificate[] certificates;
     private KapuaSession kapuaSession;
+    private String encodedKapuaSession;
+    private String encodedKapuaConnectionId;
 
     private Map<String, Object> properties = new HashMap<>();
 
     public SessionContext(KapuaPrincipal principal, String accountName, ConnectionInfo connectionInfo, String kapuaConnectionId, String brokerId, String brokerHost, boolean admin, boolean missing) {
         this(principal, accountName, connectionInfo, brokerId, brokerHost, admin, missing);
         this.kapuaConnectionId = KapuaEid.parseCompactId(kapuaConnectionId);
+        this.encodedKapuaConnectionId = KapuaSessionHeaderCodec.encodeId(this.kapuaConnectionId);
     }
 
     public SessionContext(KapuaPrincipal principal, String accountName, ConnectionInfo connectionInfo, String brokerId, String brokerHost, boolean admin, boolean missing) {
@@ -63,6 +67,8 @@ public class SessionContext {
         username = extractUsername(principal);
         this.accountName = accountName;
         kapuaSession = new KapuaSession(principal);
+        encodedKapuaSession = KapuaSessionHeaderCodec.encodeSession(kapuaSession);
+        encodedKapuaConnectionId = KapuaSessionHeaderCodec.encodeId(null);
         this.scopeId = principal.getAccountId();
         this.userId = principal.getUserId();
         this.brokerId = brokerId;
@@ -165,6 +171,26 @@ public class SessionContext {
         return kapuaSession;
     }
 
+    /**
+     * Gets the {@link KapuaSession} encoded with {@link KapuaSessionHeaderCodec#encodeSession(KapuaSession)}, computed once for the session.
+     *
+     * @return The encoded {@link KapuaSession}.
+     * @since 2.1.0
+     */
+    public String getEncodedKapuaSession() {
+        return encodedKapuaSession;
+    }
+
+    /**
+     * Gets the Kapua connection id encoded with {@link KapuaSessionHeaderCodec#encodeId(KapuaId)}, computed once for the session.
+     *
+     * @return The encoded Kapua connection id.
+     * @since 2.1.0
+     */
+    public String getEncodedKapuaConnectionId() {
+        return encodedKapuaConnectionId;
+    }
+
     /**
     *
     * @param key
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.client.security;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.JMSException;
+import javax.jms.TextMessage;
+
+import org.eclipse.kapua.client.security.amqpclient.Client;
+import org.eclipse.kapua.client.security.bean.AuthRequest;
+import org.eclipse.kapua.client.security.bean.AuthResponse;
+import org.eclipse.kapua.client.security.bean.EntityRequest;
+import org.eclipse.kapua.client.security.bean.EntityResponse;
+import org.eclipse.kapua.client.security.bean.Response;
+import org.eclipse.kapua.client.security.bean.ResponseContainer;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+@Category(JUnitTests.class)
+public class ServiceClientMessagingImplTest {
+
+    private static final long REQUEST_TIMEOUT = 100;
+    private static final long NO_REQUEST_TIMEOUT = 60000;
+
+    private KapuaMessageListener messageListener;
+    private Client client;
+    private MetricsClientSecurity metrics;
+
+    @Before
+    public void setUp() throws Exception {
+        messageListener = Mockito.mock(KapuaMessageListener.class);
+        client = Mockito.mock(Client.class);
+        Mockito.when(client.createTextMessage()).thenAnswer(invocation -> Mockito.mock(TextMessage.class));
+        metrics = Mockito.mock(MetricsClientSecurity.class, Mockito.RETURNS_DEEP_STUBS);
+    }
+
+    @Test
+    public void coalesceEqualEntityRequestsTest() throws Exception {
+        ServiceClientMessagingImpl serviceClient = newServiceClient(10);
+
+        CompletableFuture<EntityResponse> first = serviceClient.getEntityAsync(newEntityRequest());
+        CompletableFuture<EntityResponse> second = serviceClient.getEntityAsync(newEntityRequest());
+
+        Assert.assertSame(first, second);
+        Mockito.verify(client, Mockito.times(1)).sendMessage(Matchers.any(TextMessage.class));
+        Mockito.verify(metrics.getRequestCoalesced(), Mockito.times(1)).inc();
+
+        EntityResponse entityResponse = new EntityResponse();
+        respond(entityResponse);
+        Assert.assertSame(entityResponse, second.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void doNotCoalesceEntityRequestsDifferingInAnyFieldTest() throws Exception {
+        ServiceClientMessagingImpl serviceClient = newServiceClient(10);
+
+        serviceClient.getEntityAsync(newEntityRequest());
+        serviceClient.getEntityAsync(new EntityRequest("cluster", "requester", "action", "entity", "other-name"));
+        serviceClient.getEntityAsync(new EntityRequest("cluster", "requester", "action", "other-entity", "name"));
+        serviceClient.getEntityAsync(new EntityRequest("cluster", "requester", "other-action", "entity", "name"));
+        serviceClient.getEntityAsync(new EntityRequest("cluster", "other-requester", "action", "entity", "name"));
+        serviceClient.getEntityAsync(new EntityRequest("other-cluster", "requester", "action", "entity", "name"));
+        // The separator of the fields doesn't matter
+        serviceClient.getEntityAsync(new EntityRequest("cluster", "requester", "action", "entity|name", null));
+
+        Mockito.verify(client, Mockito.times(7)).sendMessage(Matchers.any(TextMessage.class));
+        Mockito.verify(metrics.getRequestCoalesced(), Mockito.never()).inc();
+    }
+
+    @Test
+    public void sendEntityRequestAgainAfterTheResponseTest() throws Exception {
+        ServiceClientMessagingImpl serviceClient = newServiceClient(10);
+
+        CompletableFuture<EntityResponse> first = serviceClient.getEntityAsync(newEntityRequest());
+        respond(new EntityResponse());
+        first.get(1, TimeUnit.SECONDS);
+
+        CompletableFuture<EntityResponse> second = serviceClient.getEntityAsync(newEntityRequest());
+
+        Assert.assertNotSame(first, second);
+        Mockito.verify(client, Mockito.times(2)).sendMessage(Matchers.any(TextMessage.class));
+    }
+
+    @Test
+    public void completeTimedOutRequestWithNullTest() throws Exception {
+        ServiceClientMessagingImpl serviceClient = newServiceClient(1, REQUEST_TIMEOUT);
+
+        CompletableFuture<AuthResponse> response = serviceClient.brokerConnectAsync(new AuthRequest());
+
+        Assert.assertNull(response.get(10, TimeUnit.SECONDS));
+        ArgumentCaptor<String> requestId = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(messageListener).registerCallback(requestId.capture(), Matchers.any(ResponseContainer.class));
+        Mockito.verify(messageListener).removeCallback(requestId.getValue());
+
+        // The permit of the timed out request is released
+        Assert.assertNull(serviceClient.brokerConnectAsync(new AuthRequest()).get(10, TimeUnit.SECONDS));
+        Mockito.verify(metrics.getRequestRejected(), Mockito.never()).inc();
+    }
+
+    @Test
+    public void releasePermitOnSendErrorTest() throws Exception {
+        ServiceClientMessagingImpl serviceClient = newServiceClient(1);
+        JMSException sendError = new JMSException("Send failed");
+        Mockito.doThrow(sendError).doNothing().when(client).sendMessage(Matchers.any(TextMessage.class));
+
+        CompletableFuture<EntityResponse> failed = serviceClient.getEntityAsync(newEntityRequest());
+        try {
+            failed.get(1, TimeUnit.SECONDS);
+            Assert.fail("The request should have failed");
+        } catch (ExecutionException e) {
+            Assert.assertSame(sendError, e.getCause());
+        }
+
+        // The permit of the failed request is released and the failed entity request is not coalesced anymore
+        CompletableFuture<EntityResponse> retried = serviceClient.getEntityAsync(newEntityRequest());
+        Assert.assertNotSame(failed, retried);
+        Assert.assertFalse(retried.isDone());
+        Mockito.verify(metrics.getRequestRejected(), Mockito.never()).inc();
+    }
+
+    @Test
+    public void rejectRequestsOverTheInFlightLimitTest() throws Exception {
+        ServiceClientMessagingImpl serviceClient = newServiceClient(2);
+
+        CompletableFuture<AuthResponse> first = serviceClient.brokerConnectAsync(new AuthRequest());
+        CompletableFuture<AuthResponse> second = serviceClient.brokerDisconnectAsync(new AuthRequest());
+        CompletableFuture<EntityResponse> rejected = serviceClient.getEntityAsync(newEntityRequest());
+
+        Assert.assertFalse(first.isDone());
+        Assert.assertFalse(second.isDone());
+        try {
+            rejected.get(1, TimeUnit.SECONDS);
+            Assert.fail("The request should have been rejected");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof KapuaServiceClientOverloadException);
+            Assert.assertEquals(1000L, ((KapuaServiceClientOverloadException) e.getCause()).getRetryAfter());
+        }
+        Mockito.verify(client, Mockito.times(2)).sendMessage(Matchers.any(TextMessage.class));
+        Mockito.verify(metrics.getRequestRejected(), Mockito.times(1)).inc();
+
+        // Once a response is received a new request is accepted
+        respond(new AuthResponse());
+        Assert.assertFalse(serviceClient.getEntityAsync(newEntityRequest()).isDone());
+        Mockito.verify(client, Mockito.times(3)).sendMessage(Matchers.any(TextMessage.class));
+    }
+
+    private ServiceClientMessagingImpl newServiceClient(int maxInFlightRequests) {
+        return newServiceClient(maxInFlightRequests, NO_REQUEST_TIMEOUT);
+    }
+
+    private ServiceClientMessagingImpl newServiceClient(int maxInFlightRequests, long requestTimeout) {
+        return new ServiceClientMessagingImpl(messageListener, client, metrics, maxInFlightRequests, 1000L, requestTimeout);
+    }
+
+    private static EntityRequest newEntityRequest() {
+        return new EntityRequest("cluster", "requester", "action", "entity", "name");
+    }
+
+    /**
+     * Answers the first request sent.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void respond(Response response) {
+        ArgumentCaptor<ResponseContainer> responseContainer = ArgumentCaptor.forClass(ResponseContainer.class);
+        Mockito.verify(messageListener, Mockito.atLeastOnce()).registerCallback(Matchers.anyString(), responseContainer.capture());
+        responseContainer.getAllValues().get(0).setResponse(response);
+    }
+}
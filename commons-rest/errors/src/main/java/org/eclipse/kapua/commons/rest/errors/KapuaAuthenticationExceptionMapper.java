@@ -55,6 +55,13 @@ public class KapuaAuthenticationExceptionMapper implements ExceptionMapper<Kapua
                     .build();
         }
 
+        if (kapuaAuthenticationException.getCode().equals(KapuaAuthenticationErrorCodes.LOGIN_CREDENTIALS_VERIFIER_OVERLOADED)) {
+            return Response
+                    .status(Status.SERVICE_UNAVAILABLE)
+                    .entity(new ExceptionInfo(Status.SERVICE_UNAVAILABLE.getStatusCode(), kapuaAuthenticationException, showStackTrace))
+                    .build();
+        }
+
         return Response.status(Status.UNAUTHORIZED).build();
     }
 
@@ -394,6 +394,8 @@ public abstract class AbstractKapuaConfigurableService extends AbstractKapuaServ
                             PRIVATE_ENTITY_CACHE.removeList(serviceConfig.getScopeId(), pid);
                             return null;
                         })
+                        // Once more after the commit, since this or other nodes may have cached the list again in the meantime
+                        .onAfterHandler(created -> PRIVATE_ENTITY_CACHE.removeList(serviceConfig.getScopeId(), pid))
         );
     }
 
@@ -430,6 +432,8 @@ public abstract class AbstractKapuaConfigurableService extends AbstractKapuaServ
                     PRIVATE_ENTITY_CACHE.removeList(serviceConfig.getScopeId(), pid);
                     return null;
                 })
+                // Once more after the commit, since this or other nodes may have cached the list again in the meantime
+                .onAfterHandler(updated -> PRIVATE_ENTITY_CACHE.removeList(serviceConfig.getScopeId(), pid))
         );
     }
 
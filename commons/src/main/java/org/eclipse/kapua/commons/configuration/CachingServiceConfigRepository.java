@@ -33,14 +33,14 @@ public class CachingServiceConfigRepository
     @Override
     public ServiceConfig create(TxContext txContext, ServiceConfig entity) throws KapuaException {
         final ServiceConfig created = super.create(txContext, entity);
-        entityCache.removeList(created.getScopeId(), created.getPid());
+        entityCache.removeList(txContext, created.getScopeId(), created.getPid());
         return created;
     }
 
     @Override
     public ServiceConfig update(TxContext txContext, ServiceConfig entity) throws KapuaException {
         final ServiceConfig updated = super.update(txContext, entity);
-        entityCache.removeList(updated.getScopeId(), updated.getPid());
+        entityCache.removeList(txContext, updated.getScopeId(), updated.getPid());
         return updated;
     }
 
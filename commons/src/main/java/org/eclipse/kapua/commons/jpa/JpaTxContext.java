@@ -28,6 +28,8 @@ import javax.persistence.OptimisticLockException;
 import javax.persistence.PessimisticLockException;
 import javax.persistence.RollbackException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
 
@@ -35,6 +37,7 @@ public class JpaTxContext implements JpaAwareTxContext, TxContext {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     public final EntityManagerFactory entityManagerFactory;
     Optional<EntityManager> entityManager = Optional.empty();
+    private final List<Runnable> commitActions = new ArrayList<>();
 
     public JpaTxContext(EntityManagerFactory entityManagerFactory) {
         this.entityManagerFactory = entityManagerFactory;
@@ -56,10 +59,12 @@ public class JpaTxContext implements JpaAwareTxContext, TxContext {
     @Override
     public void commit() {
         entityManager.ifPresent(e -> e.getTransaction().commit());
+        runCommitActions();
     }
 
     @Override
     public void rollback() {
+        commitActions.clear();
         entityManager.ifPresent(entityManager -> {
             final EntityTransaction tx = entityManager.getTransaction();
             if (tx.isActive()) {
@@ -68,6 +73,24 @@ public class JpaTxContext implements JpaAwareTxContext, TxContext {
         });
     }
 
+    @Override
+    public void onCommit(Runnable action) {
+        commitActions.add(action);
+    }
+
+    private void runCommitActions() {
+        List<Runnable> actions = new ArrayList<>(commitActions);
+        commitActions.clear();
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (Exception e) {
+                // The transaction has already been committed: it must not be rolled back nor retried
+                logger.warn("Error while running an action after the commit: {}", e.getMessage(), e);
+            }
+        }
+    }
+
     @Override
     public void close() throws IOException {
         entityManager.ifPresent(entityManager -> entityManager.close());
@@ -52,6 +52,19 @@ public class CommonsMetric {
     private Counter cacheRemoval;
     private Counter cacheError;
 
+    //local cache provider
+    private static final String CACHE_LOCAL = "cache_local";
+    private Counter localCacheHit;
+    private Counter localCacheMiss;
+    private Counter localCacheEviction;
+    private Counter localCacheExpiration;
+
+    //entity cache invalidation
+    private static final String CACHE_INVALIDATION = "cache_invalidation";
+    private Counter cacheInvalidationPublished;
+    private Counter cacheInvalidationReceived;
+    private Counter cacheInvalidationError;
+
     //events
     public static final String EVENT = "event";
     private Counter processedEvent;
@@ -76,6 +89,15 @@ public class CommonsMetric {
         cacheRemoval = metricsService.getCounter(module, CACHE_ENTITY, "removed");
         cacheError = metricsService.getCounter(module, CACHE_ENTITY, "error");
 
+        localCacheHit = metricsService.getCounter(module, CACHE_LOCAL, "hit");
+        localCacheMiss = metricsService.getCounter(module, CACHE_LOCAL, "miss");
+        localCacheEviction = metricsService.getCounter(module, CACHE_LOCAL, "evicted");
+        localCacheExpiration = metricsService.getCounter(module, CACHE_LOCAL, "expired");
+
+        cacheInvalidationPublished = metricsService.getCounter(module, CACHE_INVALIDATION, "published");
+        cacheInvalidationReceived = metricsService.getCounter(module, CACHE_INVALIDATION, "received");
+        cacheInvalidationError = metricsService.getCounter(module, CACHE_INVALIDATION, "error");
+
         processedEvent = metricsService.getCounter(module, EVENT, "processed");
         dequeuedEvent = metricsService.getCounter(module, EVENT, "dequeued");
         enqueuedEvent = metricsService.getCounter(module, EVENT, "enqueued");
@@ -126,6 +148,34 @@ public class CommonsMetric {
         return cacheError;
     }
 
+    public Counter getLocalCacheHit() {
+        return localCacheHit;
+    }
+
+    public Counter getLocalCacheMiss() {
+        return localCacheMiss;
+    }
+
+    public Counter getLocalCacheEviction() {
+        return localCacheEviction;
+    }
+
+    public Counter getLocalCacheExpiration() {
+        return localCacheExpiration;
+    }
+
+    public Counter getCacheInvalidationPublished() {
+        return cacheInvalidationPublished;
+    }
+
+    public Counter getCacheInvalidationReceived() {
+        return cacheInvalidationReceived;
+    }
+
+    public Counter getCacheInvalidationError() {
+        return cacheInvalidationError;
+    }
+
     public Counter getProcessedEvent() {
         return processedEvent;
     }
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.security;
+
+import org.apache.commons.lang3.SerializationException;
+import org.apache.commons.lang3.SerializationUtils;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the {@link KapuaSession} and the connection {@link KapuaId} carried in the headers of the messages forwarded by the broker.
+ * <p>
+ * Values are encoded in a compact, versioned text format: {@code K1.<flags>.<scopeId>.<userId>} for {@link KapuaSession}s and {@code K1.<id>} for {@link KapuaId}s,
+ * where the {@link KapuaId}s are in their {@link KapuaId#toCompactId()} form. {@link KapuaSession}s with an {@link KapuaSession#getAccessToken()} or an
+ * {@link KapuaSession#getOpenIDidToken()} cannot be represented in the compact format and are encoded as Base64 Java serialized objects, as done before 2.1.0.
+ * <p>
+ * Decoding accepts both formats, so that consumers can process the messages encoded by previous brokers.
+ *
+ * @since 2.1.0
+ */
+public class KapuaSessionHeaderCodec {
+
+    private static final String VERSION_1 = "K1";
+    private static final char SEPARATOR = '.';
+    private static final String VERSION_1_PREFIX = VERSION_1 + SEPARATOR;
+
+    private static final char FLAG_TRUSTED = 't';
+    private static final char FLAG_USER_INITIATED_LOGOUT = 'l';
+    private static final char FLAG_NONE = '-';
+
+    private KapuaSessionHeaderCodec() {
+    }
+
+    /**
+     * Encodes the given {@link KapuaSession}.
+     *
+     * @param kapuaSession The {@link KapuaSession} to encode.
+     * @return The encoded {@link KapuaSession}.
+     * @since 2.1.0
+     */
+    public static String encodeSession(KapuaSession kapuaSession) {
+        if (kapuaSession == null || kapuaSession.getAccessToken() != null || kapuaSession.getOpenIDidToken() != null) {
+            return Base64.getEncoder().encodeToString(SerializationUtils.serialize(kapuaSession));
+        }
+
+        StringBuilder encodedSession = new StringBuilder(64).append(VERSION_1_PREFIX);
+        if (!kapuaSession.isTrustedMode() && !kapuaSession.isUserInitiatedLogout()) {
+            encodedSession.append(FLAG_NONE);
+        }
+        if (kapuaSession.isTrustedMode()) {
+            encodedSession.append(FLAG_TRUSTED);
+        }
+        if (kapuaSession.isUserInitiatedLogout()) {
+            encodedSession.append(FLAG_USER_INITIATED_LOGOUT);
+        }
+        encodedSession.append(SEPARATOR);
+        appendId(encodedSession, kapuaSession.getScopeId());
+        encodedSession.append(SEPARATOR);
+        appendId(encodedSession, kapuaSession.getUserId());
+        return encodedSession.toString();
+    }
+
+    /**
+     * Decodes the given {@link KapuaSession}.
+     *
+     * @param encodedSession The {@link KapuaSession} encoded with {@link #encodeSession(KapuaSession)}.
+     * @return The decoded {@link KapuaSession}.
+     * @throws IllegalArgumentException If the given value is not a valid encoded {@link KapuaSession}.
+     * @since 2.1.0
+     */
+    public static KapuaSession decodeSession(String encodedSession) {
+        if (encodedSession == null) {
+            throw new IllegalArgumentException("Encoded session cannot be null");
+        }
+        if (!encodedSession.startsWith(VERSION_1_PREFIX)) {
+            return deserializeLegacy(encodedSession, KapuaSession.class);
+        }
+
+        int flagsEnd = encodedSession.indexOf(SEPARATOR, VERSION_1_PREFIX.length());
+        int scopeIdEnd = flagsEnd < 0 ? -1 : encodedSession.indexOf(SEPARATOR, flagsEnd + 1);
+        if (scopeIdEnd < 0 || encodedSession.indexOf(SEPARATOR, scopeIdEnd + 1) >= 0) {
+            throw new IllegalArgumentException("Malformed encoded session: " + encodedSession);
+        }
+
+        KapuaSession kapuaSession = new KapuaSession(null, parseId(encodedSession, flagsEnd + 1, scopeIdEnd), parseId(encodedSession, scopeIdEnd + 1, encodedSession.length()));
+        for (int i = VERSION_1_PREFIX.length(); i < flagsEnd; i++) {
+            switch (encodedSession.charAt(i)) {
+                case FLAG_TRUSTED:
+                    kapuaSession.setTrustedMode(true);
+                    break;
+                case FLAG_USER_INITIATED_LOGOUT:
+                    kapuaSession.setUserInitiatedLogout(true);
+                    break;
+                case FLAG_NONE:
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown flag in encoded session: " + encodedSession);
+            }
+        }
+        return kapuaSession;
+    }
+
+    /**
+     * Encodes the given {@link KapuaId}.
+     *
+     * @param kapuaId The {@link KapuaId} to encode. It can be {@code null}.
+     * @return The encoded {@link KapuaId}.
+     * @since 2.1.0
+     */
+    public static String encodeId(KapuaId kapuaId) {
+        return appendId(new StringBuilder(32).append(VERSION_1_PREFIX), kapuaId).toString();
+    }
+
+    /**
+     * Decodes the given {@link KapuaId}.
+     *
+     * @param encodedId The {@link KapuaId} encoded with {@link #encodeId(KapuaId)}.
+     * @return The decoded {@link KapuaId}, or {@code null} if a {@code null} {@link KapuaId} was encoded.
+     * @throws IllegalArgumentException If the given value is not a valid encoded {@link KapuaId}.
+     * @since 2.1.0
+     */
+    public static KapuaId decodeId(String encodedId) {
+        if (encodedId == null) {
+            throw new IllegalArgumentException("Encoded id cannot be null");
+        }
+        if (!encodedId.startsWith(VERSION_1_PREFIX)) {
+            return deserializeLegacy(encodedId, KapuaId.class);
+        }
+        return parseId(encodedId, VERSION_1_PREFIX.length(), encodedId.length());
+    }
+
+    private static StringBuilder appendId(StringBuilder encoded, KapuaId kapuaId) {
+        return kapuaId != null ? encoded.append(kapuaId.toCompactId()) : encoded;
+    }
+
+    private static KapuaId parseId(String encoded, int start, int end) {
+        return start == end ? null : KapuaEid.parseCompactId(encoded.substring(start, end));
+    }
+
+    private static <T> T deserializeLegacy(String encoded, Class<T> type) {
+        Object value;
+        try {
+            value = SerializationUtils.deserialize(Base64.getDecoder().decode(encoded));
+        } catch (SerializationException e) {
+            throw new IllegalArgumentException("Malformed legacy encoded value", e);
+        }
+        if (value != null && !type.isInstance(value)) {
+            throw new IllegalArgumentException("Legacy encoded value is not a " + type.getSimpleName());
+        }
+        return type.cast(value);
+    }
+}
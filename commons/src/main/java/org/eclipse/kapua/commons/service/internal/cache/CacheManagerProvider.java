@@ -38,11 +38,12 @@ import com.google.inject.Provider;
 
 public class CacheManagerProvider implements Provider<CacheManager> {
 
-    private static final String DEFAULT_CACHING_PROVIDER_CLASS_NAME = "org.eclipse.kapua.commons.service.internal.cache.dummy.CachingProvider";
+    private static final String DEFAULT_CACHING_PROVIDER_CLASS_NAME = "org.eclipse.kapua.commons.service.internal.cache.local.CachingProvider";
     private final CommonsMetric commonsMetric;
     private final String cachingProviderClassName;
     private final long ttl;
     private final String expiryPolicy;
+    private final long localCacheMaximumSize;
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     @Inject
@@ -51,6 +52,7 @@ public class CacheManagerProvider implements Provider<CacheManager> {
         this.cachingProviderClassName = systemSetting.getString(SystemSettingKey.CACHING_PROVIDER);
         this.ttl = systemSetting.getLong(SystemSettingKey.CACHE_TTL, 60);
         this.expiryPolicy = systemSetting.getString(SystemSettingKey.JCACHE_EXPIRY_POLICY, ExpiryPolicy.MODIFIED.name());
+        this.localCacheMaximumSize = systemSetting.getLong(SystemSettingKey.CACHE_LOCAL_SIZE_MAXIMUM, org.eclipse.kapua.commons.service.internal.cache.local.CachingProvider.DEFAULT_MAXIMUM_SIZE);
     }
 
     @Override
@@ -71,16 +73,33 @@ public class CacheManagerProvider implements Provider<CacheManager> {
             cachingProvider = initDefaultCacheProvider();
         }
         try {
-            return cachingProvider.getCacheManager(cacheConfigUri, null);
+            return getCacheManager(cachingProvider, cacheConfigUri);
         } catch (Exception e) {
             //anyway set the "default cache" flag (already done by initDefualtCacheProvider)
             //second fallback
             logger.warn("Error while loading the CacheManager... Switching to CachingProvider default ({}). Error: {}", DEFAULT_CACHING_PROVIDER_CLASS_NAME, e.getMessage(), e);
             cachingProvider = initDefaultCacheProvider();
-            return cachingProvider.getCacheManager(cacheConfigUri, null);
+            return getCacheManager(cachingProvider, cacheConfigUri);
         }
     }
 
+    /**
+     * Gets the {@link CacheManager} from the given {@link CachingProvider}.
+     * <p>
+     * The in-process {@link org.eclipse.kapua.commons.service.internal.cache.local.CachingProvider} creates a dedicated {@link CacheManager},
+     * so that its caches are bounded by {@link SystemSettingKey#CACHE_LOCAL_SIZE_MAXIMUM} and report their metrics to the {@link CommonsMetric}.
+     *
+     * @param cachingProvider the {@link CachingProvider}
+     * @param cacheConfigUri  the URI with the cache config file path
+     * @return the {@link CacheManager}
+     */
+    private CacheManager getCacheManager(CachingProvider cachingProvider, URI cacheConfigUri) {
+        if (cachingProvider instanceof org.eclipse.kapua.commons.service.internal.cache.local.CachingProvider) {
+            return ((org.eclipse.kapua.commons.service.internal.cache.local.CachingProvider) cachingProvider).createCacheManager(cacheConfigUri, localCacheMaximumSize, commonsMetric);
+        }
+        return cachingProvider.getCacheManager(cacheConfigUri, null);
+    }
+
     /**
      * Gets the URI with the cache config file path.
      *
@@ -108,6 +127,7 @@ public class CacheManagerProvider implements Provider<CacheManager> {
                 .addParameter("Default caching provider class name", DEFAULT_CACHING_PROVIDER_CLASS_NAME)
                 .addParameter("TTL", ttl)
                 .addParameter("Expiry Policy", expiryPolicy)
+                .addParameter("Local cache maximum size", localCacheMaximumSize)
                 .addParameter("Config URI", uri)
                 .printLog();
 
@@ -13,8 +13,14 @@
 package org.eclipse.kapua.commons.service.internal.cache;
 
 import org.eclipse.kapua.commons.core.AbstractKapuaModule;
+import org.eclipse.kapua.commons.core.ServiceModule;
 import org.eclipse.kapua.commons.jpa.NamedCacheFactory;
 import org.eclipse.kapua.commons.jpa.NamedEntityCacheFactory;
+import org.eclipse.kapua.commons.setting.system.SystemSetting;
+import org.eclipse.kapua.commons.setting.system.SystemSettingKey;
+import org.eclipse.kapua.event.ServiceEventBus;
+
+import com.google.inject.multibindings.ProvidesIntoSet;
 
 import javax.cache.CacheManager;
 import javax.inject.Singleton;
@@ -23,7 +29,19 @@ public class CacheModule extends AbstractKapuaModule {
     @Override
     protected void configureModule() {
         bind(CacheManager.class).toProvider(CacheManagerProvider.class).in(Singleton.class);
+        bind(EntityCacheInvalidator.class).in(Singleton.class);
         bind(KapuaCacheManager.class).in(Singleton.class);
         bind(NamedCacheFactory.class).to(NamedEntityCacheFactory.class).in(Singleton.class);
     }
+
+    @ProvidesIntoSet
+    public ServiceModule entityCacheInvalidationServiceModule(EntityCacheInvalidator entityCacheInvalidator,
+                                                              ServiceEventBus serviceEventBus,
+                                                              SystemSetting systemSetting) {
+        return new EntityCacheInvalidationServiceModule(
+                entityCacheInvalidator,
+                serviceEventBus,
+                systemSetting.getBoolean(SystemSettingKey.CACHE_INVALIDATION_ENABLED, true),
+                systemSetting.getString(SystemSettingKey.CACHE_INVALIDATION_ADDRESS, "entity-cache"));
+    }
 }
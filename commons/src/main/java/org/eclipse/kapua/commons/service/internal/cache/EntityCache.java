@@ -16,6 +16,7 @@ import org.eclipse.kapua.commons.metric.CommonsMetric;
 import org.eclipse.kapua.model.KapuaEntity;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.model.query.KapuaListResult;
+import org.eclipse.kapua.storage.TxContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,6 +26,16 @@ import java.io.Serializable;
 /**
  * The basic cache class, it contains two {@link Cache} objects.
  * The {@code idCache} cache contains {@link KapuaEntity} objects, while the {@code listsCache} contains {@link KapuaListResult} objects.
+ * The removals are propagated to the other nodes by the {@link EntityCacheInvalidator}.
+ * <p>
+ * The removals made within a transaction, through the methods accepting a {@link TxContext}, are applied on this node right away
+ * and once more after the commit, when they are also propagated: until then this and the other nodes may still read the previous state
+ * of the entity from the database and cache it again.
+ * <p>
+ * The entities are cached by reference when the caching provider supports it (see {@link KapuaCacheManager}): the entities returned by
+ * {@link #get(KapuaId, KapuaId)}, and by the repositories reading through this cache, may be the cached instances.
+ * They must not be modified: callers which need to change an entity before updating it must change a copy, made with
+ * {@link org.eclipse.kapua.model.KapuaEntityFactory#clone(KapuaEntity)}.
  */
 public class EntityCache {
 
@@ -33,6 +44,8 @@ public class EntityCache {
     protected Cache<Serializable, Serializable> idCache;
     protected Cache<Serializable, Serializable> listsCache;  // listsCache does not use the same keys as idCache
     private final CommonsMetric commonsMetric;
+    private final String idCacheName;
+    private final EntityCacheInvalidator entityCacheInvalidator;
 
     /**
      * The constructor initializes the {@link #idCache} and the {@link #listsCache}.
@@ -43,6 +56,9 @@ public class EntityCache {
         this.idCache = cacheManager.getCache(idCacheName);
         this.listsCache = cacheManager.getCache(idCacheName + "_list");
         this.commonsMetric = commonsMetric;
+        this.idCacheName = idCacheName;
+        this.entityCacheInvalidator = cacheManager.getEntityCacheInvalidator();
+        entityCacheInvalidator.register(idCacheName, this);
     }
 
     public KapuaEntity get(KapuaId scopeId, KapuaId kapuaId) {
@@ -100,6 +116,7 @@ public class EntityCache {
     }
 
     public KapuaEntity remove(KapuaId scopeId, KapuaId kapuaId) {
+        KapuaEntity removed = null;
         // First get the entity in order to perform a check of the scope id
         if (kapuaId != null) {
             KapuaEntity entity = get(scopeId, kapuaId);
@@ -107,16 +124,31 @@ public class EntityCache {
                 try {
                     idCache.remove(kapuaId);
                     commonsMetric.getCacheRemoval().inc();
-                    return entity;
+                    removed = entity;
                 } catch (Exception e) {
                     cacheErrorLogger("remove", idCache.getName(), kapuaId, e);
                 }
             }
+            // The other nodes may have cached the entity even if this one has not
+            entityCacheInvalidator.publishInvalidation(idCacheName, scopeId, kapuaId);
         }
-        return null;
+        return removed;
+    }
+
+    /**
+     * Removes the entity from this node right away, and from this and the other nodes once the transaction has been committed.
+     *
+     * @param txContext the {@link TxContext} of the transaction changing the entity
+     * @param scopeId   a {@link KapuaId} representing the scopeId
+     * @param kapuaId   the {@link KapuaId} of the entity
+     */
+    public void remove(TxContext txContext, KapuaId scopeId, KapuaId kapuaId) {
+        entityCacheInvalidator.invalidateLocally(() -> remove(scopeId, kapuaId));
+        txContext.onCommit(() -> remove(scopeId, kapuaId));
     }
 
     public KapuaListResult removeList(KapuaId scopeId, Serializable id) {
+        KapuaListResult removed = null;
         // First get the entity in order to perform a check of the scope id
         if (id != null) {
             KapuaListResult entity = getList(scopeId, id);
@@ -124,13 +156,38 @@ public class EntityCache {
                 ComposedKey listKey = new ComposedKey(scopeId, id);
                 try {
                     listsCache.remove(listKey);
-                    return entity;
+                    removed = entity;
                 } catch (Exception e) {
                     cacheErrorLogger("removeList", idCache.getName(), listKey, e);
                 }
             }
+            // The other nodes may have cached the list even if this one has not
+            entityCacheInvalidator.publishListInvalidation(idCacheName, scopeId, id);
+        }
+        return removed;
+    }
+
+    /**
+     * Removes the list from this node right away, and from this and the other nodes once the transaction has been committed.
+     *
+     * @param txContext the {@link TxContext} of the transaction changing the items of the list
+     * @param scopeId   a {@link KapuaId} representing the scopeId
+     * @param id        the id of the list
+     */
+    public void removeList(TxContext txContext, KapuaId scopeId, Serializable id) {
+        entityCacheInvalidator.invalidateLocally(() -> removeList(scopeId, id));
+        txContext.onCommit(() -> removeList(scopeId, id));
+    }
+
+    /**
+     * Removes all the lists, when a list invalidation received from another node cannot target a single list.
+     */
+    void removeLists() {
+        try {
+            listsCache.removeAll();
+        } catch (Exception e) {
+            cacheErrorLogger("removeLists", listsCache.getName(), null, e);
         }
-        return null;
     }
 
     /**
@@ -0,0 +1,33 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.service.internal.cache;
+
+import org.eclipse.kapua.model.id.KapuaId;
+
+/**
+ * Listener of the entity invalidations of the {@link EntityCacheInvalidator}.
+ *
+ * @since 2.1.0
+ */
+@FunctionalInterface
+public interface EntityCacheInvalidationListener {
+
+    /**
+     * Invoked when an entity has been changed or deleted, on this node or on another one.
+     *
+     * @param scopeId  The scope {@link KapuaId} of the entity, or {@link KapuaId#ANY} if unknown.
+     * @param entityId The {@link KapuaId} of the entity.
+     * @since 2.1.0
+     */
+    void onInvalidation(KapuaId scopeId, KapuaId entityId);
+}
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.service.internal.cache;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.core.ServiceModule;
+import org.eclipse.kapua.event.ServiceEventBus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link ServiceModule} which connects the {@link EntityCacheInvalidator} to the {@link ServiceEventBus},
+ * once the {@link ServiceEventBus} has been started.
+ *
+ * @since 2.1.0
+ */
+public class EntityCacheInvalidationServiceModule implements ServiceModule {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EntityCacheInvalidationServiceModule.class);
+
+    private final EntityCacheInvalidator entityCacheInvalidator;
+    private final ServiceEventBus serviceEventBus;
+    private final boolean enabled;
+    private final String address;
+
+    public EntityCacheInvalidationServiceModule(EntityCacheInvalidator entityCacheInvalidator, ServiceEventBus serviceEventBus, boolean enabled, String address) {
+        this.entityCacheInvalidator = entityCacheInvalidator;
+        this.serviceEventBus = serviceEventBus;
+        this.enabled = enabled;
+        this.address = address;
+    }
+
+    @Override
+    public void start() throws KapuaException {
+        if (!enabled) {
+            LOG.info("Entity cache invalidation through the service event bus is disabled");
+            return;
+        }
+        entityCacheInvalidator.start(serviceEventBus, address);
+    }
+
+    @Override
+    public void stop() throws KapuaException {
+        entityCacheInvalidator.stop();
+    }
+}
@@ -0,0 +1,288 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.service.internal.cache;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import org.eclipse.kapua.commons.metric.CommonsMetric;
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.commons.security.KapuaSession;
+import org.eclipse.kapua.event.ServiceEvent;
+import org.eclipse.kapua.event.ServiceEventBus;
+import org.eclipse.kapua.event.ServiceEventBusException;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.inject.Inject;
+
+/**
+ * Propagates the invalidations of the {@link EntityCache}s of this node to the other nodes through the {@link ServiceEventBus},
+ * and applies the invalidations received from the other nodes.
+ * <p>
+ * The {@link EntityCache}s register themselves by their {@code idCacheName}, which is the same on all the nodes.
+ * Until {@link #start(ServiceEventBus, String)} is called the invalidations stay local.
+ * <p>
+ * Components which keep their own resolutions of an entity can register an {@link EntityCacheInvalidationListener},
+ * which is notified of each invalidation of the entity, either of this node or of another one.
+ * The invalidations made within a transaction are notified both before and after its commit, but published to the other nodes only after it.
+ *
+ * @since 2.1.0
+ */
+public class EntityCacheInvalidator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EntityCacheInvalidator.class);
+
+    static final String SERVICE_NAME = "entity-cache";
+    static final String OPERATION_INVALIDATE = "invalidate";
+    static final String OPERATION_INVALIDATE_LIST = "invalidateList";
+    static final String OPERATION_INVALIDATE_LISTS = "invalidateLists";
+
+    private static final String SUBSCRIBER_NAME = "entity-cache";
+
+    /**
+     * Set while an invalidation received from another node is applied, so that it is not published again.
+     */
+    private static final ThreadLocal<Boolean> REMOTE_INVALIDATION = new ThreadLocal<>();
+
+    /**
+     * Set while an invalidation of this node is applied before the commit of its transaction, so that it is published only after the commit.
+     */
+    private static final ThreadLocal<Boolean> LOCAL_INVALIDATION = new ThreadLocal<>();
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, Set<EntityCache>> entityCaches = new ConcurrentHashMap<>();
+    private final Map<String, Set<EntityCacheInvalidationListener>> listeners = new ConcurrentHashMap<>();
+    private final CommonsMetric commonsMetric;
+
+    private volatile ServiceEventBus serviceEventBus;
+    private volatile String address;
+
+    @Inject
+    public EntityCacheInvalidator(CommonsMetric commonsMetric) {
+        this.commonsMetric = commonsMetric;
+    }
+
+    /**
+     * Subscribes to the invalidations of the other nodes and starts publishing the ones of this node.
+     * <p>
+     * Each node subscribes with its own name, so that the invalidations are received by each node and not shared among them.
+     *
+     * @param serviceEventBus The {@link ServiceEventBus} to use.
+     * @param address         The {@link ServiceEventBus} address of the invalidations.
+     * @throws ServiceEventBusException If the subscription fails.
+     * @since 2.1.0
+     */
+    public void start(ServiceEventBus serviceEventBus, String address) throws ServiceEventBusException {
+        String subscriptionName = String.format("%s-%s-%s", address, SUBSCRIBER_NAME, nodeId);
+
+        LOG.info("Subscribing entity cache invalidator to address {} as {}", address, subscriptionName);
+        serviceEventBus.subscribe(address, subscriptionName, this::onServiceEvent);
+
+        this.address = address;
+        this.serviceEventBus = serviceEventBus;
+    }
+
+    /**
+     * Stops publishing the invalidations of this node.
+     * <p>
+     * The {@link ServiceEventBus} subscription is closed with the {@link ServiceEventBus} itself.
+     *
+     * @since 2.1.0
+     */
+    public void stop() {
+        serviceEventBus = null;
+        address = null;
+    }
+
+    /**
+     * Registers an {@link EntityCache} to the invalidations received from the other nodes.
+     *
+     * @param idCacheName The name of the {@link EntityCache#idCache}.
+     * @param entityCache The {@link EntityCache}.
+     * @since 2.1.0
+     */
+    void register(String idCacheName, EntityCache entityCache) {
+        entityCaches.computeIfAbsent(idCacheName, name -> new CopyOnWriteArraySet<>()).add(entityCache);
+    }
+
+    /**
+     * Registers an {@link EntityCacheInvalidationListener} to the invalidations of the entities of the given {@link EntityCache#idCache}.
+     *
+     * @param idCacheName The name of the {@link EntityCache#idCache}.
+     * @param listener    The {@link EntityCacheInvalidationListener}.
+     * @since 2.1.0
+     */
+    public void addListener(String idCacheName, EntityCacheInvalidationListener listener) {
+        listeners.computeIfAbsent(idCacheName, name -> new CopyOnWriteArraySet<>()).add(listener);
+    }
+
+    /**
+     * Applies an invalidation on this node only, without publishing it to the other nodes.
+     *
+     * @param invalidation The invalidation to apply.
+     * @since 2.1.0
+     */
+    void invalidateLocally(Runnable invalidation) {
+        LOCAL_INVALIDATION.set(Boolean.TRUE);
+        try {
+            invalidation.run();
+        } finally {
+            LOCAL_INVALIDATION.remove();
+        }
+    }
+
+    /**
+     * Notifies the {@link EntityCacheInvalidationListener}s and publishes the invalidation of an entity.
+     *
+     * @param idCacheName The name of the {@link EntityCache#idCache}.
+     * @param scopeId     The scope {@link KapuaId} of the entity.
+     * @param entityId    The {@link KapuaId} of the entity.
+     * @since 2.1.0
+     */
+    void publishInvalidation(String idCacheName, KapuaId scopeId, KapuaId entityId) {
+        if (REMOTE_INVALIDATION.get() != null) {
+            // Notified once by onServiceEvent, whatever the number of EntityCaches
+            return;
+        }
+        notifyListeners(idCacheName, scopeId, entityId);
+
+        ServiceEvent serviceEvent = newServiceEvent(idCacheName, OPERATION_INVALIDATE, scopeId);
+        if (serviceEvent != null) {
+            serviceEvent.setEntityId(entityId);
+            publish(serviceEvent);
+        }
+    }
+
+    /**
+     * Publishes the invalidation of a list.
+     * <p>
+     * {@link KapuaId} and {@link String} list ids are sent as they are, while the other ones invalidate all the lists of the {@link EntityCache}.
+     *
+     * @param idCacheName The name of the {@link EntityCache#idCache}.
+     * @param scopeId     The scope {@link KapuaId} of the list.
+     * @param listId      The id of the list.
+     * @since 2.1.0
+     */
+    void publishListInvalidation(String idCacheName, KapuaId scopeId, Serializable listId) {
+        String operation = listId instanceof KapuaId || listId instanceof String ? OPERATION_INVALIDATE_LIST : OPERATION_INVALIDATE_LISTS;
+        ServiceEvent serviceEvent = newServiceEvent(idCacheName, operation, scopeId);
+        if (serviceEvent != null) {
+            if (listId instanceof KapuaId) {
+                serviceEvent.setEntityId((KapuaId) listId);
+            } else if (listId instanceof String) {
+                serviceEvent.setInputs((String) listId);
+            }
+            publish(serviceEvent);
+        }
+    }
+
+    /**
+     * Applies an invalidation received from the {@link ServiceEventBus}.
+     *
+     * @param serviceEvent The {@link ServiceEvent} of the invalidation.
+     * @since 2.1.0
+     */
+    public void onServiceEvent(ServiceEvent serviceEvent) {
+        if (!SERVICE_NAME.equals(serviceEvent.getService()) || serviceEvent.getOperation() == null || nodeId.equals(serviceEvent.getNote())) {
+            return;
+        }
+
+        Set<EntityCache> invalidatedCaches = entityCaches.getOrDefault(serviceEvent.getEntityType(), Collections.emptySet());
+        if (invalidatedCaches.isEmpty() && !listeners.containsKey(serviceEvent.getEntityType())) {
+            return;
+        }
+
+        commonsMetric.getCacheInvalidationReceived().inc();
+        REMOTE_INVALIDATION.set(Boolean.TRUE);
+        try {
+            for (EntityCache entityCache : invalidatedCaches) {
+                switch (serviceEvent.getOperation()) {
+                case OPERATION_INVALIDATE:
+                    entityCache.remove(KapuaId.ANY, serviceEvent.getEntityId());
+                    break;
+                case OPERATION_INVALIDATE_LIST:
+                    entityCache.removeList(serviceEvent.getEntityScopeId(), serviceEvent.getEntityId() != null ? serviceEvent.getEntityId() : serviceEvent.getInputs());
+                    break;
+                case OPERATION_INVALIDATE_LISTS:
+                    entityCache.removeLists();
+                    break;
+                default:
+                    LOG.warn("Discarding entity cache invalidation with unknown operation '{}'", serviceEvent.getOperation());
+                }
+            }
+        } finally {
+            REMOTE_INVALIDATION.remove();
+        }
+
+        if (OPERATION_INVALIDATE.equals(serviceEvent.getOperation())) {
+            notifyListeners(serviceEvent.getEntityType(), serviceEvent.getEntityScopeId(), serviceEvent.getEntityId());
+        }
+    }
+
+    private void notifyListeners(String idCacheName, KapuaId scopeId, KapuaId entityId) {
+        for (EntityCacheInvalidationListener listener : listeners.getOrDefault(idCacheName, Collections.emptySet())) {
+            try {
+                listener.onInvalidation(scopeId, entityId);
+            } catch (Exception e) {
+                LOG.warn("Error while notifying the invalidation of {} {}: {}", idCacheName, entityId, e.getMessage(), e);
+            }
+        }
+    }
+
+    private ServiceEvent newServiceEvent(String idCacheName, String operation, KapuaId scopeId) {
+        if (serviceEventBus == null || REMOTE_INVALIDATION.get() != null || LOCAL_INVALIDATION.get() != null) {
+            return null;
+        }
+
+        ServiceEvent serviceEvent = new ServiceEvent();
+        serviceEvent.setId(UUID.randomUUID().toString());
+        serviceEvent.setContextId(serviceEvent.getId());
+        serviceEvent.setTimestamp(new Date());
+        KapuaSession kapuaSession = KapuaSecurityUtils.getSession();
+        if (kapuaSession != null) {
+            serviceEvent.setScopeId(kapuaSession.getScopeId());
+            serviceEvent.setUserId(kapuaSession.getUserId());
+        }
+        serviceEvent.setService(SERVICE_NAME);
+        serviceEvent.setEntityType(idCacheName);
+        serviceEvent.setEntityScopeId(scopeId);
+        serviceEvent.setOperation(operation);
+        serviceEvent.setNote(nodeId);
+        serviceEvent.setStatus(ServiceEvent.EventStatus.TRIGGERED);
+        return serviceEvent;
+    }
+
+    private void publish(ServiceEvent serviceEvent) {
+        ServiceEventBus currentServiceEventBus = serviceEventBus;
+        String currentAddress = address;
+        if (currentServiceEventBus == null || currentAddress == null) {
+            return;
+        }
+        try {
+            currentServiceEventBus.publish(currentAddress, serviceEvent);
+            commonsMetric.getCacheInvalidationPublished().inc();
+        } catch (Exception e) {
+            // The entity has already been changed, the other nodes will see it when their entries expire
+            commonsMetric.getCacheInvalidationError().inc();
+            LOG.warn("Error while publishing the invalidation of {} {} on {}: {}", serviceEvent.getEntityType(), serviceEvent.getEntityId(), currentAddress, e.getMessage(), e);
+        }
+    }
+}
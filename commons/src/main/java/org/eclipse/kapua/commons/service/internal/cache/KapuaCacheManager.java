@@ -21,6 +21,7 @@ import javax.cache.Cache;
 import javax.cache.CacheManager;
 import javax.cache.configuration.Factory;
 import javax.cache.configuration.MutableConfiguration;
+import javax.cache.configuration.OptionalFeature;
 import javax.cache.expiry.Duration;
 import javax.cache.expiry.ModifiedExpiryPolicy;
 import javax.cache.expiry.TouchedExpiryPolicy;
@@ -47,11 +48,20 @@ public class KapuaCacheManager {
 
     private final CacheManager cacheManager;
     private final CommonsMetric commonsMetric;
+    private final EntityCacheInvalidator entityCacheInvalidator;
 
-    @Inject
+    /**
+     * Constructor of a {@link KapuaCacheManager} whose invalidations stay local.
+     */
     public KapuaCacheManager(CacheManager cacheManager, CommonsMetric commonsMetric, SystemSetting systemSetting) {
+        this(cacheManager, commonsMetric, systemSetting, new EntityCacheInvalidator(commonsMetric));
+    }
+
+    @Inject
+    public KapuaCacheManager(CacheManager cacheManager, CommonsMetric commonsMetric, SystemSetting systemSetting, EntityCacheInvalidator entityCacheInvalidator) {
         this.cacheManager = cacheManager;
         this.commonsMetric = commonsMetric;
+        this.entityCacheInvalidator = entityCacheInvalidator;
         this.ttl = systemSetting.getLong(SystemSettingKey.CACHE_TTL, 60);
         this.expiryPolicy = systemSetting.getString(SystemSettingKey.JCACHE_EXPIRY_POLICY, ExpiryPolicy.MODIFIED.name());
     }
@@ -85,6 +95,15 @@ public class KapuaCacheManager {
         return cache;
     }
 
+    /**
+     * Gets the {@link EntityCacheInvalidator} which propagates the invalidations of the {@link EntityCache}s built on this manager.
+     *
+     * @return The {@link EntityCacheInvalidator}.
+     */
+    public EntityCacheInvalidator getEntityCacheInvalidator() {
+        return entityCacheInvalidator;
+    }
+
     private MutableConfiguration<Serializable, Serializable> initConfig() {
         Factory expiryPolicyFactory;
         if (ExpiryPolicy.TOUCHED.name().equals(expiryPolicy)) {
@@ -94,6 +113,10 @@ public class KapuaCacheManager {
         }
         MutableConfiguration<Serializable, Serializable> config = new MutableConfiguration<>();
         config.setExpiryPolicyFactory(expiryPolicyFactory);
+        // Cached entities are never modified (see EntityCache), so they are stored by reference when supported, sparing a copy on each read
+        if (cacheManager.getCachingProvider() != null && cacheManager.getCachingProvider().isSupported(OptionalFeature.STORE_BY_REFERENCE)) {
+            config.setStoreByValue(false);
+        }
         return config;
     }
 
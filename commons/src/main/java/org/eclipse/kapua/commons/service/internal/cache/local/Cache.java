@@ -0,0 +1,1033 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.service.internal.cache.local;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import javax.cache.CacheException;
+import javax.cache.configuration.CacheEntryListenerConfiguration;
+import javax.cache.configuration.CompleteConfiguration;
+import javax.cache.configuration.Configuration;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.expiry.Duration;
+import javax.cache.expiry.ExpiryPolicy;
+import javax.cache.configuration.Factory;
+import javax.cache.integration.CacheLoader;
+import javax.cache.integration.CacheLoaderException;
+import javax.cache.integration.CompletionListener;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.EntryProcessorException;
+import javax.cache.processor.EntryProcessorResult;
+import javax.cache.processor.MutableEntry;
+
+import org.eclipse.kapua.commons.metric.CommonsMetric;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+
+import com.codahale.metrics.Counter;
+
+/**
+ * Bounded in-process {@link javax.cache.Cache} implementation.
+ * <p>
+ * Entries are stored into a {@link ConcurrentHashMap}. As required by {@link Configuration#isStoreByValue()}, which is the default,
+ * the values are serialized when they are put and a new copy is deserialized for each read, so callers can modify the values they get
+ * (i.e. the entities found through the EntityCache) without changing the cached ones. They must be {@link java.io.Serializable}.
+ * Values of immutable types, like {@link String}s and {@link KapuaEid}s, are not copied since they cannot be changed.
+ * Keys are always stored by reference and must not be modified once used.
+ * Caches configured to store by reference skip the copies and return the cached instances: the KapuaCacheManager configures its caches this way.
+ * <p>
+ * The size is bounded with a W-TinyLFU policy, the design of the Caffeine library described in
+ * "TinyLFU: A Highly Efficient Cache Admission Policy" (Einziger, Friedman, Manes - ACM Transactions on Storage, 2017).
+ * New entries enter a small LRU admission window (1% of the maximum size) and, when they are pushed out of it,
+ * they are admitted into the main LRU space only if their estimated access frequency ({@link FrequencySketch}) is higher
+ * than the one of the entry that would be evicted to make room for them.
+ * This keeps the frequently used entries in the cache when it is flooded by entries read only once (i.e. scans).
+ * Unlike Caffeine, the main space is a single LRU list rather than a segmented one.
+ * <p>
+ * The invariants checked by the CacheTest are:
+ * <ul>
+ *     <li>the number of entries does not exceed the maximum size, each entry over it being evicted and counted;</li>
+ *     <li>a frequently read set of entries fitting the cache survives a scan of many entries read once;</li>
+ *     <li>an entry is never returned after its expiration, whatever the {@link ExpiryPolicy};</li>
+ *     <li>when storing by value, changes to a put or read value are not visible to the other readers.</li>
+ * </ul>
+ * <p>
+ * Reads do not take any lock: the accesses are recorded into a lossy ring buffer which is applied to the policy
+ * by the next write or when the buffer is half full, while holding the eviction lock.
+ * <p>
+ * Expiration honors the {@link ExpiryPolicy} of the {@link Configuration} and is checked when entries are read.
+ * <p>
+ * {@link #invoke(Object, EntryProcessor, Object...)} runs the {@link EntryProcessor} atomically with respect to the other writes of the same key,
+ * so it must not access this cache. {@link #loadAll(Set, boolean, CompletionListener)} runs synchronously with the configured {@link CacheLoader}.
+ * <p>
+ * Cache entry listeners and read/write-through are not supported: {@link #registerCacheEntryListener(CacheEntryListenerConfiguration)}
+ * throws {@link UnsupportedOperationException}, as the creation of a cache whose {@link Configuration} requires any of them.
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ * @since 2.1.0
+ */
+public class Cache<K, V> implements javax.cache.Cache<K, V> {
+
+    private static final int READ_BUFFER_SIZE = 128;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    private static final int READ_BUFFER_DRAIN_THRESHOLD = READ_BUFFER_SIZE / 2;
+    private static final Set<Class<?>> IMMUTABLE_VALUE_CLASSES = new HashSet<>(Arrays.asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+            BigInteger.class, BigDecimal.class, KapuaEid.class));
+    private static final CompletionListener NO_COMPLETION_LISTENER = new CompletionListener() {
+
+        @Override
+        public void onCompletion() {
+            // Nothing to notify
+        }
+
+        @Override
+        public void onException(Exception e) {
+            // Nothing to notify
+        }
+    };
+
+    private final String cacheName;
+    private final CacheManager cacheManager;
+    private final MutableConfiguration<K, V> configuration;
+    private final ExpiryPolicy expiryPolicy;
+    private final boolean storeByValue;
+    private final CacheLoader<K, V> cacheLoader;
+    private final LongSupplier ticker;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Counter expirations;
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+
+    // Eviction policy state, guarded by evictionLock
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final Node<K, V> window = Node.sentinel();
+    private final Node<K, V> main = Node.sentinel();
+    private final long windowMaximum;
+    private final long mainMaximum;
+    private long windowSize;
+    private long mainSize;
+
+    // Lossy ring buffer of the read entries
+    private final AtomicReferenceArray<Node<K, V>> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+    private final AtomicLong readBufferWriteCount = new AtomicLong();
+    private volatile long readBufferReadCount;
+
+    private volatile boolean closed;
+
+    /**
+     * Constructor.
+     *
+     * @param cacheName     The name of the cache.
+     * @param cacheManager  The {@link CacheManager} which manages this cache.
+     * @param configuration The {@link Configuration} of this cache.
+     * @param maximumSize   The maximum number of entries of this cache.
+     * @param commonsMetric The {@link CommonsMetric} to report hits, misses, evictions and expirations to. It can be {@code null}.
+     * @throws UnsupportedOperationException if the {@link Configuration} requires cache entry listeners, read-through or write-through.
+     * @since 2.1.0
+     */
+    public Cache(String cacheName, CacheManager cacheManager, Configuration<K, V> configuration, long maximumSize, CommonsMetric commonsMetric) {
+        this(cacheName, cacheManager, configuration, maximumSize, commonsMetric, System::nanoTime);
+    }
+
+    Cache(String cacheName, CacheManager cacheManager, Configuration<K, V> configuration, long maximumSize, CommonsMetric commonsMetric, LongSupplier ticker) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size of the cache " + cacheName + " must be greater than 0: " + maximumSize);
+        }
+        this.cacheName = cacheName;
+        this.cacheManager = cacheManager;
+        if (configuration instanceof CompleteConfiguration) {
+            this.configuration = new MutableConfiguration<>((CompleteConfiguration<K, V>) configuration);
+        } else {
+            this.configuration = new MutableConfiguration<K, V>().setTypes(configuration.getKeyType(), configuration.getValueType());
+        }
+        this.configuration.setStoreByValue(configuration.isStoreByValue());
+        if (this.configuration.getCacheEntryListenerConfigurations().iterator().hasNext()) {
+            throw new UnsupportedOperationException("The cache " + cacheName + " does not support cache entry listeners");
+        }
+        if (this.configuration.isReadThrough() || this.configuration.isWriteThrough()) {
+            throw new UnsupportedOperationException("The cache " + cacheName + " does not support read-through nor write-through");
+        }
+        this.expiryPolicy = this.configuration.getExpiryPolicyFactory().create();
+        this.storeByValue = this.configuration.isStoreByValue();
+        Factory<CacheLoader<K, V>> cacheLoaderFactory = this.configuration.getCacheLoaderFactory();
+        this.cacheLoader = cacheLoaderFactory != null ? cacheLoaderFactory.create() : null;
+        this.ticker = ticker;
+        this.hits = counterOrUnregistered(commonsMetric != null ? commonsMetric.getLocalCacheHit() : null);
+        this.misses = counterOrUnregistered(commonsMetric != null ? commonsMetric.getLocalCacheMiss() : null);
+        this.evictions = counterOrUnregistered(commonsMetric != null ? commonsMetric.getLocalCacheEviction() : null);
+        this.expirations = counterOrUnregistered(commonsMetric != null ? commonsMetric.getLocalCacheExpiration() : null);
+
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.mainMaximum = Math.max(1, maximumSize - windowMaximum);
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    @Override
+    public V get(K key) {
+        checkNotClosed();
+        Objects.requireNonNull(key, "key");
+
+        V value = getIfPresent(key, ticker.getAsLong(), true);
+        if (value == null) {
+            misses.inc();
+        } else {
+            hits.inc();
+        }
+        return value;
+    }
+
+    @Override
+    public Map<K, V> getAll(Set<? extends K> keys) {
+        checkNotClosed();
+        Map<K, V> result = new HashMap<>();
+        for (K key : keys) {
+            V value = get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        checkNotClosed();
+        Objects.requireNonNull(key, "key");
+        return getIfPresent(key, ticker.getAsLong(), false) != null;
+    }
+
+    @Override
+    public void loadAll(Set<? extends K> keys, boolean replaceExistingValues, CompletionListener completionListener) {
+        checkNotClosed();
+        Objects.requireNonNull(keys, "keys");
+        keys.forEach(key -> Objects.requireNonNull(key, "key"));
+        CompletionListener listener = completionListener != null ? completionListener : NO_COMPLETION_LISTENER;
+        if (cacheLoader == null) {
+            listener.onCompletion();
+            return;
+        }
+
+        try {
+            Set<K> keysToLoad = new HashSet<>();
+            for (K key : keys) {
+                if (replaceExistingValues || !containsKey(key)) {
+                    keysToLoad.add(key);
+                }
+            }
+            Map<K, V> loaded = keysToLoad.isEmpty() ? null : cacheLoader.loadAll(keysToLoad);
+            if (loaded != null) {
+                loaded.forEach((key, value) -> {
+                    if (key != null && value != null) {
+                        doPut(key, value, !replaceExistingValues);
+                    }
+                });
+            }
+        } catch (Exception e) {
+            listener.onException(e instanceof CacheLoaderException ? e : new CacheLoaderException(e));
+            return;
+        }
+        listener.onCompletion();
+    }
+
+    @Override
+    public void put(K key, V value) {
+        doPut(key, value, false);
+    }
+
+    @Override
+    public V getAndPut(K key, V value) {
+        return fromStored(doPut(key, value, false));
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        checkNotClosed();
+        map.forEach(this::put);
+    }
+
+    @Override
+    public boolean putIfAbsent(K key, V value) {
+        return doPut(key, value, true) == null;
+    }
+
+    @Override
+    public boolean remove(K key) {
+        return doRemove(key, null) != null;
+    }
+
+    @Override
+    public boolean remove(K key, V oldValue) {
+        Objects.requireNonNull(oldValue, "oldValue");
+        return doRemove(key, oldValue) != null;
+    }
+
+    @Override
+    public V getAndRemove(K key) {
+        return fromStored(doRemove(key, null));
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        Objects.requireNonNull(oldValue, "oldValue");
+        return doReplace(key, oldValue, newValue) != null;
+    }
+
+    @Override
+    public boolean replace(K key, V value) {
+        return doReplace(key, null, value) != null;
+    }
+
+    @Override
+    public V getAndReplace(K key, V value) {
+        return fromStored(doReplace(key, null, value));
+    }
+
+    @Override
+    public void removeAll(Set<? extends K> keys) {
+        checkNotClosed();
+        keys.forEach(this::remove);
+    }
+
+    @Override
+    public void removeAll() {
+        clear();
+    }
+
+    @Override
+    public void clear() {
+        checkNotClosed();
+        evictionLock.lock();
+        try {
+            for (K key : data.keySet()) {
+                Node<K, V> removed = data.remove(key);
+                if (removed != null) {
+                    removed.retired = true;
+                    unlink(removed);
+                }
+            }
+            drainReadBuffer();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return cacheName;
+    }
+
+    @Override
+    public CacheManager getCacheManager() {
+        return cacheManager;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            cacheManager.releaseCache(cacheName, this);
+            closed = true;
+            data.clear();
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void registerCacheEntryListener(CacheEntryListenerConfiguration<K, V> cacheEntryListenerConfiguration) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void deregisterCacheEntryListener(CacheEntryListenerConfiguration<K, V> cacheEntryListenerConfiguration) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        checkNotClosed();
+        long now = ticker.getAsLong();
+        List<Entry<K, V>> entries = new ArrayList<>();
+        for (Node<K, V> node : data.values()) {
+            Object value = node.value;
+            if (!node.isExpired(now)) {
+                entries.add(new LocalEntry<>(node.key, fromStored(value)));
+            }
+        }
+        Iterator<Entry<K, V>> delegate = entries.iterator();
+        return new Iterator<Entry<K, V>>() {
+
+            private Entry<K, V> current;
+
+            @Override
+            public boolean hasNext() {
+                return delegate.hasNext();
+            }
+
+            @Override
+            public Entry<K, V> next() {
+                if (!delegate.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                current = delegate.next();
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                if (current == null) {
+                    throw new IllegalStateException();
+                }
+                Cache.this.remove(current.getKey());
+                current = null;
+            }
+        };
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> clazz) {
+        if (clazz.isAssignableFrom(getClass())) {
+            return clazz.cast(this);
+        }
+        throw new IllegalArgumentException("Cannot unwrap " + getClass().getName() + " to " + clazz.getName());
+    }
+
+    @Override
+    public <T> Map<K, EntryProcessorResult<T>> invokeAll(Set<? extends K> keys, EntryProcessor<K, V, T> entryProcessor, Object... arguments) {
+        checkNotClosed();
+        Objects.requireNonNull(keys, "keys");
+        Objects.requireNonNull(entryProcessor, "entryProcessor");
+
+        Map<K, EntryProcessorResult<T>> results = new HashMap<>();
+        for (K key : keys) {
+            try {
+                T result = invoke(key, entryProcessor, arguments);
+                if (result != null) {
+                    results.put(key, () -> result);
+                }
+            } catch (EntryProcessorException e) {
+                results.put(key, () -> {
+                    throw e;
+                });
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public <T> T invoke(K key, EntryProcessor<K, V, T> entryProcessor, Object... arguments) throws EntryProcessorException {
+        checkNotClosed();
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(entryProcessor, "entryProcessor");
+
+        long now = ticker.getAsLong();
+        Object[] outcome = new Object[4]; // result, added node, removed node, expired
+        try {
+            data.compute(key, (k, existing) -> {
+                Node<K, V> current = existing;
+                if (current != null && current.isExpired(now)) {
+                    current.retired = true;
+                    outcome[2] = current;
+                    outcome[3] = Boolean.TRUE;
+                    current = null;
+                }
+
+                ProcessedEntry<K, V> entry = new ProcessedEntry<>(k, current != null ? fromStored(current.value) : null);
+                outcome[0] = entryProcessor.process(entry, arguments);
+
+                if (entry.removed) {
+                    if (current != null) {
+                        current.retired = true;
+                        outcome[2] = current;
+                    }
+                    return null;
+                }
+                if (entry.updated) {
+                    if (current != null) {
+                        current.value = toStored(entry.value);
+                        Duration updateDuration = expiryPolicy.getExpiryForUpdate();
+                        if (updateDuration != null) {
+                            current.expireAt = expireAt(now, updateDuration);
+                        }
+                        return current;
+                    }
+                    Node<K, V> created = new Node<>(k, toStored(entry.value), expireAt(now, expiryPolicy.getExpiryForCreation()));
+                    if (created.isExpired(now)) {
+                        return null;
+                    }
+                    outcome[1] = created;
+                    return created;
+                }
+                if (current != null && entry.accessed) {
+                    Duration accessDuration = expiryPolicy.getExpiryForAccess();
+                    if (accessDuration != null) {
+                        current.expireAt = expireAt(now, accessDuration);
+                    }
+                }
+                return current;
+            });
+        } catch (EntryProcessorException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new EntryProcessorException(e);
+        }
+
+        if (outcome[3] != null) {
+            expirations.inc();
+        }
+        afterWrite(castNode(outcome[1]), castNode(outcome[2]));
+        @SuppressWarnings("unchecked")
+        T result = (T) outcome[0];
+        return result;
+    }
+
+    @Override
+    public <C extends Configuration<K, V>> C getConfiguration(Class<C> clazz) {
+        if (clazz.isInstance(configuration)) {
+            return clazz.cast(configuration);
+        }
+        throw new IllegalArgumentException("Unsupported configuration class " + clazz.getName());
+    }
+
+    /**
+     * Gets the number of entries currently stored, including the expired ones not yet removed.
+     *
+     * @return The number of entries currently stored.
+     * @since 2.1.0
+     */
+    public long size() {
+        return data.size();
+    }
+
+    //
+    // Read path
+
+    private V getIfPresent(K key, long now, boolean recordAccess) {
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (node.isExpired(now)) {
+            expire(node, now);
+            return null;
+        }
+        Object value = node.value;
+        if (recordAccess) {
+            Duration accessDuration = expiryPolicy.getExpiryForAccess();
+            if (accessDuration != null) {
+                node.expireAt = expireAt(now, accessDuration);
+            }
+            recordRead(node);
+        }
+        return fromStored(value);
+    }
+
+    private void recordRead(Node<K, V> node) {
+        long writeCount = readBufferWriteCount.get();
+        long pending = writeCount - readBufferReadCount;
+        if (pending < READ_BUFFER_SIZE && readBufferWriteCount.compareAndSet(writeCount, writeCount + 1)) {
+            readBuffer.lazySet((int) (writeCount & READ_BUFFER_MASK), node);
+            pending++;
+        }
+        // When the buffer is full the access is dropped: the policy only needs a sample of them
+        if (pending >= READ_BUFFER_DRAIN_THRESHOLD && evictionLock.tryLock()) {
+            try {
+                drainReadBuffer();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    //
+    // Write path, returning the stored representation of the previous value
+
+    private Object doPut(K key, V value, boolean onlyIfAbsent) {
+        checkNotClosed();
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+
+        Object stored = toStored(value);
+        long now = ticker.getAsLong();
+        Object[] outcome = new Object[3]; // previous value, added node, removed node
+        data.compute(key, (k, existing) -> {
+            if (existing != null && !existing.isExpired(now)) {
+                outcome[0] = existing.value;
+                if (onlyIfAbsent) {
+                    return existing;
+                }
+                existing.value = stored;
+                Duration updateDuration = expiryPolicy.getExpiryForUpdate();
+                if (updateDuration != null) {
+                    existing.expireAt = expireAt(now, updateDuration);
+                }
+                return existing;
+            }
+            if (existing != null) {
+                existing.retired = true;
+                outcome[2] = existing;
+            }
+            Node<K, V> created = new Node<>(k, stored, expireAt(now, expiryPolicy.getExpiryForCreation()));
+            if (created.isExpired(now)) {
+                return null;
+            }
+            outcome[1] = created;
+            return created;
+        });
+        afterWrite(castNode(outcome[1]), castNode(outcome[2]));
+        return outcome[0];
+    }
+
+    private Object doRemove(K key, V expectedValue) {
+        checkNotClosed();
+        Objects.requireNonNull(key, "key");
+
+        long now = ticker.getAsLong();
+        Object[] outcome = new Object[2]; // previous value, removed node
+        data.computeIfPresent(key, (k, existing) -> {
+            if (existing.isExpired(now)) {
+                existing.retired = true;
+                outcome[1] = existing;
+                return null;
+            }
+            if (expectedValue != null && !expectedValue.equals(fromStored(existing.value))) {
+                return existing;
+            }
+            existing.retired = true;
+            outcome[0] = existing.value;
+            outcome[1] = existing;
+            return null;
+        });
+        afterWrite(null, castNode(outcome[1]));
+        return outcome[0];
+    }
+
+    private Object doReplace(K key, V expectedValue, V value) {
+        checkNotClosed();
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+
+        Object stored = toStored(value);
+        long now = ticker.getAsLong();
+        Object[] outcome = new Object[2]; // previous value, removed node
+        data.computeIfPresent(key, (k, existing) -> {
+            if (existing.isExpired(now)) {
+                existing.retired = true;
+                outcome[1] = existing;
+                return null;
+            }
+            if (expectedValue != null && !expectedValue.equals(fromStored(existing.value))) {
+                return existing;
+            }
+            outcome[0] = existing.value;
+            existing.value = stored;
+            Duration updateDuration = expiryPolicy.getExpiryForUpdate();
+            if (updateDuration != null) {
+                existing.expireAt = expireAt(now, updateDuration);
+            }
+            return existing;
+        });
+        afterWrite(null, castNode(outcome[1]));
+        return outcome[0];
+    }
+
+    private void expire(Node<K, V> node, long now) {
+        boolean[] expired = new boolean[1];
+        data.computeIfPresent(node.key, (k, existing) -> {
+            if (existing == node && existing.isExpired(now)) {
+                existing.retired = true;
+                expired[0] = true;
+                return null;
+            }
+            return existing;
+        });
+        if (expired[0]) {
+            expirations.inc();
+            afterWrite(null, node);
+        }
+    }
+
+    /**
+     * Applies the outcome of a write to the eviction policy.
+     *
+     * @param added   The {@link Node} added to the data, if any.
+     * @param removed The {@link Node} removed from the data, if any.
+     */
+    private void afterWrite(Node<K, V> added, Node<K, V> removed) {
+        if (added == null && removed == null) {
+            return;
+        }
+        evictionLock.lock();
+        try {
+            drainReadBuffer();
+            if (removed != null) {
+                unlink(removed);
+            }
+            if (added != null && !added.retired) {
+                sketch.increment(added.key);
+                added.inWindow = true;
+                linkLast(window, added);
+                windowSize++;
+                evict();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    //
+    // Eviction policy, all the following methods require the eviction lock to be held
+
+    private void drainReadBuffer() {
+        long writeCount = readBufferWriteCount.get();
+        for (long readCount = readBufferReadCount; readCount < writeCount; readCount++) {
+            Node<K, V> node = readBuffer.getAndSet((int) (readCount & READ_BUFFER_MASK), null);
+            if (node != null) {
+                onAccess(node);
+            }
+        }
+        readBufferReadCount = writeCount;
+    }
+
+    private void onAccess(Node<K, V> node) {
+        sketch.increment(node.key);
+        if (node.linked) {
+            unlinkNode(node);
+            linkLast(node.inWindow ? window : main, node);
+        }
+    }
+
+    /**
+     * Moves the entries exceeding the admission window to the main space, where the most frequently used one
+     * between the incoming entry and the least recently used one of the main space is kept.
+     */
+    private void evict() {
+        while (windowSize > windowMaximum) {
+            Node<K, V> candidate = window.next;
+            unlinkNode(candidate);
+            windowSize--;
+            candidate.inWindow = false;
+            linkLast(main, candidate);
+            mainSize++;
+
+            if (mainSize > mainMaximum) {
+                Node<K, V> victim = main.next;
+                if (victim != candidate && sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                    victim = candidate;
+                }
+                evictNode(victim);
+            }
+        }
+    }
+
+    private void evictNode(Node<K, V> node) {
+        unlink(node);
+        boolean[] evicted = new boolean[1];
+        data.computeIfPresent(node.key, (k, existing) -> {
+            if (existing == node) {
+                existing.retired = true;
+                evicted[0] = true;
+                return null;
+            }
+            return existing;
+        });
+        if (evicted[0]) {
+            evictions.inc();
+        }
+    }
+
+    private void unlink(Node<K, V> node) {
+        if (node.linked) {
+            unlinkNode(node);
+            if (node.inWindow) {
+                windowSize--;
+            } else {
+                mainSize--;
+            }
+        }
+    }
+
+    private void linkLast(Node<K, V> sentinel, Node<K, V> node) {
+        Node<K, V> last = sentinel.prev;
+        node.prev = last;
+        node.next = sentinel;
+        last.next = node;
+        sentinel.prev = node;
+        node.linked = true;
+    }
+
+    private void unlinkNode(Node<K, V> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+        node.linked = false;
+    }
+
+    //
+    // Utilities
+
+    private long expireAt(long now, Duration duration) {
+        if (duration == null || duration.isEternal()) {
+            return Long.MAX_VALUE;
+        }
+        if (duration.isZero()) {
+            return now;
+        }
+        long expireAt = now + duration.getTimeUnit().toNanos(duration.getDurationAmount());
+        return expireAt == Long.MAX_VALUE ? Long.MAX_VALUE - 1 : expireAt;
+    }
+
+    private void checkNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("The cache " + cacheName + " is closed");
+        }
+    }
+
+    private static Counter counterOrUnregistered(Counter counter) {
+        return counter != null ? counter : new Counter();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node<K, V> castNode(Object node) {
+        return (Node<K, V>) node;
+    }
+
+    /**
+     * Gets the representation of the value to store into a {@link Node}: the value itself or, when storing by value, its {@link SerializedValue}.
+     *
+     * @param value The value to store.
+     * @return The representation to store.
+     * @throws IllegalArgumentException if the value must be stored by value and it is not {@link java.io.Serializable}.
+     */
+    private Object toStored(V value) {
+        if (!storeByValue || value.getClass().isEnum() || IMMUTABLE_VALUE_CLASSES.contains(value.getClass())) {
+            return value;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(bytes)) {
+            objectOutputStream.writeObject(value);
+        } catch (NotSerializableException e) {
+            throw new IllegalArgumentException("The cache " + cacheName + " stores by value, but " + value.getClass().getName() + " is not serializable", e);
+        } catch (IOException e) {
+            throw new CacheException("Cannot serialize the value of " + value.getClass().getName() + " into the cache " + cacheName, e);
+        }
+        return new SerializedValue(bytes.toByteArray());
+    }
+
+    /**
+     * Gets the value from the representation stored into a {@link Node}: the value itself or, when storing by value, a new copy of it.
+     *
+     * @param stored The stored representation. It can be {@code null}.
+     * @return The value, or {@code null} if the representation is {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    private V fromStored(Object stored) {
+        if (!(stored instanceof SerializedValue)) {
+            return (V) stored;
+        }
+        byte[] bytes = ((SerializedValue) stored).bytes;
+        try (ObjectInputStream objectInputStream = new ClassLoaderObjectInputStream(new ByteArrayInputStream(bytes), cacheManager != null ? cacheManager.getClassLoader() : null)) {
+            return (V) objectInputStream.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new CacheException("Cannot deserialize a value of the cache " + cacheName, e);
+        }
+    }
+
+    /**
+     * A cache entry, linked into the LRU list of either the admission window or the main space.
+     */
+    private static final class Node<K, V> {
+
+        final K key;
+        // The value or, when storing by value, its SerializedValue
+        volatile Object value;
+        volatile long expireAt;
+        volatile boolean retired;
+
+        // Guarded by the eviction lock
+        Node<K, V> prev;
+        Node<K, V> next;
+        boolean inWindow;
+        boolean linked;
+
+        Node(K key, Object value, long expireAt) {
+            this.key = key;
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+
+        static <K, V> Node<K, V> sentinel() {
+            Node<K, V> sentinel = new Node<>(null, null, Long.MAX_VALUE);
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            return sentinel;
+        }
+
+        boolean isExpired(long now) {
+            return expireAt != Long.MAX_VALUE && now - expireAt >= 0;
+        }
+    }
+
+    /**
+     * The {@link MutableEntry} given to an {@link EntryProcessor}, recording the changes to apply once it has been processed.
+     */
+    private static final class ProcessedEntry<K, V> implements MutableEntry<K, V> {
+
+        private final K key;
+        private V value;
+        private boolean accessed;
+        private boolean updated;
+        private boolean removed;
+
+        ProcessedEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            accessed = true;
+            return value;
+        }
+
+        @Override
+        public boolean exists() {
+            return value != null;
+        }
+
+        @Override
+        public void setValue(V value) {
+            Objects.requireNonNull(value, "value");
+            this.value = value;
+            updated = true;
+            removed = false;
+        }
+
+        @Override
+        public void remove() {
+            value = null;
+            updated = false;
+            removed = true;
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> clazz) {
+            if (clazz.isInstance(this)) {
+                return clazz.cast(this);
+            }
+            throw new IllegalArgumentException("Cannot unwrap " + getClass().getName() + " to " + clazz.getName());
+        }
+    }
+
+    /**
+     * The serialized form of a value stored by value.
+     */
+    private static final class SerializedValue {
+
+        final byte[] bytes;
+
+        SerializedValue(byte[] bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Resolves the classes of the deserialized values with the {@link ClassLoader} of the {@link CacheManager}.
+     */
+    private static final class ClassLoaderObjectInputStream extends ObjectInputStream {
+
+        private final ClassLoader classLoader;
+
+        ClassLoaderObjectInputStream(InputStream inputStream, ClassLoader classLoader) throws IOException {
+            super(inputStream);
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass objectStreamClass) throws IOException, ClassNotFoundException {
+            if (classLoader != null) {
+                try {
+                    return Class.forName(objectStreamClass.getName(), false, classLoader);
+                } catch (ClassNotFoundException e) {
+                    // Fall back to the default resolution, i.e. for the primitive types
+                }
+            }
+            return super.resolveClass(objectStreamClass);
+        }
+    }
+
+    private static final class LocalEntry<K, V> implements Entry<K, V> {
+
+        private final K key;
+        private final V value;
+
+        LocalEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> clazz) {
+            if (clazz.isInstance(this)) {
+                return clazz.cast(this);
+            }
+            throw new IllegalArgumentException("Cannot unwrap " + getClass().getName() + " to " + clazz.getName());
+        }
+    }
+}
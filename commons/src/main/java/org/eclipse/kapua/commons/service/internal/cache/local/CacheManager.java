@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.service.internal.cache.local;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.cache.CacheException;
+import javax.cache.configuration.Configuration;
+
+import org.eclipse.kapua.commons.metric.CommonsMetric;
+
+/**
+ * {@link javax.cache.CacheManager} of the in-process {@link Cache}s.
+ *
+ * @since 2.1.0
+ */
+public class CacheManager implements javax.cache.CacheManager {
+
+    private final CachingProvider cachingProvider;
+    private final URI uri;
+    private final ClassLoader classLoader;
+    private final Properties properties;
+    private final long maximumSize;
+    private final CommonsMetric commonsMetric;
+
+    private final ConcurrentHashMap<String, Cache<?, ?>> caches = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * Constructor.
+     *
+     * @param cachingProvider The {@link CachingProvider} which created this manager.
+     * @param uri             The {@link URI} of this manager.
+     * @param classLoader     The {@link ClassLoader} of this manager.
+     * @param properties      The {@link Properties} of this manager.
+     * @param maximumSize     The maximum number of entries of each {@link Cache} created by this manager.
+     * @param commonsMetric   The {@link CommonsMetric} to report the {@link Cache}s metrics to. It can be {@code null}.
+     * @since 2.1.0
+     */
+    public CacheManager(CachingProvider cachingProvider, URI uri, ClassLoader classLoader, Properties properties, long maximumSize, CommonsMetric commonsMetric) {
+        this.cachingProvider = cachingProvider;
+        this.uri = uri;
+        this.classLoader = classLoader;
+        this.properties = properties;
+        this.maximumSize = maximumSize;
+        this.commonsMetric = commonsMetric;
+    }
+
+    @Override
+    public CachingProvider getCachingProvider() {
+        return cachingProvider;
+    }
+
+    @Override
+    public URI getURI() {
+        return uri;
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    @Override
+    public Properties getProperties() {
+        return properties;
+    }
+
+    @Override
+    public <K, V, C extends Configuration<K, V>> javax.cache.Cache<K, V> createCache(String cacheName, C configuration) throws IllegalArgumentException {
+        checkNotClosed();
+        if (cacheName == null || configuration == null) {
+            throw new NullPointerException("Cache name and configuration are required");
+        }
+
+        Cache<K, V> cache = new Cache<>(cacheName, this, configuration, maximumSize, commonsMetric);
+        if (caches.putIfAbsent(cacheName, cache) != null) {
+            throw new CacheException("A cache named " + cacheName + " already exists");
+        }
+        return cache;
+    }
+
+    @Override
+    public <K, V> javax.cache.Cache<K, V> getCache(String cacheName, Class<K> keyType, Class<V> valueType) {
+        return getCache(cacheName);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> javax.cache.Cache<K, V> getCache(String cacheName) {
+        checkNotClosed();
+        return (javax.cache.Cache<K, V>) caches.get(cacheName);
+    }
+
+    @Override
+    public Iterable<String> getCacheNames() {
+        checkNotClosed();
+        return Collections.unmodifiableList(new ArrayList<>(caches.keySet()));
+    }
+
+    @Override
+    public void destroyCache(String cacheName) {
+        checkNotClosed();
+        Cache<?, ?> cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.clear();
+            cache.close();
+        }
+    }
+
+    @Override
+    public void enableManagement(String cacheName, boolean enabled) {
+        // The cache metrics are always available through the CommonsMetric
+    }
+
+    @Override
+    public void enableStatistics(String cacheName, boolean enabled) {
+        // The cache metrics are always available through the CommonsMetric
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            for (Cache<?, ?> cache : caches.values()) {
+                cache.close();
+            }
+            caches.clear();
+            cachingProvider.releaseCacheManager(this);
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> clazz) {
+        if (clazz.isAssignableFrom(getClass())) {
+            return clazz.cast(this);
+        }
+        throw new IllegalArgumentException("Cannot unwrap " + getClass().getName() + " to " + clazz.getName());
+    }
+
+    /**
+     * Stops managing the given {@link Cache}, once it has been closed.
+     *
+     * @param cacheName The name of the {@link Cache}.
+     * @param cache     The {@link Cache}.
+     * @since 2.1.0
+     */
+    void releaseCache(String cacheName, Cache<?, ?> cache) {
+        caches.remove(cacheName, cache);
+    }
+
+    private void checkNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("The cache manager " + uri + " is closed");
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.service.internal.cache.local;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.cache.CacheException;
+import javax.cache.configuration.OptionalFeature;
+
+import org.eclipse.kapua.commons.metric.CommonsMetric;
+
+/**
+ * In-process caching provider, which creates bounded {@link Cache}s storing their entries by value, unless configured otherwise.
+ * <p>
+ * The {@link CacheManager}s retrieved with the JCache API are shared by {@link URI} and have no metrics,
+ * while the ones created with {@link #createCacheManager(URI, long, CommonsMetric)} are owned by the caller.
+ *
+ * @since 2.1.0
+ */
+public class CachingProvider implements javax.cache.spi.CachingProvider {
+
+    /**
+     * The {@link Properties} key of the maximum number of entries of each {@link Cache}.
+     *
+     * @since 2.1.0
+     */
+    public static final String MAXIMUM_SIZE_PROPERTY = "maximumSize";
+
+    /**
+     * The default maximum number of entries of each {@link Cache}.
+     *
+     * @since 2.1.0
+     */
+    public static final long DEFAULT_MAXIMUM_SIZE = 10000;
+
+    private static final URI DEFAULT_URI;
+
+    static {
+        try {
+            DEFAULT_URI = new URI(CachingProvider.class.getName());
+        } catch (URISyntaxException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final ConcurrentHashMap<URI, CacheManager> cacheManagers = new ConcurrentHashMap<>();
+
+    @Override
+    public javax.cache.CacheManager getCacheManager(URI uri, ClassLoader classLoader, Properties properties) {
+        URI managerUri = uri != null ? uri : getDefaultURI();
+        ClassLoader managerClassLoader = classLoader != null ? classLoader : getDefaultClassLoader();
+        Properties managerProperties = properties != null ? properties : getDefaultProperties();
+        return cacheManagers.computeIfAbsent(managerUri, u -> new CacheManager(this, u, managerClassLoader, managerProperties, getMaximumSize(managerProperties), null));
+    }
+
+    @Override
+    public ClassLoader getDefaultClassLoader() {
+        return getClass().getClassLoader();
+    }
+
+    @Override
+    public URI getDefaultURI() {
+        return DEFAULT_URI;
+    }
+
+    @Override
+    public Properties getDefaultProperties() {
+        return new Properties();
+    }
+
+    @Override
+    public javax.cache.CacheManager getCacheManager(URI uri, ClassLoader classLoader) {
+        return getCacheManager(uri, classLoader, null);
+    }
+
+    @Override
+    public javax.cache.CacheManager getCacheManager() {
+        return getCacheManager(null, null, null);
+    }
+
+    /**
+     * Creates a new {@link CacheManager} not shared through the JCache API.
+     *
+     * @param uri           The {@link URI} of the {@link CacheManager}.
+     * @param maximumSize   The maximum number of entries of each {@link Cache}.
+     * @param commonsMetric The {@link CommonsMetric} to report the {@link Cache}s metrics to.
+     * @return The new {@link CacheManager}.
+     * @since 2.1.0
+     */
+    public CacheManager createCacheManager(URI uri, long maximumSize, CommonsMetric commonsMetric) {
+        return new CacheManager(this, uri != null ? uri : getDefaultURI(), getDefaultClassLoader(), getDefaultProperties(), maximumSize, commonsMetric);
+    }
+
+    @Override
+    public void close() {
+        cacheManagers.values().forEach(CacheManager::close);
+    }
+
+    @Override
+    public void close(ClassLoader classLoader) {
+        close();
+    }
+
+    @Override
+    public void close(URI uri, ClassLoader classLoader) {
+        CacheManager cacheManager = cacheManagers.get(uri != null ? uri : getDefaultURI());
+        if (cacheManager != null) {
+            cacheManager.close();
+        }
+    }
+
+    @Override
+    public boolean isSupported(OptionalFeature optionalFeature) {
+        return optionalFeature == OptionalFeature.STORE_BY_REFERENCE;
+    }
+
+    /**
+     * Stops sharing the given {@link CacheManager}, once it has been closed.
+     *
+     * @param cacheManager The {@link CacheManager}.
+     * @since 2.1.0
+     */
+    void releaseCacheManager(CacheManager cacheManager) {
+        cacheManagers.remove(cacheManager.getURI(), cacheManager);
+    }
+
+    private long getMaximumSize(Properties properties) {
+        String maximumSize = properties.getProperty(MAXIMUM_SIZE_PROPERTY);
+        if (maximumSize == null) {
+            return DEFAULT_MAXIMUM_SIZE;
+        }
+        try {
+            return Long.parseLong(maximumSize);
+        } catch (NumberFormatException e) {
+            throw new CacheException("Invalid " + MAXIMUM_SIZE_PROPERTY + " property: " + maximumSize, e);
+        }
+    }
+}
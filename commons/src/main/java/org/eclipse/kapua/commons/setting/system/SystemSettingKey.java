@@ -332,6 +332,10 @@ public enum SystemSettingKey implements SettingKey {
      * Size of the local cache for the KapuaTmetadata
      */
     TMETADATA_LOCAL_CACHE_SIZE_MAXIMUM("commons.cache.local.tmetadata.maxsize"),
+    /**
+     * Maximum number of entries of each cache of the in-process Cache Provider
+     */
+    CACHE_LOCAL_SIZE_MAXIMUM("commons.cache.local.maxsize"),
     /**
      * Provide the CacheManager config file URL
      */
@@ -343,7 +347,15 @@ public enum SystemSettingKey implements SettingKey {
     /**
      * Provide the JCache Expiry Policy. Allowed values: MODIFIED, TOUCHED
      */
-    JCACHE_EXPIRY_POLICY("commons.cache.config.expiryPolicy");
+    JCACHE_EXPIRY_POLICY("commons.cache.config.expiryPolicy"),
+    /**
+     * Enable the invalidation of the entity caches of the other nodes through the service event bus
+     */
+    CACHE_INVALIDATION_ENABLED("commons.cache.invalidation.enabled"),
+    /**
+     * Provide the service event bus address of the entity caches invalidations
+     */
+    CACHE_INVALIDATION_ADDRESS("commons.cache.invalidation.address");
 
     private String key;
 
@@ -54,14 +54,14 @@ public class KapuaEntityRepositoryCachingWrapper<E extends KapuaEntity, L extend
     @Override
     public E delete(TxContext txContext, KapuaId scopeId, KapuaId entityId) throws KapuaException {
         final E deleted = wrapped.delete(txContext, scopeId, entityId);
-        entityCache.remove(scopeId, entityId);
+        entityCache.remove(txContext, scopeId, entityId);
         return deleted;
     }
 
     @Override
     public E delete(TxContext txContext, E entityToDelete) {
         final E deleted = wrapped.delete(txContext, entityToDelete);
-        entityCache.remove(entityToDelete.getScopeId(), entityToDelete.getId());
+        entityCache.remove(txContext, entityToDelete.getScopeId(), entityToDelete.getId());
         return deleted;
     }
 }
@@ -45,14 +45,14 @@ public class KapuaUpdatableEntityRepositoryCachingWrapper<
     @Override
     public E update(TxContext txContext, E entity) throws KapuaException {
         final E updated = wrapped.update(txContext, entity);
-        entityCache.remove(KapuaId.ANY, entity);
+        entityCache.remove(txContext, KapuaId.ANY, entity.getId());
         return updated;
     }
 
     @Override
     public E update(TxContext txContext, E currentEntity, E updatedEntity) {
         final E updated = wrapped.update(txContext, currentEntity, updatedEntity);
-        entityCache.remove(KapuaId.ANY, currentEntity);
+        entityCache.remove(txContext, KapuaId.ANY, currentEntity.getId());
         return updated;
     }
 }
@@ -16,17 +16,38 @@ import org.eclipse.kapua.KapuaErrorCodes;
 import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.storage.TxContext;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class InMemoryTxContext implements TxContext {
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final List<Runnable> commitActions = new ArrayList<>();
+
     @Override
     public void commit() {
-        //Nothing
+        List<Runnable> actions = new ArrayList<>(commitActions);
+        commitActions.clear();
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (Exception e) {
+                logger.warn("Error while running an action after the commit: {}", e.getMessage(), e);
+            }
+        }
     }
 
     @Override
     public void rollback() {
-        //Nothing
+        commitActions.clear();
+    }
+
+    @Override
+    public void onCommit(Runnable action) {
+        commitActions.add(action);
     }
 
     @Override
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.security;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+import java.util.Base64;
+
+@Category(JUnitTests.class)
+public class KapuaSessionHeaderCodecTest {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.valueOf(42));
+    private static final KapuaId USER_ID = new KapuaEid(BigInteger.valueOf(1234567890123L));
+
+    @Test
+    public void encodeDecodeSessionTest() {
+        KapuaSession kapuaSession = new KapuaSession(null, SCOPE_ID, USER_ID);
+        kapuaSession.setTrustedMode(true);
+
+        String encodedSession = KapuaSessionHeaderCodec.encodeSession(kapuaSession);
+        Assert.assertTrue(encodedSession.startsWith("K1.t."));
+
+        KapuaSession decodedSession = KapuaSessionHeaderCodec.decodeSession(encodedSession);
+        Assert.assertEquals(SCOPE_ID, decodedSession.getScopeId());
+        Assert.assertEquals(USER_ID, decodedSession.getUserId());
+        Assert.assertTrue(decodedSession.isTrustedMode());
+        Assert.assertFalse(decodedSession.isUserInitiatedLogout());
+        Assert.assertNull(decodedSession.getAccessToken());
+    }
+
+    @Test
+    public void encodeDecodeUntrustedSessionWithoutIdsTest() {
+        KapuaSession decodedSession = KapuaSessionHeaderCodec.decodeSession(KapuaSessionHeaderCodec.encodeSession(new KapuaSession()));
+
+        Assert.assertNull(decodedSession.getScopeId());
+        Assert.assertNull(decodedSession.getUserId());
+        Assert.assertFalse(decodedSession.isTrustedMode());
+    }
+
+    @Test
+    public void decodeLegacySessionTest() {
+        KapuaSession kapuaSession = new KapuaSession(null, SCOPE_ID, USER_ID);
+
+        KapuaSession decodedSession = KapuaSessionHeaderCodec.decodeSession(Base64.getEncoder().encodeToString(SerializationUtils.serialize(kapuaSession)));
+        Assert.assertEquals(SCOPE_ID, decodedSession.getScopeId());
+        Assert.assertEquals(USER_ID, decodedSession.getUserId());
+    }
+
+    @Test
+    public void encodeDecodeIdTest() {
+        Assert.assertEquals(SCOPE_ID, KapuaSessionHeaderCodec.decodeId(KapuaSessionHeaderCodec.encodeId(SCOPE_ID)));
+        Assert.assertNull(KapuaSessionHeaderCodec.decodeId(KapuaSessionHeaderCodec.encodeId(null)));
+        Assert.assertEquals(SCOPE_ID, KapuaSessionHeaderCodec.decodeId(Base64.getEncoder().encodeToString(SerializationUtils.serialize(SCOPE_ID))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeMalformedSessionTest() {
+        KapuaSessionHeaderCodec.decodeSession("K1.t.AA");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeWrongLegacyTypeTest() {
+        KapuaSessionHeaderCodec.decodeSession(Base64.getEncoder().encodeToString(SerializationUtils.serialize(SCOPE_ID)));
+    }
+}
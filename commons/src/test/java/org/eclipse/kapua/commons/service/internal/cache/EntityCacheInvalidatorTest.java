@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.service.internal.cache;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.UUID;
+
+import org.eclipse.kapua.commons.configuration.ServiceConfigImpl;
+import org.eclipse.kapua.commons.configuration.ServiceConfigListResultImpl;
+import org.eclipse.kapua.commons.metric.CommonsMetric;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.commons.service.internal.cache.local.CachingProvider;
+import org.eclipse.kapua.commons.setting.system.SystemSetting;
+import org.eclipse.kapua.commons.storage.memory.InMemoryTxContext;
+import org.eclipse.kapua.event.ServiceEvent;
+import org.eclipse.kapua.event.ServiceEventBus;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+@Category(JUnitTests.class)
+public class EntityCacheInvalidatorTest {
+
+    private static final String ADDRESS = "entity-cache";
+
+    private final KapuaId scopeId = new KapuaEid(BigInteger.valueOf(10));
+    private ServiceEventBus serviceEventBus;
+    private EntityCacheInvalidator entityCacheInvalidator;
+    private EntityCache entityCache;
+
+    @Before
+    public void setUp() throws Exception {
+        CommonsMetric commonsMetric = Mockito.mock(CommonsMetric.class, Mockito.RETURNS_DEEP_STUBS);
+        serviceEventBus = Mockito.mock(ServiceEventBus.class);
+        entityCacheInvalidator = new EntityCacheInvalidator(commonsMetric);
+        entityCacheInvalidator.start(serviceEventBus, ADDRESS);
+        KapuaCacheManager kapuaCacheManager = new KapuaCacheManager(
+                new CachingProvider().createCacheManager(URI.create(UUID.randomUUID().toString()), 100, commonsMetric),
+                commonsMetric,
+                SystemSetting.getInstance(),
+                entityCacheInvalidator);
+        entityCache = new EntityCache(kapuaCacheManager, commonsMetric, "ServiceConfigId");
+    }
+
+    @Test
+    public void removeIsPublishedAfterCommitTest() throws Exception {
+        ServiceConfigImpl serviceConfig = newServiceConfig(1);
+        entityCache.put(serviceConfig);
+        int[] notifications = new int[1];
+        entityCacheInvalidator.addListener("ServiceConfigId", (notifiedScopeId, entityId) -> notifications[0]++);
+
+        InMemoryTxContext txContext = new InMemoryTxContext();
+        entityCache.remove(txContext, scopeId, serviceConfig.getId());
+
+        // Removed from this node right away, but not published until the commit
+        Assert.assertNull(entityCache.get(scopeId, serviceConfig.getId()));
+        Assert.assertEquals(1, notifications[0]);
+        Mockito.verify(serviceEventBus, Mockito.never()).publish(Matchers.anyString(), Matchers.any(ServiceEvent.class));
+
+        // Read again from the database before the commit
+        entityCache.put(serviceConfig);
+
+        txContext.commit();
+
+        Assert.assertNull(entityCache.get(scopeId, serviceConfig.getId()));
+        Assert.assertEquals(2, notifications[0]);
+        ArgumentCaptor<ServiceEvent> serviceEvent = ArgumentCaptor.forClass(ServiceEvent.class);
+        Mockito.verify(serviceEventBus, Mockito.times(1)).publish(Matchers.eq(ADDRESS), serviceEvent.capture());
+        Assert.assertEquals(EntityCacheInvalidator.OPERATION_INVALIDATE, serviceEvent.getValue().getOperation());
+        Assert.assertEquals(serviceConfig.getId(), serviceEvent.getValue().getEntityId());
+    }
+
+    @Test
+    public void removeListIsPublishedAfterCommitTest() throws Exception {
+        entityCache.putList(scopeId, "pid", new ServiceConfigListResultImpl());
+
+        InMemoryTxContext txContext = new InMemoryTxContext();
+        entityCache.removeList(txContext, scopeId, "pid");
+
+        Assert.assertNull(entityCache.getList(scopeId, "pid"));
+        Mockito.verify(serviceEventBus, Mockito.never()).publish(Matchers.anyString(), Matchers.any(ServiceEvent.class));
+
+        txContext.commit();
+
+        ArgumentCaptor<ServiceEvent> serviceEvent = ArgumentCaptor.forClass(ServiceEvent.class);
+        Mockito.verify(serviceEventBus, Mockito.times(1)).publish(Matchers.eq(ADDRESS), serviceEvent.capture());
+        Assert.assertEquals(EntityCacheInvalidator.OPERATION_INVALIDATE_LIST, serviceEvent.getValue().getOperation());
+        Assert.assertEquals("pid", serviceEvent.getValue().getInputs());
+    }
+
+    @Test
+    public void removeIsNotPublishedAfterRollbackTest() throws Exception {
+        ServiceConfigImpl serviceConfig = newServiceConfig(2);
+        entityCache.put(serviceConfig);
+
+        InMemoryTxContext txContext = new InMemoryTxContext();
+        entityCache.remove(txContext, scopeId, serviceConfig.getId());
+        txContext.rollback();
+        txContext.commit();
+
+        Assert.assertNull(entityCache.get(scopeId, serviceConfig.getId()));
+        Mockito.verify(serviceEventBus, Mockito.never()).publish(Matchers.anyString(), Matchers.any(ServiceEvent.class));
+    }
+
+    @Test
+    public void removeOutsideTransactionIsPublishedRightAwayTest() throws Exception {
+        ServiceConfigImpl serviceConfig = newServiceConfig(3);
+        entityCache.put(serviceConfig);
+
+        entityCache.remove(scopeId, serviceConfig.getId());
+
+        Mockito.verify(serviceEventBus, Mockito.times(1)).publish(Matchers.eq(ADDRESS), Matchers.any(ServiceEvent.class));
+    }
+
+    private ServiceConfigImpl newServiceConfig(long id) {
+        ServiceConfigImpl serviceConfig = new ServiceConfigImpl(scopeId);
+        serviceConfig.setId(new KapuaEid(BigInteger.valueOf(id)));
+        serviceConfig.setPid("pid");
+        return serviceConfig;
+    }
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.service.internal.cache;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.UUID;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.CompleteConfiguration;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.configuration.OptionalFeature;
+import javax.cache.spi.CachingProvider;
+
+import org.eclipse.kapua.commons.configuration.ServiceConfigImpl;
+import org.eclipse.kapua.commons.metric.CommonsMetric;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.commons.setting.system.SystemSetting;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+@Category(JUnitTests.class)
+public class KapuaCacheManagerTest {
+
+    private final CommonsMetric commonsMetric = Mockito.mock(CommonsMetric.class, Mockito.RETURNS_DEEP_STUBS);
+
+    @Test
+    public void storeByReferenceWithLocalProviderTest() {
+        CacheManager cacheManager = new org.eclipse.kapua.commons.service.internal.cache.local.CachingProvider()
+                .createCacheManager(URI.create(UUID.randomUUID().toString()), 100, commonsMetric);
+        KapuaCacheManager kapuaCacheManager = new KapuaCacheManager(cacheManager, commonsMetric, SystemSetting.getInstance());
+
+        Cache<Serializable, Serializable> cache = kapuaCacheManager.getCache("ServiceConfigId");
+        Assert.assertFalse(cache.getConfiguration(CompleteConfiguration.class).isStoreByValue());
+
+        ServiceConfigImpl serviceConfig = new ServiceConfigImpl(new KapuaEid(BigInteger.ONE));
+        serviceConfig.setId(new KapuaEid(BigInteger.TEN));
+        cache.put(serviceConfig.getId(), serviceConfig);
+        Assert.assertSame(serviceConfig, cache.get(serviceConfig.getId()));
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void storeByValueWithoutStoreByReferenceSupportTest() {
+        CachingProvider cachingProvider = Mockito.mock(CachingProvider.class);
+        Mockito.when(cachingProvider.isSupported(OptionalFeature.STORE_BY_REFERENCE)).thenReturn(false);
+        CacheManager cacheManager = Mockito.mock(CacheManager.class);
+        Mockito.when(cacheManager.getCachingProvider()).thenReturn(cachingProvider);
+        Mockito.when(cacheManager.createCache(Matchers.anyString(), Matchers.any(MutableConfiguration.class))).thenReturn(Mockito.mock(Cache.class));
+        KapuaCacheManager kapuaCacheManager = new KapuaCacheManager(cacheManager, commonsMetric, SystemSetting.getInstance());
+
+        kapuaCacheManager.getCache("ServiceConfigId");
+
+        ArgumentCaptor<MutableConfiguration> configuration = ArgumentCaptor.forClass(MutableConfiguration.class);
+        Mockito.verify(cacheManager).createCache(Matchers.eq("ServiceConfigId"), configuration.capture());
+        Assert.assertTrue(configuration.getValue().isStoreByValue());
+    }
+}
@@ -0,0 +1,433 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.service.internal.cache.local;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.cache.CacheException;
+import javax.cache.configuration.FactoryBuilder;
+import javax.cache.configuration.MutableCacheEntryListenerConfiguration;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.event.CacheEntryCreatedListener;
+import javax.cache.expiry.Duration;
+import javax.cache.expiry.ModifiedExpiryPolicy;
+import javax.cache.expiry.TouchedExpiryPolicy;
+import javax.cache.integration.CacheLoader;
+import javax.cache.integration.CacheLoaderException;
+import javax.cache.integration.CompletionListener;
+import javax.cache.processor.EntryProcessorException;
+import javax.cache.processor.EntryProcessorResult;
+
+import org.eclipse.kapua.commons.metric.CommonsMetric;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+import com.codahale.metrics.Counter;
+
+@Category(JUnitTests.class)
+public class CacheTest {
+
+    private final AtomicLong ticker = new AtomicLong();
+    private CacheManager cacheManager;
+    private CommonsMetric commonsMetric;
+
+    @Before
+    public void setUp() {
+        commonsMetric = Mockito.mock(CommonsMetric.class);
+        Mockito.when(commonsMetric.getLocalCacheHit()).thenReturn(new Counter());
+        Mockito.when(commonsMetric.getLocalCacheMiss()).thenReturn(new Counter());
+        Mockito.when(commonsMetric.getLocalCacheEviction()).thenReturn(new Counter());
+        Mockito.when(commonsMetric.getLocalCacheExpiration()).thenReturn(new Counter());
+        cacheManager = new CachingProvider().createCacheManager(null, 100, commonsMetric);
+    }
+
+    @Test
+    public void putGetRemoveTest() {
+        Cache<String, String> cache = newCache(100, new MutableConfiguration<>());
+
+        Assert.assertNull(cache.get("key"));
+        cache.put("key", "value");
+        Assert.assertEquals("value", cache.get("key"));
+        Assert.assertTrue(cache.containsKey("key"));
+
+        Assert.assertEquals("value", cache.getAndPut("key", "other"));
+        Assert.assertFalse(cache.putIfAbsent("key", "value"));
+        Assert.assertFalse(cache.replace("key", "value", "replaced"));
+        Assert.assertTrue(cache.replace("key", "other", "replaced"));
+        Assert.assertEquals("replaced", cache.get("key"));
+
+        Assert.assertFalse(cache.remove("key", "other"));
+        Assert.assertTrue(cache.remove("key"));
+        Assert.assertNull(cache.get("key"));
+        Assert.assertFalse(cache.remove("key"));
+
+        Assert.assertEquals(2, commonsMetric.getLocalCacheHit().getCount());
+        Assert.assertEquals(2, commonsMetric.getLocalCacheMiss().getCount());
+    }
+
+    @Test
+    public void maximumSizeTest() {
+        Cache<Integer, Integer> cache = newCache(100, new MutableConfiguration<>());
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+        }
+
+        Assert.assertEquals(100, cache.size());
+        Assert.assertEquals(900, commonsMetric.getLocalCacheEviction().getCount());
+    }
+
+    @Test
+    public void frequentEntriesSurviveScanTest() {
+        Cache<Integer, Integer> cache = newCache(100, new MutableConfiguration<>());
+
+        for (int i = 0; i < 50; i++) {
+            cache.put(i, i);
+        }
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 50; i++) {
+                cache.get(i);
+            }
+        }
+        // Entries read only once must not push the frequently read ones out of the cache
+        for (int i = 1000; i < 2000; i++) {
+            cache.put(i, i);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            Assert.assertEquals(Integer.valueOf(i), cache.get(i));
+        }
+        Assert.assertEquals(100, cache.size());
+    }
+
+    @Test
+    public void modifiedExpiryPolicyTest() {
+        Cache<String, String> cache = newCache(100, new MutableConfiguration<String, String>().setExpiryPolicyFactory(ModifiedExpiryPolicy.factoryOf(new Duration(TimeUnit.SECONDS, 60))));
+
+        cache.put("key", "value");
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        Assert.assertEquals("value", cache.get("key"));
+
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        Assert.assertNull(cache.get("key"));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(1, commonsMetric.getLocalCacheExpiration().getCount());
+
+        cache.put("key", "value");
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        cache.put("key", "updated");
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        Assert.assertEquals("updated", cache.get("key"));
+    }
+
+    @Test
+    public void touchedExpiryPolicyTest() {
+        Cache<String, String> cache = newCache(100, new MutableConfiguration<String, String>().setExpiryPolicyFactory(TouchedExpiryPolicy.factoryOf(new Duration(TimeUnit.SECONDS, 60))));
+
+        cache.put("key", "value");
+        for (int i = 0; i < 5; i++) {
+            ticker.addAndGet(TimeUnit.SECONDS.toNanos(59));
+            Assert.assertEquals("value", cache.get("key"));
+        }
+
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        Assert.assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void storeByValueTest() {
+        Cache<String, StringBuilder> cache = newCache(100, new MutableConfiguration<>());
+        StringBuilder value = new StringBuilder("value");
+
+        cache.put("key", value);
+        value.append("-changed-after-put");
+
+        StringBuilder found = cache.get("key");
+        Assert.assertEquals("value", found.toString());
+        // Modifying the found value, as the services do with the found entities, does not change the cached one
+        found.append("-changed-after-get");
+        Assert.assertEquals("value", cache.get("key").toString());
+        Assert.assertNotSame(cache.get("key"), cache.get("key"));
+
+        Assert.assertEquals("value", cache.getAndPut("key", new StringBuilder("other")).toString());
+        Assert.assertEquals("other", cache.iterator().next().getValue().toString());
+        Assert.assertEquals("other", cache.getAll(Collections.singleton("key")).get("key").toString());
+        Assert.assertTrue(cache.getConfiguration(MutableConfiguration.class).isStoreByValue());
+    }
+
+    @Test
+    public void storeByValueEqualityTest() {
+        Cache<String, String> cache = newCache(100, new MutableConfiguration<>());
+
+        cache.put("key", "value");
+
+        // The expected values are compared with equals to the copies of the cached ones
+        Assert.assertTrue(cache.replace("key", new String("value"), "replaced"));
+        Assert.assertTrue(cache.remove("key", new String("replaced")));
+        Assert.assertFalse(cache.containsKey("key"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void storeByValueNotSerializableTest() {
+        Cache<String, Object> cache = newCache(100, new MutableConfiguration<>());
+
+        cache.put("key", new Object());
+    }
+
+    @Test
+    public void storeByReferenceTest() {
+        Cache<String, Object> cache = newCache(100, new MutableConfiguration<String, Object>().setStoreByValue(false));
+        Object value = new Object();
+
+        cache.put("key", value);
+
+        Assert.assertSame(value, cache.get("key"));
+        Assert.assertFalse(cache.getConfiguration(MutableConfiguration.class).isStoreByValue());
+    }
+
+    @Test
+    public void invokeTest() {
+        Cache<String, Integer> cache = newCache(100, new MutableConfiguration<>());
+
+        Assert.assertFalse(cache.invoke("key", (entry, arguments) -> entry.exists()));
+        Assert.assertFalse(cache.containsKey("key"));
+
+        Assert.assertNull(cache.invoke("key", (entry, arguments) -> {
+            entry.setValue((Integer) arguments[0]);
+            return null;
+        }, 1));
+        Assert.assertEquals(Integer.valueOf(1), cache.get("key"));
+
+        Assert.assertEquals(Integer.valueOf(1), cache.invoke("key", (entry, arguments) -> {
+            Integer previous = entry.getValue();
+            entry.setValue(previous + 1);
+            return previous;
+        }));
+        Assert.assertEquals(Integer.valueOf(2), cache.get("key"));
+
+        Assert.assertEquals("key", cache.invoke("key", (entry, arguments) -> {
+            entry.remove();
+            return entry.getKey();
+        }));
+        Assert.assertFalse(cache.containsKey("key"));
+        Assert.assertEquals(0, cache.size());
+
+        try {
+            cache.invoke("key", (entry, arguments) -> {
+                entry.setValue(3);
+                throw new IllegalStateException("failure");
+            });
+            Assert.fail("EntryProcessorException expected");
+        } catch (EntryProcessorException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        // Changes are not applied when the processor fails
+        Assert.assertFalse(cache.containsKey("key"));
+    }
+
+    @Test
+    public void invokeStoreByValueTest() {
+        Cache<String, StringBuilder> cache = newCache(100, new MutableConfiguration<>());
+        cache.put("key", new StringBuilder("value"));
+
+        // Changes made to the value without setting it are not applied
+        cache.invoke("key", (entry, arguments) -> entry.getValue().append("-changed"));
+        Assert.assertEquals("value", cache.get("key").toString());
+
+        cache.invoke("key", (entry, arguments) -> {
+            entry.setValue(entry.getValue().append("-set"));
+            return null;
+        });
+        Assert.assertEquals("value-set", cache.get("key").toString());
+    }
+
+    @Test
+    public void invokeAllTest() {
+        Cache<String, Integer> cache = newCache(100, new MutableConfiguration<>());
+        cache.put("one", 1);
+        cache.put("two", 2);
+
+        Map<String, EntryProcessorResult<Integer>> results = cache.invokeAll(new HashSet<>(Arrays.asList("one", "two", "three")), (entry, arguments) -> {
+            if (!entry.exists()) {
+                return null;
+            }
+            if (entry.getValue() == 2) {
+                throw new IllegalStateException("failure");
+            }
+            entry.setValue(entry.getValue() * 10);
+            return entry.getValue();
+        });
+
+        Assert.assertEquals(2, results.size());
+        Assert.assertEquals(Integer.valueOf(10), results.get("one").get());
+        try {
+            results.get("two").get();
+            Assert.fail("EntryProcessorException expected");
+        } catch (EntryProcessorException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        Assert.assertEquals(Integer.valueOf(10), cache.get("one"));
+        Assert.assertEquals(Integer.valueOf(2), cache.get("two"));
+    }
+
+    @Test
+    public void loadAllTest() {
+        Map<String, Integer> source = new HashMap<>();
+        source.put("one", 1);
+        source.put("two", 2);
+        Cache<String, Integer> cache = newCache(100, new MutableConfiguration<String, Integer>().setCacheLoaderFactory(FactoryBuilder.factoryOf(new MapCacheLoader(source))));
+        cache.put("one", 100);
+
+        RecordingCompletionListener completionListener = new RecordingCompletionListener();
+        cache.loadAll(new HashSet<>(Arrays.asList("one", "two", "three")), false, completionListener);
+        Assert.assertTrue(completionListener.completed);
+        Assert.assertEquals(Integer.valueOf(100), cache.get("one"));
+        Assert.assertEquals(Integer.valueOf(2), cache.get("two"));
+        Assert.assertFalse(cache.containsKey("three"));
+
+        cache.loadAll(Collections.singleton("one"), true, null);
+        Assert.assertEquals(Integer.valueOf(1), cache.get("one"));
+
+        // The loader is not read-through
+        cache.remove("one");
+        Assert.assertNull(cache.get("one"));
+
+        completionListener = new RecordingCompletionListener();
+        cache.loadAll(Collections.singleton("failing"), true, completionListener);
+        Assert.assertFalse(completionListener.completed);
+        Assert.assertTrue(completionListener.exception.get() instanceof CacheLoaderException);
+    }
+
+    @Test
+    public void loadAllWithoutLoaderTest() {
+        Cache<String, Integer> cache = newCache(100, new MutableConfiguration<>());
+
+        RecordingCompletionListener completionListener = new RecordingCompletionListener();
+        cache.loadAll(Collections.singleton("key"), true, completionListener);
+
+        Assert.assertTrue(completionListener.completed);
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void registerCacheEntryListenerTest() {
+        Cache<String, String> cache = newCache(100, new MutableConfiguration<>());
+
+        cache.registerCacheEntryListener(createdListenerConfiguration());
+    }
+
+    @Test
+    public void unsupportedConfigurationTest() {
+        MutableConfiguration<String, String> withListener = new MutableConfiguration<String, String>().addCacheEntryListenerConfiguration(createdListenerConfiguration());
+        MutableConfiguration<String, String> readThrough = new MutableConfiguration<String, String>().setReadThrough(true);
+        MutableConfiguration<String, String> writeThrough = new MutableConfiguration<String, String>().setWriteThrough(true);
+
+        for (MutableConfiguration<String, String> configuration : Arrays.asList(withListener, readThrough, writeThrough)) {
+            try {
+                cacheManager.createCache("unsupported", configuration);
+                Assert.fail("UnsupportedOperationException expected");
+            } catch (UnsupportedOperationException e) {
+                // expected
+            }
+            Assert.assertNull(cacheManager.getCache("unsupported"));
+        }
+    }
+
+    @Test
+    public void cacheManagerTest() {
+        javax.cache.Cache<String, String> cache = cacheManager.createCache("cache", new MutableConfiguration<String, String>());
+
+        Assert.assertSame(cache, cacheManager.getCache("cache"));
+        try {
+            cacheManager.createCache("cache", new MutableConfiguration<String, String>());
+            Assert.fail("CacheException expected");
+        } catch (CacheException e) {
+            // expected
+        }
+
+        cacheManager.destroyCache("cache");
+        Assert.assertTrue(cache.isClosed());
+        Assert.assertNull(cacheManager.getCache("cache"));
+
+        CachingProvider cachingProvider = new CachingProvider();
+        Assert.assertSame(cachingProvider.getCacheManager(), cachingProvider.getCacheManager());
+    }
+
+    private static MutableCacheEntryListenerConfiguration<String, String> createdListenerConfiguration() {
+        return new MutableCacheEntryListenerConfiguration<>(FactoryBuilder.factoryOf((CacheEntryCreatedListener<String, String> & Serializable) events -> {
+        }), null, false, true);
+    }
+
+    private <K, V> Cache<K, V> newCache(long maximumSize, MutableConfiguration<K, V> configuration) {
+        return new Cache<>("test", cacheManager, configuration, maximumSize, commonsMetric, ticker::get);
+    }
+
+    private static class MapCacheLoader implements CacheLoader<String, Integer>, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Map<String, Integer> source;
+
+        MapCacheLoader(Map<String, Integer> source) {
+            this.source = new HashMap<>(source);
+        }
+
+        @Override
+        public Integer load(String key) {
+            if ("failing".equals(key)) {
+                throw new IllegalStateException("failure");
+            }
+            return source.get(key);
+        }
+
+        @Override
+        public Map<String, Integer> loadAll(Iterable<? extends String> keys) {
+            Map<String, Integer> loaded = new HashMap<>();
+            for (String key : keys) {
+                Integer value = load(key);
+                if (value != null) {
+                    loaded.put(key, value);
+                }
+            }
+            return loaded;
+        }
+    }
+
+    private static class RecordingCompletionListener implements CompletionListener {
+
+        private boolean completed;
+        private final AtomicReference<Exception> exception = new AtomicReference<>();
+
+        @Override
+        public void onCompletion() {
+            completed = true;
+        }
+
+        @Override
+        public void onException(Exception e) {
+            exception.set(e);
+        }
+    }
+}
@@ -88,9 +88,12 @@ public class SystemSettingKeyTest {
         systemSettings.put(SystemSettingKey.SETTINGS_HOTSWAP, "commons.settings.hotswap");
         systemSettings.put(SystemSettingKey.CACHING_PROVIDER, "commons.cache.provider.classname");
         systemSettings.put(SystemSettingKey.TMETADATA_LOCAL_CACHE_SIZE_MAXIMUM, "commons.cache.local.tmetadata.maxsize");
+        systemSettings.put(SystemSettingKey.CACHE_LOCAL_SIZE_MAXIMUM, "commons.cache.local.maxsize");
         systemSettings.put(SystemSettingKey.CACHE_CONFIG_URL, "commons.cache.config.url");
         systemSettings.put(SystemSettingKey.CACHE_TTL, "commons.cache.config.ttl");
         systemSettings.put(SystemSettingKey.JCACHE_EXPIRY_POLICY, "commons.cache.config.expiryPolicy");
+        systemSettings.put(SystemSettingKey.CACHE_INVALIDATION_ENABLED, "commons.cache.invalidation.enabled");
+        systemSettings.put(SystemSettingKey.CACHE_INVALIDATION_ADDRESS, "commons.cache.invalidation.address");
 
         for (Map.Entry<SystemSettingKey, String> entry : systemSettings.entrySet()) {
             Assert.assertEquals("Expected and actual values should be the same.", entry.getKey().key(), entry.getValue());
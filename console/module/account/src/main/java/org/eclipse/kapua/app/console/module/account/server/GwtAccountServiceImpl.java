@@ -286,7 +286,8 @@ public class GwtAccountServiceImpl extends KapuaRemoteServiceServlet implements
         try {
             KapuaId scopeId = KapuaEid.parseCompactId(gwtAccount.getId());
 
-            Account account = ACCOUNT_SERVICE.find(scopeId);
+            // Copy the account, since the found one can be the cached instance
+            Account account = ACCOUNT_FACTORY.clone(ACCOUNT_SERVICE.find(scopeId));
 
             // update properties
             Properties property = account.getEntityProperties();
@@ -314,7 +315,8 @@ public class GwtAccountServiceImpl extends KapuaRemoteServiceServlet implements
         GwtAccount gwtAccountUpdated = null;
         KapuaId accountId = KapuaEid.parseCompactId(gwtAccount.getId());
         try {
-            Account account = ACCOUNT_SERVICE.find(accountId);
+            // Copy the account, since the found one can be the cached instance
+            Account account = ACCOUNT_FACTORY.clone(ACCOUNT_SERVICE.find(accountId));
 
             account.getOrganization().setName(gwtAccount.getGwtOrganization().getName());
             account.getOrganization().setPersonName(gwtAccount.getGwtOrganization().getPersonName());
@@ -416,14 +416,15 @@ public class GwtDeviceServiceImpl extends KapuaRemoteServiceServlet implements G
 
         KapuaLocator locator = KapuaLocator.getInstance();
         DeviceRegistryService deviceRegistryService = locator.getService(DeviceRegistryService.class);
+        DeviceFactory deviceFactory = locator.getFactory(DeviceFactory.class);
         Device device = null;
         GwtDevice gwtDeviceUpdated = null;
 
         try {
-            // Find original device
+            // Find original device, and copy it since it can be the cached instance
             KapuaId scopeId = KapuaEid.parseCompactId(gwtDevice.getScopeId());
             KapuaId deviceId = KapuaEid.parseCompactId(gwtDevice.getId());
-            device = deviceRegistryService.find(scopeId, deviceId);
+            device = deviceFactory.clone(deviceRegistryService.find(scopeId, deviceId));
             // Updated values
             // Gerenal info
             device.setDisplayName(gwtDevice.getUnescapedDisplayName());
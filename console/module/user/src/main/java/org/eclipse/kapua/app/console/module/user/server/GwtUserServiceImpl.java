@@ -145,7 +145,8 @@ public class GwtUserServiceImpl extends KapuaRemoteServiceServlet implements Gwt
             User user = USER_SERVICE.find(scopeId, userId);
 
             if (user != null) {
-                // Update user
+                // Update a copy of the user, since the found one can be the cached instance
+                user = USER_FACTORY.clone(user);
                 user.setName(gwtUser.getUnescapedUsername());
                 user.setDisplayName(gwtUser.getUnescapedDisplayName());
                 user.setEmail(gwtUser.getUnescapedEmail());
@@ -14,9 +14,15 @@ package org.eclipse.kapua.consumer.telemetry;
 
 import org.eclipse.kapua.commons.liquibase.DatabaseCheckUpdate;
 import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.service.authorization.AuthorizationService;
+import org.eclipse.kapua.service.authorization.permission.PermissionFactory;
 import org.eclipse.kapua.service.camel.application.MetricsCamel;
 import org.eclipse.kapua.service.client.protocol.ProtocolDescriptorProvider;
+import org.eclipse.kapua.service.datastore.MessageStoreService;
+import org.eclipse.kapua.service.datastore.internal.DatastoreCacheWarmUp;
+import org.eclipse.kapua.service.datastore.internal.DatastoreIndexProvisioner;
 import org.eclipse.kapua.service.datastore.internal.MetricsDatastore;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
 import org.eclipse.kapua.translator.TranslatorHub;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -44,6 +50,36 @@ public class SpringBridge {
         return KapuaLocator.getInstance().getComponent(MetricsDatastore.class);
     }
 
+    @Bean
+    DatastoreSettings datastoreSettings() {
+        return KapuaLocator.getInstance().getComponent(DatastoreSettings.class);
+    }
+
+    @Bean
+    MessageStoreService messageStoreService() {
+        return KapuaLocator.getInstance().getService(MessageStoreService.class);
+    }
+
+    @Bean
+    AuthorizationService authorizationService() {
+        return KapuaLocator.getInstance().getService(AuthorizationService.class);
+    }
+
+    @Bean
+    PermissionFactory permissionFactory() {
+        return KapuaLocator.getInstance().getFactory(PermissionFactory.class);
+    }
+
+    @Bean(initMethod = "start")
+    DatastoreCacheWarmUp datastoreCacheWarmUp() {
+        return KapuaLocator.getInstance().getComponent(DatastoreCacheWarmUp.class);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    DatastoreIndexProvisioner datastoreIndexProvisioner() {
+        return KapuaLocator.getInstance().getComponent(DatastoreIndexProvisioner.class);
+    }
+
     @Bean
     TranslatorHub translatorHub() {
         return KapuaLocator.getInstance().getComponent(TranslatorHub.class);
@@ -0,0 +1,401 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.consumer.telemetry.listener;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExtendedExchange;
+import org.apache.camel.Message;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.component.jms.JmsMessage;
+import org.apache.camel.support.AsyncProcessorSupport;
+import org.apache.camel.support.SynchronizationAdapter;
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.model.domains.Domains;
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.commons.security.KapuaSession;
+import org.eclipse.kapua.message.KapuaMessage;
+import org.eclipse.kapua.model.domain.Actions;
+import org.eclipse.kapua.service.authorization.AuthorizationService;
+import org.eclipse.kapua.service.authorization.permission.PermissionFactory;
+import org.eclipse.kapua.service.camel.message.CamelKapuaMessage;
+import org.eclipse.kapua.service.datastore.MessageStoreService;
+import org.eclipse.kapua.service.datastore.exception.DatastoreBatchStoreException;
+import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreCommunicationException;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettingsKey;
+import org.eclipse.kapua.service.storable.model.id.StorableId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.jms.JMSException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Data storage message processor which stores data messages in batches.
+ * <p>
+ * Incoming messages are accumulated until {@link DatastoreSettingsKey#BATCH_STORE_SIZE} messages are collected or {@link DatastoreSettingsKey#BATCH_STORE_LINGER}
+ * milliseconds are elapsed since the first message of the batch. The batch is then stored with {@link MessageStoreService#store(List, List)}.
+ * <p>
+ * Each {@link Exchange} is completed only when its batch has been stored, carrying the failure of its own message (if any),
+ * so that failed messages are handled by the route error handler as they are when stored one by one.
+ * <p>
+ * When {@link DatastoreSettingsKey#BATCH_STORE_ASYNC} is enabled batches are stored with {@link MessageStoreService#storeAsync(List, List)}, so that
+ * the storing thread is released while the datastore processes the batch. When too many batches are pending the new ones are queued by the
+ * Elasticsearch client without blocking, while the route consumer is slowed down by the prefetch limit of the messages not yet acknowledged.
+ * <p>
+ * When {@link DatastoreSettingsKey#BATCH_STORE_SIZE} is 1 messages are stored one by one with {@link DataStorageMessageProcessor}.
+ * <p>
+ * In both cases the JMS message is acknowledged only when its {@link Exchange} is completed (see {@link AcknowledgeOnCompletion}).
+ * Failed messages are acknowledged as well, once they have been moved to the error endpoint.
+ *
+ * @since 2.1.0
+ */
+public class DataStorageBatchMessageProcessor extends AsyncProcessorSupport {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DataStorageBatchMessageProcessor.class);
+
+    private final DataStorageMessageProcessor dataStorageMessageProcessor;
+    private final MessageStoreService messageStoreService;
+    private final AuthorizationService authorizationService;
+    private final PermissionFactory permissionFactory;
+    private final String errorEndpointUri;
+    private final int batchSize;
+    private final long batchLinger;
+    private final boolean batchAsync;
+
+    private final ScheduledExecutorService lingerScheduler;
+    private final Object pendingMessagesLock = new Object();
+    private List<PendingMessage> pendingMessages;
+    private ScheduledFuture<?> pendingMessagesLinger;
+    private ProducerTemplate errorProducerTemplate;
+
+    /**
+     * Constructor.
+     *
+     * @param dataStorageMessageProcessor The {@link DataStorageMessageProcessor} which stores the messages one by one.
+     * @param messageStoreService         The {@link MessageStoreService} which stores the batches.
+     * @param authorizationService        The {@link AuthorizationService} which checks the permission of each message.
+     * @param permissionFactory           The {@link PermissionFactory} of the checked permissions.
+     * @param datastoreSettings           The {@link DatastoreSettings} with the batch configuration.
+     * @param errorEndpointUri            The endpoint where failed messages not handled by the route error handler are moved.
+     * @since 2.1.0
+     */
+    @Inject
+    public DataStorageBatchMessageProcessor(DataStorageMessageProcessor dataStorageMessageProcessor,
+                                            MessageStoreService messageStoreService,
+                                            AuthorizationService authorizationService,
+                                            PermissionFactory permissionFactory,
+                                            DatastoreSettings datastoreSettings,
+                                            @Named("errorEndpointUri") String errorEndpointUri) {
+        this.dataStorageMessageProcessor = dataStorageMessageProcessor;
+        this.messageStoreService = messageStoreService;
+        this.authorizationService = authorizationService;
+        this.permissionFactory = permissionFactory;
+        this.errorEndpointUri = errorEndpointUri;
+        this.batchSize = datastoreSettings.getInt(DatastoreSettingsKey.BATCH_STORE_SIZE, 1);
+        this.batchLinger = datastoreSettings.getLong(DatastoreSettingsKey.BATCH_STORE_LINGER, 50L);
+        this.batchAsync = datastoreSettings.getBoolean(DatastoreSettingsKey.BATCH_STORE_ASYNC, false);
+
+        this.lingerScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DataStorageBatchLinger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pendingMessages = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public boolean process(Exchange exchange, AsyncCallback callback) {
+        // The route consumes asynchronously, so the JMS message is acknowledged here once the exchange is completed, and not when it is received
+        exchange.adapt(ExtendedExchange.class).addOnCompletion(new AcknowledgeOnCompletion());
+
+        CamelKapuaMessage<?> message = exchange.getIn().getBody(CamelKapuaMessage.class);
+
+        if (batchSize <= 1) {
+            try {
+                dataStorageMessageProcessor.processMessage(message);
+            } catch (Exception e) {
+                exchange.setException(e);
+            }
+            callback.done(true);
+            return true;
+        }
+
+        // Permissions are checked with the session of the message, since the batch is stored in a privileged context
+        try {
+            authorizationService.checkPermission(permissionFactory.newPermission(Domains.DATASTORE, Actions.write, message.getMessage().getScopeId()));
+        } catch (KapuaException e) {
+            exchange.setException(e);
+            callback.done(true);
+            return true;
+        }
+
+        LOG.debug("Received data message from device channel: client id '{}' - {}", message.getMessage().getClientId(), message.getMessage().getChannel());
+        List<PendingMessage> batch = null;
+        synchronized (pendingMessagesLock) {
+            pendingMessages.add(new PendingMessage(exchange, callback, message, KapuaSecurityUtils.getSession()));
+
+            if (pendingMessages.size() >= batchSize) {
+                batch = drainPendingMessages();
+            } else if (pendingMessages.size() == 1) {
+                pendingMessagesLinger = lingerScheduler.schedule(this::flushPendingMessages, batchLinger, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        if (batch != null) {
+            storeBatch(batch);
+        }
+        return false;
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        flushPendingMessages();
+        lingerScheduler.shutdown();
+
+        synchronized (this) {
+            if (errorProducerTemplate != null) {
+                errorProducerTemplate.stop();
+                errorProducerTemplate = null;
+            }
+        }
+    }
+
+    /**
+     * Gets the {@link ProducerTemplate} which moves the failed messages to the error endpoint, creating it at the first failure.
+     *
+     * @param camelContext The {@link CamelContext} of the failed {@link Exchange}.
+     * @return The {@link ProducerTemplate} to the error endpoint.
+     * @since 2.1.0
+     */
+    private synchronized ProducerTemplate getErrorProducerTemplate(CamelContext camelContext) {
+        if (errorProducerTemplate == null) {
+            errorProducerTemplate = camelContext.createProducerTemplate();
+        }
+        return errorProducerTemplate;
+    }
+
+    /**
+     * Stores the pending messages, if any.
+     *
+     * @since 2.1.0
+     */
+    private void flushPendingMessages() {
+        List<PendingMessage> batch;
+        synchronized (pendingMessagesLock) {
+            batch = drainPendingMessages();
+        }
+
+        if (!batch.isEmpty()) {
+            storeBatch(batch);
+        }
+    }
+
+    /**
+     * Takes the pending messages, cancelling the linger timer of the batch.
+     * <p>
+     * Must be invoked holding {@link #pendingMessagesLock}.
+     *
+     * @return The pending messages.
+     * @since 2.1.0
+     */
+    private List<PendingMessage> drainPendingMessages() {
+        if (pendingMessagesLinger != null) {
+            pendingMessagesLinger.cancel(false);
+            pendingMessagesLinger = null;
+        }
+
+        List<PendingMessage> batch = pendingMessages;
+        pendingMessages = new ArrayList<>(batchSize);
+        return batch;
+    }
+
+    /**
+     * Stores the batch and completes the {@link Exchange} of each message.
+     *
+     * @param batch The messages to store.
+     * @since 2.1.0
+     */
+    private void storeBatch(List<PendingMessage> batch) {
+        List<KapuaMessage<?, ?>> messages = new ArrayList<>(batch.size());
+        List<String> datastoreIds = new ArrayList<>(batch.size());
+        for (PendingMessage pendingMessage : batch) {
+            messages.add(pendingMessage.message.getMessage());
+            datastoreIds.add(pendingMessage.message.getDatastoreId());
+        }
+
+        LOG.debug("Storing batch of {} data messages", batch.size());
+        if (batchAsync) {
+            CompletableFuture<List<StorableId>> storeFuture;
+            try {
+                storeFuture = KapuaSecurityUtils.doPrivileged(() -> messageStoreService.storeAsync(messages, datastoreIds));
+            } catch (KapuaException e) {
+                completeBatch(batch, e);
+                return;
+            }
+
+            storeFuture.whenComplete((storableIds, throwable) -> {
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                completeBatch(batch, cause == null || cause instanceof KapuaException ?
+                        (KapuaException) cause :
+                        KapuaException.internalError(cause, "Error while storing batch of data messages"));
+            });
+            return;
+        }
+
+        KapuaException failure = null;
+        try {
+            KapuaSecurityUtils.doPrivileged(() -> messageStoreService.store(messages, datastoreIds));
+        } catch (KapuaException e) {
+            failure = e;
+        }
+        completeBatch(batch, failure);
+    }
+
+    /**
+     * Completes the {@link Exchange} of each message of the stored batch.
+     *
+     * @param batch        The stored messages.
+     * @param batchFailure The failure of the batch store, or {@code null} if it succeeded.
+     * @since 2.1.0
+     */
+    private void completeBatch(List<PendingMessage> batch, KapuaException batchFailure) {
+        Map<Integer, KapuaException> failures = Collections.emptyMap();
+        if (batchFailure instanceof DatastoreBatchStoreException) {
+            failures = ((DatastoreBatchStoreException) batchFailure).getFailures();
+            batchFailure = null;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingMessage pendingMessage = batch.get(i);
+
+            KapuaException failure = batchFailure != null ? batchFailure : failures.get(i);
+            if (failure instanceof DatastoreCommunicationException) {
+                // Keep the datastore id to avoid duplicates when the message is processed again
+                failure = new DatastoreCommunicationException(pendingMessage.message.getDatastoreId(), failure.getCause());
+            }
+
+            if (failure == null) {
+                // This runs on the consumer or on the linger thread: restore the session they had
+                KapuaSession previousSession = KapuaSecurityUtils.getSession();
+                KapuaSecurityUtils.setSession(pendingMessage.session);
+                try {
+                    dataStorageMessageProcessor.updateAssetValues(pendingMessage.message);
+                } catch (KapuaException e) {
+                    failure = e;
+                } finally {
+                    if (previousSession != null) {
+                        KapuaSecurityUtils.setSession(previousSession);
+                    } else {
+                        KapuaSecurityUtils.clearSession();
+                    }
+                }
+            }
+
+            if (failure != null) {
+                pendingMessage.exchange.setException(failure);
+            }
+            pendingMessage.callback.done(false);
+        }
+    }
+
+    /**
+     * Acknowledges the JMS message of an {@link Exchange} once the {@link Exchange} is completed.
+     * <p>
+     * The route consumes with the individual acknowledge mode, so that each message is acknowledged only once its batch has been stored,
+     * or once it has been moved to the dead letter queue by the route error handler.
+     * <p>
+     * An {@link Exchange} still failed when it is completed has not been handled by the route error handler (i.e. the dead letter queue could not be reached).
+     * Its message is moved to the error endpoint here and then acknowledged anyway: with the individual acknowledge mode a message not acknowledged
+     * is delivered again only when the consumer reconnects, and in the meantime it holds a slot of the prefetch window of the consumer.
+     *
+     * @since 2.1.0
+     */
+    private class AcknowledgeOnCompletion extends SynchronizationAdapter {
+
+        @Override
+        public void onComplete(Exchange exchange) {
+            acknowledge(exchange);
+        }
+
+        @Override
+        public void onFailure(Exchange exchange) {
+            Message originalMessage = exchange.getUnitOfWork() != null && exchange.getUnitOfWork().getOriginalInMessage() != null ?
+                    exchange.getUnitOfWork().getOriginalInMessage() :
+                    exchange.getIn();
+
+            Exception deadLetterFailure;
+            try {
+                Exchange deadLetterExchange = getErrorProducerTemplate(exchange.getContext()).send(errorEndpointUri, deadLetter -> {
+                    deadLetter.getIn().setHeaders(originalMessage.getHeaders());
+                    deadLetter.getIn().setBody(originalMessage.getBody());
+                });
+                deadLetterFailure = deadLetterExchange.getException();
+            } catch (Exception e) {
+                deadLetterFailure = e;
+            }
+
+            if (deadLetterFailure != null) {
+                LOG.error("Data message {} failed with '{}' and cannot be moved to {}. It is dropped!", exchange.getExchangeId(), exchange.getException(), errorEndpointUri, deadLetterFailure);
+            } else {
+                LOG.warn("Data message {} failed with '{}'. It has been moved to {}", exchange.getExchangeId(), exchange.getException(), errorEndpointUri);
+            }
+
+            acknowledge(exchange);
+        }
+
+        private void acknowledge(Exchange exchange) {
+            Message in = exchange.getIn();
+            if (in instanceof JmsMessage && ((JmsMessage) in).getJmsMessage() != null) {
+                try {
+                    ((JmsMessage) in).getJmsMessage().acknowledge();
+                } catch (JMSException e) {
+                    LOG.warn("Error while acknowledging the data message {}: {}", exchange.getExchangeId(), e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * A message waiting for its batch to be stored.
+     *
+     * @since 2.1.0
+     */
+    private static class PendingMessage {
+
+        private final Exchange exchange;
+        private final AsyncCallback callback;
+        private final CamelKapuaMessage<?> message;
+        private final KapuaSession session;
+
+        private PendingMessage(Exchange exchange, AsyncCallback callback, CamelKapuaMessage<?> message, KapuaSession session) {
+            this.exchange = exchange;
+            this.callback = callback;
+            this.message = message;
+            this.session = session;
+        }
+    }
+}
@@ -64,6 +64,17 @@ public class DataStorageMessageProcessor {
             throw e;
         }
 
+        updateAssetValues(message);
+    }
+
+    /**
+     * Updates the asset values in the {@link DeviceAssetStoreService} if the stored message is an asset message.
+     *
+     * @param message The stored message.
+     * @throws KapuaException
+     * @since 2.1.0
+     */
+    void updateAssetValues(CamelKapuaMessage<?> message) throws KapuaException {
         // Update asset values in AssetStoreService
         if (message.getMessage().getChannel().toString().startsWith("W1/A1")) {
             KapuaId scopeId = message.getMessage().getScopeId();
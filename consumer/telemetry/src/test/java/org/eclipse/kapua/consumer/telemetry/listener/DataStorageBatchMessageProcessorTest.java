@@ -0,0 +1,324 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.consumer.telemetry.listener;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExtendedExchange;
+import org.apache.camel.component.jms.JmsBinding;
+import org.apache.camel.component.jms.JmsMessage;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.spi.Synchronization;
+import org.apache.camel.support.DefaultExchange;
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.message.KapuaChannel;
+import org.eclipse.kapua.message.KapuaMessage;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.authorization.AuthorizationService;
+import org.eclipse.kapua.service.authorization.permission.Permission;
+import org.eclipse.kapua.service.authorization.permission.PermissionFactory;
+import org.eclipse.kapua.service.camel.message.CamelKapuaMessage;
+import org.eclipse.kapua.service.datastore.MessageStoreService;
+import org.eclipse.kapua.service.datastore.exception.DatastoreBatchStoreException;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettingsKey;
+import org.eclipse.kapua.service.storable.model.id.StorableId;
+import org.hamcrest.Matcher;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentMatcher;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@Category(JUnitTests.class)
+public class DataStorageBatchMessageProcessorTest {
+
+    private static final String ERROR_ENDPOINT_URI = "mock:error";
+
+    private CamelContext camelContext;
+    private DataStorageMessageProcessor dataStorageMessageProcessor;
+    private MessageStoreService messageStoreService;
+    private AuthorizationService authorizationService;
+    private PermissionFactory permissionFactory;
+    private DataStorageBatchMessageProcessor processor;
+
+    @Before
+    public void setUp() throws Exception {
+        camelContext = new DefaultCamelContext();
+        camelContext.start();
+
+        dataStorageMessageProcessor = Mockito.mock(DataStorageMessageProcessor.class);
+        messageStoreService = Mockito.mock(MessageStoreService.class);
+        authorizationService = Mockito.mock(AuthorizationService.class);
+        permissionFactory = Mockito.mock(PermissionFactory.class);
+    }
+
+    @After
+    public void tearDown() {
+        if (processor != null) {
+            processor.stop();
+        }
+        camelContext.stop();
+    }
+
+    @Test
+    public void storesMessagesOneByOneWithBatchSizeOneTest() throws Exception {
+        processor = newProcessor(1, 1000L);
+
+        Exchange exchange = newExchange();
+        RecordingCallback callback = new RecordingCallback(1);
+        Assert.assertTrue(processor.process(exchange, callback));
+
+        Mockito.verify(dataStorageMessageProcessor).processMessage(exchange.getIn().getBody(CamelKapuaMessage.class));
+        Mockito.verifyZeroInteractions(messageStoreService);
+        Assert.assertEquals(Collections.singletonList(true), callback.doneSyncs);
+    }
+
+    @Test
+    public void storesBatchWhenFullTest() throws Exception {
+        processor = newProcessor(3, 60000L);
+
+        List<Exchange> exchanges = new ArrayList<>();
+        RecordingCallback callback = new RecordingCallback(3);
+        for (int i = 0; i < 3; i++) {
+            Exchange exchange = newExchange();
+            exchanges.add(exchange);
+            Assert.assertFalse(processor.process(exchange, callback));
+
+            if (i < 2) {
+                Mockito.verifyZeroInteractions(messageStoreService);
+                Assert.assertTrue(callback.doneSyncs.isEmpty());
+            }
+        }
+
+        Assert.assertTrue(callback.await());
+        Mockito.verify(messageStoreService).store(Matchers.argThat(hasSize(3)), Matchers.argThat(hasSize(3)));
+        Assert.assertEquals(Collections.nCopies(3, false), callback.doneSyncs);
+        for (Exchange exchange : exchanges) {
+            Assert.assertNull(exchange.getException());
+            Mockito.verify(dataStorageMessageProcessor).updateAssetValues(exchange.getIn().getBody(CamelKapuaMessage.class));
+        }
+        Mockito.verify(dataStorageMessageProcessor, Mockito.never()).processMessage(Matchers.any(CamelKapuaMessage.class));
+    }
+
+    @Test
+    public void storesBatchAfterLingerTest() throws Exception {
+        processor = newProcessor(100, 10L);
+
+        RecordingCallback callback = new RecordingCallback(2);
+        Assert.assertFalse(processor.process(newExchange(), callback));
+        Assert.assertFalse(processor.process(newExchange(), callback));
+
+        Assert.assertTrue(callback.await());
+        Mockito.verify(messageStoreService).store(Matchers.argThat(hasSize(2)), Matchers.argThat(hasSize(2)));
+    }
+
+    @Test
+    public void storesPendingMessagesOnStopTest() throws Exception {
+        processor = newProcessor(100, 60000L);
+
+        RecordingCallback callback = new RecordingCallback(1);
+        Assert.assertFalse(processor.process(newExchange(), callback));
+        processor.stop();
+
+        Assert.assertTrue(callback.await());
+        Mockito.verify(messageStoreService).store(Matchers.argThat(hasSize(1)), Matchers.argThat(hasSize(1)));
+    }
+
+    @Test
+    public void failsOnlyTheFailedMessagesOfTheBatchTest() throws Exception {
+        processor = newProcessor(3, 60000L);
+
+        KapuaException failure = KapuaException.internalError("Message 1 failed");
+        Mockito.when(messageStoreService.store(Matchers.<KapuaMessage<?, ?>>anyList(), Matchers.<String>anyList()))
+                .thenThrow(new DatastoreBatchStoreException(Collections.<StorableId>nCopies(3, null), Collections.singletonMap(1, failure)));
+
+        List<Exchange> exchanges = new ArrayList<>();
+        RecordingCallback callback = new RecordingCallback(3);
+        for (int i = 0; i < 3; i++) {
+            Exchange exchange = newExchange();
+            exchanges.add(exchange);
+            processor.process(exchange, callback);
+        }
+
+        Assert.assertTrue(callback.await());
+        Assert.assertNull(exchanges.get(0).getException());
+        Assert.assertSame(failure, exchanges.get(1).getException());
+        Assert.assertNull(exchanges.get(2).getException());
+        Mockito.verify(dataStorageMessageProcessor, Mockito.never()).updateAssetValues(exchanges.get(1).getIn().getBody(CamelKapuaMessage.class));
+    }
+
+    @Test
+    public void failsTheWholeBatchOnStoreFailureTest() throws Exception {
+        processor = newProcessor(2, 60000L);
+
+        KapuaException failure = KapuaException.internalError("Store failed");
+        Mockito.when(messageStoreService.store(Matchers.<KapuaMessage<?, ?>>anyList(), Matchers.<String>anyList())).thenThrow(failure);
+
+        Exchange first = newExchange();
+        Exchange second = newExchange();
+        RecordingCallback callback = new RecordingCallback(2);
+        processor.process(first, callback);
+        processor.process(second, callback);
+
+        Assert.assertTrue(callback.await());
+        Assert.assertSame(failure, first.getException());
+        Assert.assertSame(failure, second.getException());
+    }
+
+    @Test
+    public void failsUnauthorizedMessagesWithoutQueuingThemTest() throws Exception {
+        processor = newProcessor(2, 60000L);
+
+        KapuaException failure = KapuaException.internalError("Unauthorized");
+        Mockito.doThrow(failure).when(authorizationService).checkPermission(Matchers.any(Permission.class));
+
+        Exchange exchange = newExchange();
+        RecordingCallback callback = new RecordingCallback(1);
+        Assert.assertTrue(processor.process(exchange, callback));
+
+        Assert.assertSame(failure, exchange.getException());
+        Assert.assertEquals(Collections.singletonList(true), callback.doneSyncs);
+        Mockito.verifyZeroInteractions(messageStoreService);
+    }
+
+    @Test
+    public void acknowledgesCompletedExchangeTest() throws Exception {
+        processor = newProcessor(1, 1000L);
+
+        Exchange exchange = newExchange();
+        processor.process(exchange, new RecordingCallback(1));
+
+        for (Synchronization synchronization : exchange.adapt(ExtendedExchange.class).handoverCompletions()) {
+            synchronization.onComplete(exchange);
+        }
+
+        Mockito.verify(((JmsMessage) exchange.getIn()).getJmsMessage()).acknowledge();
+    }
+
+    @Test
+    public void acknowledgesFailedExchangeAfterMovingItToTheErrorEndpointTest() throws Exception {
+        processor = newProcessor(1, 1000L);
+
+        KapuaException failure = KapuaException.internalError("Store failed");
+        Mockito.doThrow(failure).when(dataStorageMessageProcessor).processMessage(Matchers.any(CamelKapuaMessage.class));
+
+        MockEndpoint errorEndpoint = camelContext.getEndpoint(ERROR_ENDPOINT_URI, MockEndpoint.class);
+        errorEndpoint.expectedMessageCount(1);
+
+        Exchange exchange = newExchange();
+        processor.process(exchange, new RecordingCallback(1));
+        Assert.assertSame(failure, exchange.getException());
+
+        for (Synchronization synchronization : exchange.adapt(ExtendedExchange.class).handoverCompletions()) {
+            synchronization.onFailure(exchange);
+        }
+
+        errorEndpoint.assertIsSatisfied();
+        Mockito.verify(((JmsMessage) exchange.getIn()).getJmsMessage()).acknowledge();
+    }
+
+    @Test
+    public void acknowledgesFailedExchangeWhenTheErrorEndpointCannotBeReachedTest() throws Exception {
+        processor = new DataStorageBatchMessageProcessor(dataStorageMessageProcessor, messageStoreService, authorizationService, permissionFactory,
+                newDatastoreSettings(1, 1000L), "unknown:error");
+
+        Mockito.doThrow(KapuaException.internalError("Store failed")).when(dataStorageMessageProcessor).processMessage(Matchers.any(CamelKapuaMessage.class));
+
+        Exchange exchange = newExchange();
+        processor.process(exchange, new RecordingCallback(1));
+
+        for (Synchronization synchronization : exchange.adapt(ExtendedExchange.class).handoverCompletions()) {
+            synchronization.onFailure(exchange);
+        }
+
+        Mockito.verify(((JmsMessage) exchange.getIn()).getJmsMessage()).acknowledge();
+    }
+
+    private DataStorageBatchMessageProcessor newProcessor(int batchSize, long batchLinger) {
+        DataStorageBatchMessageProcessor newProcessor = new DataStorageBatchMessageProcessor(dataStorageMessageProcessor, messageStoreService, authorizationService, permissionFactory,
+                newDatastoreSettings(batchSize, batchLinger), ERROR_ENDPOINT_URI);
+        newProcessor.start();
+        return newProcessor;
+    }
+
+    private DatastoreSettings newDatastoreSettings(int batchSize, long batchLinger) {
+        DatastoreSettings datastoreSettings = Mockito.mock(DatastoreSettings.class);
+        Mockito.when(datastoreSettings.getInt(Matchers.eq(DatastoreSettingsKey.BATCH_STORE_SIZE), Matchers.anyInt())).thenReturn(batchSize);
+        Mockito.when(datastoreSettings.getLong(Matchers.eq(DatastoreSettingsKey.BATCH_STORE_LINGER), Matchers.anyLong())).thenReturn(batchLinger);
+        Mockito.when(datastoreSettings.getBoolean(Matchers.eq(DatastoreSettingsKey.BATCH_STORE_ASYNC), Matchers.anyBoolean())).thenReturn(false);
+        return datastoreSettings;
+    }
+
+    private Exchange newExchange() {
+        KapuaMessage<?, ?> kapuaMessage = Mockito.mock(KapuaMessage.class);
+        Mockito.when(kapuaMessage.getScopeId()).thenReturn(KapuaId.ONE);
+        Mockito.when(kapuaMessage.getChannel()).thenReturn(Mockito.mock(KapuaChannel.class));
+
+        Exchange exchange = new DefaultExchange(camelContext);
+        Message jmsMessage = Mockito.mock(Message.class);
+        try {
+            Mockito.when(jmsMessage.getPropertyNames()).thenReturn(Collections.emptyEnumeration());
+        } catch (JMSException e) {
+            throw new IllegalStateException(e);
+        }
+        JmsMessage in = new JmsMessage(exchange, jmsMessage, null, new JmsBinding());
+        in.setBody(new CamelKapuaMessage<>(kapuaMessage, KapuaId.ONE, null));
+        exchange.setIn(in);
+        return exchange;
+    }
+
+    private static <T> Matcher<List<T>> hasSize(int size) {
+        return new ArgumentMatcher<List<T>>() {
+
+            @Override
+            public boolean matches(Object argument) {
+                return argument instanceof List && ((List<?>) argument).size() == size;
+            }
+        };
+    }
+
+    private static class RecordingCallback implements AsyncCallback {
+
+        private final List<Boolean> doneSyncs = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch done;
+
+        private RecordingCallback(int count) {
+            done = new CountDownLatch(count);
+        }
+
+        @Override
+        public void done(boolean doneSync) {
+            doneSyncs.add(doneSync);
+            done.countDown();
+        }
+
+        private boolean await() throws InterruptedException {
+            return done.await(10, TimeUnit.SECONDS);
+        }
+    }
+}
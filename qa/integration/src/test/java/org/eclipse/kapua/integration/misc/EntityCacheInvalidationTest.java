@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.integration.misc;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.event.XmlServiceEventMarshaler;
+import org.eclipse.kapua.commons.event.jms.JMSServiceEventBus;
+import org.eclipse.kapua.commons.metric.CommonsMetric;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.commons.service.internal.cache.EntityCacheInvalidationServiceModule;
+import org.eclipse.kapua.commons.service.internal.cache.EntityCacheInvalidator;
+import org.eclipse.kapua.commons.service.internal.cache.KapuaCacheManager;
+import org.eclipse.kapua.commons.service.internal.cache.NamedEntityCache;
+import org.eclipse.kapua.commons.service.internal.cache.local.CachingProvider;
+import org.eclipse.kapua.commons.setting.system.SystemSetting;
+import org.eclipse.kapua.commons.setting.system.SystemSettingKey;
+import org.eclipse.kapua.commons.storage.memory.InMemoryTxContext;
+import org.eclipse.kapua.commons.util.xml.XmlUtil;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.common.TestJAXBContextProvider;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.user.internal.UserImpl;
+import org.eclipse.kapua.service.user.internal.UserListResultImpl;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+/**
+ * Checks that the {@link NamedEntityCache} invalidations of a node are applied by another node,
+ * each node having its own caches and {@link JMSServiceEventBus} connected to the same embedded broker.
+ */
+@Category(JUnitTests.class)
+public class EntityCacheInvalidationTest {
+
+    private static final String ADDRESS = "entity-cache";
+    private static final long INVALIDATION_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+
+    private static EmbeddedActiveMQ broker;
+
+    private final KapuaId scopeId = new KapuaEid(BigInteger.valueOf(10));
+    private Node nodeA;
+    private Node nodeB;
+
+    @BeforeClass
+    public static void startBroker() throws Exception {
+        int port = freePort();
+        String dataDirectory = "target/entity-cache-invalidation-" + UUID.randomUUID();
+
+        Configuration configuration = new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .setJournalDirectory(dataDirectory + "/journal")
+                .setBindingsDirectory(dataDirectory + "/bindings")
+                .setPagingDirectory(dataDirectory + "/paging")
+                .setLargeMessagesDirectory(dataDirectory + "/largemessages")
+                .addAcceptorConfiguration("amqp", "tcp://127.0.0.1:" + port + "?protocols=AMQP");
+        broker = new EmbeddedActiveMQ().setConfiguration(configuration);
+        broker.start();
+
+        System.setProperty(SystemSettingKey.EVENT_BUS_URL.key(), "amqp://127.0.0.1:" + port);
+        System.setProperty(SystemSettingKey.EVENT_BUS_TRANSPORT_USE_EPOLL.key(), "false");
+    }
+
+    @AfterClass
+    public static void stopBroker() throws Exception {
+        System.clearProperty(SystemSettingKey.EVENT_BUS_URL.key());
+        System.clearProperty(SystemSettingKey.EVENT_BUS_TRANSPORT_USE_EPOLL.key());
+
+        if (broker != null) {
+            broker.stop();
+        }
+    }
+
+    @Before
+    public void startNodes() throws Exception {
+        nodeA = new Node("node-a");
+        nodeB = new Node("node-b");
+    }
+
+    @After
+    public void stopNodes() throws Exception {
+        nodeA.stop();
+        nodeB.stop();
+    }
+
+    @Test
+    public void removeIsAppliedByTheOtherNodeTest() throws Exception {
+        UserImpl user = newUser(1, "user-1");
+        nodeA.cache.put(user);
+        nodeB.cache.put(user);
+        Assert.assertNotNull(nodeB.cache.get(scopeId, "user-1"));
+
+        nodeA.cache.remove(scopeId, user);
+
+        Assert.assertNull(nodeA.cache.get(scopeId, user.getId()));
+        awaitTrue("The user has not been removed from the other node", () -> nodeB.cache.get(scopeId, user.getId()) == null);
+        Assert.assertNull(nodeB.cache.get(scopeId, "user-1"));
+    }
+
+    @Test
+    public void removeOfNotCachedEntityIsAppliedByTheOtherNodeTest() throws Exception {
+        UserImpl user = newUser(2, "user-2");
+        nodeB.cache.put(user);
+
+        Assert.assertNull(nodeA.cache.remove(scopeId, user.getId()));
+
+        awaitTrue("The user has not been removed from the other node", () -> nodeB.cache.get(scopeId, user.getId()) == null);
+    }
+
+    @Test
+    public void removeListIsAppliedByTheOtherNodeTest() throws Exception {
+        nodeB.cache.putList(scopeId, "list", new UserListResultImpl());
+        Assert.assertNotNull(nodeB.cache.getList(scopeId, "list"));
+
+        nodeA.cache.removeList(scopeId, "list");
+
+        awaitTrue("The list has not been removed from the other node", () -> nodeB.cache.getList(scopeId, "list") == null);
+    }
+
+    @Test
+    public void readOfTheOtherNodeBeforeTheCommitIsInvalidatedTest() throws Exception {
+        UserImpl user = newUser(3, "user-3");
+        nodeA.cache.put(user);
+
+        InMemoryTxContext txContext = new InMemoryTxContext();
+        nodeA.cache.remove(txContext, scopeId, user.getId());
+        Assert.assertNull(nodeA.cache.get(scopeId, user.getId()));
+
+        // The other node reads the user, whose update is not committed yet, and caches its previous state
+        nodeB.cache.put(user);
+        Assert.assertNotNull(nodeB.cache.get(scopeId, user.getId()));
+
+        txContext.commit();
+
+        awaitTrue("The user read before the commit has not been removed from the other node", () -> nodeB.cache.get(scopeId, user.getId()) == null);
+        Assert.assertNull(nodeB.cache.get(scopeId, "user-3"));
+    }
+
+    private UserImpl newUser(long id, String name) {
+        UserImpl user = new UserImpl(scopeId, name);
+        user.setId(new KapuaEid(BigInteger.valueOf(id)));
+        return user;
+    }
+
+    private static void awaitTrue(String message, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + INVALIDATION_TIMEOUT;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                Assert.fail(message);
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            return serverSocket.getLocalPort();
+        }
+    }
+
+    /**
+     * A node, with its own caches and {@link JMSServiceEventBus}, wired as the {@code CacheModule} and the {@code CommonsModule} do.
+     */
+    private static class Node {
+
+        private final JMSServiceEventBus serviceEventBus;
+        private final EntityCacheInvalidationServiceModule entityCacheInvalidationServiceModule;
+        private final NamedEntityCache cache;
+
+        Node(String name) throws KapuaException {
+            CommonsMetric commonsMetric = Mockito.mock(CommonsMetric.class, Mockito.RETURNS_DEEP_STUBS);
+            SystemSetting systemSetting = SystemSetting.getInstance();
+
+            serviceEventBus = new JMSServiceEventBus(systemSetting, commonsMetric, new XmlServiceEventMarshaler(new XmlUtil(new TestJAXBContextProvider())));
+            EntityCacheInvalidator entityCacheInvalidator = new EntityCacheInvalidator(commonsMetric);
+            KapuaCacheManager kapuaCacheManager = new KapuaCacheManager(
+                    new CachingProvider().createCacheManager(URI.create(name), 100, commonsMetric),
+                    commonsMetric,
+                    systemSetting,
+                    entityCacheInvalidator);
+            cache = new NamedEntityCache(kapuaCacheManager, commonsMetric, "UserId", "UserName");
+
+            entityCacheInvalidationServiceModule = new EntityCacheInvalidationServiceModule(entityCacheInvalidator, serviceEventBus, true, ADDRESS);
+            serviceEventBus.start();
+            entityCacheInvalidationServiceModule.start();
+        }
+
+        void stop() throws KapuaException {
+            entityCacheInvalidationServiceModule.stop();
+            serviceEventBus.stop();
+        }
+    }
+}
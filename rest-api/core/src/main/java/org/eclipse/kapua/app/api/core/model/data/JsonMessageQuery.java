@@ -45,6 +45,7 @@ public class JsonMessageQuery {
     private KapuaId scopeId;
     private Integer limit;
     private Integer indexOffset;
+    private String searchAfter;
     private boolean askTotalCount;
     private List<XmlAdaptedSortField> sortFields;
     private StorableFetchStyle fetchStyle;
@@ -112,6 +113,15 @@ public class JsonMessageQuery {
         return limit;
     }
 
+    @XmlElement(name = "searchAfter")
+    public String getSearchAfter() {
+        return searchAfter;
+    }
+
+    public void setSearchAfter(String searchAfter) {
+        this.searchAfter = searchAfter;
+    }
+
     @XmlElement(name = "askTotalCount")
     public boolean isAskTotalCount() {
         return askTotalCount;
@@ -78,6 +78,7 @@ public class DataMessages extends AbstractKapuaResource {
      * @param endDateParam   The end date to filter the results. Must come after startDate parameter
      * @param offset         The result set offset.
      * @param limit          The result set limit.
+     * @param searchAfter    The {@link MessageListResult#getNextKey()} of the previous page. When set, the offset is ignored.
      * @return The {@link MessageListResult} of all the datastoreMessages associated to the current selected scope.
      * @throws KapuaException Whenever something bad happens. See specific {@link KapuaService} exceptions.
      * @since 1.0.0
@@ -96,10 +97,12 @@ public class DataMessages extends AbstractKapuaResource {
                                                                    @QueryParam("metricMax") String metricMaxValue,
                                                                    @QueryParam("sortDir") @DefaultValue("DESC") SortDirection sortDir,
                                                                    @QueryParam("offset") @DefaultValue("0") int offset,
-                                                                   @QueryParam("limit") @DefaultValue("50") int limit)
+                                                                   @QueryParam("limit") @DefaultValue("50") int limit,
+                                                                   @QueryParam("searchAfter") String searchAfter)
             throws KapuaException {
         MetricType<V> internalMetricType = new MetricType<>(metricType);
         MessageQuery query = parametersToQuery(datastorePredicateFactory, messageStoreFactory, scopeId, clientId, channel, strictChannel, startDateParam, endDateParam, metricName, internalMetricType, metricMinValue, metricMaxValue, sortDir, offset, limit);
+        query.setSearchAfter(searchAfter);
 
         return query(scopeId, query);
     }
@@ -79,6 +79,7 @@ public class DataMessagesJson extends AbstractKapuaResource implements JsonSeria
      * @param endDateParam   The end date to filter the results. Must come after startDate parameter
      * @param offset         The result set offset.
      * @param limit          The result set limit.
+     * @param searchAfter    The {@link MessageListResult#getNextKey()} of the previous page. When set, the offset is ignored.
      * @return The {@link MessageListResult} of all the datastoreMessages associated to the current selected scope.
      * @throws KapuaException Whenever something bad happens. See specific {@link KapuaService} exceptions.
      * @since 1.0.0
@@ -98,20 +99,15 @@ public class DataMessagesJson extends AbstractKapuaResource implements JsonSeria
                                                                            @QueryParam("metricMax") String metricMaxValue,
                                                                            @QueryParam("sortDir") @DefaultValue("DESC") SortDirection sortDir,
                                                                            @QueryParam("offset") @DefaultValue("0") int offset,
-                                                                           @QueryParam("limit") @DefaultValue("50") int limit)
+                                                                           @QueryParam("limit") @DefaultValue("50") int limit,
+                                                                           @QueryParam("searchAfter") String searchAfter)
             throws KapuaException {
         MetricType<V> internalMetricType = new MetricType<>(metricType);
         MessageQuery query = DataMessages.parametersToQuery(datastorePredicateFactory, messageStoreFactory, scopeId, clientId, channel, strictChannel, startDateParam, endDateParam, metricName, internalMetricType , metricMinValue, metricMaxValue, sortDir, offset, limit);
         query.setScopeId(scopeId);
-        final MessageListResult result = messageStoreService.query(query);
+        query.setSearchAfter(searchAfter);
 
-        List<JsonDatastoreMessage> jsonDatastoreMessages = new ArrayList<>();
-        result.getItems().forEach(m -> jsonDatastoreMessages.add(new JsonDatastoreMessage(m)));
-        JsonMessageListResult jsonResult = new JsonMessageListResult();
-        jsonResult.addItems(jsonDatastoreMessages);
-        jsonResult.setTotalCount(result.getTotalCount());
-        jsonResult.setLimitExceeded(result.isLimitExceeded());
-        return jsonResult;
+        return queryAsJson(query);
     }
 
     /**
@@ -180,16 +176,7 @@ public class DataMessagesJson extends AbstractKapuaResource implements JsonSeria
             throws KapuaException {
         query.setScopeId(scopeId);
 
-        MessageListResult result = messageStoreService.query(convertQuery(query));
-
-        List<JsonDatastoreMessage> jsonDatastoreMessages = new ArrayList<>();
-        result.getItems().forEach(m -> jsonDatastoreMessages.add(new JsonDatastoreMessage(m)));
-
-        JsonMessageListResult jsonResult = new JsonMessageListResult();
-        jsonResult.addItems(jsonDatastoreMessages);
-        jsonResult.setLimitExceeded(result.isLimitExceeded());
-        jsonResult.setTotalCount(result.getTotalCount());
-        return jsonResult;
+        return queryAsJson(convertQuery(query));
     }
 
     /**
@@ -213,6 +200,24 @@ public class DataMessagesJson extends AbstractKapuaResource implements JsonSeria
         return returnNotNullEntity(jsonDatastoreMessage);
     }
 
+    /**
+     * Queries the {@link DatastoreMessage}s, converting each of them to a {@link JsonDatastoreMessage} as soon as it is read.
+     *
+     * @param query The {@link MessageQuery} to perform.
+     * @return The {@link JsonMessageListResult} of the query.
+     * @throws KapuaException Whenever something bad happens. See specific {@link KapuaService} exceptions.
+     * @since 2.1.0
+     */
+    private JsonMessageListResult queryAsJson(MessageQuery query) throws KapuaException {
+        JsonMessageListResult jsonResult = new JsonMessageListResult();
+        MessageListResult result = messageStoreService.query(query, m -> jsonResult.addItem(new JsonDatastoreMessage(m)));
+
+        jsonResult.setLimitExceeded(result.isLimitExceeded());
+        jsonResult.setTotalCount(result.getTotalCount());
+        jsonResult.setNextKey(result.getNextKey());
+        return jsonResult;
+    }
+
     private MessageQuery convertQuery(JsonMessageQuery query) {
         MessageQuery messageQuery = messageStoreFactory.newQuery(query.getScopeId());
         messageQuery.setAskTotalCount(query.isAskTotalCount());
@@ -220,6 +225,7 @@ public class DataMessagesJson extends AbstractKapuaResource implements JsonSeria
         messageQuery.setFetchStyle(query.getFetchStyle());
         messageQuery.setLimit(query.getLimit());
         messageQuery.setOffset(query.getOffset());
+        messageQuery.setSearchAfter(query.getSearchAfter());
         messageQuery.setPredicate(query.getPredicate());
 
         List<SortField> sortFields = new ArrayList<>();
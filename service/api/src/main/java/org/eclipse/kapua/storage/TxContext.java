@@ -30,6 +30,18 @@ public interface TxContext extends Closeable {
      */
     void rollback();
 
+    /**
+     * Registers an action to run once the current transaction has been committed, i.e. to let other components see its changes only when they are visible.
+     * The actions are discarded if the transaction is rolled back, and a failing action does not fail the already committed transaction.
+     * <p>
+     * The default implementation, for contexts that do not track the transaction outcome, runs the action right away.
+     *
+     * @param action The action to run after the commit
+     */
+    default void onCommit(Runnable action) {
+        action.run();
+    }
+
     /**
      * Convert exceptions happening within the transaction in a more generic form
      */
@@ -62,6 +62,7 @@ public abstract class AuthenticationLogic {
     protected final DeviceConnectionFactory deviceConnectionFactory;
     protected final PermissionFactory permissionFactory;
     protected final DeviceConnectionService deviceConnectionService;
+    protected final DeviceConnectionBatcher deviceConnectionBatcher;
 
     private static final String USER_NOT_AUTHORIZED = "User not authorized!";
 
@@ -73,7 +74,8 @@ public abstract class AuthenticationLogic {
             AuthorizationService authorizationService,
             DeviceConnectionFactory deviceConnectionFactory,
             PermissionFactory permissionFactory,
-            DeviceConnectionService deviceConnectionService) {
+            DeviceConnectionService deviceConnectionService,
+            DeviceConnectionBatcher deviceConnectionBatcher) {
         this.aclCreator = aclCreator;
         this.authenticationMetric = authenticationMetric;
         this.deviceConnectionOptionFactory = deviceConnectionOptionFactory;
@@ -82,6 +84,7 @@ public abstract class AuthenticationLogic {
         this.deviceConnectionFactory = deviceConnectionFactory;
         this.permissionFactory = permissionFactory;
         this.deviceConnectionService = deviceConnectionService;
+        this.deviceConnectionBatcher = deviceConnectionBatcher;
     }
 
     /**
@@ -304,13 +307,12 @@ public abstract class AuthenticationLogic {
         // if (DeviceStatus.DISABLED.equals(device.getStatus())) {
         // throw new KapuaIllegalAccessException("clientId - This client ID is disabled and cannot connect");
         // }
-        return KapuaSecurityUtils.doPrivileged(() -> deviceConnectionService.update(deviceConnection));
+        return deviceConnectionBatcher.update(deviceConnection);
     }
 
     protected DeviceConnection getDeviceConnection(AuthContext authContext) {
         try {
-            return KapuaSecurityUtils.doPrivileged(() -> deviceConnectionService.findByClientId(
-                    KapuaEid.parseCompactId(authContext.getScopeId()), authContext.getClientId()));
+            return deviceConnectionBatcher.findByClientId(KapuaEid.parseCompactId(authContext.getScopeId()), authContext.getClientId());
         } catch (Exception e) {
             throw new ShiroException("Error while looking for device connection on updating the device status!", e);
         }
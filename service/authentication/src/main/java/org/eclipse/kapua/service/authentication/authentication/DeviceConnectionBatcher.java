@@ -0,0 +1,280 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authentication.authentication;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.authentication.setting.ServiceAuthenticationSetting;
+import org.eclipse.kapua.service.authentication.setting.ServiceAuthenticationSettingKey;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnection;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionAttributes;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionFactory;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionListResult;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionQuery;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes the {@link DeviceConnection} lookups and updates issued by the concurrent broker connect/disconnect requests in micro-batches.
+ * <p>
+ * The lookups of the same scope are resolved with a single query, the updates are stored with a single {@link DeviceConnectionService#updateAll(List)}.
+ * Each caller still waits for, and gets, its own result.
+ * <p>
+ * Operations on the same {@link DeviceConnection} are never executed in the same batch, so they are applied in the order they have been submitted.
+ * <p>
+ * The batches are executed by a single worker thread, so batching is disabled by default (batch size 1): the operations are executed by the calling thread.
+ *
+ * @since 2.1.0
+ */
+public class DeviceConnectionBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeviceConnectionBatcher.class);
+
+    private final DeviceConnectionService deviceConnectionService;
+    private final DeviceConnectionFactory deviceConnectionFactory;
+    private final int batchSize;
+    private final long batchLinger;
+
+    private final BlockingQueue<Operation> pendingOperations = new LinkedBlockingQueue<>();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public DeviceConnectionBatcher(
+            DeviceConnectionService deviceConnectionService,
+            DeviceConnectionFactory deviceConnectionFactory,
+            ServiceAuthenticationSetting serviceAuthenticationSetting) {
+        this(deviceConnectionService,
+                deviceConnectionFactory,
+                serviceAuthenticationSetting.getInt(ServiceAuthenticationSettingKey.SERVICE_AUTHENTICATION_DEVICE_CONNECTION_BATCH_SIZE, 1),
+                serviceAuthenticationSetting.getLong(ServiceAuthenticationSettingKey.SERVICE_AUTHENTICATION_DEVICE_CONNECTION_BATCH_LINGER, 0L));
+    }
+
+    DeviceConnectionBatcher(
+            DeviceConnectionService deviceConnectionService,
+            DeviceConnectionFactory deviceConnectionFactory,
+            int batchSize,
+            long batchLinger) {
+        this.deviceConnectionService = deviceConnectionService;
+        this.deviceConnectionFactory = deviceConnectionFactory;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchLinger = Math.max(0, batchLinger);
+        if (batchSize > 1) {
+            worker = new Thread(this::processPendingOperations, "device-connection-batcher");
+            worker.setDaemon(true);
+            worker.start();
+        } else {
+            worker = null;
+        }
+        logger.info("Device connection batching: size {} - linger {}ms", batchSize, batchLinger);
+    }
+
+    /**
+     * Finds the {@link DeviceConnection} by its {@link DeviceConnection#getClientId()}.
+     *
+     * @param scopeId  The {@link DeviceConnection#getScopeId()}.
+     * @param clientId The {@link DeviceConnection#getClientId()}.
+     * @return The {@link DeviceConnection} found or {@code null} if not found.
+     * @throws KapuaException
+     * @since 2.1.0
+     */
+    public DeviceConnection findByClientId(KapuaId scopeId, String clientId) throws KapuaException {
+        if (worker == null) {
+            return KapuaSecurityUtils.doPrivileged(() -> deviceConnectionService.findByClientId(scopeId, clientId));
+        }
+        return submit(new Operation(scopeId, clientId, null));
+    }
+
+    /**
+     * Updates the given {@link DeviceConnection}.
+     *
+     * @param deviceConnection The {@link DeviceConnection} to update.
+     * @return The updated {@link DeviceConnection}.
+     * @throws KapuaException
+     * @since 2.1.0
+     */
+    public DeviceConnection update(DeviceConnection deviceConnection) throws KapuaException {
+        if (worker == null) {
+            return KapuaSecurityUtils.doPrivileged(() -> deviceConnectionService.update(deviceConnection));
+        }
+        return submit(new Operation(deviceConnection.getScopeId(), deviceConnection.getClientId(), deviceConnection));
+    }
+
+    /**
+     * Stops the batching, failing the operations still pending.
+     *
+     * @since 2.1.0
+     */
+    public void shutdown() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+        Operation operation;
+        while ((operation = pendingOperations.poll()) != null) {
+            operation.result.completeExceptionally(KapuaException.internalError("Device connection batching stopped"));
+        }
+    }
+
+    private DeviceConnection submit(Operation operation) throws KapuaException {
+        if (!running) {
+            throw KapuaException.internalError("Device connection batching stopped");
+        }
+        pendingOperations.add(operation);
+        try {
+            return operation.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw KapuaException.internalError(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof KapuaException) {
+                throw (KapuaException) e.getCause();
+            }
+            throw KapuaException.internalError(e.getCause());
+        }
+    }
+
+    private void processPendingOperations() {
+        List<Operation> batch = new ArrayList<>(batchSize);
+        List<Operation> deferred = new ArrayList<>();
+        while (running) {
+            try {
+                if (deferred.isEmpty()) {
+                    batch.add(pendingOperations.take());
+                } else {
+                    batch.addAll(deferred);
+                    deferred.clear();
+                }
+                long lingerEnd = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchLinger);
+                while (batch.size() < batchSize) {
+                    long wait = lingerEnd - System.nanoTime();
+                    Operation operation = wait > 0 ? pendingOperations.poll(wait, TimeUnit.NANOSECONDS) : pendingOperations.poll();
+                    if (operation == null) {
+                        break;
+                    }
+                    batch.add(operation);
+                }
+                execute(batch, deferred);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // The operations already taken from the queue are not failed by the shutdown
+                deferred.addAll(batch);
+                break;
+            } catch (RuntimeException e) {
+                logger.error("Error while executing the device connection batch", e);
+                batch.forEach(operation -> operation.result.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+        deferred.forEach(operation -> operation.result.completeExceptionally(KapuaException.internalError("Device connection batching stopped")));
+    }
+
+    private void execute(List<Operation> batch, List<Operation> deferred) {
+        Set<String> batchedKeys = new HashSet<>();
+        Map<KapuaId, List<Operation>> findsByScope = new HashMap<>();
+        List<Operation> updates = new ArrayList<>();
+        for (Operation operation : batch) {
+            if (!batchedKeys.add(operation.scopeId + "/" + operation.clientId)) {
+                deferred.add(operation);
+            } else if (operation.deviceConnection == null) {
+                findsByScope.computeIfAbsent(operation.scopeId, scopeId -> new ArrayList<>()).add(operation);
+            } else {
+                updates.add(operation);
+            }
+        }
+        findsByScope.forEach(this::executeFinds);
+        if (!updates.isEmpty()) {
+            executeUpdates(updates);
+        }
+    }
+
+    private void executeFinds(KapuaId scopeId, List<Operation> finds) {
+        try {
+            List<String> clientIds = new ArrayList<>(finds.size());
+            finds.forEach(find -> clientIds.add(find.clientId));
+
+            DeviceConnectionQuery query = deviceConnectionFactory.newQuery(scopeId);
+            query.setPredicate(query.attributePredicate(DeviceConnectionAttributes.CLIENT_ID, clientIds));
+            DeviceConnectionListResult deviceConnections = KapuaSecurityUtils.doPrivileged(() -> deviceConnectionService.query(query));
+
+            Map<String, DeviceConnection> deviceConnectionsByClientId = new HashMap<>();
+            deviceConnections.getItems().forEach(deviceConnection -> deviceConnectionsByClientId.putIfAbsent(deviceConnection.getClientId(), deviceConnection));
+            for (Operation find : finds) {
+                DeviceConnection deviceConnection = deviceConnectionsByClientId.get(find.clientId);
+                if (deviceConnection == null) {
+                    // The database collation may match client ids ignoring the case, as the single lookup does
+                    deviceConnection = deviceConnections.getItems().stream()
+                            .filter(candidate -> candidate.getClientId().equalsIgnoreCase(find.clientId))
+                            .findFirst()
+                            .orElse(null);
+                }
+                find.result.complete(deviceConnection);
+            }
+        } catch (Exception e) {
+            finds.forEach(find -> find.result.completeExceptionally(e));
+        }
+    }
+
+    private void executeUpdates(List<Operation> updates) {
+        List<DeviceConnection> deviceConnections = new ArrayList<>(updates.size());
+        updates.forEach(update -> deviceConnections.add(update.deviceConnection));
+        try {
+            List<DeviceConnection> updatedDeviceConnections = KapuaSecurityUtils.doPrivileged(() -> deviceConnectionService.updateAll(deviceConnections));
+            for (int i = 0; i < updates.size(); i++) {
+                updates.get(i).result.complete(updatedDeviceConnections.get(i));
+            }
+        } catch (Exception e) {
+            if (updates.size() == 1) {
+                updates.get(0).result.completeExceptionally(e);
+                return;
+            }
+            // A single failing update rolls back the whole batch: retry them one by one so that only the failing one is reported
+            logger.warn("Error while updating {} device connections together. Updating them one by one. Error: {}", updates.size(), e.getMessage());
+            for (Operation update : updates) {
+                try {
+                    update.result.complete(KapuaSecurityUtils.doPrivileged(() -> deviceConnectionService.update(update.deviceConnection)));
+                } catch (Exception ue) {
+                    update.result.completeExceptionally(ue);
+                }
+            }
+        }
+    }
+
+    private static class Operation {
+
+        private final KapuaId scopeId;
+        private final String clientId;
+        private final DeviceConnection deviceConnection;
+        private final CompletableFuture<DeviceConnection> result = new CompletableFuture<>();
+
+        private Operation(KapuaId scopeId, String clientId, DeviceConnection deviceConnection) {
+            this.scopeId = scopeId;
+            this.clientId = clientId;
+            this.deviceConnection = deviceConnection;
+        }
+    }
+}
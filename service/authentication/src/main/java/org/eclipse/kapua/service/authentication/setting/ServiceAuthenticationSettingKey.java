@@ -30,7 +30,15 @@ public enum ServiceAuthenticationSettingKey implements SettingKey {
     /**
      * Lifecycle events publishing address
      */
-    SERVICE_AUTHENTICATION_LIFECYCLE_EVENTS_ADDRESS("service.authentication.lifecycle_events_address");
+    SERVICE_AUTHENTICATION_LIFECYCLE_EVENTS_ADDRESS("service.authentication.lifecycle_events_address"),
+    /**
+     * Max number of device connection lookups/updates executed together (1 disables the batching)
+     */
+    SERVICE_AUTHENTICATION_DEVICE_CONNECTION_BATCH_SIZE("service.authentication.device_connection.batch_size"),
+    /**
+     * Max time (ms) to wait for further device connection lookups/updates before executing a batch
+     */
+    SERVICE_AUTHENTICATION_DEVICE_CONNECTION_BATCH_LINGER("service.authentication.device_connection.batch_linger");
 
     private String key;
 
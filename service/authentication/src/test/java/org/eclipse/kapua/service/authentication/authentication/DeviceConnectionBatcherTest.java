@@ -0,0 +1,280 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authentication.authentication;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.model.query.KapuaQuery;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnection;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionFactory;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionListResult;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionService;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionStatus;
+import org.eclipse.kapua.service.device.registry.connection.internal.DeviceConnectionImpl;
+import org.eclipse.kapua.service.device.registry.connection.internal.DeviceConnectionListResultImpl;
+import org.eclipse.kapua.service.device.registry.connection.internal.DeviceConnectionQueryImpl;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatcher;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@Category(JUnitTests.class)
+public class DeviceConnectionBatcherTest {
+
+    private static final KapuaId SCOPE_A = new KapuaEid(BigInteger.valueOf(10));
+    private static final KapuaId SCOPE_B = new KapuaEid(BigInteger.valueOf(20));
+    private static final long LONG_LINGER = TimeUnit.SECONDS.toMillis(30);
+
+    private final List<DeviceConnection> storedDeviceConnections = new ArrayList<>();
+
+    private DeviceConnectionService deviceConnectionService;
+    private DeviceConnectionFactory deviceConnectionFactory;
+    private ExecutorService callers;
+    private DeviceConnectionBatcher deviceConnectionBatcher;
+
+    @Before
+    public void setUp() throws Exception {
+        deviceConnectionService = Mockito.mock(DeviceConnectionService.class);
+        deviceConnectionFactory = Mockito.mock(DeviceConnectionFactory.class);
+        Mockito.when(deviceConnectionFactory.newQuery(Matchers.any(KapuaId.class))).thenAnswer(invocation -> new DeviceConnectionQueryImpl((KapuaId) invocation.getArguments()[0]));
+        Mockito.when(deviceConnectionService.query(Matchers.any(KapuaQuery.class))).thenAnswer(invocation -> {
+            KapuaQuery query = (KapuaQuery) invocation.getArguments()[0];
+            DeviceConnectionListResult deviceConnections = new DeviceConnectionListResultImpl();
+            storedDeviceConnections.stream()
+                    .filter(deviceConnection -> deviceConnection.getScopeId().equals(query.getScopeId()))
+                    .forEach(deviceConnections::addItem);
+            return deviceConnections;
+        });
+
+        storedDeviceConnections.add(newDeviceConnection(SCOPE_A, "client-a1"));
+        storedDeviceConnections.add(newDeviceConnection(SCOPE_A, "client-a2"));
+        storedDeviceConnections.add(newDeviceConnection(SCOPE_B, "client-b1"));
+        storedDeviceConnections.add(newDeviceConnection(SCOPE_B, "client-b2"));
+
+        callers = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        if (deviceConnectionBatcher != null) {
+            deviceConnectionBatcher.shutdown();
+        }
+        callers.shutdownNow();
+    }
+
+    @Test
+    public void lingerTest() throws Exception {
+        long linger = 300;
+        deviceConnectionBatcher = new DeviceConnectionBatcher(deviceConnectionService, deviceConnectionFactory, 100, linger);
+
+        long start = System.nanoTime();
+        DeviceConnection deviceConnection = deviceConnectionBatcher.findByClientId(SCOPE_A, "client-a1");
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assert.assertEquals("client-a1", deviceConnection.getClientId());
+        // A batch which does not fill up is executed when the linger expires
+        Assert.assertTrue("Batch executed after " + elapsed + "ms", elapsed >= linger - 50);
+        Mockito.verify(deviceConnectionService, Mockito.times(1)).query(Matchers.any(KapuaQuery.class));
+    }
+
+    @Test
+    public void batchSizeTest() throws Exception {
+        deviceConnectionBatcher = new DeviceConnectionBatcher(deviceConnectionService, deviceConnectionFactory, 2, LONG_LINGER);
+
+        long start = System.nanoTime();
+        Future<DeviceConnection> find1 = submitFind(SCOPE_A, "client-a1");
+        Future<DeviceConnection> find2 = submitFind(SCOPE_A, "client-a2");
+
+        Assert.assertEquals("client-a1", find1.get(10, TimeUnit.SECONDS).getClientId());
+        Assert.assertEquals("client-a2", find2.get(10, TimeUnit.SECONDS).getClientId());
+        // A full batch is executed without waiting for the linger
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < LONG_LINGER);
+        Mockito.verify(deviceConnectionService, Mockito.times(1)).query(Matchers.any(KapuaQuery.class));
+    }
+
+    @Test
+    public void findsAreGroupedByScopeTest() throws Exception {
+        deviceConnectionBatcher = new DeviceConnectionBatcher(deviceConnectionService, deviceConnectionFactory, 5, LONG_LINGER);
+
+        Future<DeviceConnection> findA1 = submitFind(SCOPE_A, "client-a1");
+        Future<DeviceConnection> findA2 = submitFind(SCOPE_A, "client-a2");
+        Future<DeviceConnection> findB1 = submitFind(SCOPE_B, "client-b1");
+        Future<DeviceConnection> findB2 = submitFind(SCOPE_B, "client-b2");
+        Future<DeviceConnection> findMissing = submitFind(SCOPE_B, "client-a1");
+
+        assertFound(SCOPE_A, "client-a1", findA1);
+        assertFound(SCOPE_A, "client-a2", findA2);
+        assertFound(SCOPE_B, "client-b1", findB1);
+        assertFound(SCOPE_B, "client-b2", findB2);
+        Assert.assertNull(findMissing.get(10, TimeUnit.SECONDS));
+
+        ArgumentCaptor<KapuaQuery> queries = ArgumentCaptor.forClass(KapuaQuery.class);
+        Mockito.verify(deviceConnectionService, Mockito.times(2)).query(queries.capture());
+        Set<KapuaId> queriedScopes = new HashSet<>();
+        queries.getAllValues().forEach(query -> queriedScopes.add(query.getScopeId()));
+        Assert.assertEquals(2, queriedScopes.size());
+        Assert.assertTrue(queriedScopes.contains(SCOPE_A));
+        Assert.assertTrue(queriedScopes.contains(SCOPE_B));
+    }
+
+    @Test
+    public void findErrorIsReportedToTheFindsOfTheScopeTest() throws Exception {
+        KapuaException queryError = KapuaException.internalError("query failed");
+        Mockito.doThrow(queryError).when(deviceConnectionService).query(Matchers.argThat(new ScopeMatcher(SCOPE_A)));
+        deviceConnectionBatcher = new DeviceConnectionBatcher(deviceConnectionService, deviceConnectionFactory, 3, LONG_LINGER);
+
+        Future<DeviceConnection> findA1 = submitFind(SCOPE_A, "client-a1");
+        Future<DeviceConnection> findA2 = submitFind(SCOPE_A, "client-a2");
+        Future<DeviceConnection> findB1 = submitFind(SCOPE_B, "client-b1");
+
+        assertFailedWith(queryError, findA1);
+        assertFailedWith(queryError, findA2);
+        assertFound(SCOPE_B, "client-b1", findB1);
+    }
+
+    @Test
+    public void updateErrorIsReportedToTheFailingUpdateOnlyTest() throws Exception {
+        KapuaException updateError = KapuaException.internalError("update failed");
+        DeviceConnection deviceConnection1 = storedDeviceConnections.get(0);
+        DeviceConnection deviceConnection2 = storedDeviceConnections.get(1);
+        DeviceConnection deviceConnection3 = storedDeviceConnections.get(2);
+        Mockito.when(deviceConnectionService.updateAll(Matchers.anyListOf(DeviceConnection.class))).thenThrow(updateError);
+        Mockito.when(deviceConnectionService.update(Matchers.any(DeviceConnection.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
+        Mockito.when(deviceConnectionService.update(Matchers.same(deviceConnection2))).thenThrow(updateError);
+        deviceConnectionBatcher = new DeviceConnectionBatcher(deviceConnectionService, deviceConnectionFactory, 3, LONG_LINGER);
+
+        Future<DeviceConnection> update1 = submitUpdate(deviceConnection1);
+        Future<DeviceConnection> update2 = submitUpdate(deviceConnection2);
+        Future<DeviceConnection> update3 = submitUpdate(deviceConnection3);
+
+        Assert.assertSame(deviceConnection1, update1.get(10, TimeUnit.SECONDS));
+        assertFailedWith(updateError, update2);
+        Assert.assertSame(deviceConnection3, update3.get(10, TimeUnit.SECONDS));
+        Mockito.verify(deviceConnectionService, Mockito.times(1)).updateAll(Matchers.anyListOf(DeviceConnection.class));
+        Mockito.verify(deviceConnectionService, Mockito.times(3)).update(Matchers.any(DeviceConnection.class));
+    }
+
+    @Test
+    public void updatesAreStoredTogetherTest() throws Exception {
+        Mockito.when(deviceConnectionService.updateAll(Matchers.anyListOf(DeviceConnection.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
+        deviceConnectionBatcher = new DeviceConnectionBatcher(deviceConnectionService, deviceConnectionFactory, 2, LONG_LINGER);
+
+        Future<DeviceConnection> update1 = submitUpdate(storedDeviceConnections.get(0));
+        Future<DeviceConnection> update2 = submitUpdate(storedDeviceConnections.get(2));
+
+        Assert.assertSame(storedDeviceConnections.get(0), update1.get(10, TimeUnit.SECONDS));
+        Assert.assertSame(storedDeviceConnections.get(2), update2.get(10, TimeUnit.SECONDS));
+        Mockito.verify(deviceConnectionService, Mockito.times(1)).updateAll(Matchers.anyListOf(DeviceConnection.class));
+        Mockito.verify(deviceConnectionService, Mockito.never()).update(Matchers.any(DeviceConnection.class));
+    }
+
+    @Test
+    public void shutdownFailsPendingOperationsTest() throws Exception {
+        deviceConnectionBatcher = new DeviceConnectionBatcher(deviceConnectionService, deviceConnectionFactory, 100, LONG_LINGER);
+
+        Future<DeviceConnection> find = submitFind(SCOPE_A, "client-a1");
+        Thread.sleep(100);
+        deviceConnectionBatcher.shutdown();
+
+        try {
+            find.get(10, TimeUnit.SECONDS);
+            Assert.fail("The pending find has not been failed");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof KapuaException);
+        }
+        try {
+            deviceConnectionBatcher.findByClientId(SCOPE_A, "client-a1");
+            Assert.fail("A find has been accepted after the shutdown");
+        } catch (KapuaException e) {
+            // Expected
+        }
+    }
+
+    private Future<DeviceConnection> submitFind(KapuaId scopeId, String clientId) {
+        return submit(() -> deviceConnectionBatcher.findByClientId(scopeId, clientId));
+    }
+
+    private Future<DeviceConnection> submitUpdate(DeviceConnection deviceConnection) {
+        return submit(() -> deviceConnectionBatcher.update(deviceConnection));
+    }
+
+    private Future<DeviceConnection> submit(Callable<DeviceConnection> operation) {
+        Future<DeviceConnection> result = callers.submit(operation);
+        try {
+            // Keep the submission order, so that the batches are predictable
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+
+    private static void assertFound(KapuaId scopeId, String clientId, Future<DeviceConnection> find) throws Exception {
+        DeviceConnection deviceConnection = find.get(10, TimeUnit.SECONDS);
+        Assert.assertNotNull(deviceConnection);
+        Assert.assertEquals(scopeId, deviceConnection.getScopeId());
+        Assert.assertEquals(clientId, deviceConnection.getClientId());
+    }
+
+    private static void assertFailedWith(Exception expected, Future<DeviceConnection> operation) throws Exception {
+        try {
+            operation.get(10, TimeUnit.SECONDS);
+            Assert.fail("The operation has not failed");
+        } catch (ExecutionException e) {
+            Assert.assertSame(expected, e.getCause());
+        }
+    }
+
+    private static DeviceConnection newDeviceConnection(KapuaId scopeId, String clientId) {
+        DeviceConnectionImpl deviceConnection = new DeviceConnectionImpl(scopeId);
+        deviceConnection.setClientId(clientId);
+        deviceConnection.setStatus(DeviceConnectionStatus.CONNECTED);
+        return deviceConnection;
+    }
+
+    /**
+     * Matches the {@link KapuaQuery}s of the given scope.
+     */
+    private static class ScopeMatcher extends ArgumentMatcher<KapuaQuery> {
+
+        private final KapuaId scopeId;
+
+        ScopeMatcher(KapuaId scopeId) {
+            this.scopeId = scopeId;
+        }
+
+        @Override
+        public boolean matches(Object argument) {
+            return argument instanceof KapuaQuery && scopeId.equals(((KapuaQuery) argument).getScopeId());
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authentication.authentication;
+
+import com.google.common.base.MoreObjects;
+import org.eclipse.kapua.commons.configuration.ServiceConfigurationManager;
+import org.eclipse.kapua.commons.jpa.EventStorer;
+import org.eclipse.kapua.commons.jpa.JdbcConnectionUrlResolvers;
+import org.eclipse.kapua.commons.jpa.KapuaJpaRepositoryConfiguration;
+import org.eclipse.kapua.commons.jpa.KapuaJpaTxManagerFactory;
+import org.eclipse.kapua.commons.liquibase.KapuaLiquibaseClient;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.commons.setting.system.SystemSetting;
+import org.eclipse.kapua.commons.setting.system.SystemSettingKey;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.authorization.AuthorizationService;
+import org.eclipse.kapua.service.authorization.permission.PermissionFactory;
+import org.eclipse.kapua.service.device.authentication.api.DeviceConnectionCredentialAdapter;
+import org.eclipse.kapua.service.device.registry.ConnectionUserCouplingMode;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnection;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionCreator;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionFactory;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionService;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionStatus;
+import org.eclipse.kapua.service.device.registry.connection.internal.DeviceConnectionFactoryImpl;
+import org.eclipse.kapua.service.device.registry.connection.internal.DeviceConnectionImplJpaRepository;
+import org.eclipse.kapua.service.device.registry.connection.internal.DeviceConnectionServiceImpl;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the device connection lookups and updates of concurrent connect and disconnect requests against the embedded H2 database,
+ * one by one and through the {@link DeviceConnectionBatcher}, checking the stored {@link DeviceConnection}s and logging the throughput of both.
+ */
+@Category(JUnitTests.class)
+public class DeviceConnectionBatcherThroughputTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DeviceConnectionBatcherThroughputTest.class);
+
+    private static final String AUTHENTICATION_TYPE = "USER_PASS";
+    private static final int SCOPES = 4;
+    private static final int CALLERS = 16;
+    private static final int CONNECTIONS_PER_CALLER = 8;
+    private static final int ROUNDS = 20;
+
+    private static Connection connection;
+    private static DeviceConnectionService deviceConnectionService;
+    private static DeviceConnectionFactory deviceConnectionFactory;
+    private static List<DeviceConnection> deviceConnections;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        SystemSetting config = SystemSetting.getInstance();
+        String dbUsername = config.getString(SystemSettingKey.DB_USERNAME);
+        String dbPassword = config.getString(SystemSettingKey.DB_PASSWORD);
+        String schema = MoreObjects.firstNonNull(config.getString(SystemSettingKey.DB_SCHEMA_ENV), config.getString(SystemSettingKey.DB_SCHEMA));
+        String jdbcUrl = JdbcConnectionUrlResolvers.resolveJdbcUrl();
+
+        // Keep the in-memory database open for the whole test
+        connection = DriverManager.getConnection(jdbcUrl, dbUsername, dbPassword);
+        new KapuaLiquibaseClient(jdbcUrl, dbUsername, dbPassword, schema).update();
+
+        deviceConnectionFactory = new DeviceConnectionFactoryImpl();
+        deviceConnectionService = new DeviceConnectionServiceImpl(
+                Mockito.mock(ServiceConfigurationManager.class),
+                Mockito.mock(AuthorizationService.class),
+                Mockito.mock(PermissionFactory.class),
+                deviceConnectionFactory,
+                new KapuaJpaTxManagerFactory(3).create("kapua-device"),
+                new DeviceConnectionImplJpaRepository(new KapuaJpaRepositoryConfiguration()),
+                Collections.singletonMap(AUTHENTICATION_TYPE, Mockito.mock(DeviceConnectionCredentialAdapter.class)),
+                Mockito.mock(EventStorer.class));
+
+        deviceConnections = new ArrayList<>();
+        for (int i = 0; i < CALLERS * CONNECTIONS_PER_CALLER; i++) {
+            DeviceConnectionCreator deviceConnectionCreator = deviceConnectionFactory.newCreator(new KapuaEid(BigInteger.valueOf(100L + i % SCOPES)));
+            deviceConnectionCreator.setClientId(String.format("client-%03d", i));
+            deviceConnectionCreator.setStatus(DeviceConnectionStatus.DISCONNECTED);
+            deviceConnectionCreator.setUserId(KapuaId.ONE);
+            deviceConnectionCreator.setUserCouplingMode(ConnectionUserCouplingMode.INHERITED);
+            deviceConnectionCreator.setAuthenticationType(AUTHENTICATION_TYPE);
+            deviceConnections.add(KapuaSecurityUtils.doPrivileged(() -> deviceConnectionService.create(deviceConnectionCreator)));
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void throughputTest() throws Exception {
+        for (int round = 0; round < 2; round++) {
+            double unbatched = measure(new DeviceConnectionBatcher(deviceConnectionService, deviceConnectionFactory, 1, 0L));
+            double batchedNoLinger = measure(new DeviceConnectionBatcher(deviceConnectionService, deviceConnectionFactory, 100, 0L));
+            double batched = measure(new DeviceConnectionBatcher(deviceConnectionService, deviceConnectionFactory, 100, 5L));
+            LOG.info("Connect/disconnect requests per second: one by one {} - batched without linger {} - batched with 5ms linger {}",
+                    String.format("%.0f", unbatched), String.format("%.0f", batchedNoLinger), String.format("%.0f", batched));
+        }
+    }
+
+    /**
+     * Each caller connects and disconnects its own device connections: a lookup and an update each time, as the authentication logic does.
+     *
+     * @return The requests per second.
+     */
+    private double measure(DeviceConnectionBatcher deviceConnectionBatcher) throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<?>> results = new ArrayList<>(CALLERS);
+            long start = System.nanoTime();
+            for (int c = 0; c < CALLERS; c++) {
+                List<DeviceConnection> callerDeviceConnections = deviceConnections.subList(c * CONNECTIONS_PER_CALLER, (c + 1) * CONNECTIONS_PER_CALLER);
+                results.add(callers.submit(() -> {
+                    for (int round = 0; round < ROUNDS; round++) {
+                        DeviceConnectionStatus status = round % 2 == 0 ? DeviceConnectionStatus.CONNECTED : DeviceConnectionStatus.DISCONNECTED;
+                        for (DeviceConnection callerDeviceConnection : callerDeviceConnections) {
+                            DeviceConnection deviceConnection = deviceConnectionBatcher.findByClientId(callerDeviceConnection.getScopeId(), callerDeviceConnection.getClientId());
+                            Assert.assertNotNull(deviceConnection);
+                            deviceConnection.setStatus(status);
+                            Assert.assertEquals(status, deviceConnectionBatcher.update(deviceConnection).getStatus());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(5, TimeUnit.MINUTES);
+            }
+            long elapsed = System.nanoTime() - start;
+
+            // An even number of rounds leaves all the device connections disconnected
+            for (DeviceConnection deviceConnection : deviceConnections) {
+                DeviceConnection storedDeviceConnection = KapuaSecurityUtils.doPrivileged(() -> deviceConnectionService.findByClientId(deviceConnection.getScopeId(), deviceConnection.getClientId()));
+                Assert.assertEquals(DeviceConnectionStatus.DISCONNECTED, storedDeviceConnection.getStatus());
+            }
+            return (double) CALLERS * CONNECTIONS_PER_CALLER * ROUNDS * TimeUnit.SECONDS.toNanos(1) / elapsed;
+        } finally {
+            deviceConnectionBatcher.shutdown();
+            callers.shutdownNow();
+        }
+    }
+}
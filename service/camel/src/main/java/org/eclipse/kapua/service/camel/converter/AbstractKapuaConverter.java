@@ -13,8 +13,9 @@
  *******************************************************************************/
 package org.eclipse.kapua.service.camel.converter;
 
-import java.util.Base64;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.inject.Inject;
 import javax.jms.JMSException;
@@ -22,9 +23,9 @@ import javax.jms.JMSException;
 import org.apache.camel.Exchange;
 import org.apache.camel.component.jms.JmsMessage;
 import org.apache.camel.support.DefaultMessage;
-import org.apache.commons.lang3.SerializationUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.security.KapuaSessionHeaderCodec;
 import org.eclipse.kapua.message.KapuaMessage;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.camel.application.MetricsCamel;
@@ -34,8 +35,6 @@ import org.eclipse.kapua.service.client.message.MessageConstants;
 import org.eclipse.kapua.service.client.message.MessageType;
 import org.eclipse.kapua.service.client.protocol.ProtocolDescriptor;
 import org.eclipse.kapua.service.client.protocol.ProtocolDescriptorProvider;
-import org.eclipse.kapua.service.device.call.message.DeviceMessage;
-import org.eclipse.kapua.translator.Translator;
 import org.eclipse.kapua.translator.TranslatorHub;
 import org.eclipse.kapua.transport.message.jms.JmsPayload;
 import org.eclipse.kapua.transport.message.jms.JmsTopic;
@@ -55,6 +54,13 @@ public abstract class AbstractKapuaConverter {
     protected final MetricsCamel metricsCamel;
     protected final ProtocolDescriptorProvider protocolDescriptorProvider;
 
+    /**
+     * The {@link JmsKapuaTranslationPipeline}s by {@link ProtocolDescriptor} and {@link MessageType}, created the first time they are needed.
+     *
+     * @since 2.1.0
+     */
+    private final Map<ProtocolDescriptor, Map<MessageType, JmsKapuaTranslationPipeline>> translationPipelines = new ConcurrentHashMap<>();
+
     @Inject
     protected AbstractKapuaConverter(TranslatorHub translatorHub, MetricsCamel metricsCamel, ProtocolDescriptorProvider protocolDescriptorProvider) {
         this.translatorHub = translatorHub;
@@ -81,7 +87,7 @@ public abstract class AbstractKapuaConverter {
                 try {
                     // FIX #164
                     Date queuedOn = new Date(message.getHeader(MessageConstants.HEADER_KAPUA_RECEIVED_TIMESTAMP, Long.class));
-                    KapuaId connectionId = SerializationUtils.deserialize(Base64.getDecoder().decode(message.getHeader(MessageConstants.HEADER_KAPUA_CONNECTION_ID, String.class)));
+                    KapuaId connectionId = KapuaSessionHeaderCodec.decodeId(message.getHeader(MessageConstants.HEADER_KAPUA_CONNECTION_ID, String.class));
                     String clientId = message.getHeader(MessageConstants.HEADER_KAPUA_CLIENT_ID, String.class);
                     String connectorName = message.getHeader(MessageConstants.HEADER_KAPUA_CONNECTOR_NAME, String.class);
                     ProtocolDescriptor connectorDescriptor = protocolDescriptorProvider.getDescriptor(connectorName);
@@ -115,17 +121,11 @@ public abstract class AbstractKapuaConverter {
     private CamelKapuaMessage<?> convertToCamelKapuaMessage(ProtocolDescriptor connectorDescriptor, MessageType messageType, byte[] messageBody, String jmsTopic, Date queuedOn,
             KapuaId connectionId, String clientId)
             throws KapuaException {
-        final Class<? extends DeviceMessage<?, ?>> deviceMessageType = connectorDescriptor.getDeviceClass(messageType);
-        final Class<? extends KapuaMessage<?, ?>> kapuaMessageType = connectorDescriptor.getKapuaClass(messageType);
-
-        // first step... from jms to device dependent protocol level (unknown)
-        Translator<org.eclipse.kapua.transport.message.jms.JmsMessage, DeviceMessage<?, ?>> translatorFromJms = translatorHub.getTranslatorFor(org.eclipse.kapua.transport.message.jms.JmsMessage.class,
-                deviceMessageType);// birth ...
-        DeviceMessage<?, ?> deviceMessage = translatorFromJms.translate(new org.eclipse.kapua.transport.message.jms.JmsMessage(new JmsTopic(jmsTopic), queuedOn, new JmsPayload(messageBody)));
+        JmsKapuaTranslationPipeline translationPipeline = translationPipelines
+                .computeIfAbsent(connectorDescriptor, descriptor -> new ConcurrentHashMap<>())
+                .computeIfAbsent(messageType, type -> new JmsKapuaTranslationPipeline(translatorHub, connectorDescriptor, type));
 
-        // second step.... from device dependent protocol (unknown) to Kapua
-        Translator<DeviceMessage<?, ?>, KapuaMessage<?, ?>> translatorToKapua = translatorHub.getTranslatorFor(deviceMessageType, kapuaMessageType);
-        KapuaMessage<?, ?> kapuaMessage = translatorToKapua.translate(deviceMessage);
+        KapuaMessage<?, ?> kapuaMessage = translationPipeline.translate(new org.eclipse.kapua.transport.message.jms.JmsMessage(new JmsTopic(jmsTopic), queuedOn, new JmsPayload(messageBody)));
         if (StringUtils.isEmpty(kapuaMessage.getClientId())) {
             logger.debug("Updating client id since the received value is null (new value {})", clientId);
             kapuaMessage.setClientId(clientId);
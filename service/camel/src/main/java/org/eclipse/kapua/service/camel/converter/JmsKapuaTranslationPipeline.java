@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.camel.converter;
+
+import org.eclipse.kapua.message.KapuaMessage;
+import org.eclipse.kapua.service.client.message.MessageType;
+import org.eclipse.kapua.service.client.protocol.ProtocolDescriptor;
+import org.eclipse.kapua.service.device.call.message.DeviceMessage;
+import org.eclipse.kapua.translator.Translator;
+import org.eclipse.kapua.translator.TranslatorHub;
+import org.eclipse.kapua.translator.exception.TranslateException;
+import org.eclipse.kapua.transport.message.jms.JmsMessage;
+
+/**
+ * Translates {@link JmsMessage}s to the {@link KapuaMessage} type of a {@link ProtocolDescriptor} and {@link MessageType}.
+ * <p>
+ * The translation happens in two steps:
+ * <ol>
+ *     <li>from {@link JmsMessage} to the device dependent protocol level ({@link ProtocolDescriptor#getDeviceClass(MessageType)})</li>
+ *     <li>from the device dependent protocol level to Kapua ({@link ProtocolDescriptor#getKapuaClass(MessageType)})</li>
+ * </ol>
+ * Both {@link Translator}s are looked up from the {@link TranslatorHub} when the pipeline is created, so it can be reused for each message.
+ *
+ * @since 2.1.0
+ */
+class JmsKapuaTranslationPipeline {
+
+    private final Translator<JmsMessage, DeviceMessage<?, ?>> translatorFromJms;
+    private final Translator<DeviceMessage<?, ?>, KapuaMessage<?, ?>> translatorToKapua;
+
+    /**
+     * Constructor.
+     *
+     * @param translatorHub       The {@link TranslatorHub} to look up the {@link Translator}s from.
+     * @param connectorDescriptor The {@link ProtocolDescriptor} of the connector.
+     * @param messageType         The {@link MessageType} to translate.
+     * @throws org.eclipse.kapua.translator.exception.TranslatorNotFoundException if any of the two {@link Translator}s is not available.
+     * @since 2.1.0
+     */
+    JmsKapuaTranslationPipeline(TranslatorHub translatorHub, ProtocolDescriptor connectorDescriptor, MessageType messageType) {
+        final Class<? extends DeviceMessage<?, ?>> deviceMessageType = connectorDescriptor.getDeviceClass(messageType);
+        final Class<? extends KapuaMessage<?, ?>> kapuaMessageType = connectorDescriptor.getKapuaClass(messageType);
+
+        this.translatorFromJms = translatorHub.getTranslatorFor(JmsMessage.class, deviceMessageType);
+        this.translatorToKapua = translatorHub.getTranslatorFor(deviceMessageType, kapuaMessageType);
+    }
+
+    /**
+     * Translates the given {@link JmsMessage} to the {@link KapuaMessage}.
+     *
+     * @param jmsMessage The {@link JmsMessage} to translate.
+     * @return The translated {@link KapuaMessage}.
+     * @throws TranslateException if any of the two translation steps fails.
+     * @since 2.1.0
+     */
+    KapuaMessage<?, ?> translate(JmsMessage jmsMessage) throws TranslateException {
+        // first step... from jms to device dependent protocol level (unknown)
+        DeviceMessage<?, ?> deviceMessage = translatorFromJms.translate(jmsMessage);
+
+        // second step.... from device dependent protocol (unknown) to Kapua
+        return translatorToKapua.translate(deviceMessage);
+    }
+}
@@ -13,12 +13,11 @@
 package org.eclipse.kapua.service.camel.converter;
 
 import org.apache.camel.Exchange;
-import org.apache.commons.lang.SerializationException;
 import org.apache.commons.lang3.SerializationUtils;
 import org.apache.shiro.util.ThreadContext;
 import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
-import org.eclipse.kapua.commons.security.KapuaSession;
+import org.eclipse.kapua.commons.security.KapuaSessionHeaderCodec;
 import org.eclipse.kapua.service.client.message.MessageConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,8 +45,8 @@ public class KapuaCamelFilter {
                 // FIX #164
                 String kapuaSession = exchange.getIn().getHeader(MessageConstants.HEADER_KAPUA_SESSION, String.class);
                 //no null check (see telemetry consumer camel.xml - bind/unbind of the kapua session)
-                KapuaSecurityUtils.setSession((KapuaSession) SerializationUtils.deserialize(Base64.getDecoder().decode(kapuaSession)));
-            } catch (IllegalArgumentException | SerializationException e) {
+                KapuaSecurityUtils.setSession(KapuaSessionHeaderCodec.decodeSession(kapuaSession));
+            } catch (IllegalArgumentException e) {
                 // continue without session
                 logger.debug("Cannot restore Kapua session: {}", e.getMessage(), e);
             }
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.camel.converter;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.support.DefaultMessage;
+import org.eclipse.kapua.commons.security.KapuaSessionHeaderCodec;
+import org.eclipse.kapua.message.KapuaChannel;
+import org.eclipse.kapua.message.KapuaMessage;
+import org.eclipse.kapua.message.KapuaPayload;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.camel.application.MetricsCamel;
+import org.eclipse.kapua.service.client.message.MessageConstants;
+import org.eclipse.kapua.service.client.message.MessageType;
+import org.eclipse.kapua.service.client.protocol.ProtocolDescriptor;
+import org.eclipse.kapua.service.client.protocol.ProtocolDescriptorProvider;
+import org.eclipse.kapua.service.device.call.message.DeviceChannel;
+import org.eclipse.kapua.service.device.call.message.DeviceMessage;
+import org.eclipse.kapua.service.device.call.message.DevicePayload;
+import org.eclipse.kapua.translator.Translator;
+import org.eclipse.kapua.translator.TranslatorHub;
+import org.eclipse.kapua.transport.message.jms.JmsMessage;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+@Category(JUnitTests.class)
+public class AbstractKapuaConverterTest {
+
+    private static final String CONNECTOR_NAME = "test-connector";
+
+    private TranslatorHub translatorHub;
+    private Exchange exchange;
+    private TestConverter converter;
+
+    private KapuaAppMessage kapuaAppMessage;
+    private KapuaBirthMessage kapuaBirthMessage;
+
+    @Before
+    public void setUp() throws Exception {
+        Map<MessageType, Class<? extends DeviceMessage<?, ?>>> deviceClasses = new EnumMap<>(MessageType.class);
+        deviceClasses.put(MessageType.APP, DeviceAppMessage.class);
+        deviceClasses.put(MessageType.BIRTH, DeviceBirthMessage.class);
+        Map<MessageType, Class<? extends KapuaMessage<?, ?>>> kapuaClasses = new EnumMap<>(MessageType.class);
+        kapuaClasses.put(MessageType.APP, KapuaAppMessage.class);
+        kapuaClasses.put(MessageType.BIRTH, KapuaBirthMessage.class);
+        ProtocolDescriptor protocolDescriptor = new ProtocolDescriptor("test", deviceClasses, kapuaClasses);
+        ProtocolDescriptorProvider protocolDescriptorProvider = Mockito.mock(ProtocolDescriptorProvider.class);
+        Mockito.when(protocolDescriptorProvider.getDescriptor(CONNECTOR_NAME)).thenReturn(protocolDescriptor);
+
+        kapuaAppMessage = Mockito.mock(KapuaAppMessage.class);
+        kapuaBirthMessage = Mockito.mock(KapuaBirthMessage.class);
+        translatorHub = Mockito.mock(TranslatorHub.class);
+        mockTranslators(DeviceAppMessage.class, KapuaAppMessage.class, kapuaAppMessage);
+        mockTranslators(DeviceBirthMessage.class, KapuaBirthMessage.class, kapuaBirthMessage);
+
+        DefaultMessage message = Mockito.mock(DefaultMessage.class);
+        Mockito.when(message.getHeader(MessageConstants.HEADER_KAPUA_RECEIVED_TIMESTAMP, Long.class)).thenReturn(System.currentTimeMillis());
+        Mockito.when(message.getHeader(MessageConstants.HEADER_KAPUA_CONNECTION_ID, String.class)).thenReturn(KapuaSessionHeaderCodec.encodeId(KapuaId.ONE));
+        Mockito.when(message.getHeader(MessageConstants.HEADER_KAPUA_CLIENT_ID, String.class)).thenReturn("client-id");
+        Mockito.when(message.getHeader(MessageConstants.HEADER_KAPUA_CONNECTOR_NAME, String.class)).thenReturn(CONNECTOR_NAME);
+        Mockito.when(message.getHeader(MessageConstants.PROPERTY_ORIGINAL_TOPIC, String.class)).thenReturn("account/client-id/app");
+        exchange = Mockito.mock(Exchange.class);
+        Mockito.when(exchange.getIn()).thenReturn(message);
+
+        converter = new TestConverter(translatorHub, Mockito.mock(MetricsCamel.class, Mockito.RETURNS_DEEP_STUBS), protocolDescriptorProvider);
+    }
+
+    @Test
+    public void messageTypesDoNotSharePipelinesTest() throws Exception {
+        Assert.assertSame(kapuaAppMessage, converter.convertTo(exchange, new byte[0], MessageType.APP).getMessage());
+        Assert.assertSame(kapuaBirthMessage, converter.convertTo(exchange, new byte[0], MessageType.BIRTH).getMessage());
+        Assert.assertSame(kapuaAppMessage, converter.convertTo(exchange, new byte[0], MessageType.APP).getMessage());
+        Assert.assertSame(kapuaBirthMessage, converter.convertTo(exchange, new byte[0], MessageType.BIRTH).getMessage());
+
+        // Each pipeline looks up its translators only once
+        Mockito.verify(translatorHub, Mockito.times(1)).getTranslatorFor(JmsMessage.class, DeviceAppMessage.class);
+        Mockito.verify(translatorHub, Mockito.times(1)).getTranslatorFor(DeviceAppMessage.class, KapuaAppMessage.class);
+        Mockito.verify(translatorHub, Mockito.times(1)).getTranslatorFor(JmsMessage.class, DeviceBirthMessage.class);
+        Mockito.verify(translatorHub, Mockito.times(1)).getTranslatorFor(DeviceBirthMessage.class, KapuaBirthMessage.class);
+        Mockito.verifyNoMoreInteractions(translatorHub);
+    }
+
+    @Test
+    public void setClientIdWhenMissingTest() throws Exception {
+        converter.convertTo(exchange, new byte[0], MessageType.APP);
+
+        Mockito.verify(kapuaAppMessage).setClientId("client-id");
+    }
+
+    /**
+     * Makes the {@link TranslatorHub} return the {@link Translator}s from {@link JmsMessage} to the given device type and from it to the given Kapua type,
+     * which translate to the given {@link KapuaMessage}.
+     */
+    @SuppressWarnings("unchecked")
+    private void mockTranslators(Class<? extends DeviceMessage<?, ?>> deviceMessageType, Class<? extends KapuaMessage<?, ?>> kapuaMessageType, KapuaMessage<?, ?> kapuaMessage) throws Exception {
+        DeviceMessage<?, ?> deviceMessage = Mockito.mock(deviceMessageType);
+
+        Translator<JmsMessage, DeviceMessage<?, ?>> translatorFromJms = Mockito.mock(Translator.class);
+        Mockito.doReturn(deviceMessage).when(translatorFromJms).translate(Matchers.any(JmsMessage.class));
+        Mockito.doReturn(translatorFromJms).when(translatorHub).getTranslatorFor(JmsMessage.class, deviceMessageType);
+
+        Translator<DeviceMessage<?, ?>, KapuaMessage<?, ?>> translatorToKapua = Mockito.mock(Translator.class);
+        Mockito.doReturn(kapuaMessage).when(translatorToKapua).translate(deviceMessage);
+        Mockito.doReturn(translatorToKapua).when(translatorHub).getTranslatorFor(deviceMessageType, kapuaMessageType);
+    }
+
+    private interface DeviceAppMessage extends DeviceMessage<DeviceChannel, DevicePayload> {
+    }
+
+    private interface DeviceBirthMessage extends DeviceMessage<DeviceChannel, DevicePayload> {
+    }
+
+    private interface KapuaAppMessage extends KapuaMessage<KapuaChannel, KapuaPayload> {
+    }
+
+    private interface KapuaBirthMessage extends KapuaMessage<KapuaChannel, KapuaPayload> {
+    }
+
+    private static class TestConverter extends AbstractKapuaConverter {
+
+        private TestConverter(TranslatorHub translatorHub, MetricsCamel metricsCamel, ProtocolDescriptorProvider protocolDescriptorProvider) {
+            super(translatorHub, metricsCamel, protocolDescriptorProvider);
+        }
+    }
+}
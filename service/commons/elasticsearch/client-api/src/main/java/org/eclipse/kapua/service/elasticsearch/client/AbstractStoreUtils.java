@@ -74,9 +74,9 @@ public abstract class AbstractStoreUtils {
     }
 
     public String getHashCode(String... components) {
-        String concatString = "";
+        StringBuilder concatString = new StringBuilder();
         for (String str : components) {
-            concatString = concatString.concat(str);
+            concatString.append(str);
         }
 
         byte[] hashCode = Hashing.sha256()
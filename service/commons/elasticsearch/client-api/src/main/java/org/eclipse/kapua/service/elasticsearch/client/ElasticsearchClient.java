@@ -15,9 +15,13 @@ package org.eclipse.kapua.service.elasticsearch.client;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.eclipse.kapua.service.elasticsearch.client.configuration.ElasticsearchClientConfiguration;
+import org.eclipse.kapua.service.elasticsearch.client.configuration.ElasticsearchClientRequestConfiguration;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientCommunicationException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientInitializationException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientUnavailableException;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertRequest;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertResponse;
 import org.eclipse.kapua.service.elasticsearch.client.model.BulkUpdateRequest;
 import org.eclipse.kapua.service.elasticsearch.client.model.BulkUpdateResponse;
 import org.eclipse.kapua.service.elasticsearch.client.model.IndexRequest;
@@ -29,6 +33,7 @@ import org.eclipse.kapua.service.elasticsearch.client.model.UpdateRequest;
 import org.eclipse.kapua.service.elasticsearch.client.model.UpdateResponse;
 
 import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Elasticsearch client definition.
@@ -133,6 +138,34 @@ public interface ElasticsearchClient<C extends Closeable> {
      */
     InsertResponse insert(InsertRequest insertRequest) throws ClientException;
 
+    /**
+     * Bulk inserts.
+     * <p>
+     * All the {@link InsertRequest}s are sent with a single request.
+     * The outcome of each {@link InsertRequest} is reported by the {@link InsertResponse} at the same position in the {@link BulkInsertResponse}.
+     *
+     * @param bulkInsertRequest The {@link BulkInsertRequest} to perform.
+     * @return The {@link BulkInsertResponse} from Elasticsearch.
+     * @throws ClientException if error occurs while inserting documents.
+     * @since 2.1.0
+     */
+    BulkInsertResponse insert(BulkInsertRequest bulkInsertRequest) throws ClientException;
+
+    /**
+     * Bulk inserts without blocking the caller while the request is performed.
+     * <p>
+     * At most {@link ElasticsearchClientRequestConfiguration#getRequestInFlightMax()} asynchronous requests are performed at the same time.
+     * When they are all in flight the request is queued, without blocking the caller, until one of them completes.
+     * If it is still queued after {@link ElasticsearchClientRequestConfiguration#getRequestInFlightWait()} milliseconds
+     * the returned {@link CompletableFuture} completes exceptionally with a {@link ClientCommunicationException}.
+     *
+     * @param bulkInsertRequest The {@link BulkInsertRequest} to perform.
+     * @return The {@link CompletableFuture} of the {@link BulkInsertResponse} from Elasticsearch. It completes exceptionally with a {@link ClientException} if error occurs while inserting documents.
+     * @see #insert(BulkInsertRequest)
+     * @since 2.1.0
+     */
+    CompletableFuture<BulkInsertResponse> insertAsync(BulkInsertRequest bulkInsertRequest);
+
     /**
      * Upserts a document.
      *
@@ -153,6 +186,18 @@ public interface ElasticsearchClient<C extends Closeable> {
      */
     BulkUpdateResponse upsert(BulkUpdateRequest bulkUpdateRequest) throws ClientException;
 
+    /**
+     * Bulk upserts without blocking the caller while the request is performed.
+     * <p>
+     * Asynchronous requests are bounded as described in {@link #insertAsync(BulkInsertRequest)}.
+     *
+     * @param bulkUpdateRequest The {@link BulkUpdateRequest} to perform.
+     * @return The {@link CompletableFuture} of the {@link BulkUpdateResponse} from Elasticsearch. It completes exceptionally with a {@link ClientException} if error occurs while upserting documents.
+     * @see #upsert(BulkUpdateRequest)
+     * @since 2.1.0
+     */
+    CompletableFuture<BulkUpdateResponse> upsertAsync(BulkUpdateRequest bulkUpdateRequest);
+
     /**
      * Finds by query.
      * <p>
@@ -179,6 +224,21 @@ public interface ElasticsearchClient<C extends Closeable> {
      */
     <T> ResultList<T> query(String index, Object query, Class<T> clazz) throws ClientException;
 
+    /**
+     * Finds by query, handing each result to the given {@link QueryResultHandler} as soon as it is decoded.
+     * <p>
+     * Results are not collected, so large result sets can be processed without holding all of them in memory.
+     *
+     * @param index         The index to look for.
+     * @param query         The query to perform.
+     * @param clazz         The expected {@link Object#getClass()}
+     * @param resultHandler The {@link QueryResultHandler} of the results.
+     * @return The {@link ResultList} of the query, without the results handed to the {@link QueryResultHandler}.
+     * @throws ClientException if error occurs while querying or handling the results.
+     * @since 2.1.0
+     */
+    <T> ResultList<T> query(String index, Object query, Class<T> clazz, QueryResultHandler<T> resultHandler) throws ClientException;
+
     /**
      * Counts by query.
      *
@@ -14,6 +14,7 @@ package org.eclipse.kapua.service.elasticsearch.client;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.eclipse.kapua.commons.cache.Cache;
 import org.eclipse.kapua.commons.cache.LocalCache;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
@@ -25,6 +26,7 @@ import org.eclipse.kapua.service.elasticsearch.client.model.Response;
 import org.eclipse.kapua.service.elasticsearch.client.model.ResultList;
 import org.eclipse.kapua.service.elasticsearch.client.model.UpdateRequest;
 import org.eclipse.kapua.service.elasticsearch.client.model.UpdateResponse;
+import org.eclipse.kapua.service.elasticsearch.client.utils.SearchAfterCursor;
 import org.eclipse.kapua.service.storable.StorableFactory;
 import org.eclipse.kapua.service.storable.exception.MappingException;
 import org.eclipse.kapua.service.storable.model.Storable;
@@ -39,18 +41,27 @@ import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 public abstract class ElasticsearchRepository<
         T extends Storable,
         L extends StorableListResult<T>,
         Q extends StorableQuery> implements StorableRepository<T, L, Q> {
+
+    /**
+     * The default value of the {@code index.max_result_window} setting of Elasticsearch.
+     *
+     * @since 2.1.0
+     */
+    protected static final int DEFAULT_MAX_RESULT_WINDOW = 10000;
+
     protected final ElasticsearchClientProvider elasticsearchClientProviderInstance;
     private final Class<T> clazz;
     private final StorableFactory<T, L, Q> storableFactory;
     protected final StorablePredicateFactory storablePredicateFactory;
     protected final Logger logger = LoggerFactory.getLogger(this.getClass());
-    protected final LocalCache<String, Boolean> indexUpserted;
+    protected final Cache<String, Boolean> indexUpserted;
 
     protected abstract String indexResolver(KapuaId scopeId);
 
@@ -65,7 +76,7 @@ public abstract class ElasticsearchRepository<
             Class<T> clazz,
             StorableFactory<T, L, Q> storableFactory,
             StorablePredicateFactory storablePredicateFactory,
-            LocalCache<String, Boolean> indexesCache) {
+            Cache<String, Boolean> indexesCache) {
         this.elasticsearchClientProviderInstance = elasticsearchClientProviderInstance;
         this.storableFactory = storableFactory;
         this.storablePredicateFactory = storablePredicateFactory;
@@ -108,8 +119,58 @@ public abstract class ElasticsearchRepository<
         }
     }
 
+    /**
+     * Finds the {@link Storable}s with the given {@link StorableId}s.
+     * <p>
+     * The {@link StorableId}s are looked up in chunks of at most {@link #getMaxResultWindow()} {@link StorableId}s,
+     * since a query cannot return more results than the {@code index.max_result_window} of the index.
+     *
+     * @param scopeId The scope {@link KapuaId} of the {@link Storable}s.
+     * @param ids     The {@link StorableId}s to find.
+     * @return The {@link Storable}s found.
+     * @since 2.1.0
+     */
+    @Override
+    public L find(KapuaId scopeId, List<StorableId> ids) {
+        final int chunkSize = getMaxResultWindow();
+        if (ids.size() <= chunkSize) {
+            return findChunk(scopeId, ids);
+        }
+
+        final L res = storableFactory.newListResult();
+        long totalCount = 0;
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            final L chunkResult = findChunk(scopeId, ids.subList(from, Math.min(from + chunkSize, ids.size())));
+            res.addItems(chunkResult.getItems());
+            totalCount += chunkResult.getTotalCount() != null ? chunkResult.getTotalCount() : chunkResult.getSize();
+        }
+        res.setTotalCount(totalCount);
+        return res;
+    }
+
+    private L findChunk(KapuaId scopeId, List<StorableId> ids) {
+        final Q idsQuery = storableFactory.newQuery(scopeId);
+        idsQuery.setLimit(ids.size());
+
+        final IdsPredicate idsPredicate = storablePredicateFactory.newIdsPredicate();
+        idsPredicate.setIds(ids);
+        idsQuery.setPredicate(idsPredicate);
+
+        return query(idsQuery);
+    }
+
+    /**
+     * Gets the maximum number of results that a query can return, which is the {@code index.max_result_window} of the indexes.
+     *
+     * @return The maximum number of results that a query can return.
+     * @since 2.1.0
+     */
+    protected int getMaxResultWindow() {
+        return DEFAULT_MAX_RESULT_WINDOW;
+    }
+
     private void synchIndex(String indexName) {
-        if (!indexUpserted.containsKey(indexName)) {
+        if (!Boolean.TRUE.equals(indexUpserted.get(indexName))) {
             synchronized (clazz) {
                 doUpsertIndex(indexName);
                 indexUpserted.put(indexName, true);
@@ -121,22 +182,77 @@ public abstract class ElasticsearchRepository<
     public L query(Q query) {
         try {
             final String indexName = indexResolver(query.getScopeId());
-            synchIndex(indexName);
+            // Indexes of all scopes are resolved with a wildcard expression, which cannot be created
+            if (!KapuaId.ANY.equals(query.getScopeId())) {
+                synchIndex(indexName);
+            }
             final ResultList<T> partialResult = elasticsearchClientProviderInstance.getElasticsearchClient().query(indexName, query, clazz);
             final L res = storableFactory.newListResult();
             res.addItems(partialResult.getResult());
-            res.setTotalCount(partialResult.getTotalCount());
-            setLimitExceed(query, partialResult.getTotalHitsExceedsCount(), res);
+            setPagination(query, partialResult, res.getSize(), res);
             return res;
         } catch (ClientException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Queries the {@link Storable}s, handing each of them to the given {@link QueryResultHandler} as soon as it is decoded.
+     *
+     * @param query         The query to perform.
+     * @param resultHandler The {@link QueryResultHandler} of the {@link Storable}s.
+     * @return The {@link StorableListResult} of the query, with the total count, the limit exceeded flag and the next key but without items.
+     * @since 2.1.0
+     */
+    public L query(Q query, QueryResultHandler<T> resultHandler) {
+        try {
+            final String indexName = indexResolver(query.getScopeId());
+            // Indexes of all scopes are resolved with a wildcard expression, which cannot be created
+            if (!KapuaId.ANY.equals(query.getScopeId())) {
+                synchIndex(indexName);
+            }
+            final AtomicInteger handledResults = new AtomicInteger();
+            final QueryResultHandler<T> countingResultHandler = result -> {
+                handledResults.incrementAndGet();
+                resultHandler.handle(result);
+            };
+            final ResultList<T> partialResult = elasticsearchClientProviderInstance.getElasticsearchClient().query(indexName, query, clazz, countingResultHandler);
+            final L res = storableFactory.newListResult();
+            setPagination(query, partialResult, handledResults.get(), res);
+            return res;
+        } catch (ClientException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Sets the total count, the limit exceeded flag and the next key of a {@link StorableListResult}.
+     *
+     * @param query         The query performed.
+     * @param partialResult The {@link ResultList} of the query.
+     * @param size          The number of results of the query.
+     * @param res           The {@link StorableListResult} to set.
+     * @since 2.1.0
+     */
+    private void setPagination(Q query, ResultList<T> partialResult, int size, L res) {
+        res.setTotalCount(partialResult.getTotalCount());
+        setLimitExceed(query, partialResult.getTotalHitsExceedsCount(), size, res);
+        if (res.isLimitExceeded() && partialResult.getLastSortValues() != null) {
+            res.setNextKey(SearchAfterCursor.encode(partialResult.getLastSortValues()));
+        }
+    }
+
     public static <T extends Storable> void setLimitExceed(StorableQuery query, boolean hitsExceedsTotalCount, StorableListResult<T> list) {
+        setLimitExceed(query, hitsExceedsTotalCount, list.getSize(), list);
+    }
+
+    private static <T extends Storable> void setLimitExceed(StorableQuery query, boolean hitsExceedsTotalCount, int size, StorableListResult<T> list) {
         int offset = query.getOffset() != null ? query.getOffset() : 0;
         if (query.getLimit() != null) {
-            if (hitsExceedsTotalCount || //pre-condition: there are more than 10k documents in ES && query limit is <= 10k
+            if (query.getSearchAfter() != null) {
+                // The position of a page resumed from a cursor is unknown: a full page may be followed by more results
+                list.setLimitExceeded(size >= query.getLimit());
+            } else if (hitsExceedsTotalCount || //pre-condition: there are more than 10k documents in ES && query limit is <= 10k
                     list.getTotalCount() > offset + query.getLimit()) {
                 list.setLimitExceeded(true);
             }
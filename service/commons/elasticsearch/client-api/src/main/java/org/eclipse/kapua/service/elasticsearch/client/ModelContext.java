@@ -12,8 +12,10 @@
  *******************************************************************************/
 package org.eclipse.kapua.service.elasticsearch.client;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.eclipse.kapua.service.elasticsearch.client.exception.DatamodelMappingException;
 
+import java.io.IOException;
 import java.util.Map;
 
 /**
@@ -53,6 +55,22 @@ public interface ModelContext {
      */
     Map<String, Object> marshal(Object object) throws DatamodelMappingException;
 
+    /**
+     * Converts the Elasticsearch object to the client object, writing it straight to a {@link JsonGenerator}.
+     * <p>
+     * The written document is the same as the {@link #marshal(Object)} one.
+     * The default implementation writes the {@link #marshal(Object)} {@link Map}, implementations should write the object without it.
+     *
+     * @param object    The object to convert.
+     * @param generator The {@link JsonGenerator} to write to.
+     * @throws DatamodelMappingException if there are error in resource mapping.
+     * @throws IOException               if writing to the {@link JsonGenerator} fails.
+     * @since 2.1.0
+     */
+    default void marshal(Object object, JsonGenerator generator) throws DatamodelMappingException, IOException {
+        generator.writeObject(marshal(object));
+    }
+
     /**
      * Gets the key name of the id field.
      *
@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.elasticsearch.client;
+
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
+
+/**
+ * Handles the results of a query one by one, as they are decoded from the response.
+ *
+ * @param <T> The type of the results.
+ * @see ElasticsearchClient#query(String, Object, Class, QueryResultHandler)
+ * @since 2.1.0
+ */
+@FunctionalInterface
+public interface QueryResultHandler<T> {
+
+    /**
+     * Handles a result of the query.
+     *
+     * @param result The result.
+     * @throws ClientException if the result cannot be handled. The query is aborted.
+     * @since 2.1.0
+     */
+    void handle(T result) throws ClientException;
+}
@@ -58,6 +58,12 @@ public class SchemaKeys {
      * @since 1.0.0
      */
     public static final String KEY_SIZE = "size";
+    /**
+     * Search after key (used by queries for paginating the result set with a cursor)
+     *
+     * @since 2.1.0
+     */
+    public static final String KEY_SEARCH_AFTER = "search_after";
 
     /**
      * Query ascending sort key
@@ -25,6 +25,8 @@ public class ElasticsearchClientRequestConfiguration {
 
     private int requestRetryAttemptMax = 3;
     private int requestRetryAttemptWait = 2500;
+    private int requestInFlightMax = 64;
+    private int requestInFlightWait = 30000;
 
     private int queryTimeout = 15000;
     private int scrollTimeout = 60000;
@@ -81,6 +83,56 @@ public class ElasticsearchClientRequestConfiguration {
         return this;
     }
 
+    /**
+     * Gets the maximum number of asynchronous {@link Request}s performed at the same time.
+     * <p>
+     * Default value: 64
+     *
+     * @return The maximum number of asynchronous {@link Request}s performed at the same time.
+     * @since 2.1.0
+     */
+    public int getRequestInFlightMax() {
+        return requestInFlightMax;
+    }
+
+    /**
+     * Sets the maximum number of asynchronous {@link Request}s performed at the same time.
+     *
+     * @param requestInFlightMax
+     *         The maximum number of asynchronous {@link Request}s performed at the same time.
+     * @return This {@link ElasticsearchClientRequestConfiguration} to chain method invocation.
+     * @since 2.1.0
+     */
+    public ElasticsearchClientRequestConfiguration setRequestInFlightMax(int requestInFlightMax) {
+        this.requestInFlightMax = requestInFlightMax;
+        return this;
+    }
+
+    /**
+     * Gets the maximum wait time for an asynchronous {@link Request} to be performed when {@link #getRequestInFlightMax()} {@link Request}s are already in flight.
+     * <p>
+     * Default value: 30000
+     *
+     * @return The maximum wait time for an asynchronous {@link Request} to be performed.
+     * @since 2.1.0
+     */
+    public int getRequestInFlightWait() {
+        return requestInFlightWait;
+    }
+
+    /**
+     * Sets the maximum wait time for an asynchronous {@link Request} to be performed when {@link #getRequestInFlightMax()} {@link Request}s are already in flight.
+     *
+     * @param requestInFlightWait
+     *         The maximum wait time for an asynchronous {@link Request} to be performed.
+     * @return This {@link ElasticsearchClientRequestConfiguration} to chain method invocation.
+     * @since 2.1.0
+     */
+    public ElasticsearchClientRequestConfiguration setRequestInFlightWait(int requestInFlightWait) {
+        this.requestInFlightWait = requestInFlightWait;
+        return this;
+    }
+
     /**
      * Gets the query {@link Request} timeout.
      * <p>
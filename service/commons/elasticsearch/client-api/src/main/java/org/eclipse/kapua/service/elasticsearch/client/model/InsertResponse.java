@@ -20,6 +20,13 @@ package org.eclipse.kapua.service.elasticsearch.client.model;
  */
 public class InsertResponse extends Response {
 
+    /**
+     * The result description.
+     *
+     * @since 2.1.0
+     */
+    private String description;
+
     /**
      * Constructor.
      *
@@ -29,6 +36,43 @@ public class InsertResponse extends Response {
      */
     public InsertResponse(String id, String index) {
         super(id, index);
+
+        setResult(true);
+    }
+
+    /**
+     * Negative result constructor (result false)
+     *
+     * @param id          The id of the record that failed to be inserted.
+     * @param index       The index
+     * @param description The result description of the failure.
+     * @since 2.1.0
+     */
+    public InsertResponse(String id, String index, String description) {
+        this(id, index);
+
+        setResult(false);
+        setDescription(description);
+    }
+
+    /**
+     * Gets the result description.
+     *
+     * @return The result description.
+     * @since 2.1.0
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Sets the result description.
+     *
+     * @param description The result description.
+     * @since 2.1.0
+     */
+    public void setDescription(String description) {
+        this.description = description;
     }
 
 }
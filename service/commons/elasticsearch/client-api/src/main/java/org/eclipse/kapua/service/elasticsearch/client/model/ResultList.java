@@ -26,6 +26,7 @@ public class ResultList<T> {
     private final List<T> result;
     private final long totalCount;
     private boolean totalHitsExceedsCount; //true iff in ES there are actually more than 10k hits
+    private List<Object> lastSortValues;
 
     /**
      * Constructor.
@@ -77,4 +78,26 @@ public class ResultList<T> {
         return totalCount;
     }
 
+    /**
+     * Gets the sort values of the last result.
+     * <p>
+     * They are the {@code search_after} of the query of the next page.
+     *
+     * @return The sort values of the last result, or {@code null} if there are no results.
+     * @since 2.1.0
+     */
+    public List<Object> getLastSortValues() {
+        return lastSortValues;
+    }
+
+    /**
+     * Sets the sort values of the last result.
+     *
+     * @param lastSortValues The sort values of the last result.
+     * @since 2.1.0
+     */
+    public void setLastSortValues(List<Object> lastSortValues) {
+        this.lastSortValues = lastSortValues;
+    }
+
 }
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.elasticsearch.client.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Encodes and decodes the sort values of the last hit of a query page as an opaque search-after cursor.
+ * <p>
+ * The cursor is the URL-safe Base64 of the JSON array of the sort values, so it can be passed as a query parameter as it is.
+ *
+ * @since 2.1.0
+ */
+public class SearchAfterCursor {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<List<Object>> SORT_VALUES_TYPE_REFERENCE = new TypeReference<List<Object>>() {
+    };
+
+    private SearchAfterCursor() {
+    }
+
+    /**
+     * Encodes the given sort values as a search-after cursor.
+     *
+     * @param sortValues The sort values of the last hit of a query page.
+     * @return The search-after cursor.
+     * @since 2.1.0
+     */
+    public static String encode(List<Object> sortValues) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(OBJECT_MAPPER.writeValueAsBytes(sortValues));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decodes the given search-after cursor into the sort values to search after.
+     *
+     * @param cursor The search-after cursor.
+     * @return The sort values to search after.
+     * @throws IllegalArgumentException if the given cursor is not a valid search-after cursor.
+     * @since 2.1.0
+     */
+    public static List<Object> decode(String cursor) {
+        try {
+            return OBJECT_MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), SORT_VALUES_TYPE_REFERENCE);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid search-after cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.elasticsearch.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.assertj.core.api.Assertions;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.elasticsearch.client.model.IndexRequest;
+import org.eclipse.kapua.service.elasticsearch.client.model.IndexResponse;
+import org.eclipse.kapua.service.elasticsearch.client.model.ResultList;
+import org.eclipse.kapua.service.storable.StorableFactory;
+import org.eclipse.kapua.service.storable.model.AbstractStorableListResult;
+import org.eclipse.kapua.service.storable.model.Storable;
+import org.eclipse.kapua.service.storable.model.id.StorableId;
+import org.eclipse.kapua.service.storable.model.id.StorableIdImpl;
+import org.eclipse.kapua.service.storable.model.query.AbstractStorableQuery;
+import org.eclipse.kapua.service.storable.model.query.StorableFetchStyle;
+import org.eclipse.kapua.service.storable.model.query.predicate.IdsPredicate;
+import org.eclipse.kapua.service.storable.model.query.predicate.IdsPredicateImpl;
+import org.eclipse.kapua.service.storable.model.query.predicate.StorablePredicateFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Category(JUnitTests.class)
+public class ElasticsearchRepositoryTest {
+
+    private static final int MAX_RESULT_WINDOW = 3;
+
+    private final Map<StorableId, TestStorable> storedItems = new HashMap<>();
+    private final List<TestQuery> performedQueries = new ArrayList<>();
+    private TestRepository repository;
+
+    @Before
+    public void setUp() throws Exception {
+        ElasticsearchClient<?> elasticsearchClient = Mockito.mock(ElasticsearchClient.class);
+        Mockito.when(elasticsearchClient.isIndexExists(Matchers.any(IndexRequest.class))).thenReturn(new IndexResponse(true));
+        Mockito.when(elasticsearchClient.query(Matchers.anyString(), Matchers.any(TestQuery.class), Matchers.eq(TestStorable.class))).thenAnswer(invocation -> {
+            TestQuery query = (TestQuery) invocation.getArguments()[1];
+            performedQueries.add(query);
+
+            List<TestStorable> found = new ArrayList<>();
+            for (StorableId id : ((IdsPredicate) query.getPredicate()).getIds()) {
+                if (storedItems.containsKey(id)) {
+                    found.add(storedItems.get(id));
+                }
+            }
+            ResultList<TestStorable> resultList = new ResultList<>(found.size());
+            found.forEach(resultList::add);
+            return resultList;
+        });
+
+        ElasticsearchClientProvider elasticsearchClientProvider = Mockito.mock(ElasticsearchClientProvider.class);
+        Mockito.when(elasticsearchClientProvider.getElasticsearchClient()).thenReturn(elasticsearchClient);
+
+        StorablePredicateFactory storablePredicateFactory = Mockito.mock(StorablePredicateFactory.class);
+        Mockito.when(storablePredicateFactory.newIdsPredicate()).thenAnswer(invocation -> new IdsPredicateImpl());
+
+        repository = new TestRepository(elasticsearchClientProvider, new TestStorableFactory(), storablePredicateFactory);
+    }
+
+    @Test
+    public void findIdsWithinTheResultWindowTest() {
+        List<StorableId> ids = store(3);
+
+        TestListResult result = repository.find(KapuaId.ONE, ids);
+
+        Assertions.assertThat(performedQueries).hasSize(1);
+        Assertions.assertThat(performedQueries.get(0).getLimit()).isEqualTo(3);
+        Assertions.assertThat(result.getItems()).extracting(TestStorable::getId).containsExactlyElementsOf(ids);
+        Assertions.assertThat(result.getTotalCount()).isEqualTo(3L);
+    }
+
+    @Test
+    public void findIdsBeyondTheResultWindowTest() {
+        List<StorableId> ids = store(8);
+
+        TestListResult result = repository.find(KapuaId.ONE, ids);
+
+        Assertions.assertThat(performedQueries).hasSize(3);
+        Assertions.assertThat(performedQueries).extracting(TestQuery::getLimit).containsExactly(3, 3, 2);
+        Assertions.assertThat(result.getItems()).extracting(TestStorable::getId).containsExactlyElementsOf(ids);
+        Assertions.assertThat(result.getTotalCount()).isEqualTo(8L);
+    }
+
+    @Test
+    public void findIdsNotStoredTest() {
+        List<StorableId> ids = store(4);
+        ids.add(1, new StorableIdImpl("missing-1"));
+        ids.add(new StorableIdImpl("missing-2"));
+
+        TestListResult result = repository.find(KapuaId.ONE, ids);
+
+        Assertions.assertThat(performedQueries).hasSize(2);
+        Assertions.assertThat(result.getItems()).hasSize(4);
+        Assertions.assertThat(result.getTotalCount()).isEqualTo(4L);
+    }
+
+    private List<StorableId> store(int count) {
+        List<StorableId> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StorableId id = new StorableIdImpl("id-" + storedItems.size());
+            storedItems.put(id, new TestStorable(id));
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private static class TestRepository extends ElasticsearchRepository<TestStorable, TestListResult, TestQuery> {
+
+        private TestRepository(ElasticsearchClientProvider elasticsearchClientProvider, TestStorableFactory storableFactory, StorablePredicateFactory storablePredicateFactory) {
+            super(elasticsearchClientProvider, TestStorable.class, storableFactory, storablePredicateFactory);
+        }
+
+        @Override
+        protected int getMaxResultWindow() {
+            return MAX_RESULT_WINDOW;
+        }
+
+        @Override
+        protected String indexResolver(KapuaId scopeId) {
+            return "test-" + scopeId.toCompactId();
+        }
+
+        @Override
+        protected JsonNode getIndexSchema() {
+            return null;
+        }
+
+        @Override
+        protected ObjectNode getMappingSchema(String idxName) {
+            return null;
+        }
+
+        @Override
+        protected StorableId idExtractor(TestStorable storable) {
+            return storable.getId();
+        }
+    }
+
+    private static class TestStorableFactory implements StorableFactory<TestStorable, TestListResult, TestQuery> {
+
+        @Override
+        public TestStorable newStorable() {
+            return new TestStorable(null);
+        }
+
+        @Override
+        public TestQuery newQuery(KapuaId scopeId) {
+            return new TestQuery(scopeId);
+        }
+
+        @Override
+        public TestListResult newListResult() {
+            return new TestListResult();
+        }
+    }
+
+    private static class TestStorable implements Storable {
+
+        private final StorableId id;
+
+        private TestStorable(StorableId id) {
+            this.id = id;
+        }
+
+        public StorableId getId() {
+            return id;
+        }
+
+        @Override
+        public KapuaId getScopeId() {
+            return KapuaId.ONE;
+        }
+
+        @Override
+        public void setScopeId(KapuaId scopeId) {
+        }
+    }
+
+    private static class TestListResult extends AbstractStorableListResult<TestStorable> {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static class TestQuery extends AbstractStorableQuery {
+
+        private TestQuery(KapuaId scopeId) {
+            super(scopeId);
+        }
+
+        @Override
+        public String[] getFields() {
+            return new String[0];
+        }
+
+        @Override
+        public String[] getIncludes(StorableFetchStyle fetchStyle) {
+            return new String[0];
+        }
+
+        @Override
+        public String[] getExcludes(StorableFetchStyle fetchStyle) {
+            return new String[0];
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.elasticsearch.client.utils;
+
+import org.assertj.core.api.Assertions;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Category(JUnitTests.class)
+public class SearchAfterCursorTest {
+
+    @Test
+    public void testEncodeDecode() {
+        List<Object> sortValues = Arrays.asList(1672531200000L, "a-message-id", 12, null);
+
+        String cursor = SearchAfterCursor.encode(sortValues);
+
+        Assertions.assertThat(cursor).matches("[A-Za-z0-9_-]+");
+        Assertions.assertThat(SearchAfterCursor.decode(cursor)).containsExactly(1672531200000L, "a-message-id", 12, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeInvalidBase64() {
+        SearchAfterCursor.decode("not a cursor!");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeInvalidJson() {
+        SearchAfterCursor.decode("bm90LWpzb24");
+    }
+}
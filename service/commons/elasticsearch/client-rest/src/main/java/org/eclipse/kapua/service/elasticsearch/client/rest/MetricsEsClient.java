@@ -13,6 +13,7 @@
 package org.eclipse.kapua.service.elasticsearch.client.rest;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
 import org.eclipse.kapua.commons.metric.MetricsLabel;
 import org.eclipse.kapua.commons.metric.MetricsService;
 
@@ -28,6 +29,9 @@ public class MetricsEsClient {
     public static final String TIMEOUT_RETRY_LIMIT_REACHED = "timeout_retry_limit_reached";
     private static final String RUNTIME_ERROR = "runtime_error";
     private static final String RECONNECT_CALL = "reconnect_call";
+    private static final String IN_FLIGHT = "in_flight";
+    private static final String IN_FLIGHT_WAIT = "in_flight_wait";
+    private static final String IN_FLIGHT_REJECTED = "in_flight_rejected";
 
     // metrics
     private Counter exception;
@@ -37,6 +41,10 @@ public class MetricsEsClient {
     private Counter timeoutRetry;
     private Counter timeoutRetryLimitReached;
 
+    private Counter inFlight;
+    private Timer inFlightWait;
+    private Counter inFlightRejected;
+
     @Inject
     private MetricsEsClient(MetricsService metricsService,
                             @Named("metricModuleName")
@@ -46,6 +54,11 @@ public class MetricsEsClient {
         timeoutRetryLimitReached = metricsService.getCounter(metricModuleName, REST_CLIENT, TIMEOUT_RETRY_LIMIT_REACHED);
         clientReconnectCall = metricsService.getCounter(metricModuleName, REST_CLIENT, RECONNECT_CALL);
 
+        //async requests
+        inFlight = metricsService.getCounter(metricModuleName, REST_CLIENT, IN_FLIGHT);
+        inFlightWait = metricsService.getTimer(metricModuleName, REST_CLIENT, IN_FLIGHT_WAIT);
+        inFlightRejected = metricsService.getCounter(metricModuleName, REST_CLIENT, IN_FLIGHT_REJECTED);
+
         //exception
         exception = metricsService.getCounter(metricModuleName, REST_CLIENT, MetricsLabel.ERROR);
         runtimeException = metricsService.getCounter(metricModuleName, REST_CLIENT, RUNTIME_ERROR);
@@ -70,4 +83,16 @@ public class MetricsEsClient {
     public Counter getTimeoutRetryLimitReached() {
         return timeoutRetryLimitReached;
     }
+
+    public Counter getInFlight() {
+        return inFlight;
+    }
+
+    public Timer getInFlightWait() {
+        return inFlightWait;
+    }
+
+    public Counter getInFlightRejected() {
+        return inFlightRejected;
+    }
 }
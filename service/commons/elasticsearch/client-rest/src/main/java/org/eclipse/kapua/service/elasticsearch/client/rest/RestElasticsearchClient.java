@@ -12,20 +12,28 @@
  *******************************************************************************/
 package org.eclipse.kapua.service.elasticsearch.client.rest;
 
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpEntity;
 import org.apache.http.ParseException;
 import org.apache.http.util.EntityUtils;
 import org.eclipse.kapua.commons.util.RandomUtils;
 import org.eclipse.kapua.service.elasticsearch.client.AbstractElasticsearchClient;
 import org.eclipse.kapua.service.elasticsearch.client.ModelContext;
 import org.eclipse.kapua.service.elasticsearch.client.QueryConverter;
+import org.eclipse.kapua.service.elasticsearch.client.QueryResultHandler;
 import org.eclipse.kapua.service.elasticsearch.client.SchemaKeys;
+import org.eclipse.kapua.service.elasticsearch.client.configuration.ElasticsearchClientRequestConfiguration;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientActionResponseException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientCommunicationException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientErrorCodes;
@@ -33,6 +41,8 @@ import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientInitializationException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientInternalError;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientLimitsExceededException;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertRequest;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertResponse;
 import org.eclipse.kapua.service.elasticsearch.client.model.BulkUpdateRequest;
 import org.eclipse.kapua.service.elasticsearch.client.model.BulkUpdateResponse;
 import org.eclipse.kapua.service.elasticsearch.client.model.IndexRequest;
@@ -44,9 +54,11 @@ import org.eclipse.kapua.service.elasticsearch.client.model.UpdateRequest;
 import org.eclipse.kapua.service.elasticsearch.client.model.UpdateResponse;
 import org.eclipse.kapua.service.elasticsearch.client.rest.exception.RequestEntityWriteError;
 import org.eclipse.kapua.service.elasticsearch.client.rest.exception.ResponseEntityReadError;
+import org.eclipse.kapua.service.elasticsearch.client.rest.utils.JsonEntityOutputStream;
 import org.elasticsearch.client.Request;
 import org.elasticsearch.client.Response;
 import org.elasticsearch.client.ResponseException;
+import org.elasticsearch.client.ResponseListener;
 import org.elasticsearch.client.RestClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,11 +66,27 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Inject;
 import javax.validation.constraints.NotNull;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Random;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Client implementation based on Elasticsearch rest client.
@@ -73,6 +101,11 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
 
     private static final Random RANDOM = RandomUtils.getInstance();
     private static final String MSG_EMPTY_ERROR = "Empty error message";
+    private static final int REQUEST_ENTITY_INITIAL_SIZE = 4096;
+    private static final TypeReference<Map<String, Object>> MAP_TYPE_REFERENCE = new TypeReference<Map<String, Object>>() {
+    };
+    private static final TypeReference<List<Object>> LIST_TYPE_REFERENCE = new TypeReference<List<Object>>() {
+    };
 
     private final ObjectMapper objectMapper;
     private static final String CLIENT_HITS_MAX_VALUE_EXCEEDED = "Total hits exceeds integer max value";
@@ -80,6 +113,11 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
     private static final String COUNT_CONVERTED_QUERY = "Count - converted query: '{}'";
     private final MetricsEsClient metricsEsClient;
 
+    private Semaphore inFlightPermits;
+    private final Queue<AsyncRestCall<?>> waitingCalls = new ConcurrentLinkedQueue<>();
+    private ExecutorService asyncResponseExecutor;
+    private ScheduledThreadPoolExecutor asyncRetryScheduler;
+
     /**
      * Constructor.
      *
@@ -105,10 +143,39 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
         if (getModelConverter() == null) {
             throw new ClientInitializationException("Missing model converter");
         }
+
+        inFlightPermits = new Semaphore(getClientConfiguration().getRequestConfiguration().getRequestInFlightMax());
+        // Threads are created on demand and expire when idle, since the client is replaced on reconnection
+        asyncResponseExecutor = Executors.newCachedThreadPool(newAsyncThreadFactory("es-async-response"));
+        asyncRetryScheduler = new ScheduledThreadPoolExecutor(1, newAsyncThreadFactory("es-async-retry"));
+        asyncRetryScheduler.setKeepAliveTime(60, TimeUnit.SECONDS);
+        asyncRetryScheduler.allowCoreThreadTimeOut(true);
+        // Wait timeouts are cancelled as soon as the waiting request is performed
+        asyncRetryScheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Creates a {@link ThreadFactory} of daemon threads for the asynchronous requests.
+     *
+     * @since 2.1.0
+     */
+    private static ThreadFactory newAsyncThreadFactory(String namePrefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
     }
 
     @Override
     public void close() {
+        if (asyncRetryScheduler != null) {
+            asyncRetryScheduler.shutdown();
+        }
+        if (asyncResponseExecutor != null) {
+            asyncResponseExecutor.shutdown();
+        }
         if (client != null) {
             try {
                 client.close();
@@ -120,12 +187,8 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
 
     @Override
     public InsertResponse insert(InsertRequest insertRequest) throws ClientException {
-        Map<String, Object> insertRequestStorableMap = getModelContext().marshal(insertRequest.getStorable());
-        LOG.debug("Insert - converted object: '{}'", insertRequestStorableMap);
-
-        String json = writeRequestFromMap(insertRequestStorableMap);
         Request request = new Request(ElasticsearchKeywords.ACTION_PUT, ElasticsearchResourcePaths.insertType(insertRequest));
-        request.setJsonEntity(json);
+        request.setEntity(writeRequestEntity(generator -> getModelContext().marshal(insertRequest.getStorable(), generator)));
         Response insertResponse = restCallTimeoutHandler(() -> getClient().performRequest(request), insertRequest.getIndex(), "INSERT");
 
         if (isRequestSuccessful(insertResponse)) {
@@ -140,17 +203,91 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
     }
 
     @Override
-    public UpdateResponse upsert(UpdateRequest updateRequest) throws ClientException {
-        Map<String, Object> updateRequestStorableMap = getModelContext().marshal(updateRequest.getStorable());
+    public BulkInsertResponse insert(BulkInsertRequest bulkInsertRequest) throws ClientException {
+        Request request = newBulkInsertRequest(bulkInsertRequest);
+        Response insertResponse = restCallTimeoutHandler(() -> getClient().performRequest(request), "multi-index", "INSERT BULK");
+
+        return readBulkInsertResponse(insertResponse);
+    }
+
+    @Override
+    public CompletableFuture<BulkInsertResponse> insertAsync(BulkInsertRequest bulkInsertRequest) {
+        Request request;
+        try {
+            request = newBulkInsertRequest(bulkInsertRequest);
+        } catch (ClientException | RuntimeException e) {
+            return failedFuture(e);
+        }
+        return restCallAsync(request, "multi-index", "INSERT BULK", this::readBulkInsertResponse);
+    }
+
+    /**
+     * Builds the {@link Request} of a {@link BulkInsertRequest}.
+     *
+     * @since 2.1.0
+     */
+    private Request newBulkInsertRequest(BulkInsertRequest bulkInsertRequest) throws ClientException {
+        HttpEntity bulkOperation = writeRequestEntity(generator -> {
+            for (InsertRequest insertRequest : bulkInsertRequest.getRequest()) {
+                writeBulkAction(generator, ElasticsearchKeywords.KEY_INDEX, insertRequest.getId(), insertRequest.getIndex());
+
+                getModelContext().marshal(insertRequest.getStorable(), generator);
+                generator.writeRaw('\n');
+            }
+        });
+        Request request = new Request(ElasticsearchKeywords.ACTION_POST, ElasticsearchResourcePaths.getBulkPath());
+        request.setEntity(bulkOperation);
+        return request;
+    }
+
+    /**
+     * Reads the {@link Response} of a {@link BulkInsertRequest}.
+     *
+     * @since 2.1.0
+     */
+    private BulkInsertResponse readBulkInsertResponse(Response insertResponse) throws ClientException {
+        if (isRequestSuccessful(insertResponse)) {
+            JsonNode responseNode = readResponseAsJsonNode(insertResponse);
+
+            ArrayNode items = (ArrayNode) responseNode.get(ElasticsearchKeywords.KEY_ITEMS);
+            BulkInsertResponse bulkResponse = new BulkInsertResponse();
+            for (JsonNode item : items) {
+                JsonNode jsonNode = item.get(ElasticsearchKeywords.KEY_INDEX);
+                if (jsonNode != null) {
+                    JsonNode idNode = jsonNode.get(ElasticsearchKeywords.KEY_DOC_ID);
+                    String id = null;
+                    if (idNode != null) {
+                        id = idNode.asText();
+                    }
 
-        Map<String, Object> updateRequestMap = new HashMap<>();
-        updateRequestMap.put(ElasticsearchKeywords.KEY_DOC, updateRequestStorableMap);
-        updateRequestMap.put(ElasticsearchKeywords.KEY_DOC_AS_UPSERT, true);
-        LOG.debug("Upsert - converted object: '{}'", updateRequestMap);
+                    String indexName = jsonNode.get(ElasticsearchKeywords.KEY_DOC_INDEX).asText();
+                    int responseCode = jsonNode.get(ElasticsearchKeywords.KEY_STATUS).asInt();
+                    if (!isRequestSuccessful(responseCode)) {
+                        String failureMessage = MSG_EMPTY_ERROR;
+                        String reason = jsonNode.at("/error/reason").asText();
+                        if (StringUtils.isNotBlank(reason)) {
+                            failureMessage = reason;
+                        }
+                        bulkResponse.add(new InsertResponse(id, indexName, failureMessage));
+                        LOG.info("Insert failed [{}, {}, {}]", indexName, id, failureMessage);
+                        continue;
+                    }
+                    bulkResponse.add(new InsertResponse(id, indexName));
+                    LOG.debug("Insert successfully executed [{}, {}]", indexName, id);
+                } else {
+                    throw new ClientInternalError("Empty JSON response from bulk insert");
+                }
+            }
+            return bulkResponse;
+        } else {
+            throw buildExceptionFromUnsuccessfulResponse("Insert", insertResponse);
+        }
+    }
 
-        String json = writeRequestFromMap(updateRequestMap);
+    @Override
+    public UpdateResponse upsert(UpdateRequest updateRequest) throws ClientException {
         Request request = new Request(ElasticsearchKeywords.ACTION_POST, ElasticsearchResourcePaths.upsert(updateRequest.getIndex(), updateRequest.getId()));
-        request.setJsonEntity(json);
+        request.setEntity(writeRequestEntity(generator -> writeUpsertDoc(generator, updateRequest.getStorable())));
         Response updateResponse = restCallTimeoutHandler(() -> getClient().performRequest(request), updateRequest.getIndex(), "UPSERT");
 
         if (isRequestSuccessful(updateResponse)) {
@@ -166,25 +303,48 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
 
     @Override
     public BulkUpdateResponse upsert(BulkUpdateRequest bulkUpdateRequest) throws ClientException {
-        StringBuilder bulkOperation = new StringBuilder();
-
-        for (UpdateRequest upsertRequest : bulkUpdateRequest.getRequest()) {
-            Map<String, Object> storableMap = getModelContext().marshal(upsertRequest.getStorable());
+        Request request = newBulkUpdateRequest(bulkUpdateRequest);
+        Response updateResponse = restCallTimeoutHandler(() -> getClient().performRequest(request), "multi-index", "UPSERT BULK");
 
-            bulkOperation.append("{ \"update\": {\"_id\": \"")
-                    .append(upsertRequest.getId())
-                    .append("\", \"_index\": \"")
-                    .append(upsertRequest.getIndex())
-                    .append("\"}\n");
+        return readBulkUpdateResponse(updateResponse);
+    }
 
-            bulkOperation.append("{ \"doc\": ");
-            bulkOperation.append(writeRequestFromMap(storableMap));
-            bulkOperation.append(", \"doc_as_upsert\": true }\n");
+    @Override
+    public CompletableFuture<BulkUpdateResponse> upsertAsync(BulkUpdateRequest bulkUpdateRequest) {
+        Request request;
+        try {
+            request = newBulkUpdateRequest(bulkUpdateRequest);
+        } catch (ClientException | RuntimeException e) {
+            return failedFuture(e);
         }
+        return restCallAsync(request, "multi-index", "UPSERT BULK", this::readBulkUpdateResponse);
+    }
+
+    /**
+     * Builds the {@link Request} of a {@link BulkUpdateRequest}.
+     *
+     * @since 2.1.0
+     */
+    private Request newBulkUpdateRequest(BulkUpdateRequest bulkUpdateRequest) throws ClientException {
+        HttpEntity bulkOperation = writeRequestEntity(generator -> {
+            for (UpdateRequest upsertRequest : bulkUpdateRequest.getRequest()) {
+                writeBulkAction(generator, ElasticsearchKeywords.KEY_UPDATE, upsertRequest.getId(), upsertRequest.getIndex());
+
+                writeUpsertDoc(generator, upsertRequest.getStorable());
+                generator.writeRaw('\n');
+            }
+        });
         Request request = new Request(ElasticsearchKeywords.ACTION_POST, ElasticsearchResourcePaths.getBulkPath());
-        request.setJsonEntity(bulkOperation.toString());
-        Response updateResponse = restCallTimeoutHandler(() -> getClient().performRequest(request), "multi-index", "UPSERT BULK");
+        request.setEntity(bulkOperation);
+        return request;
+    }
 
+    /**
+     * Reads the {@link Response} of a {@link BulkUpdateRequest}.
+     *
+     * @since 2.1.0
+     */
+    private BulkUpdateResponse readBulkUpdateResponse(Response updateResponse) throws ClientException {
         if (isRequestSuccessful(updateResponse)) {
             JsonNode responseNode = readResponseAsJsonNode(updateResponse);
 
@@ -236,54 +396,146 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
 
     @Override
     public <T> ResultList<T> query(String index, Object query, Class<T> clazz) throws ClientException {
+        List<T> results = new ArrayList<>();
+        ResultList<T> resultList = query(index, query, clazz, results::add);
+        results.forEach(resultList::add);
+        return resultList;
+    }
+
+    @Override
+    public <T> ResultList<T> query(String index, Object query, Class<T> clazz, QueryResultHandler<T> resultHandler) throws ClientException {
+        HitsSummary hitsSummary = doQuery(index, query, clazz, resultHandler);
+
+        ResultList<T> resultList = new ResultList<>(hitsSummary.value);
+        if (hitsSummary.relation != null) {
+            resultList.setTotalHitsExceedsCount(!hitsSummary.relation.equals("eq"));
+        }
+        resultList.setLastSortValues(hitsSummary.lastSortValues);
+        return resultList;
+    }
+
+    /**
+     * Performs the query and decodes the response with a {@link JsonParser}, handing each hit to the {@link QueryResultHandler} as soon as it is read.
+     * <p>
+     * Neither the whole response tree nor the whole list of results are held in memory.
+     *
+     * @param index         The index to look for.
+     * @param query         The query to perform.
+     * @param clazz         The expected {@link Object#getClass()}
+     * @param resultHandler The {@link QueryResultHandler} of the results.
+     * @return The {@link HitsSummary} of the query.
+     * @throws ClientException if error occurs while querying or handling the results.
+     * @since 2.1.0
+     */
+    private <T> HitsSummary doQuery(String index, Object query, Class<T> clazz, QueryResultHandler<T> resultHandler) throws ClientException {
         JsonNode queryJsonNode = getModelConverter().convertQuery(query);
         LOG.debug(QUERY_CONVERTED_QUERY, queryJsonNode);
 
         String json = writeRequestFromJsonNode(queryJsonNode);
 
-        long totalCount = 0;
-        ArrayNode resultsNode = null;
-        String totalRelation = null;
-
         Request request = new Request(ElasticsearchKeywords.ACTION_GET, ElasticsearchResourcePaths.search(index));
         request.setJsonEntity(json);
         Response queryResponse = restCallTimeoutHandler(() -> getClient().performRequest(request), index, "QUERY");
 
+        HitsSummary hitsSummary = new HitsSummary();
         if (isRequestSuccessful(queryResponse)) {
-            JsonNode responseNode = readResponseAsJsonNode(queryResponse);
-            JsonNode hitsNode = responseNode.path(ElasticsearchKeywords.KEY_HITS);
-
-            totalCount = hitsNode.path(ElasticsearchKeywords.KEY_TOTAL).path(ElasticsearchKeywords.KEY_VALUE).asLong();
-            totalRelation = hitsNode.path(ElasticsearchKeywords.KEY_TOTAL).path(ElasticsearchKeywords.KEY_RELATION).asText();
-            if (totalCount > Integer.MAX_VALUE) {
-                throw new ClientException(ClientErrorCodes.ACTION_ERROR, CLIENT_HITS_MAX_VALUE_EXCEEDED);
+            Object queryFetchStyle = getModelConverter().getFetchStyle(query);
+            try (InputStream responseContent = queryResponse.getEntity().getContent();
+                 JsonParser parser = objectMapper.getFactory().createParser(responseContent)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new ClientInternalError("Invalid JSON response from query");
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.getCurrentName();
+                    if (parser.nextToken() == JsonToken.START_OBJECT && ElasticsearchKeywords.KEY_HITS.equals(fieldName)) {
+                        readHits(parser, clazz, queryFetchStyle, hitsSummary, resultHandler);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } catch (IOException e) {
+                throw new ResponseEntityReadError(e);
             }
-            resultsNode = ((ArrayNode) hitsNode.get(ElasticsearchKeywords.KEY_HITS));
         } else if (!isRequestBadRequest(queryResponse) &&
                 !isRequestNotFound(queryResponse)) {
             throw buildExceptionFromUnsuccessfulResponse("Query", queryResponse);
         }
+        return hitsSummary;
+    }
 
-        ResultList<T> resultList = new ResultList<>(totalCount);
-        if (totalRelation != null) {
-            resultList.setTotalHitsExceedsCount(!totalRelation.equals("eq"));
+    /**
+     * Reads the {@code hits} object of a query response.
+     *
+     * @since 2.1.0
+     */
+    private <T> void readHits(JsonParser parser, Class<T> clazz, Object queryFetchStyle, HitsSummary hitsSummary, QueryResultHandler<T> resultHandler) throws IOException, ClientException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken valueToken = parser.nextToken();
+            if (ElasticsearchKeywords.KEY_TOTAL.equals(fieldName) && valueToken == JsonToken.START_OBJECT) {
+                JsonNode totalNode = parser.readValueAsTree();
+                hitsSummary.value = totalNode.path(ElasticsearchKeywords.KEY_VALUE).asLong();
+                hitsSummary.relation = totalNode.path(ElasticsearchKeywords.KEY_RELATION).asText();
+                if (hitsSummary.value > Integer.MAX_VALUE) {
+                    throw new ClientException(ClientErrorCodes.ACTION_ERROR, CLIENT_HITS_MAX_VALUE_EXCEEDED);
+                }
+            } else if (ElasticsearchKeywords.KEY_HITS.equals(fieldName) && valueToken == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    resultHandler.handle(readHit(parser, clazz, queryFetchStyle, hitsSummary));
+                }
+            } else {
+                parser.skipChildren();
+            }
         }
-        Object queryFetchStyle = getModelConverter().getFetchStyle(query);
-        if (resultsNode != null && !resultsNode.isEmpty()) {
-            for (JsonNode result : resultsNode) {
-                Map<String, Object> object = objectMapper.convertValue(result.get(SchemaKeys.KEY_SOURCE), Map.class);
-
-                String id = result.get(ElasticsearchKeywords.KEY_DOC_ID).asText();
-                String docIndex = result.get(ElasticsearchKeywords.KEY_DOC_INDEX).asText();
-
-                object.put(ModelContext.TYPE_DESCRIPTOR_KEY, docIndex);
-                object.put(getModelContext().getIdKeyName(), id);
-                object.put(QueryConverter.QUERY_FETCH_STYLE_KEY, queryFetchStyle);
+    }
 
-                resultList.add(getModelContext().unmarshal(clazz, object));
+    /**
+     * Reads a single hit of a query response and unmarshals it.
+     * <p>
+     * Its sort values are kept as the {@link HitsSummary#lastSortValues}.
+     *
+     * @since 2.1.0
+     */
+    private <T> T readHit(JsonParser parser, Class<T> clazz, Object queryFetchStyle, HitsSummary hitsSummary) throws IOException, ClientException {
+        String id = null;
+        String docIndex = null;
+        Map<String, Object> object = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            if (ElasticsearchKeywords.KEY_DOC_ID.equals(fieldName)) {
+                id = parser.getText();
+            } else if (ElasticsearchKeywords.KEY_DOC_INDEX.equals(fieldName)) {
+                docIndex = parser.getText();
+            } else if (SchemaKeys.KEY_SOURCE.equals(fieldName)) {
+                object = parser.readValueAs(MAP_TYPE_REFERENCE);
+            } else if (SchemaKeys.KEY_SORT.equals(fieldName)) {
+                hitsSummary.lastSortValues = parser.readValueAs(LIST_TYPE_REFERENCE);
+            } else {
+                parser.skipChildren();
             }
         }
-        return resultList;
+
+        if (object == null) {
+            object = new HashMap<>();
+        }
+        object.put(ModelContext.TYPE_DESCRIPTOR_KEY, docIndex);
+        object.put(getModelContext().getIdKeyName(), id);
+        object.put(QueryConverter.QUERY_FETCH_STYLE_KEY, queryFetchStyle);
+
+        return getModelContext().unmarshal(clazz, object);
+    }
+
+    /**
+     * The {@code hits.total} and the sort values of the last hit of a query response.
+     *
+     * @since 2.1.0
+     */
+    private static class HitsSummary {
+
+        private long value;
+        private String relation;
+        private List<Object> lastSortValues;
     }
 
     @Override
@@ -514,6 +766,187 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
         throw new ClientCommunicationException();
     }
 
+    /**
+     * Performs the {@link Request} without blocking the caller and reads its {@link Response} with the given {@link ResponseReader}.
+     * <p>
+     * At most {@link ElasticsearchClientRequestConfiguration#getRequestInFlightMax()} {@link Request}s are in flight at the same time.
+     * When they are all in flight the {@link Request} is queued and performed as soon as one of them completes.
+     * If it is still queued after {@link ElasticsearchClientRequestConfiguration#getRequestInFlightWait()} milliseconds the returned {@link CompletableFuture}
+     * completes exceptionally with a {@link ClientCommunicationException}.
+     * The {@link Response} is read, and the returned {@link CompletableFuture} is completed, outside the I/O threads of the {@link RestClient}.
+     *
+     * @param request        The {@link Request} to perform.
+     * @param index          The index of the {@link Request}, for logging.
+     * @param operationName  The operation name of the {@link Request}, for logging.
+     * @param responseReader The {@link ResponseReader} of the {@link Response}.
+     * @return The {@link CompletableFuture} of the read {@link Response}.
+     * @since 2.1.0
+     */
+    private <R> CompletableFuture<R> restCallAsync(Request request, String index, String operationName, ResponseReader<R> responseReader) {
+        AsyncRestCall<R> asyncRestCall = new AsyncRestCall<>(request, index, operationName, responseReader);
+        if (inFlightPermits.tryAcquire()) {
+            asyncRestCall.start();
+            return asyncRestCall.future;
+        }
+
+        try {
+            asyncRestCall.waitTimeout = asyncRetryScheduler.schedule(() -> rejectWaitingCall(asyncRestCall), getClientConfiguration().getRequestConfiguration().getRequestInFlightWait(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            asyncRestCall.inFlightWaitContext.stop();
+            return failedFuture(new ClientInternalError(e, "Error in handling REST async request"));
+        }
+        waitingCalls.add(asyncRestCall);
+        // A slot may have been freed while queueing
+        startWaitingCalls();
+        return asyncRestCall.future;
+    }
+
+    /**
+     * Performs the queued {@link AsyncRestCall}s while there are free in-flight slots.
+     *
+     * @since 2.1.0
+     */
+    private void startWaitingCalls() {
+        while (!waitingCalls.isEmpty() && inFlightPermits.tryAcquire()) {
+            AsyncRestCall<?> waitingCall = waitingCalls.poll();
+            if (waitingCall == null) {
+                inFlightPermits.release();
+            } else {
+                waitingCall.waitTimeout.cancel(false);
+                waitingCall.start();
+            }
+        }
+    }
+
+    /**
+     * Fails a queued {@link AsyncRestCall} which has waited for an in-flight slot for {@link ElasticsearchClientRequestConfiguration#getRequestInFlightWait()} milliseconds.
+     *
+     * @since 2.1.0
+     */
+    private void rejectWaitingCall(AsyncRestCall<?> waitingCall) {
+        if (waitingCalls.remove(waitingCall)) {
+            waitingCall.inFlightWaitContext.stop();
+            metricsEsClient.getInFlightRejected().inc();
+            ElasticsearchClientRequestConfiguration requestConfiguration = getClientConfiguration().getRequestConfiguration();
+            LOG.warn("Elasticsearch has {} requests in flight since more than {}ms. Rejecting {} on index {}", requestConfiguration.getRequestInFlightMax(), requestConfiguration.getRequestInFlightWait(), waitingCall.operationName, waitingCall.index);
+            waitingCall.future.completeExceptionally(new ClientCommunicationException());
+        }
+    }
+
+    /**
+     * An asynchronous {@link Request} in flight.
+     * <p>
+     * Timed out {@link Request}s are retried like {@link #restCallTimeoutHandler(Callable, String, String)} does, but the wait between attempts is scheduled instead of slept.
+     *
+     * @param <R> The type of the read {@link Response}.
+     * @since 2.1.0
+     */
+    private class AsyncRestCall<R> implements ResponseListener {
+
+        private final Request request;
+        private final String index;
+        private final String operationName;
+        private final ResponseReader<R> responseReader;
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+        private final Timer.Context inFlightWaitContext = metricsEsClient.getInFlightWait().time();
+        private ScheduledFuture<?> waitTimeout;
+        private int retryCount;
+
+        private AsyncRestCall(Request request, String index, String operationName, ResponseReader<R> responseReader) {
+            this.request = request;
+            this.index = index;
+            this.operationName = operationName;
+            this.responseReader = responseReader;
+        }
+
+        /**
+         * Performs the {@link Request} in the in-flight slot acquired for it.
+         */
+        private void start() {
+            inFlightWaitContext.stop();
+            metricsEsClient.getInFlight().inc();
+            perform();
+        }
+
+        private void perform() {
+            try {
+                getClient().performRequestAsync(request, this);
+            } catch (RuntimeException e) {
+                complete(() -> {
+                    throw new ClientInternalError(e, "Error in handling REST async request");
+                });
+            }
+        }
+
+        @Override
+        public void onSuccess(Response response) {
+            complete(() -> responseReader.read(response));
+        }
+
+        @Override
+        public void onFailure(Exception exception) {
+            if (exception instanceof ResponseException) {
+                Response response = ((ResponseException) exception).getResponse();
+                LOG.warn("Elasticsearch Response with code {} for on index {} while performing {}. Follows stacktrace.", response.getStatusLine().getStatusCode(), index, operationName, exception);
+                complete(() -> responseReader.read(response));
+            } else if (exception instanceof InterruptedIOException || exception instanceof TimeoutException) {
+                metricsEsClient.getTimeoutRetry().inc();
+                if (++retryCount < getClientConfiguration().getRequestConfiguration().getRequestRetryAttemptMax()) {
+                    try {
+                        asyncRetryScheduler.schedule(this::perform, (long) (getClientConfiguration().getRequestConfiguration().getRequestRetryAttemptWait() * (0.5 + RANDOM.nextFloat() / 2)), TimeUnit.MILLISECONDS);
+                    } catch (RejectedExecutionException e) {
+                        complete(() -> {
+                            throw new ClientInternalError(e, "Error in handling REST async request");
+                        });
+                    }
+                } else {
+                    metricsEsClient.getTimeoutRetryLimitReached().inc();
+                    complete(() -> {
+                        throw new ClientCommunicationException();
+                    });
+                }
+            } else {
+                complete(() -> {
+                    throw new ClientInternalError(exception, "Error in handling REST async request");
+                });
+            }
+        }
+
+        /**
+         * Frees the in-flight slot and completes the {@link CompletableFuture} with the outcome of the given {@link Callable} in the {@link #asyncResponseExecutor}.
+         */
+        private void complete(Callable<R> outcome) {
+            inFlightPermits.release();
+            metricsEsClient.getInFlight().dec();
+            startWaitingCalls();
+
+            Runnable completion = () -> {
+                try {
+                    future.complete(outcome.call());
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            };
+            try {
+                asyncResponseExecutor.execute(completion);
+            } catch (RejectedExecutionException e) {
+                // The client is closing: complete in the caller thread
+                completion.run();
+            }
+        }
+    }
+
+    /**
+     * Creates a {@link CompletableFuture} already completed exceptionally with the given {@link Throwable}.
+     *
+     * @since 2.1.0
+     */
+    private static <R> CompletableFuture<R> failedFuture(Throwable throwable) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        future.completeExceptionally(throwable);
+        return future;
+    }
+
     /**
      * Checks if the given {@link Response#getStatusLine} as a HTTP 2xx code.
      *
@@ -635,11 +1068,82 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
         }
     }
 
-    private String writeRequestFromMap(@NotNull Map<String, Object> storableMap) throws RequestEntityWriteError {
-        try {
-            return objectMapper.writeValueAsString(storableMap);
-        } catch (JsonProcessingException e) {
+    /**
+     * Writes a request body straight into an {@link HttpEntity}, without building intermediate {@link String}s.
+     *
+     * @param requestWriter The {@link RequestEntityWriter} which writes the request body.
+     * @return The {@link HttpEntity} with the request body.
+     * @throws ClientException If the {@link RequestEntityWriter} fails.
+     * @since 2.1.0
+     */
+    private HttpEntity writeRequestEntity(@NotNull RequestEntityWriter requestWriter) throws ClientException {
+        JsonEntityOutputStream entityOutputStream = new JsonEntityOutputStream(REQUEST_ENTITY_INITIAL_SIZE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(entityOutputStream)) {
+            // Bulk requests are newline delimited, separators are written explicitly
+            generator.setRootValueSeparator(null);
+            requestWriter.write(generator);
+        } catch (IOException e) {
             throw new RequestEntityWriteError(e);
         }
+        return entityOutputStream.toEntity();
+    }
+
+    /**
+     * Writes the action line of a bulk request item.
+     *
+     * @param generator The {@link JsonGenerator} to write to.
+     * @param action    The bulk action.
+     * @param id        The document id.
+     * @param index     The document index.
+     * @throws IOException If writing fails.
+     * @since 2.1.0
+     */
+    private void writeBulkAction(@NotNull JsonGenerator generator, @NotNull String action, String id, @NotNull String index) throws IOException {
+        generator.writeStartObject();
+        generator.writeObjectFieldStart(action);
+        generator.writeStringField(ElasticsearchKeywords.KEY_DOC_ID, id);
+        generator.writeStringField(ElasticsearchKeywords.KEY_DOC_INDEX, index);
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    /**
+     * Writes the body of an upsert: the document and the {@code doc_as_upsert} flag.
+     *
+     * @param generator The {@link JsonGenerator} to write to.
+     * @param storable  The document, written with {@link ModelContext#marshal(Object, JsonGenerator)}.
+     * @throws IOException     If writing fails.
+     * @throws ClientException If the document cannot be marshalled.
+     * @since 2.1.0
+     */
+    private void writeUpsertDoc(@NotNull JsonGenerator generator, @NotNull Object storable) throws IOException, ClientException {
+        generator.writeStartObject();
+        generator.writeFieldName(ElasticsearchKeywords.KEY_DOC);
+        getModelContext().marshal(storable, generator);
+        generator.writeBooleanField(ElasticsearchKeywords.KEY_DOC_AS_UPSERT, true);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes a request body with a {@link JsonGenerator}.
+     *
+     * @since 2.1.0
+     */
+    @FunctionalInterface
+    private interface RequestEntityWriter {
+
+        void write(JsonGenerator generator) throws IOException, ClientException;
+    }
+
+    /**
+     * Reads a {@link Response}.
+     *
+     * @since 2.1.0
+     */
+    @FunctionalInterface
+    private interface ResponseReader<R> {
+
+        R read(Response response) throws ClientException;
     }
 }
@@ -171,7 +171,7 @@ public class RestElasticsearchClientProvider implements ElasticsearchClientProvi
 
             // Init Kapua Elasticsearch Client
             try {
-                initClient();
+                internalElasticsearchRestClient = initClient();
             } catch (Exception e) {
                 throw new ClientProviderInitException(e, "Cannot init ElasticsearchClient");
             }
@@ -209,7 +209,7 @@ public class RestElasticsearchClientProvider implements ElasticsearchClientProvi
     }
 
     /**
-     * Closes the {@link RestClient}.
+     * Closes the {@link RestElasticsearchClient} and its {@link RestClient}.
      * <p>
      * It takes care of stopping the {@link #reconnectExecutorTask}.
      *
@@ -232,7 +232,12 @@ public class RestElasticsearchClientProvider implements ElasticsearchClientProvi
             reconnectExecutorTask = null;
         }
 
-        if (internalElasticsearchRestClient != null) {
+        if (restElasticsearchClient != null) {
+            // Also closes the internalElasticsearchRestClient
+            restElasticsearchClient.close();
+            restElasticsearchClient = null;
+            internalElasticsearchRestClient = null;
+        } else if (internalElasticsearchRestClient != null) {
             try {
                 internalElasticsearchRestClient.close();
             } finally {
@@ -357,6 +362,11 @@ public class RestElasticsearchClientProvider implements ElasticsearchClientProvi
                 });
         RestClient restClient = restClientBuilder.build();
 
+        // Close the replaced Kapua Elasticsearch Client, which owns executors for the async requests
+        if (restElasticsearchClient != null) {
+            restElasticsearchClient.close();
+        }
+
         // Init Kapua Elasticsearch Client
         restElasticsearchClient = new RestElasticsearchClient(metrics);
         restElasticsearchClient
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.elasticsearch.client.rest.utils;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * {@link ByteArrayOutputStream} which exposes the written bytes as an {@link HttpEntity} with {@link ContentType#APPLICATION_JSON}, without copying them.
+ * <p>
+ * Request bodies are serialized straight into this buffer, so there are no intermediate {@link String}s.
+ *
+ * @since 2.1.0
+ */
+public class JsonEntityOutputStream extends ByteArrayOutputStream {
+
+    /**
+     * Constructor.
+     *
+     * @param initialSize The initial size of the buffer.
+     * @since 2.1.0
+     */
+    public JsonEntityOutputStream(int initialSize) {
+        super(initialSize);
+    }
+
+    /**
+     * Gets the written bytes as an {@link HttpEntity}.
+     * <p>
+     * The {@link HttpEntity} shares the buffer of this {@link JsonEntityOutputStream}, which must not be written anymore.
+     *
+     * @return The {@link HttpEntity} with the written bytes.
+     * @since 2.1.0
+     */
+    public synchronized HttpEntity toEntity() {
+        return new ByteArrayEntity(buf, 0, count, ContentType.APPLICATION_JSON);
+    }
+}
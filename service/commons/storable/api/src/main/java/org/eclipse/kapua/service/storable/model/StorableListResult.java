@@ -145,6 +145,14 @@ public interface StorableListResult<E extends Storable> extends KapuaSerializabl
     @XmlElement(name = "nextKey")
     Object getNextKey();
 
+    /**
+     * Sets the next key.
+     *
+     * @param nextKey The next key.
+     * @since 2.1.0
+     */
+    void setNextKey(Object nextKey);
+
     /**
      * Gets the total count of {@link Storable}s that match the {@link StorableQuery#getPredicate()}s regardless of {@link StorableQuery#getLimit()} and {@link StorableQuery#getOffset()}
      *
@@ -15,6 +15,7 @@ package org.eclipse.kapua.service.storable.model.query;
 import org.eclipse.kapua.model.KapuaEntity;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.model.id.KapuaIdAdapter;
+import org.eclipse.kapua.service.storable.model.Storable;
 import org.eclipse.kapua.service.storable.model.StorableListResult;
 import org.eclipse.kapua.service.storable.model.query.predicate.StorablePredicate;
 
@@ -136,6 +137,39 @@ public interface StorableQuery {
      */
     void setLimit(Integer limit);
 
+    /**
+     * Gets the {@link StorableQuery} search-after cursor.
+     *
+     * @return The {@link StorableQuery} search-after cursor.
+     * @since 2.1.0
+     */
+    @XmlElement(name = "searchAfter")
+    String getSearchAfter();
+
+    /**
+     * Sets the {@link StorableQuery} search-after cursor, as returned by {@link StorableListResult#getNextKey()} of the previous page.
+     * <p>
+     * When set, the {@link StorableQuery} resumes right after the last {@link Storable} of the previous page and {@link #getOffset()} is ignored.
+     * Unlike {@link #setOffset(Integer)}, this allows to paginate through the whole result set at a constant cost per page.
+     * <p>
+     * The {@link #getSortFields()} must be the same for all the pages.
+     *
+     * @param searchAfter The {@link StorableQuery} search-after cursor.
+     * @since 2.1.0
+     */
+    void setSearchAfter(String searchAfter);
+
+    /**
+     * Gets the {@link SortField}s which make the order of the results unique.
+     * <p>
+     * They are appended to {@link #getSortFields()} when not already present, so that {@link #setSearchAfter(String)} neither skips nor repeats results with equal sort values.
+     *
+     * @return The tiebreaker {@link SortField}s.
+     * @since 2.1.0
+     */
+    @XmlTransient
+    List<SortField> getTiebreakerSortFields();
+
     /**
      * Whether or not add the {@link StorableListResult#getTotalCount()} when processing the {@link StorableQuery}.
      *
@@ -31,6 +31,8 @@ public interface StorableRepository<
 
     T find(KapuaId scopeId, StorableId id);
 
+    L find(KapuaId scopeId, List<StorableId> ids);
+
     L query(Q query);
 
     long count(Q query);
@@ -141,6 +141,11 @@ public class AbstractStorableListResult<E extends Storable> implements StorableL
         return nextKey;
     }
 
+    @Override
+    public void setNextKey(Object nextKey) {
+        this.nextKey = nextKey;
+    }
+
     @Override
     public Long getTotalCount() {
         return totalCount;
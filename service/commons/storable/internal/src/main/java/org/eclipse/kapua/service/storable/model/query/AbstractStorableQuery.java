@@ -18,6 +18,7 @@ import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.storable.model.query.predicate.StorablePredicate;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -34,6 +35,7 @@ public abstract class AbstractStorableQuery implements StorableQuery {
     private KapuaId scopeId;
     private Integer limit;
     private Integer indexOffset;
+    private String searchAfter;
     private boolean askTotalCount;
     private List<SortField> sortFields;
     private StorableFetchStyle fetchStyle;
@@ -112,6 +114,21 @@ public abstract class AbstractStorableQuery implements StorableQuery {
         return limit;
     }
 
+    @Override
+    public String getSearchAfter() {
+        return searchAfter;
+    }
+
+    @Override
+    public void setSearchAfter(String searchAfter) {
+        this.searchAfter = searchAfter;
+    }
+
+    @Override
+    public List<SortField> getTiebreakerSortFields() {
+        return Collections.emptyList();
+    }
+
     @Override
     public boolean isAskTotalCount() {
         return askTotalCount;
@@ -17,12 +17,17 @@ import org.eclipse.kapua.message.KapuaMessage;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.KapuaService;
 import org.eclipse.kapua.service.config.KapuaConfigurableService;
+import org.eclipse.kapua.service.datastore.exception.DatastoreBatchStoreException;
 import org.eclipse.kapua.service.datastore.model.DatastoreMessage;
 import org.eclipse.kapua.service.datastore.model.MessageListResult;
 import org.eclipse.kapua.service.datastore.model.query.MessageQuery;
 import org.eclipse.kapua.service.storable.StorableService;
 import org.eclipse.kapua.service.storable.model.id.StorableId;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
 /**
  * {@link MessageStoreService} definition.
  * <p>
@@ -60,6 +65,52 @@ public interface MessageStoreService extends KapuaService, KapuaConfigurableServ
      */
     StorableId store(KapuaMessage<?, ?> message, String datastoreId) throws KapuaException;
 
+    /**
+     * Stores a batch of {@link KapuaMessage}s forcing their {@link DatastoreMessage#getId()}s.
+     * <p>
+     * {@link KapuaMessage}s are written to the datastore with a single bulk operation.
+     * If some of them cannot be stored a {@link DatastoreBatchStoreException} is thrown which reports the outcome of each {@link KapuaMessage}.
+     *
+     * @param messages     The {@link KapuaMessage}s to store.
+     * @param datastoreIds The {@link StorableId}s in {@link String} form to assign, in the same order of the {@link KapuaMessage}s.
+     * @return The {@link DatastoreMessage#getId()}s, in the same order of the {@link KapuaMessage}s.
+     * @throws DatastoreBatchStoreException If some of the {@link KapuaMessage}s cannot be stored.
+     * @throws KapuaException               If something goes wrong.
+     * @since 2.1.0
+     */
+    List<StorableId> store(List<KapuaMessage<?, ?>> messages, List<String> datastoreIds) throws KapuaException;
+
+    /**
+     * Stores a batch of {@link KapuaMessage}s forcing their {@link DatastoreMessage#getId()}s, without waiting for the datastore to process them.
+     * <p>
+     * Checks and conversions are done before returning, while the bulk write completes the returned {@link CompletableFuture}.
+     * The {@link CompletableFuture} is completed exceptionally with the same {@link KapuaException}s thrown by {@link #store(List, List)}.
+     * <p>
+     * When the datastore has too many pending requests the bulk write is queued, and the returned {@link CompletableFuture}
+     * is completed exceptionally if it stays queued for too long.
+     *
+     * @param messages     The {@link KapuaMessage}s to store.
+     * @param datastoreIds The {@link StorableId}s in {@link String} form to assign, in the same order of the {@link KapuaMessage}s.
+     * @return The {@link CompletableFuture} of the {@link DatastoreMessage#getId()}s, in the same order of the {@link KapuaMessage}s.
+     * @throws KapuaException If the batch cannot be submitted.
+     * @see #store(List, List)
+     * @since 2.1.0
+     */
+    CompletableFuture<List<StorableId>> storeAsync(List<KapuaMessage<?, ?>> messages, List<String> datastoreIds) throws KapuaException;
+
+    /**
+     * Queries the {@link DatastoreMessage}s, handing each of them to the given {@link Consumer} as soon as it is read from the datastore.
+     * <p>
+     * The {@link DatastoreMessage}s are not collected, so callers which convert them can do it without holding the whole page twice.
+     *
+     * @param query           The {@link MessageQuery} to perform.
+     * @param messageConsumer The {@link Consumer} of the {@link DatastoreMessage}s.
+     * @return The {@link MessageListResult} of the query, with the same total count, limit exceeded flag and next key of the list based query but without items.
+     * @throws KapuaException If something goes wrong.
+     * @since 2.1.0
+     */
+    MessageListResult query(MessageQuery query, Consumer<DatastoreMessage> messageConsumer) throws KapuaException;
+
     /**
      * Deletes a {@link DatastoreMessage}  by the scope {@link KapuaId} and its {@link StorableId}.
      *
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.exception;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.message.KapuaMessage;
+import org.eclipse.kapua.service.datastore.MessageStoreService;
+import org.eclipse.kapua.service.storable.model.id.StorableId;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link DatastoreServiceException} to {@code throw} when {@link MessageStoreService#store(List, List)} was not able to store some of the {@link KapuaMessage}s of the batch.
+ * <p>
+ * It reports the outcome of each {@link KapuaMessage} of the batch, so that the caller can handle failed {@link KapuaMessage}s individually.
+ *
+ * @since 2.1.0
+ */
+public class DatastoreBatchStoreException extends DatastoreServiceException {
+
+    private final transient List<StorableId> storableIds;
+    private final transient Map<Integer, KapuaException> failures;
+
+    /**
+     * Constructor.
+     *
+     * @param storableIds The {@link StorableId}s of the batch, in the same order of the given {@link KapuaMessage}s. Failed positions are {@code null}.
+     * @param failures    The {@link KapuaException}s by position in the batch of the failed {@link KapuaMessage}s.
+     * @since 2.1.0
+     */
+    public DatastoreBatchStoreException(List<StorableId> storableIds, Map<Integer, KapuaException> failures) {
+        super(DatastoreServiceErrorCodes.DATASTORE_BATCH_STORE_EXCEPTION, failures.size(), storableIds.size());
+
+        this.storableIds = Collections.unmodifiableList(storableIds);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * Gets the {@link StorableId}s of the batch, in the same order of the given {@link KapuaMessage}s.
+     * <p>
+     * Positions of failed {@link KapuaMessage}s are {@code null}.
+     *
+     * @return The {@link StorableId}s of the batch.
+     * @since 2.1.0
+     */
+    public List<StorableId> getStorableIds() {
+        return storableIds;
+    }
+
+    /**
+     * Gets the {@link KapuaException}s by position in the batch of the failed {@link KapuaMessage}s.
+     *
+     * @return The {@link KapuaException}s by position in the batch.
+     * @since 2.1.0
+     */
+    public Map<Integer, KapuaException> getFailures() {
+        return failures;
+    }
+}
@@ -42,6 +42,13 @@ public enum DatastoreServiceErrorCodes implements KapuaErrorCode {
      */
     DATASTORE_OPERATION_EXCEPTION,
 
+    /**
+     * See {@link DatastoreBatchStoreException}
+     *
+     * @since 2.1.0
+     */
+    DATASTORE_BATCH_STORE_EXCEPTION,
+
     /**
      * See {@link DatastoreInternalError}.
      *
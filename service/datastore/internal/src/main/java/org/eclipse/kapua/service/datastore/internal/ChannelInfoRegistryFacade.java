@@ -22,9 +22,13 @@ import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
 import org.eclipse.kapua.service.storable.exception.MappingException;
 import org.eclipse.kapua.service.storable.model.id.StorableId;
 
+import java.util.List;
+
 public interface ChannelInfoRegistryFacade {
     StorableId upstore(ChannelInfo channelInfo) throws KapuaIllegalArgumentException, ConfigurationException, ClientException, MappingException;
 
+    void upstore(List<ChannelInfo> channelInfos) throws KapuaIllegalArgumentException, ConfigurationException, ClientException, MappingException;
+
     void delete(KapuaId scopeId, StorableId id) throws KapuaIllegalArgumentException, ConfigurationException, ClientException;
 
     void delete(ChannelInfoQuery query) throws KapuaIllegalArgumentException, ConfigurationException, ClientException;
@@ -32,6 +32,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Channel information registry facade
@@ -111,6 +119,52 @@ public class ChannelInfoRegistryFacadeImpl extends AbstractDatastoreFacade imple
         return storableId;
     }
 
+    /**
+     * Update the channel information after a batch of message store operations.
+     * <p>
+     * {@link ChannelInfo}s are deduplicated by their id, the ones which are not cached are looked up with a single ids query for each scope
+     * and the missing ones are stored with a single bulk request.
+     *
+     * @param channelInfos The {@link ChannelInfo}s to update.
+     * @throws KapuaIllegalArgumentException
+     * @throws ConfigurationException
+     * @throws ClientException
+     * @since 2.1.0
+     */
+    @Override
+    public void upstore(List<ChannelInfo> channelInfos) throws KapuaIllegalArgumentException, ConfigurationException, ClientException, MappingException {
+        ArgumentValidator.notNull(channelInfos, "channelInfos");
+
+        // Collect the ChannelInfos which are not cached, grouped by scope. The first ChannelInfo for an id wins.
+        final Map<KapuaId, Map<String, ChannelInfo>> notCachedByScope = new HashMap<>();
+        for (ChannelInfo channelInfo : channelInfos) {
+            String channelInfoId = ChannelInfoField.getOrDeriveId(channelInfo.getId(), channelInfo);
+            if (!datastoreCacheManager.getChannelsCache().get(channelInfoId)) {
+                notCachedByScope.computeIfAbsent(channelInfo.getScopeId(), scopeId -> new LinkedHashMap<>()).putIfAbsent(channelInfoId, channelInfo);
+            }
+        }
+
+        // Look up the ChannelInfos which are already stored
+        final List<ChannelInfo> toUpsert = new ArrayList<>();
+        for (Map.Entry<KapuaId, Map<String, ChannelInfo>> notCached : notCachedByScope.entrySet()) {
+            final Map<String, ChannelInfo> notCachedById = notCached.getValue();
+            final List<StorableId> storableIds = notCachedById.keySet().stream().map(storableIdFactory::newStorableId).collect(Collectors.toList());
+            for (ChannelInfo storedField : repository.find(notCached.getKey(), storableIds).getItems()) {
+                String channelInfoId = storedField.getId().toString();
+                if (notCachedById.remove(channelInfoId) != null) {
+                    datastoreCacheManager.getChannelsCache().put(channelInfoId, true);
+                }
+            }
+            toUpsert.addAll(notCachedById.values());
+        }
+
+        if (!toUpsert.isEmpty()) {
+            final Set<String> changedIds = repository.upsert(toUpsert);
+            // Update cache if channel update is completed successfully
+            changedIds.stream().filter(Objects::nonNull).forEach(changedId -> datastoreCacheManager.getChannelsCache().put(changedId, true));
+        }
+    }
+
     /**
      * Delete channel information by identifier.
      *
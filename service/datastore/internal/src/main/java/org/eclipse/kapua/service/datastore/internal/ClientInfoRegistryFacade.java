@@ -22,9 +22,13 @@ import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
 import org.eclipse.kapua.service.storable.exception.MappingException;
 import org.eclipse.kapua.service.storable.model.id.StorableId;
 
+import java.util.List;
+
 public interface ClientInfoRegistryFacade {
     StorableId upstore(ClientInfo clientInfo) throws KapuaIllegalArgumentException, ConfigurationException, ClientException, MappingException;
 
+    void upstore(List<ClientInfo> clientInfos) throws KapuaIllegalArgumentException, ConfigurationException, ClientException, MappingException;
+
     void delete(KapuaId scopeId, StorableId id) throws KapuaIllegalArgumentException, ConfigurationException, ClientException;
 
     ClientInfo find(KapuaId scopeId, StorableId id) throws KapuaIllegalArgumentException, ConfigurationException, ClientException;
@@ -30,6 +30,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Client information registry facade
@@ -110,6 +116,52 @@ public class ClientInfoRegistryFacadeImpl extends AbstractDatastoreFacade implem
         return storableId;
     }
 
+    /**
+     * Update the client information after a batch of message store operations.
+     * <p>
+     * {@link ClientInfo}s are deduplicated by their id, the ones which are not cached are looked up with a single ids query for each scope
+     * and the missing ones are stored with a single bulk request.
+     *
+     * @param clientInfos The {@link ClientInfo}s to update.
+     * @throws KapuaIllegalArgumentException
+     * @throws ConfigurationException
+     * @throws ClientException
+     * @since 2.1.0
+     */
+    @Override
+    public void upstore(List<ClientInfo> clientInfos) throws KapuaIllegalArgumentException, ConfigurationException, ClientException, MappingException {
+        ArgumentValidator.notNull(clientInfos, "clientInfos");
+
+        // Collect the ClientInfos which are not cached, grouped by scope. The first ClientInfo for an id wins.
+        final Map<KapuaId, Map<String, ClientInfo>> notCachedByScope = new HashMap<>();
+        for (ClientInfo clientInfo : clientInfos) {
+            if (!datastoreCacheManager.getClientsCache().get(clientInfo.getClientId())) {
+                String clientInfoId = ClientInfoField.getOrDeriveId(clientInfo.getId(), clientInfo);
+                notCachedByScope.computeIfAbsent(clientInfo.getScopeId(), scopeId -> new LinkedHashMap<>()).putIfAbsent(clientInfoId, clientInfo);
+            }
+        }
+
+        // Look up the ClientInfos which are already stored
+        final List<ClientInfo> toUpsert = new ArrayList<>();
+        for (Map.Entry<KapuaId, Map<String, ClientInfo>> notCached : notCachedByScope.entrySet()) {
+            final Map<String, ClientInfo> notCachedById = notCached.getValue();
+            final List<StorableId> storableIds = notCachedById.keySet().stream().map(storableIdFactory::newStorableId).collect(Collectors.toList());
+            for (ClientInfo storedField : repository.find(notCached.getKey(), storableIds).getItems()) {
+                ClientInfo clientInfo = notCachedById.remove(storedField.getId().toString());
+                if (clientInfo != null) {
+                    datastoreCacheManager.getClientsCache().put(clientInfo.getClientId(), true);
+                }
+            }
+            toUpsert.addAll(notCachedById.values());
+        }
+
+        if (!toUpsert.isEmpty()) {
+            repository.upsert(toUpsert);
+            // Update cache if client update is completed successfully
+            toUpsert.forEach(clientInfo -> datastoreCacheManager.getClientsCache().put(clientInfo.getClientId(), true));
+        }
+    }
+
     /**
      * Delete client information by identifier.<br>
      * <b>Be careful using this function since it doesn't guarantee the datastore consistency.<br>
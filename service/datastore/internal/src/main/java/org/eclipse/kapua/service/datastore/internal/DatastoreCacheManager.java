@@ -14,7 +14,11 @@ package org.eclipse.kapua.service.datastore.internal;
 
 import java.util.Map;
 
+import javax.inject.Provider;
+
+import org.eclipse.kapua.commons.cache.Cache;
 import org.eclipse.kapua.commons.cache.LocalCache;
+import org.eclipse.kapua.commons.service.internal.cache.KapuaCacheManager;
 import org.eclipse.kapua.service.datastore.internal.mediator.Metric;
 import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
 import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettingsKey;
@@ -23,23 +27,35 @@ import com.google.inject.Inject;
 
 /**
  * Datastore cache manager.<br> It keeps informations about channels, metrics and clients to speed up the store operation and avoid time consuming unnecessary operations.
+ * <p>
+ * Channels, metrics and clients caches are local to the JVM by default. With {@link DatastoreSettingsKey#CONFIG_CACHE_BACKEND} set to {@code JCACHE}
+ * they are backed by the configured JCache provider instead, so that replicas can share the known entries and their invalidations.
  *
  * @since 1.0.0
  */
 public class DatastoreCacheManager {
 
+    private static final String BACKEND_JCACHE = "JCACHE";
+
     private final LocalCache<String, Map<String, Metric>> schemaCache;
-    private final LocalCache<String, Boolean> channelsCache;
-    private final LocalCache<String, Boolean> metricsCache;
-    private final LocalCache<String, Boolean> clientsCache;
+    private final Cache<String, Boolean> channelsCache;
+    private final Cache<String, Boolean> metricsCache;
+    private final Cache<String, Boolean> clientsCache;
 
     @Inject
-    public DatastoreCacheManager(DatastoreSettings datastoreSettings) {
+    public DatastoreCacheManager(DatastoreSettings datastoreSettings, Provider<KapuaCacheManager> kapuaCacheManagerProvider) {
         final int sizeMaxMetadata = datastoreSettings.getInt(DatastoreSettingsKey.CONFIG_CACHE_METADATA_LOCAL_SIZE_MAXIMUM);
 
-        clientsCache = new LocalCache<>(datastoreSettings.getClientCacheConfig(), false);
-        channelsCache = new LocalCache<>(datastoreSettings.getChannelsCacheConfig(), false);
-        metricsCache = new LocalCache<>(datastoreSettings.getMetricsCacheConfig(), false);
+        if (BACKEND_JCACHE.equalsIgnoreCase(datastoreSettings.getString(DatastoreSettingsKey.CONFIG_CACHE_BACKEND))) {
+            final KapuaCacheManager kapuaCacheManager = kapuaCacheManagerProvider.get();
+            clientsCache = new JCacheMetadataCache(kapuaCacheManager.getCache("datastore-clients"));
+            channelsCache = new JCacheMetadataCache(kapuaCacheManager.getCache("datastore-channels"));
+            metricsCache = new JCacheMetadataCache(kapuaCacheManager.getCache("datastore-metrics"));
+        } else {
+            clientsCache = new LocalCache<>(datastoreSettings.getClientCacheConfig(), false);
+            channelsCache = new LocalCache<>(datastoreSettings.getChannelsCacheConfig(), false);
+            metricsCache = new LocalCache<>(datastoreSettings.getMetricsCacheConfig(), false);
+        }
 
         schemaCache = new LocalCache<>(sizeMaxMetadata, null);
     }
@@ -50,7 +66,7 @@ public class DatastoreCacheManager {
      * @return
      * @since 1.0.0
      */
-    public LocalCache<String, Boolean> getChannelsCache() {
+    public Cache<String, Boolean> getChannelsCache() {
         return channelsCache;
     }
 
@@ -60,7 +76,7 @@ public class DatastoreCacheManager {
      * @return
      * @since 1.0.0
      */
-    public LocalCache<String, Boolean> getMetricsCache() {
+    public Cache<String, Boolean> getMetricsCache() {
         return metricsCache;
     }
 
@@ -70,7 +86,7 @@ public class DatastoreCacheManager {
      * @return
      * @since 1.0.0
      */
-    public LocalCache<String, Boolean> getClientsCache() {
+    public Cache<String, Boolean> getClientsCache() {
         return clientsCache;
     }
 
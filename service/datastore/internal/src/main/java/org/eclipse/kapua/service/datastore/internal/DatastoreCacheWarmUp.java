@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal;
+
+import org.eclipse.kapua.commons.cache.Cache;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.datastore.internal.model.query.ChannelInfoQueryImpl;
+import org.eclipse.kapua.service.datastore.internal.model.query.ClientInfoQueryImpl;
+import org.eclipse.kapua.service.datastore.internal.model.query.MetricInfoQueryImpl;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettingsKey;
+import org.eclipse.kapua.service.datastore.model.ClientInfo;
+import org.eclipse.kapua.service.storable.model.Storable;
+import org.eclipse.kapua.service.storable.model.StorableListResult;
+import org.eclipse.kapua.service.storable.model.query.StorableQuery;
+import org.eclipse.kapua.service.storable.repository.StorableRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import java.util.function.Function;
+
+/**
+ * Pre-populates the clients, channels and metrics caches of the {@link DatastoreCacheManager} with the entries already stored in the registry indexes.
+ * <p>
+ * This avoids that a freshly started node looks up one by one the registry entries of all the devices that are already publishing.
+ *
+ * @since 2.1.0
+ */
+public class DatastoreCacheWarmUp {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DatastoreCacheWarmUp.class);
+
+    private static final int PAGE_SIZE = 500;
+
+    private final ClientInfoRepository clientInfoRepository;
+    private final ChannelInfoRepository channelInfoRepository;
+    private final MetricInfoRepository metricInfoRepository;
+    private final DatastoreCacheManager datastoreCacheManager;
+    private final int warmUpSize;
+
+    @Inject
+    public DatastoreCacheWarmUp(
+            ClientInfoRepository clientInfoRepository,
+            ChannelInfoRepository channelInfoRepository,
+            MetricInfoRepository metricInfoRepository,
+            DatastoreCacheManager datastoreCacheManager,
+            DatastoreSettings datastoreSettings) {
+        this.clientInfoRepository = clientInfoRepository;
+        this.channelInfoRepository = channelInfoRepository;
+        this.metricInfoRepository = metricInfoRepository;
+        this.datastoreCacheManager = datastoreCacheManager;
+        this.warmUpSize = datastoreSettings.getInt(DatastoreSettingsKey.CONFIG_CACHE_WARMUP_SIZE, 0);
+    }
+
+    /**
+     * Runs {@link #warmUp()} in a background thread.
+     *
+     * @since 2.1.0
+     */
+    public void start() {
+        if (warmUpSize <= 0) {
+            LOG.info("Datastore cache warm-up disabled");
+            return;
+        }
+
+        Thread warmUpThread = new Thread(this::warmUp, "datastore-cache-warmup");
+        warmUpThread.setDaemon(true);
+        warmUpThread.start();
+    }
+
+    /**
+     * Loads into the caches up to {@link DatastoreSettingsKey#CONFIG_CACHE_WARMUP_SIZE} entries of each registry.
+     * <p>
+     * The warm-up is best effort: failures are logged and the caches will be filled on demand as usual.
+     *
+     * @since 2.1.0
+     */
+    public void warmUp() {
+        warmUp("clients", clientInfoRepository, new ClientInfoQueryImpl(KapuaId.ANY), ClientInfo::getClientId, datastoreCacheManager.getClientsCache());
+        warmUp("channels", channelInfoRepository, new ChannelInfoQueryImpl(KapuaId.ANY), channelInfo -> channelInfo.getId().toString(), datastoreCacheManager.getChannelsCache());
+        warmUp("metrics", metricInfoRepository, new MetricInfoQueryImpl(KapuaId.ANY), metricInfo -> metricInfo.getId().toString(), datastoreCacheManager.getMetricsCache());
+    }
+
+    private <T extends Storable, L extends StorableListResult<T>, Q extends StorableQuery> void warmUp(
+            String cacheName,
+            StorableRepository<T, L, Q> repository,
+            Q query,
+            Function<T, String> cacheKeyExtractor,
+            Cache<String, Boolean> cache) {
+        int loaded = 0;
+        try {
+            while (loaded < warmUpSize) {
+                query.setLimit(Math.min(PAGE_SIZE, warmUpSize - loaded));
+
+                final L result = repository.query(query);
+                for (T item : result.getItems()) {
+                    cache.put(cacheKeyExtractor.apply(item), true);
+                }
+                loaded += result.getSize();
+
+                if (result.getNextKey() == null) {
+                    break;
+                }
+                query.setSearchAfter((String) result.getNextKey());
+            }
+            LOG.info("Datastore {} cache warmed up with {} entries", cacheName, loaded);
+        } catch (RuntimeException e) {
+            LOG.warn("Datastore {} cache warm-up interrupted after {} entries. Error: {}", cacheName, loaded, e.getMessage(), e);
+        }
+    }
+}
@@ -13,7 +13,7 @@
 package org.eclipse.kapua.service.datastore.internal;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import org.eclipse.kapua.commons.cache.LocalCache;
+import org.eclipse.kapua.commons.cache.Cache;
 import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
 import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettingsKey;
 import org.eclipse.kapua.service.elasticsearch.client.ElasticsearchClientProvider;
@@ -43,7 +43,7 @@ public abstract class DatastoreElasticSearchRepositoryBase<
             Class<T> clazz,
             StorableFactory<T, L, Q> storableFactory,
             StorablePredicateFactory storablePredicateFactory,
-            LocalCache<String, Boolean> indexesCache,
+            Cache<String, Boolean> indexesCache,
             DatastoreSettings datastoreSettings) {
         super(elasticsearchClientProviderInstance, clazz, storableFactory, storablePredicateFactory,
                 indexesCache);
@@ -59,6 +59,11 @@ public abstract class DatastoreElasticSearchRepositoryBase<
         this.datastoreSettings = datastoreSettings;
     }
 
+    @Override
+    protected int getMaxResultWindow() {
+        return datastoreSettings.getInt(DatastoreSettingsKey.MAX_RESULT_WINDOW_VALUE, DEFAULT_MAX_RESULT_WINDOW);
+    }
+
     /**
      * @param idxName
      * @return
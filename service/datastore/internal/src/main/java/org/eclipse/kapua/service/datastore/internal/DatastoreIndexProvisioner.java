@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal;
+
+import org.eclipse.kapua.commons.util.KapuaDateUtils;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettingsKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates in background the data indexes of the next indexing window before it starts.
+ * <p>
+ * Data indexes are otherwise created on the first message stored in each indexing window, so that at every window boundary
+ * the first messages of each scope wait for the index to be created and mapped.
+ *
+ * @see MessageRepository#provisionDataIndexes(long, long)
+ * @since 2.1.0
+ */
+public class DatastoreIndexProvisioner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DatastoreIndexProvisioner.class);
+
+    private final MessageRepository messageRepository;
+    private final long provisioningLead;
+    private final long provisioningInterval;
+
+    private ScheduledExecutorService provisioningScheduler;
+
+    @Inject
+    public DatastoreIndexProvisioner(MessageRepository messageRepository, DatastoreSettings datastoreSettings) {
+        this.messageRepository = messageRepository;
+        this.provisioningLead = datastoreSettings.getLong(DatastoreSettingsKey.INDEX_PROVISIONING_LEAD, 600000L);
+        this.provisioningInterval = datastoreSettings.getLong(DatastoreSettingsKey.INDEX_PROVISIONING_INTERVAL, 60000L);
+    }
+
+    /**
+     * Runs {@link #provision()} every {@link DatastoreSettingsKey#INDEX_PROVISIONING_INTERVAL} milliseconds in a background thread.
+     *
+     * @since 2.1.0
+     */
+    public synchronized void start() {
+        if (provisioningLead <= 0) {
+            LOG.info("Datastore data indexes provisioning disabled");
+            return;
+        }
+
+        provisioningScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "datastore-index-provisioner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        provisioningScheduler.scheduleWithFixedDelay(this::provision, 0, Math.max(provisioningInterval, 1000L), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background provisioning.
+     *
+     * @since 2.1.0
+     */
+    public synchronized void stop() {
+        if (provisioningScheduler != null) {
+            provisioningScheduler.shutdownNow();
+            provisioningScheduler = null;
+        }
+    }
+
+    /**
+     * Creates the data indexes of the indexing window starting within {@link DatastoreSettingsKey#INDEX_PROVISIONING_LEAD} milliseconds, if any.
+     * <p>
+     * The provisioning is best effort: failures are logged and missing data indexes will be created on demand as usual.
+     *
+     * @since 2.1.0
+     */
+    public void provision() {
+        final long now = KapuaDateUtils.getKapuaSysDate().toEpochMilli();
+        try {
+            final int provisionedIndexes = messageRepository.provisionDataIndexes(now, now + provisioningLead);
+            if (provisionedIndexes > 0) {
+                LOG.info("Datastore provisioned {} data indexes for the next indexing window", provisionedIndexes);
+            }
+        } catch (Exception e) {
+            LOG.warn("Datastore data indexes provisioning failed. Error: {}", e.getMessage(), e);
+        }
+    }
+}
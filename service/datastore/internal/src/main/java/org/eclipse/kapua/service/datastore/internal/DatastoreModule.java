@@ -46,6 +46,7 @@ import org.eclipse.kapua.service.datastore.internal.client.DatastoreElasticsearc
 import org.eclipse.kapua.service.datastore.internal.converter.ModelContextImpl;
 import org.eclipse.kapua.service.datastore.internal.converter.QueryConverterImpl;
 import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreUtils;
+import org.eclipse.kapua.service.datastore.internal.mediator.RegistryIdDeriver;
 import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
 import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettingsKey;
 import org.eclipse.kapua.service.elasticsearch.client.ElasticsearchClientProvider;
@@ -83,7 +84,10 @@ public class DatastoreModule extends AbstractKapuaModule {
         bind(MessageStoreFacade.class).to(MessageStoreFacadeImpl.class).in(Singleton.class);
         bind(MetricsDatastore.class).in(Singleton.class);
         bind(DatastoreUtils.class).in(Singleton.class);
+        bind(RegistryIdDeriver.class).in(Singleton.class);
         bind(DatastoreCacheManager.class).in(Singleton.class);
+        bind(DatastoreCacheWarmUp.class).in(Singleton.class);
+        bind(DatastoreIndexProvisioner.class).in(Singleton.class);
     }
 
     @ProvidesIntoSet
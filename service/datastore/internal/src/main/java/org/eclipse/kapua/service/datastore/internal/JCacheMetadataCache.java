@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal;
+
+import org.eclipse.kapua.commons.cache.Cache;
+
+import java.io.Serializable;
+
+/**
+ * {@link Cache} of known registry entries backed by a {@link javax.cache.Cache}.
+ * <p>
+ * Depending on the configured JCache provider the entries can be shared across all the nodes of the cluster,
+ * so that a new node does not need to look up again the entries already known by the others.
+ *
+ * @since 2.1.0
+ */
+public class JCacheMetadataCache implements Cache<String, Boolean> {
+
+    private final javax.cache.Cache<Serializable, Serializable> cache;
+    private String namespace;
+
+    /**
+     * Constructor.
+     *
+     * @param cache The backing {@link javax.cache.Cache}.
+     * @since 2.1.0
+     */
+    public JCacheMetadataCache(javax.cache.Cache<Serializable, Serializable> cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public String getNamespace() {
+        return namespace;
+    }
+
+    @Override
+    public void setNamespace(String namespace) {
+        this.namespace = namespace;
+    }
+
+    @Override
+    public Boolean get(String key) {
+        return Boolean.TRUE.equals(cache.get(key));
+    }
+
+    @Override
+    public void put(String key, Boolean value) {
+        cache.put(key, value);
+    }
+
+    @Override
+    public void remove(String key) {
+        cache.remove(key);
+    }
+
+    @Override
+    public Boolean getAndRemove(String key) {
+        return Boolean.TRUE.equals(cache.getAndRemove(key));
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.removeAll();
+    }
+}
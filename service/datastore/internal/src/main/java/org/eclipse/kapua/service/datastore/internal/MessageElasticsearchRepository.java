@@ -26,10 +26,15 @@ import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettingsKey
 import org.eclipse.kapua.service.datastore.model.DatastoreMessage;
 import org.eclipse.kapua.service.datastore.model.MessageListResult;
 import org.eclipse.kapua.service.datastore.model.query.MessageQuery;
+import org.eclipse.kapua.service.elasticsearch.client.ElasticsearchClient;
 import org.eclipse.kapua.service.elasticsearch.client.ElasticsearchClientProvider;
 import org.eclipse.kapua.service.elasticsearch.client.SchemaKeys;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientInternalError;
 import org.eclipse.kapua.service.elasticsearch.client.exception.DatamodelMappingException;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertRequest;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertResponse;
+import org.eclipse.kapua.service.elasticsearch.client.model.IndexRequest;
 import org.eclipse.kapua.service.elasticsearch.client.model.InsertRequest;
 import org.eclipse.kapua.service.storable.exception.MappingException;
 import org.eclipse.kapua.service.storable.model.id.StorableId;
@@ -38,13 +43,30 @@ import org.eclipse.kapua.service.storable.model.utils.KeyValueEntry;
 import org.eclipse.kapua.service.storable.model.utils.MappingUtils;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class MessageElasticsearchRepository extends DatastoreElasticSearchRepositoryBase<DatastoreMessage, MessageListResult, MessageQuery> implements MessageRepository {
     private final DatastoreUtils datastoreUtils;
     private final LocalCache<String, Map<String, Metric>> metricsByIndex;
+    private final ConcurrentMap<String, MappingUpdate> mappingUpdates = new ConcurrentHashMap<>();
+    private final MetricsDatastore metricsDatastore;
+    private final long mappingUpdateWindow;
+    private final ScheduledExecutorService mappingUpdateScheduler;
 
     @Inject
     public MessageElasticsearchRepository(
@@ -53,7 +75,8 @@ public class MessageElasticsearchRepository extends DatastoreElasticSearchReposi
             StorablePredicateFactory storablePredicateFactory,
             DatastoreSettings datastoreSettings,
             DatastoreUtils datastoreUtils,
-            DatastoreCacheManager datastoreCacheManager) {
+            DatastoreCacheManager datastoreCacheManager,
+            MetricsDatastore metricsDatastore) {
         super(elasticsearchClientProviderInstance,
                 DatastoreMessage.class,
                 messageStoreFactory,
@@ -61,6 +84,13 @@ public class MessageElasticsearchRepository extends DatastoreElasticSearchReposi
                 datastoreSettings);
         this.datastoreUtils = datastoreUtils;
         metricsByIndex = datastoreCacheManager.getMetadataCache();
+        this.metricsDatastore = metricsDatastore;
+        this.mappingUpdateWindow = datastoreSettings.getLong(DatastoreSettingsKey.MAPPING_UPDATE_WINDOW, 20L);
+        this.mappingUpdateScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MessageMappingUpdate");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
@@ -99,27 +129,197 @@ public class MessageElasticsearchRepository extends DatastoreElasticSearchReposi
      */
     @Override
     public String store(DatastoreMessage messageToStore, Map<String, Metric> metrics) throws ClientException {
+        final String indexName = resolveIndex(messageToStore);
+        awaitMappingUpdates(Collections.singletonList(prepareIndex(indexName, metrics)));
+
+        final InsertRequest insertRequest = new InsertRequest(idExtractor(messageToStore).toString(), indexName, messageToStore);
+        return elasticsearchClientProviderInstance.getElasticsearchClient().insert(insertRequest).getId();
+    }
+
+    @Override
+    public BulkInsertResponse store(List<DatastoreMessage> messagesToStore, List<Map<String, Metric>> metrics) throws ClientException {
+        final List<CompletableFuture<Void>> mappingUpdates = new ArrayList<>();
+        final BulkInsertRequest bulkInsertRequest = newBulkInsertRequest(messagesToStore, metrics, mappingUpdates);
+        awaitMappingUpdates(mappingUpdates);
+
+        return elasticsearchClientProviderInstance.getElasticsearchClient().insert(bulkInsertRequest);
+    }
+
+    @Override
+    public CompletableFuture<BulkInsertResponse> storeAsync(List<DatastoreMessage> messagesToStore, List<Map<String, Metric>> metrics) {
+        final List<CompletableFuture<Void>> mappingUpdates = new ArrayList<>();
+        final BulkInsertRequest bulkInsertRequest;
+        final ElasticsearchClient<?> elasticsearchClient;
+        try {
+            bulkInsertRequest = newBulkInsertRequest(messagesToStore, metrics, mappingUpdates);
+            elasticsearchClient = elasticsearchClientProviderInstance.getElasticsearchClient();
+        } catch (ClientException | RuntimeException e) {
+            final CompletableFuture<BulkInsertResponse> failedFuture = new CompletableFuture<>();
+            failedFuture.completeExceptionally(e);
+            return failedFuture;
+        }
+
+        if (mappingUpdates.isEmpty()) {
+            return elasticsearchClient.insertAsync(bulkInsertRequest);
+        }
+        // Insert when the mappings are updated, without waiting for them on the calling thread
+        return CompletableFuture.allOf(mappingUpdates.toArray(new CompletableFuture[0]))
+                .thenCompose(updated -> elasticsearchClient.insertAsync(bulkInsertRequest));
+    }
+
+    /**
+     * Builds the {@link BulkInsertRequest} of the given {@link DatastoreMessage}s, starting the mapping updates of their indexes.
+     *
+     * @param messagesToStore The {@link DatastoreMessage}s to store.
+     * @param metrics         The metrics of each {@link DatastoreMessage}, in the same order of the {@link DatastoreMessage}s.
+     * @param mappingUpdates  The {@link List} where to add the mapping updates to wait for before inserting.
+     * @return The {@link BulkInsertRequest}.
+     * @since 2.1.0
+     */
+    private BulkInsertRequest newBulkInsertRequest(List<DatastoreMessage> messagesToStore, List<Map<String, Metric>> metrics, List<CompletableFuture<Void>> mappingUpdates) {
+        final BulkInsertRequest bulkInsertRequest = new BulkInsertRequest();
+        for (int i = 0; i < messagesToStore.size(); i++) {
+            final DatastoreMessage messageToStore = messagesToStore.get(i);
+            final String indexName = resolveIndex(messageToStore);
+            final CompletableFuture<Void> mappingUpdate = prepareIndex(indexName, metrics.get(i));
+            if (mappingUpdate != null && !mappingUpdates.contains(mappingUpdate)) {
+                mappingUpdates.add(mappingUpdate);
+            }
+
+            bulkInsertRequest.add(new InsertRequest(idExtractor(messageToStore).toString(), indexName, messageToStore));
+        }
+        return bulkInsertRequest;
+    }
+
+    /**
+     * Resolves the index of the given {@link DatastoreMessage}.
+     *
+     * @param messageToStore The {@link DatastoreMessage} to store.
+     * @return The name of the index where to store the {@link DatastoreMessage}.
+     * @since 2.1.0
+     */
+    private String resolveIndex(DatastoreMessage messageToStore) {
         final Long messageTime = Optional.ofNullable(messageToStore.getTimestamp())
                 .map(date -> date.getTime())
                 .orElse(null);
 
-        final String indexName = indexResolver(messageToStore.getScopeId(), messageTime);
+        return indexResolver(messageToStore.getScopeId(), messageTime);
+    }
 
-        if (!metricsByIndex.containsKey(indexName)) {
-            synchronized (DatastoreMessage.class) {
-                doUpsertIndex(indexName);
-                doUpsertMappings(indexName, metrics);
-                metricsByIndex.put(indexName, metrics);
+    /**
+     * Starts the creation of the index and the update of its mappings with the given metrics, if required.
+     *
+     * @param indexName The name of the index.
+     * @param metrics   The metrics of the {@link DatastoreMessage} to store.
+     * @return The mapping update to wait for before storing the {@link DatastoreMessage}, or {@code null} if the mappings are up-to-date.
+     * @since 2.1.0
+     */
+    private CompletableFuture<Void> prepareIndex(String indexName, Map<String, Metric> metrics) {
+        final Map<String, Metric> indexMetrics = metricsByIndex.get(indexName);
+        if (indexMetrics == null || !indexMetrics.keySet().containsAll(metrics.keySet())) {
+            return updateIndexMappings(indexName, metrics);
+        }
+        return null;
+    }
+
+    /**
+     * Waits for the given mapping updates.
+     *
+     * @param mappingUpdates The mapping updates to wait for. {@code null} items are ignored.
+     * @throws ClientException If a mapping update failed, or if interrupted while waiting.
+     * @since 2.1.0
+     */
+    private void awaitMappingUpdates(List<CompletableFuture<Void>> mappingUpdates) throws ClientException {
+        for (CompletableFuture<Void> mappingUpdate : mappingUpdates) {
+            if (mappingUpdate == null) {
+                continue;
+            }
+
+            try {
+                mappingUpdate.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ClientInternalError(e, "Interrupted while waiting for the update of the message mappings");
+            } catch (ExecutionException e) {
+                // Index and mapping failures are wrapped in RuntimeExceptions by doUpsertIndex and doUpsertMappings
+                final Throwable cause = e.getCause() instanceof RuntimeException && e.getCause().getCause() instanceof ClientException ? e.getCause().getCause() : e.getCause();
+                if (cause instanceof ClientException) {
+                    throw (ClientException) cause;
+                } else if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new ClientInternalError(e.getCause(), "Error while updating the message mappings");
+            }
+        }
+    }
+
+    /**
+     * Starts the creation of the index, if required, and the update of its mappings with the given metrics.
+     * <p>
+     * Updates are single-flight per index: the first caller schedules the update after {@link DatastoreSettingsKey#MAPPING_UPDATE_WINDOW} milliseconds,
+     * and the metrics of the callers in the meantime are added to the same update.
+     * Updates are sent one at a time by a dedicated thread, so that an update of an index always starts after the previous one is completed,
+     * and the calling threads are not kept busy waiting for the window to elapse.
+     *
+     * @param indexName The name of the index.
+     * @param metrics   The metrics to add to the mappings of the index.
+     * @return The update, completed when the mappings have been updated.
+     * @since 2.1.0
+     */
+    private CompletableFuture<Void> updateIndexMappings(String indexName, Map<String, Metric> metrics) {
+        final boolean[] leader = {false};
+        final MappingUpdate mappingUpdate = mappingUpdates.compute(indexName, (key, currentUpdate) -> {
+            if (currentUpdate != null && currentUpdate.join(metrics)) {
+                return currentUpdate;
             }
+            leader[0] = true;
+            return new MappingUpdate(metrics);
+        });
+
+        if (leader[0]) {
+            mappingUpdateScheduler.schedule(() -> sendMappingUpdate(indexName, mappingUpdate), mappingUpdateWindow, TimeUnit.MILLISECONDS);
         } else {
-            final Map<String, Metric> newMetrics = getMessageMappingDiffs(metricsByIndex.get(indexName), metrics);
-            synchronized (DatastoreMessage.class) {
-                doUpsertMappings(indexName, metrics);
-                metricsByIndex.get(indexName).putAll(newMetrics);
+            metricsDatastore.getMappingUpdateSuppressed().inc();
+        }
+        return mappingUpdate.completion;
+    }
+
+    /**
+     * Sends the collected mapping update of an index, creating the index if required.
+     *
+     * @param indexName     The name of the index.
+     * @param mappingUpdate The {@link MappingUpdate} to send.
+     * @since 2.1.0
+     */
+    private void sendMappingUpdate(String indexName, MappingUpdate mappingUpdate) {
+        try {
+            final Map<String, Metric> collectedMetrics = mappingUpdate.close();
+            final Map<String, Metric> indexMetrics = metricsByIndex.get(indexName);
+            if (indexMetrics == null) {
+                doUpsertIndex(indexName);
             }
+
+            final Map<String, Metric> newMetrics = indexMetrics == null ? collectedMetrics : getMessageMappingDiffs(indexMetrics, collectedMetrics);
+            if (!newMetrics.isEmpty()) {
+                doUpsertMappings(indexName, newMetrics);
+                metricsDatastore.getMappingUpdateIssued().inc();
+            }
+
+            // Replace the known metrics rather than updating them, since they are read without locking
+            final Map<String, Metric> updatedIndexMetrics = new ConcurrentHashMap<>();
+            if (indexMetrics != null) {
+                updatedIndexMetrics.putAll(indexMetrics);
+            }
+            updatedIndexMetrics.putAll(newMetrics);
+            metricsByIndex.put(indexName, updatedIndexMetrics);
+
+            mappingUpdates.remove(indexName, mappingUpdate);
+            mappingUpdate.completion.complete(null);
+        } catch (RuntimeException e) {
+            // The metrics of the failed update will be sent again by the next callers
+            mappingUpdates.remove(indexName, mappingUpdate);
+            mappingUpdate.completion.completeExceptionally(e);
         }
-        final InsertRequest insertRequest = new InsertRequest(idExtractor(messageToStore).toString(), indexName, messageToStore);
-        return elasticsearchClientProviderInstance.getElasticsearchClient().insert(insertRequest).getId();
     }
 
     private Map<String, Metric> getMessageMappingDiffs(Map<String, Metric> currentMetrics, Map<String, Metric> newMetrics) {
@@ -143,6 +343,54 @@ public class MessageElasticsearchRepository extends DatastoreElasticSearchReposi
         }
     }
 
+    @Override
+    public int provisionDataIndexes(long sourceTime, long targetTime) throws ClientException {
+        final String indexingWindowOption = datastoreSettings.getString(DatastoreSettingsKey.INDEXING_WINDOW_OPTION, DatastoreUtils.INDEXING_WINDOW_OPTION_WEEK);
+        final String sourceSuffix = datastoreUtils.getDataIndexSuffix(sourceTime, indexingWindowOption);
+        final String targetSuffix = datastoreUtils.getDataIndexSuffix(targetTime, indexingWindowOption);
+        if (sourceSuffix.equals(targetSuffix)) {
+            return 0;
+        }
+
+        final IndexRequest sourceIndexesRequest = new IndexRequest(datastoreUtils.getDataIndexesName(sourceTime, indexingWindowOption));
+        final String[] sourceIndexes = elasticsearchClientProviderInstance.getElasticsearchClient().findIndexes(sourceIndexesRequest).getIndexes();
+        if (sourceIndexes == null) {
+            return 0;
+        }
+
+        // The indexes already in Elasticsearch have been created by another node, or by a message, and are left to the write path
+        final IndexRequest targetIndexesRequest = new IndexRequest(datastoreUtils.getDataIndexesName(targetTime, indexingWindowOption));
+        final String[] existingTargetIndexes = elasticsearchClientProviderInstance.getElasticsearchClient().findIndexes(targetIndexesRequest).getIndexes();
+        final Set<String> targetIndexes = new HashSet<>();
+        if (existingTargetIndexes != null) {
+            for (String existingTargetIndex : existingTargetIndexes) {
+                targetIndexes.add(existingTargetIndex.trim());
+            }
+        }
+
+        int provisionedIndexes = 0;
+        for (String sourceIndex : sourceIndexes) {
+            sourceIndex = sourceIndex.trim();
+            if (!sourceIndex.endsWith(sourceSuffix)) {
+                continue;
+            }
+
+            final String targetIndex = sourceIndex.substring(0, sourceIndex.length() - sourceSuffix.length()) + targetSuffix;
+            if (targetIndexes.contains(targetIndex) || metricsByIndex.get(targetIndex) != null) {
+                continue;
+            }
+
+            final Map<String, Metric> sourceMetrics = metricsByIndex.get(sourceIndex);
+            try {
+                updateIndexMappings(targetIndex, sourceMetrics != null ? sourceMetrics : Collections.emptyMap());
+                provisionedIndexes++;
+            } catch (RuntimeException e) {
+                logger.warn("Cannot provision data index '{}'", targetIndex, e);
+            }
+        }
+        return provisionedIndexes;
+    }
+
     @Override
     public void delete(KapuaId scopeId, StorableId id, long time) {
         super.doDelete(indexResolver(scopeId, time), id);
@@ -214,4 +462,46 @@ public class MessageElasticsearchRepository extends DatastoreElasticSearchReposi
         super.deleteIndexes(indexExp);
         this.metricsByIndex.invalidateAll();
     }
+
+    /**
+     * A mapping update of an index, collecting the metrics of the concurrent callers until it is sent.
+     *
+     * @since 2.1.0
+     */
+    private static class MappingUpdate {
+
+        private final Map<String, Metric> metrics;
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+        private boolean closed;
+
+        private MappingUpdate(Map<String, Metric> metrics) {
+            this.metrics = new HashMap<>(metrics);
+        }
+
+        /**
+         * Adds the given metrics to this update, if it has not been sent yet.
+         *
+         * @param metrics The metrics to add.
+         * @return {@code true} if the metrics have been added, {@code false} if this update is already being sent.
+         * @since 2.1.0
+         */
+        private synchronized boolean join(Map<String, Metric> metrics) {
+            if (closed) {
+                return false;
+            }
+            this.metrics.putAll(metrics);
+            return true;
+        }
+
+        /**
+         * Stops collecting metrics.
+         *
+         * @return The collected metrics.
+         * @since 2.1.0
+         */
+        private synchronized Map<String, Metric> close() {
+            closed = true;
+            return new HashMap<>(metrics);
+        }
+    }
 }
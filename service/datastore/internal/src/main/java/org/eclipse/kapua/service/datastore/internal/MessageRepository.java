@@ -17,16 +17,70 @@ import org.eclipse.kapua.service.datastore.internal.mediator.Metric;
 import org.eclipse.kapua.service.datastore.model.DatastoreMessage;
 import org.eclipse.kapua.service.datastore.model.MessageListResult;
 import org.eclipse.kapua.service.datastore.model.query.MessageQuery;
+import org.eclipse.kapua.service.elasticsearch.client.QueryResultHandler;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertResponse;
 import org.eclipse.kapua.service.storable.model.id.StorableId;
 import org.eclipse.kapua.service.storable.repository.StorableRepository;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface MessageRepository extends StorableRepository<DatastoreMessage, MessageListResult, MessageQuery> {
 
     String store(DatastoreMessage messageToStore, Map<String, Metric> metrics) throws ClientException;
 
+    /**
+     * Stores the given {@link DatastoreMessage}s with a single bulk request.
+     *
+     * @param messagesToStore The {@link DatastoreMessage}s to store.
+     * @param metrics         The metrics of each {@link DatastoreMessage}, in the same order of the {@link DatastoreMessage}s.
+     * @return The {@link BulkInsertResponse} with the outcome of each {@link DatastoreMessage}, in the same order of the {@link DatastoreMessage}s.
+     * @throws ClientException If the bulk request cannot be performed.
+     * @since 2.1.0
+     */
+    BulkInsertResponse store(List<DatastoreMessage> messagesToStore, List<Map<String, Metric>> metrics) throws ClientException;
+
+    /**
+     * Stores the given {@link DatastoreMessage}s with a single bulk request, without waiting for Elasticsearch to process it.
+     * <p>
+     * Indexes and mappings are prepared before returning.
+     *
+     * @param messagesToStore The {@link DatastoreMessage}s to store.
+     * @param metrics         The metrics of each {@link DatastoreMessage}, in the same order of the {@link DatastoreMessage}s.
+     * @return The {@link CompletableFuture} of the {@link BulkInsertResponse}, completed exceptionally with a {@link ClientException} if the bulk request cannot be performed.
+     * @see #store(List, List)
+     * @since 2.1.0
+     */
+    CompletableFuture<BulkInsertResponse> storeAsync(List<DatastoreMessage> messagesToStore, List<Map<String, Metric>> metrics);
+
+    /**
+     * Creates the data indexes of the indexing window of the target time, for the scopes which have a data index in the indexing window of the source time.
+     * <p>
+     * The metrics mappings known for the source indexes are carried over, so that the first messages stored in the new indexing window
+     * neither check for the existence of the index nor update its mappings.
+     * <p>
+     * The data indexes which already exist in Elasticsearch are skipped, so that each of them is provisioned once across all the nodes.
+     *
+     * @param sourceTime A time of the indexing window of the existing data indexes.
+     * @param targetTime A time of the indexing window of the data indexes to create.
+     * @return The number of provisioned data indexes.
+     * @throws ClientException If the existing data indexes cannot be listed.
+     * @since 2.1.0
+     */
+    int provisionDataIndexes(long sourceTime, long targetTime) throws ClientException;
+
+    /**
+     * Queries the {@link DatastoreMessage}s, handing each of them to the given {@link QueryResultHandler} as soon as it is read.
+     *
+     * @param query         The {@link MessageQuery} to perform.
+     * @param resultHandler The {@link QueryResultHandler} of the {@link DatastoreMessage}s.
+     * @return The {@link MessageListResult} of the query, without items.
+     * @since 2.1.0
+     */
+    MessageListResult query(MessageQuery query, QueryResultHandler<DatastoreMessage> resultHandler);
+
     void delete(KapuaId scopeId, StorableId id, long time);
 
     DatastoreMessage find(KapuaId scopeId, StorableId storableId, long time);
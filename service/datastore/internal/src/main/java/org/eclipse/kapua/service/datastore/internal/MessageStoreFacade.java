@@ -15,6 +15,7 @@ package org.eclipse.kapua.service.datastore.internal;
 import org.eclipse.kapua.KapuaIllegalArgumentException;
 import org.eclipse.kapua.message.KapuaMessage;
 import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.datastore.exception.DatastoreBatchStoreException;
 import org.eclipse.kapua.service.datastore.exception.DatastoreDisabledException;
 import org.eclipse.kapua.service.datastore.internal.mediator.ConfigurationException;
 import org.eclipse.kapua.service.datastore.internal.mediator.MessageInfo;
@@ -25,6 +26,10 @@ import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
 import org.eclipse.kapua.service.storable.exception.MappingException;
 import org.eclipse.kapua.service.storable.model.id.StorableId;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
 public interface MessageStoreFacade {
     StorableId store(KapuaMessage<?, ?> message, String messageId, boolean newInsert)
             throws KapuaIllegalArgumentException,
@@ -32,6 +37,14 @@ public interface MessageStoreFacade {
             ConfigurationException,
             ClientException, MappingException;
 
+    List<StorableId> store(List<KapuaMessage<?, ?>> messages, List<String> messageIds, boolean newInsert)
+            throws KapuaIllegalArgumentException,
+            DatastoreBatchStoreException,
+            ClientException;
+
+    CompletableFuture<List<StorableId>> storeAsync(List<KapuaMessage<?, ?>> messages, List<String> messageIds, boolean newInsert)
+            throws KapuaIllegalArgumentException;
+
     void onAfterMessageStore(MessageInfo messageInfo, DatastoreMessage message)
             throws KapuaIllegalArgumentException,
             ConfigurationException,
@@ -53,6 +66,11 @@ public interface MessageStoreFacade {
             ConfigurationException,
             ClientException;
 
+    MessageListResult query(MessageQuery query, Consumer<DatastoreMessage> messageConsumer)
+            throws KapuaIllegalArgumentException,
+            ConfigurationException,
+            ClientException;
+
     long count(MessageQuery query)
             throws KapuaIllegalArgumentException,
             ConfigurationException,
@@ -12,8 +12,9 @@
  *******************************************************************************/
 package org.eclipse.kapua.service.datastore.internal;
 
+import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.KapuaIllegalArgumentException;
-import org.eclipse.kapua.commons.cache.LocalCache;
+import org.eclipse.kapua.commons.cache.Cache;
 import org.eclipse.kapua.commons.util.ArgumentValidator;
 import org.eclipse.kapua.commons.util.KapuaDateUtils;
 import org.eclipse.kapua.message.KapuaMessage;
@@ -21,9 +22,9 @@ import org.eclipse.kapua.message.KapuaPayload;
 import org.eclipse.kapua.message.device.data.KapuaDataChannel;
 import org.eclipse.kapua.message.internal.device.data.KapuaDataChannelImpl;
 import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.datastore.exception.DatastoreBatchStoreException;
 import org.eclipse.kapua.service.datastore.exception.DatastoreDisabledException;
-import org.eclipse.kapua.service.datastore.internal.mediator.ChannelInfoField;
-import org.eclipse.kapua.service.datastore.internal.mediator.ClientInfoField;
+import org.eclipse.kapua.service.datastore.exception.DatastoreOperationException;
 import org.eclipse.kapua.service.datastore.internal.mediator.ConfigurationException;
 import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreChannel;
 import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreUtils;
@@ -31,7 +32,7 @@ import org.eclipse.kapua.service.datastore.internal.mediator.MessageField;
 import org.eclipse.kapua.service.datastore.internal.mediator.MessageInfo;
 import org.eclipse.kapua.service.datastore.internal.mediator.MessageStoreConfiguration;
 import org.eclipse.kapua.service.datastore.internal.mediator.Metric;
-import org.eclipse.kapua.service.datastore.internal.mediator.MetricInfoField;
+import org.eclipse.kapua.service.datastore.internal.mediator.RegistryIdDeriver;
 import org.eclipse.kapua.service.datastore.internal.model.ChannelInfoImpl;
 import org.eclipse.kapua.service.datastore.internal.model.ClientInfoImpl;
 import org.eclipse.kapua.service.datastore.internal.model.DataIndexBy;
@@ -43,14 +44,20 @@ import org.eclipse.kapua.service.datastore.internal.model.query.ChannelInfoQuery
 import org.eclipse.kapua.service.datastore.internal.model.query.ClientInfoQueryImpl;
 import org.eclipse.kapua.service.datastore.internal.model.query.MetricInfoQueryImpl;
 import org.eclipse.kapua.service.datastore.internal.model.query.predicate.ChannelMatchPredicateImpl;
+import org.eclipse.kapua.service.datastore.model.ChannelInfo;
 import org.eclipse.kapua.service.datastore.model.ChannelInfoListResult;
+import org.eclipse.kapua.service.datastore.model.ClientInfo;
 import org.eclipse.kapua.service.datastore.model.ClientInfoListResult;
 import org.eclipse.kapua.service.datastore.model.DatastoreMessage;
 import org.eclipse.kapua.service.datastore.model.MessageListResult;
+import org.eclipse.kapua.service.datastore.model.MetricInfo;
 import org.eclipse.kapua.service.datastore.model.MetricInfoListResult;
 import org.eclipse.kapua.service.datastore.model.query.MessageQuery;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientInternalError;
 import org.eclipse.kapua.service.elasticsearch.client.exception.QueryMappingException;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertResponse;
+import org.eclipse.kapua.service.elasticsearch.client.model.InsertResponse;
 import org.eclipse.kapua.service.storable.exception.MappingException;
 import org.eclipse.kapua.service.storable.model.id.StorableId;
 import org.eclipse.kapua.service.storable.model.id.StorableIdFactory;
@@ -58,10 +65,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 /**
  * Message store facade
@@ -83,6 +96,7 @@ public final class MessageStoreFacadeImpl extends AbstractDatastoreFacade implem
     private final MetricsDatastore metrics;
     private final DatastoreUtils datastoreUtils;
     private final DatastoreCacheManager datastoreCacheManager;
+    private final RegistryIdDeriver registryIdDeriver;
 
     private static final String QUERY = "query";
     private static final String QUERY_SCOPE_ID = "query.scopeId";
@@ -101,7 +115,8 @@ public final class MessageStoreFacadeImpl extends AbstractDatastoreFacade implem
             ClientInfoRepository clientInfoRepository,
             MetricsDatastore metricsDatastore,
             DatastoreUtils datastoreUtils,
-            DatastoreCacheManager datastoreCacheManager) {
+            DatastoreCacheManager datastoreCacheManager,
+            RegistryIdDeriver registryIdDeriver) {
         super(configProvider);
         this.storableIdFactory = storableIdFactory;
         this.clientInfoRegistryFacade = clientInfoRegistryFacade;
@@ -114,6 +129,7 @@ public final class MessageStoreFacadeImpl extends AbstractDatastoreFacade implem
         this.metrics = metricsDatastore;
         this.datastoreUtils = datastoreUtils;
         this.datastoreCacheManager = datastoreCacheManager;
+        this.registryIdDeriver = registryIdDeriver;
     }
 
     /**
@@ -127,6 +143,192 @@ public final class MessageStoreFacadeImpl extends AbstractDatastoreFacade implem
      */
     @Override
     public StorableId store(KapuaMessage<?, ?> message, String messageId, boolean newInsert) throws KapuaIllegalArgumentException, DatastoreDisabledException, ConfigurationException, ClientException, MappingException {
+        MessageStoreConfiguration accountServicePlan = checkMessageToStore(message, messageId);
+
+        if (isAlreadyStored(message, messageId, newInsert, accountServicePlan)) {
+            return storableIdFactory.newStorableId(messageId);
+        }
+
+        // Save message (the big one)
+        final DatastoreMessage messageToStore = convertTo(message, messageId, accountServicePlan);
+        // Possibly update the schema with new metric mappings
+        final Map<String, Metric> metrics = getMessageMetrics(message);
+
+        final String storedId = messageRepository.store(messageToStore, metrics);
+        messageToStore.setDatastoreId(storableIdFactory.newStorableId(storedId));
+
+        MessageInfo messageInfo = configProvider.getInfo(message.getScopeId());
+        this.onAfterMessageStore(messageInfo, messageToStore);
+
+        return storableIdFactory.newStorableId(storedId);
+    }
+
+    @Override
+    public List<StorableId> store(List<KapuaMessage<?, ?>> messages, List<String> messageIds, boolean newInsert) throws KapuaIllegalArgumentException, DatastoreBatchStoreException, ClientException {
+        final BatchToStore batch = prepareBatch(messages, messageIds, newInsert);
+
+        // Save messages with a single bulk request
+        if (!batch.messagesToStore.isEmpty()) {
+            completeBatch(batch, messageRepository.store(batch.messagesToStore, batch.messagesMetrics));
+        }
+        return batch.getStorableIds();
+    }
+
+    @Override
+    public CompletableFuture<List<StorableId>> storeAsync(List<KapuaMessage<?, ?>> messages, List<String> messageIds, boolean newInsert) throws KapuaIllegalArgumentException {
+        final BatchToStore batch = prepareBatch(messages, messageIds, newInsert);
+
+        if (batch.messagesToStore.isEmpty()) {
+            final CompletableFuture<List<StorableId>> completedFuture = new CompletableFuture<>();
+            try {
+                completedFuture.complete(batch.getStorableIds());
+            } catch (DatastoreBatchStoreException e) {
+                completedFuture.completeExceptionally(e);
+            }
+            return completedFuture;
+        }
+
+        // Save messages with a single bulk request, completing the batch when Elasticsearch replies
+        return messageRepository.storeAsync(batch.messagesToStore, batch.messagesMetrics)
+                .thenApply(bulkInsertResponse -> {
+                    try {
+                        completeBatch(batch, bulkInsertResponse);
+                        return batch.getStorableIds();
+                    } catch (DatastoreBatchStoreException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    /**
+     * Checks and converts the given {@link KapuaMessage}s, collecting the ones which need to be stored.
+     *
+     * @param messages   The {@link KapuaMessage}s to store.
+     * @param messageIds The {@link StorableId}s in {@link String} form to assign, in the same order of the {@link KapuaMessage}s.
+     * @param newInsert  Whether the {@link StorableId}s have been generated for this insert.
+     * @return The {@link BatchToStore}.
+     * @throws KapuaIllegalArgumentException If the given {@link List}s are not valid.
+     * @since 2.1.0
+     */
+    private BatchToStore prepareBatch(List<KapuaMessage<?, ?>> messages, List<String> messageIds, boolean newInsert) throws KapuaIllegalArgumentException {
+        ArgumentValidator.notNull(messages, "messages");
+        ArgumentValidator.notNull(messageIds, "messageIds");
+        if (messages.size() != messageIds.size()) {
+            throw new KapuaIllegalArgumentException("messageIds", String.valueOf(messageIds.size()));
+        }
+
+        final BatchToStore batch = new BatchToStore(messages.size());
+
+        // Check and convert messages
+        for (int i = 0; i < messages.size(); i++) {
+            final KapuaMessage<?, ?> message = messages.get(i);
+            final String messageId = messageIds.get(i);
+            try {
+                MessageStoreConfiguration accountServicePlan = checkMessageToStore(message, messageId);
+
+                if (isAlreadyStored(message, messageId, newInsert, accountServicePlan)) {
+                    batch.storableIds.set(i, storableIdFactory.newStorableId(messageId));
+                    continue;
+                }
+
+                batch.positionsToStore.add(i);
+                batch.messagesToStore.add(convertTo(message, messageId, accountServicePlan));
+                batch.messagesMetrics.add(getMessageMetrics(message));
+            } catch (KapuaException e) {
+                batch.failures.put(i, e);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Applies the {@link BulkInsertResponse} to the {@link BatchToStore}, and updates the registries for the stored {@link DatastoreMessage}s.
+     *
+     * @param batch              The {@link BatchToStore}.
+     * @param bulkInsertResponse The {@link BulkInsertResponse} of the {@link BatchToStore#messagesToStore}.
+     * @since 2.1.0
+     */
+    private void completeBatch(BatchToStore batch, BulkInsertResponse bulkInsertResponse) {
+        final List<InsertResponse> insertResponses = bulkInsertResponse.getResponse();
+        final List<Integer> storedPositions = new ArrayList<>(batch.messagesToStore.size());
+        final List<DatastoreMessage> storedMessages = new ArrayList<>(batch.messagesToStore.size());
+        for (int j = 0; j < batch.messagesToStore.size(); j++) {
+            final int i = batch.positionsToStore.get(j);
+            final DatastoreMessage messageToStore = batch.messagesToStore.get(j);
+            final InsertResponse insertResponse = insertResponses.get(j);
+            if (!insertResponse.isResult()) {
+                batch.failures.put(i, new DatastoreOperationException(new ClientInternalError(insertResponse.getDescription()), "INSERT BULK"));
+                continue;
+            }
+
+            final StorableId storedId = storableIdFactory.newStorableId(insertResponse.getId());
+            messageToStore.setDatastoreId(storedId);
+
+            storedPositions.add(i);
+            storedMessages.add(messageToStore);
+        }
+
+        for (int j = 0; j < storedMessages.size(); j++) {
+            batch.storableIds.set(storedPositions.get(j), storedMessages.get(j).getDatastoreId());
+        }
+
+        // Update the registries once for the whole batch.
+        // The messages are already stored: failing them would store them again, while the registry entries which have not been
+        // updated are not cached, so they are updated again with the next messages of the same clients.
+        try {
+            this.onAfterMessagesStore(storedMessages);
+        } catch (KapuaException e) {
+            LOG.warn("Error while updating the registries for a batch of {} stored messages: {}", storedMessages.size(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The state of a batch of {@link KapuaMessage}s being stored.
+     *
+     * @since 2.1.0
+     */
+    private static class BatchToStore {
+
+        private final List<StorableId> storableIds;
+        private final Map<Integer, KapuaException> failures = new HashMap<>();
+        private final List<Integer> positionsToStore;
+        private final List<DatastoreMessage> messagesToStore;
+        private final List<Map<String, Metric>> messagesMetrics;
+
+        private BatchToStore(int size) {
+            storableIds = new ArrayList<>(Collections.nCopies(size, null));
+            positionsToStore = new ArrayList<>(size);
+            messagesToStore = new ArrayList<>(size);
+            messagesMetrics = new ArrayList<>(size);
+        }
+
+        /**
+         * Gets the {@link StorableId}s of the batch.
+         *
+         * @return The {@link StorableId}s, in the same order of the {@link KapuaMessage}s.
+         * @throws DatastoreBatchStoreException If any {@link KapuaMessage} has failed to be stored.
+         * @since 2.1.0
+         */
+        private List<StorableId> getStorableIds() throws DatastoreBatchStoreException {
+            if (!failures.isEmpty()) {
+                throw new DatastoreBatchStoreException(storableIds, failures);
+            }
+            return storableIds;
+        }
+    }
+
+    /**
+     * Checks that the given {@link KapuaMessage} can be stored.
+     *
+     * @param message   The {@link KapuaMessage} to check.
+     * @param messageId The {@link StorableId} in {@link String} form to assign.
+     * @return The {@link MessageStoreConfiguration} of the {@link KapuaMessage#getScopeId()}.
+     * @throws KapuaIllegalArgumentException If the {@link KapuaMessage} is not valid.
+     * @throws DatastoreDisabledException    If the datastore is disabled for the {@link KapuaMessage#getScopeId()}.
+     * @throws ConfigurationException        If the {@link MessageStoreConfiguration} cannot be read.
+     * @since 2.1.0
+     */
+    private MessageStoreConfiguration checkMessageToStore(KapuaMessage<?, ?> message, String messageId) throws KapuaIllegalArgumentException, DatastoreDisabledException, ConfigurationException {
         ArgumentValidator.notNull(message, "message");
         ArgumentValidator.notNull(message.getScopeId(), SCOPE_ID);
         ArgumentValidator.notNull(message.getReceivedOn(), "receivedOn");
@@ -137,22 +339,22 @@ public final class MessageStoreFacadeImpl extends AbstractDatastoreFacade implem
             throw new DatastoreDisabledException(message.getScopeId());
         }
 
-        Date capturedOn = message.getCapturedOn();
-        // Overwrite timestamp if necessary
         // Use the account service plan to determine whether we will give
         // precede to the device time
-        MessageStoreConfiguration accountServicePlan = configProvider.getConfiguration(message.getScopeId());
-        long indexedOn = KapuaDateUtils.getKapuaSysDate().toEpochMilli();
-        if (DataIndexBy.DEVICE_TIMESTAMP.equals(accountServicePlan.getDataIndexBy())) {
-            if (capturedOn != null) {
-                indexedOn = capturedOn.getTime();
-            } else {
-                LOG.debug("The account is set to use, as date indexing, the device timestamp but the device timestamp is null! Current system date will be used to indexing the message by date!");
-            }
-        }
-        // Extract schema metadata
-        Date indexedOnDate = new Date(indexedOn);
+        return configProvider.getConfiguration(message.getScopeId());
+    }
 
+    /**
+     * Checks whether the given {@link KapuaMessage} has been already stored, according to the {@link MessageStoreConfiguration#getMessageUniquenessCheck()}.
+     *
+     * @param message            The {@link KapuaMessage} to check.
+     * @param messageId          The {@link StorableId} in {@link String} form to assign.
+     * @param newInsert          Whether the {@link StorableId} has been generated for this insert.
+     * @param accountServicePlan The {@link MessageStoreConfiguration} of the {@link KapuaMessage#getScopeId()}.
+     * @return {@code true} if the {@link KapuaMessage} is already in the datastore, {@code false} otherwise.
+     * @since 2.1.0
+     */
+    private boolean isAlreadyStored(KapuaMessage<?, ?> message, String messageId, boolean newInsert, MessageStoreConfiguration accountServicePlan) {
         if (!newInsert && !MessageUniquenessCheck.NONE.equals(accountServicePlan.getMessageUniquenessCheck())) {
             DatastoreMessage datastoreMessage = MessageUniquenessCheck.FULL.equals(accountServicePlan.getMessageUniquenessCheck()) ?
                     messageRepository.find(message.getScopeId(), storableIdFactory.newStorableId(messageId)) :
@@ -160,14 +362,49 @@ public final class MessageStoreFacadeImpl extends AbstractDatastoreFacade implem
             if (datastoreMessage != null) {
                 LOG.debug("Message with datastore id '{}' already found", messageId);
                 metrics.getAlreadyInTheDatastore().inc();
-                return storableIdFactory.newStorableId(messageId);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Converts the {@link KapuaMessage} into the {@link DatastoreMessage} to store, setting the {@link DatastoreMessage#getTimestamp()}
+     * according to the {@link MessageStoreConfiguration#getDataIndexBy()}.
+     *
+     * @param message            The {@link KapuaMessage} to convert.
+     * @param messageId          The {@link StorableId} in {@link String} form to assign.
+     * @param accountServicePlan The {@link MessageStoreConfiguration} of the {@link KapuaMessage#getScopeId()}.
+     * @return The {@link DatastoreMessage} to store.
+     * @since 2.1.0
+     */
+    private DatastoreMessage convertTo(KapuaMessage<?, ?> message, String messageId, MessageStoreConfiguration accountServicePlan) {
+        Date capturedOn = message.getCapturedOn();
+        // Overwrite timestamp if necessary
+        long indexedOn = KapuaDateUtils.getKapuaSysDate().toEpochMilli();
+        if (DataIndexBy.DEVICE_TIMESTAMP.equals(accountServicePlan.getDataIndexBy())) {
+            if (capturedOn != null) {
+                indexedOn = capturedOn.getTime();
+            } else {
+                LOG.debug("The account is set to use, as date indexing, the device timestamp but the device timestamp is null! Current system date will be used to indexing the message by date!");
             }
         }
 
-        // Save message (the big one)
         final DatastoreMessage messageToStore = convertTo(message, messageId);
-        messageToStore.setTimestamp(indexedOnDate);
-        // Possibly update the schema with new metric mappings
+        messageToStore.setTimestamp(new Date(indexedOn));
+        return messageToStore;
+    }
+
+    /**
+     * Extracts the metrics of the {@link KapuaMessage} keyed by their mapped name.
+     * <p>
+     * Each metric is potentially a dynamic field of the index mapping.
+     *
+     * @param message The {@link KapuaMessage} from which extract metrics.
+     * @return The metrics of the {@link KapuaMessage}.
+     * @since 2.1.0
+     */
+    private Map<String, Metric> getMessageMetrics(KapuaMessage<?, ?> message) {
         Map<String, Metric> metrics = new HashMap<>();
         if (message.getPayload() != null && message.getPayload().getMetrics() != null && !message.getPayload().getMetrics().isEmpty()) {
             Map<String, Object> messageMetrics = message.getPayload().getMetrics();
@@ -181,14 +418,7 @@ public final class MessageStoreFacadeImpl extends AbstractDatastoreFacade implem
                 metrics.put(mappedName, metric);
             }
         }
-
-        final String storedId = messageRepository.store(messageToStore, metrics);
-        messageToStore.setDatastoreId(storableIdFactory.newStorableId(storedId));
-
-        MessageInfo messageInfo = configProvider.getInfo(message.getScopeId());
-        this.onAfterMessageStore(messageInfo, messageToStore);
-
-        return storableIdFactory.newStorableId(storedId);
+        return metrics;
     }
 
     /**
@@ -287,50 +517,97 @@ public final class MessageStoreFacadeImpl extends AbstractDatastoreFacade implem
             ConfigurationException,
             MappingException,
             ClientException {
+        clientInfoRegistryFacade.upstore(newClientInfo(message));
+        channelInfoStoreFacade.upstore(newChannelInfo(message));
 
-        // convert semantic channel to String
-        final String semanticChannel = Optional.ofNullable(message.getChannel()).map(c -> c.toString()).orElse("");
+        final List<MetricInfo> messageMetrics = newMetricInfos(message);
+        if (!messageMetrics.isEmpty()) {
+            metricInfoStoreFacade.upstore(messageMetrics.toArray(new MetricInfo[0]));
+        }
+    }
+
+    /**
+     * Updates the {@link ClientInfo}, {@link ChannelInfo} and {@link MetricInfo} registries after a batch of {@link DatastoreMessage}s has been stored.
+     * <p>
+     * Registry entries are coalesced across the whole batch, so each registry is updated at most with one lookup for each scope and one bulk request.
+     *
+     * @param messages The stored {@link DatastoreMessage}s.
+     * @throws KapuaIllegalArgumentException
+     * @throws ConfigurationException
+     * @throws MappingException
+     * @throws ClientException
+     * @since 2.1.0
+     */
+    private void onAfterMessagesStore(List<DatastoreMessage> messages)
+            throws KapuaIllegalArgumentException,
+            ConfigurationException,
+            MappingException,
+            ClientException {
+        final List<ClientInfo> clientInfos = new ArrayList<>(messages.size());
+        final List<ChannelInfo> channelInfos = new ArrayList<>(messages.size());
+        final List<MetricInfo> metricInfos = new ArrayList<>();
+        for (DatastoreMessage message : messages) {
+            clientInfos.add(newClientInfo(message));
+            channelInfos.add(newChannelInfo(message));
+            metricInfos.addAll(newMetricInfos(message));
+        }
 
+        clientInfoRegistryFacade.upstore(clientInfos);
+        channelInfoStoreFacade.upstore(channelInfos);
+        if (!metricInfos.isEmpty()) {
+            metricInfoStoreFacade.upstore(metricInfos.toArray(new MetricInfo[0]));
+        }
+    }
+
+    private ClientInfo newClientInfo(DatastoreMessage message) {
         ClientInfoImpl clientInfo = new ClientInfoImpl(message.getScopeId());
         clientInfo.setClientId(message.getClientId());
-        clientInfo.setId(storableIdFactory.newStorableId(ClientInfoField.getOrDeriveId(null, message.getScopeId(), message.getClientId())));
+        clientInfo.setId(storableIdFactory.newStorableId(registryIdDeriver.deriveClientInfoId(message.getScopeId(), message.getClientId())));
         clientInfo.setFirstMessageId(message.getDatastoreId());
         clientInfo.setFirstMessageOn(message.getTimestamp());
-        clientInfoRegistryFacade.upstore(clientInfo);
+        return clientInfo;
+    }
 
+    private ChannelInfo newChannelInfo(DatastoreMessage message) {
         ChannelInfoImpl channelInfo = new ChannelInfoImpl(message.getScopeId());
         channelInfo.setClientId(message.getClientId());
-        channelInfo.setName(semanticChannel);
+        channelInfo.setName(getSemanticChannel(message));
         channelInfo.setFirstMessageId(message.getDatastoreId());
         channelInfo.setFirstMessageOn(message.getTimestamp());
-        channelInfo.setId(storableIdFactory.newStorableId(ChannelInfoField.getOrDeriveId(null, channelInfo)));
-        channelInfoStoreFacade.upstore(channelInfo);
+        channelInfo.setId(storableIdFactory.newStorableId(registryIdDeriver.deriveChannelInfoId(channelInfo.getScopeId(), channelInfo.getClientId(), channelInfo.getName())));
+        return channelInfo;
+    }
 
+    private List<MetricInfo> newMetricInfos(DatastoreMessage message) {
         KapuaPayload payload = message.getPayload();
         if (payload == null) {
-            return;
+            return Collections.emptyList();
         }
 
         Map<String, Object> metrics = payload.getMetrics();
         if (metrics == null) {
-            return;
+            return Collections.emptyList();
         }
 
-        int i = 0;
-        MetricInfoImpl[] messageMetrics = new MetricInfoImpl[metrics.size()];
+        final String semanticChannel = getSemanticChannel(message);
+        List<MetricInfo> messageMetrics = new ArrayList<>(metrics.size());
         for (Map.Entry<String, Object> entry : metrics.entrySet()) {
             MetricInfoImpl metricInfo = new MetricInfoImpl(message.getScopeId());
             metricInfo.setClientId(message.getClientId());
             metricInfo.setChannel(semanticChannel);
             metricInfo.setName(entry.getKey());
             metricInfo.setMetricType(entry.getValue().getClass());
-            metricInfo.setId(storableIdFactory.newStorableId(MetricInfoField.getOrDeriveId(null, metricInfo)));
+            metricInfo.setId(storableIdFactory.newStorableId(registryIdDeriver.deriveMetricInfoId(metricInfo.getScopeId(), metricInfo.getClientId(), metricInfo.getChannel(), metricInfo.getName(), metricInfo.getMetricType())));
             metricInfo.setFirstMessageId(message.getDatastoreId());
             metricInfo.setFirstMessageOn(message.getTimestamp());
-            messageMetrics[i++] = metricInfo;
+            messageMetrics.add(metricInfo);
         }
+        return messageMetrics;
+    }
 
-        metricInfoStoreFacade.upstore(messageMetrics);
+    private String getSemanticChannel(DatastoreMessage message) {
+        // convert semantic channel to String
+        return Optional.ofNullable(message.getChannel()).map(c -> c.toString()).orElse("");
     }
 
     /**
@@ -358,6 +635,33 @@ public final class MessageStoreFacadeImpl extends AbstractDatastoreFacade implem
         return messageRepository.query(query);
     }
 
+    /**
+     * Find messages matching the given query, handing each of them to the given {@link Consumer} as soon as it is read.
+     *
+     * @param query
+     * @param messageConsumer
+     * @return The {@link MessageListResult} of the query, without items.
+     * @throws KapuaIllegalArgumentException
+     * @throws ConfigurationException
+     * @throws ClientException
+     * @since 2.1.0
+     */
+    @Override
+    public MessageListResult query(MessageQuery query, Consumer<DatastoreMessage> messageConsumer)
+            throws KapuaIllegalArgumentException,
+            ConfigurationException,
+            ClientException {
+        ArgumentValidator.notNull(query, QUERY);
+        ArgumentValidator.notNull(query.getScopeId(), QUERY_SCOPE_ID);
+        ArgumentValidator.notNull(messageConsumer, "messageConsumer");
+        if (!this.isDatastoreServiceEnabled(query.getScopeId())) {
+            LOG.debug("Storage not enabled for account {}, returning empty result", query.getScopeId());
+            return new MessageListResultImpl();
+        }
+
+        return messageRepository.query(query, messageConsumer::accept);
+    }
+
 
     // TODO cache will not be reset from the client code it should be automatically reset
     // after some time.
@@ -382,65 +686,43 @@ public final class MessageStoreFacadeImpl extends AbstractDatastoreFacade implem
 
         // Find all topics
         int pageSize = 1000;
-        int offset = 0;
-        long totalHits = 1;
 
         MetricInfoQueryImpl metricQuery = new MetricInfoQueryImpl(scopeId);
-        metricQuery.setLimit(pageSize + 1);
-        metricQuery.setOffset(offset);
+        metricQuery.setLimit(pageSize);
 
         ChannelMatchPredicateImpl channelPredicate = new ChannelMatchPredicateImpl(MessageField.CHANNEL, channel);
         metricQuery.setPredicate(channelPredicate);
 
         // Remove metrics
-        while (totalHits > 0) {
-            MetricInfoListResult metrics = metricInfoRepository.query(metricQuery);
-
-            totalHits = metrics.getTotalCount();
-            LocalCache<String, Boolean> metricsCache = datastoreCacheManager.getMetricsCache();
-            long toBeProcessed = totalHits > pageSize ? pageSize : totalHits;
-
-            for (int i = 0; i < toBeProcessed; i++) {
-                String id = metrics.getItem(i).getId().toString();
-                if (metricsCache.get(id)) {
-                    metricsCache.remove(id);
-                }
+        Cache<String, Boolean> metricsCache = datastoreCacheManager.getMetricsCache();
+        MetricInfoListResult metrics;
+        do {
+            metrics = metricInfoRepository.query(metricQuery);
+            for (MetricInfo metricInfo : metrics.getItems()) {
+                metricsCache.remove(metricInfo.getId().toString());
             }
+            metricQuery.setSearchAfter((String) metrics.getNextKey());
+        } while (metrics.getNextKey() != null);
 
-            if (totalHits > pageSize) {
-                offset += pageSize + 1;
-            }
-        }
         LOG.debug("Removed cached channel metrics for: {}", channel);
         metricInfoRepository.delete(metricQuery);
         LOG.debug("Removed channel metrics for: {}", channel);
         ChannelInfoQueryImpl channelQuery = new ChannelInfoQueryImpl(scopeId);
-        channelQuery.setLimit(pageSize + 1);
-        channelQuery.setOffset(offset);
+        channelQuery.setLimit(pageSize);
 
         channelPredicate = new ChannelMatchPredicateImpl(MessageField.CHANNEL, channel);
         channelQuery.setPredicate(channelPredicate);
 
         // Remove channel
-        offset = 0;
-        totalHits = 1;
-        while (totalHits > 0) {
-            final ChannelInfoListResult channels = channelInfoRepository.query(channelQuery);
-
-            totalHits = channels.getTotalCount();
-            LocalCache<String, Boolean> channelsCache = datastoreCacheManager.getChannelsCache();
-            long toBeProcessed = totalHits > pageSize ? pageSize : totalHits;
-
-            for (int i = 0; i < toBeProcessed; i++) {
-                String id = channels.getFirstItem().getId().toString();
-                if (channelsCache.get(id)) {
-                    channelsCache.remove(id);
-                }
-            }
-            if (totalHits > pageSize) {
-                offset += pageSize + 1;
+        Cache<String, Boolean> channelsCache = datastoreCacheManager.getChannelsCache();
+        ChannelInfoListResult channels;
+        do {
+            channels = channelInfoRepository.query(channelQuery);
+            for (ChannelInfo channelInfo : channels.getItems()) {
+                channelsCache.remove(channelInfo.getId().toString());
             }
-        }
+            channelQuery.setSearchAfter((String) channels.getNextKey());
+        } while (channels.getNextKey() != null);
 
         LOG.debug("Removed cached channels for: {}", channel);
         channelInfoRepository.delete(channelQuery);
@@ -449,29 +731,20 @@ public final class MessageStoreFacadeImpl extends AbstractDatastoreFacade implem
         // Remove client
         if (isClientToDelete) {
             ClientInfoQueryImpl clientInfoQuery = new ClientInfoQueryImpl(scopeId);
-            clientInfoQuery.setLimit(pageSize + 1);
-            clientInfoQuery.setOffset(offset);
+            clientInfoQuery.setLimit(pageSize);
 
             channelPredicate = new ChannelMatchPredicateImpl(MessageField.CHANNEL, channel);
             clientInfoQuery.setPredicate(channelPredicate);
-            offset = 0;
-            totalHits = 1;
-            while (totalHits > 0) {
-                ClientInfoListResult clients = clientInfoRepository.query(clientInfoQuery);
-                totalHits = clients.getTotalCount();
-                LocalCache<String, Boolean> clientsCache = datastoreCacheManager.getClientsCache();
-                long toBeProcessed = totalHits > pageSize ? pageSize : totalHits;
-
-                for (int i = 0; i < toBeProcessed; i++) {
-                    String id = clients.getItem(i).getId().toString();
-                    if (clientsCache.get(id)) {
-                        clientsCache.remove(id);
-                    }
-                }
-                if (totalHits > pageSize) {
-                    offset += pageSize + 1;
+
+            Cache<String, Boolean> clientsCache = datastoreCacheManager.getClientsCache();
+            ClientInfoListResult clients;
+            do {
+                clients = clientInfoRepository.query(clientInfoQuery);
+                for (ClientInfo clientInfo : clients.getItems()) {
+                    clientsCache.remove(clientInfo.getClientId());
                 }
-            }
+                clientInfoQuery.setSearchAfter((String) clients.getNextKey());
+            } while (clients.getNextKey() != null);
 
             LOG.debug("Removed cached clients for: {}", channel);
             clientInfoRepository.delete(clientInfoQuery);
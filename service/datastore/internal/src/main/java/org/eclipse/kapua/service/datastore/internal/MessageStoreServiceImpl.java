@@ -27,6 +27,7 @@ import org.eclipse.kapua.service.authorization.AuthorizationService;
 import org.eclipse.kapua.service.authorization.permission.Permission;
 import org.eclipse.kapua.service.authorization.permission.PermissionFactory;
 import org.eclipse.kapua.service.datastore.MessageStoreService;
+import org.eclipse.kapua.service.datastore.exception.DatastoreBatchStoreException;
 import org.eclipse.kapua.service.datastore.internal.mediator.ConfigurationException;
 import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreCommunicationException;
 import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreException;
@@ -45,8 +46,13 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Message store service implementation.
@@ -139,6 +145,87 @@ public class MessageStoreServiceImpl extends KapuaConfigurableServiceBase implem
         }
     }
 
+    @Override
+    public List<StorableId> store(List<KapuaMessage<?, ?>> messages, List<String> datastoreIds)
+            throws KapuaException {
+        ArgumentValidator.notNull(messages, "messages");
+        ArgumentValidator.notNull(datastoreIds, "datastoreIds");
+        Context metricDataSaveTimeContext = metrics.getDataSaveTime().time();
+        try {
+            for (KapuaId scopeId : messages.stream().map(KapuaMessage::getScopeId).collect(Collectors.toSet())) {
+                checkDataAccess(scopeId, Actions.write);
+            }
+            metrics.getMessage().inc(messages.size());
+            return messageStoreFacade.store(messages, datastoreIds, false);
+        } catch (Exception e) {
+            throw toBatchStoreException(e);
+        } finally {
+            metricDataSaveTimeContext.stop();
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<StorableId>> storeAsync(List<KapuaMessage<?, ?>> messages, List<String> datastoreIds)
+            throws KapuaException {
+        ArgumentValidator.notNull(messages, "messages");
+        ArgumentValidator.notNull(datastoreIds, "datastoreIds");
+        Context metricDataSaveTimeContext = metrics.getDataSaveTime().time();
+        final CompletableFuture<List<StorableId>> storeFuture;
+        try {
+            for (KapuaId scopeId : messages.stream().map(KapuaMessage::getScopeId).collect(Collectors.toSet())) {
+                checkDataAccess(scopeId, Actions.write);
+            }
+            metrics.getMessage().inc(messages.size());
+            storeFuture = messageStoreFacade.storeAsync(messages, datastoreIds, false);
+        } catch (Exception e) {
+            metricDataSaveTimeContext.stop();
+            throw toBatchStoreException(e);
+        }
+
+        final CompletableFuture<List<StorableId>> resultFuture = new CompletableFuture<>();
+        storeFuture.whenComplete((storableIds, throwable) -> {
+            metricDataSaveTimeContext.stop();
+            if (throwable == null) {
+                resultFuture.complete(storableIds);
+            } else {
+                resultFuture.completeExceptionally(toBatchStoreException(throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable));
+            }
+        });
+        return resultFuture;
+    }
+
+    /**
+     * Maps a failure of a batch store to the {@link KapuaException} to report, updating the error metrics.
+     *
+     * @param throwable The failure of the batch store.
+     * @return The {@link KapuaException} to report.
+     * @since 2.1.0
+     */
+    private KapuaException toBatchStoreException(Throwable throwable) {
+        if (throwable instanceof DatastoreBatchStoreException) {
+            for (KapuaException failure : ((DatastoreBatchStoreException) throwable).getFailures().values()) {
+                if (failure instanceof ConfigurationException) {
+                    metrics.getConfigurationError().inc();
+                } else if (failure instanceof KapuaIllegalArgumentException) {
+                    metrics.getValidationError().inc();
+                } else {
+                    metrics.getGenericError().inc();
+                }
+            }
+            return (DatastoreBatchStoreException) throwable;
+        } else if (throwable instanceof KapuaIllegalArgumentException) {
+            metrics.getValidationError().inc();
+            return (KapuaIllegalArgumentException) throwable;
+        } else if (throwable instanceof ClientCommunicationException) {
+            metrics.getCommunicationError().inc();
+            return new DatastoreCommunicationException(null, throwable);
+        } else {
+            metrics.getGenericError().inc();
+            logException(throwable);
+            return new DatastoreException(KapuaErrorCodes.INTERNAL_ERROR, throwable, throwable.getMessage());
+        }
+    }
+
     @Override
     public DatastoreMessage find(KapuaId scopeId, StorableId id) throws KapuaException {
         return find(scopeId, id, StorableFetchStyle.SOURCE_FULL);
@@ -159,11 +246,7 @@ public class MessageStoreServiceImpl extends KapuaConfigurableServiceBase implem
     public MessageListResult query(MessageQuery query)
             throws KapuaException {
         checkDataAccess(query.getScopeId(), Actions.read);
-        if (query.getLimit() != null && query.getOffset() != null) {
-            ArgumentValidator.notNegative(query.getLimit(), "limit");
-            ArgumentValidator.notNegative(query.getOffset(), "offset");
-            ArgumentValidator.numLessThenOrEqual(query.getLimit() + query.getOffset(), maxResultWindowValue, "limit + offset");
-        }
+        checkResultWindow(query);
         try {
             return messageStoreFacade.query(query);
         } catch (Exception e) {
@@ -176,6 +259,46 @@ public class MessageStoreServiceImpl extends KapuaConfigurableServiceBase implem
         }
     }
 
+    @Override
+    public MessageListResult query(MessageQuery query, Consumer<DatastoreMessage> messageConsumer)
+            throws KapuaException {
+        checkDataAccess(query.getScopeId(), Actions.read);
+        checkResultWindow(query);
+        try {
+            return messageStoreFacade.query(query, messageConsumer);
+        } catch (Exception e) {
+            logException(e);
+            throw new DatastoreException(
+                    KapuaErrorCodes.INTERNAL_ERROR,
+                    e,
+                    Optional.ofNullable(e.getCause()).flatMap(c -> Optional.ofNullable(c.getMessage())).orElse(e.getMessage())
+            );
+        }
+    }
+
+    /**
+     * Checks that the page of the {@link MessageQuery} is within the {@link DatastoreSettingsKey#MAX_RESULT_WINDOW_VALUE}.
+     * <p>
+     * A page resumed from a {@link MessageQuery#getSearchAfter()} cursor ignores the offset,
+     * so only its limit must be within the window however deep the page is.
+     *
+     * @param query The {@link MessageQuery} to check.
+     * @throws KapuaException If the page is not within the window.
+     * @since 2.1.0
+     */
+    private void checkResultWindow(MessageQuery query) throws KapuaException {
+        if (query.getSearchAfter() != null) {
+            if (query.getLimit() != null) {
+                ArgumentValidator.notNegative(query.getLimit(), "limit");
+                ArgumentValidator.numLessThenOrEqual(query.getLimit(), maxResultWindowValue, "limit");
+            }
+        } else if (query.getLimit() != null && query.getOffset() != null) {
+            ArgumentValidator.notNegative(query.getLimit(), "limit");
+            ArgumentValidator.notNegative(query.getOffset(), "offset");
+            ArgumentValidator.numLessThenOrEqual(query.getLimit() + query.getOffset(), maxResultWindowValue, "limit + offset");
+        }
+    }
+
     @Override
     public long count(MessageQuery query)
             throws KapuaException {
@@ -222,7 +345,7 @@ public class MessageStoreServiceImpl extends KapuaConfigurableServiceBase implem
         authorizationService.checkPermission(permission);
     }
 
-    private void logException(Exception e) {
+    private void logException(Throwable e) {
         if (e instanceof RuntimeException) {
             logger.debug("", e);
         }
@@ -33,8 +33,12 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Metric information registry facade
@@ -107,7 +111,10 @@ public class MetricInfoRegistryFacadeImpl extends AbstractDatastoreFacade implem
     }
 
     /**
-     * Update the metrics informations after a message store operation (for few metrics)
+     * Update the metrics informations after one or more message store operations.
+     * <p>
+     * {@link MetricInfo}s are deduplicated by their id, the ones which are not cached are looked up with a single ids query for each scope
+     * and the missing ones are stored with a single bulk request.
      *
      * @param metricInfos
      * @throws KapuaIllegalArgumentException
@@ -122,20 +129,27 @@ public class MetricInfoRegistryFacadeImpl extends AbstractDatastoreFacade implem
             MappingException {
         ArgumentValidator.notNull(metricInfos, "metricInfos");
 
-        // Create a bulk request
-        final List<MetricInfo> toUpsert = new ArrayList<>();
+        // Collect the MetricInfos which are not cached, grouped by scope. The first MetricInfo for an id wins.
+        final Map<KapuaId, Map<String, MetricInfo>> notCachedByScope = new HashMap<>();
         for (MetricInfo metricInfo : metricInfos) {
             String metricInfoId = MetricInfoField.getOrDeriveId(metricInfo.getId(), metricInfo);
-            // fix #REPLACE_ISSUE_NUMBER
             if (!datastoreCacheManager.getMetricsCache().get(metricInfoId)) {
-                StorableId storableId = storableIdFactory.newStorableId(metricInfoId);
-                MetricInfo storedField = doFind(metricInfo.getScopeId(), storableId);
-                if (storedField != null) {
+                notCachedByScope.computeIfAbsent(metricInfo.getScopeId(), scopeId -> new LinkedHashMap<>()).putIfAbsent(metricInfoId, metricInfo);
+            }
+        }
+
+        // Look up the MetricInfos which are already stored with a single ids query for each scope
+        final List<MetricInfo> toUpsert = new ArrayList<>();
+        for (Map.Entry<KapuaId, Map<String, MetricInfo>> notCached : notCachedByScope.entrySet()) {
+            final Map<String, MetricInfo> notCachedById = notCached.getValue();
+            final List<StorableId> storableIds = notCachedById.keySet().stream().map(storableIdFactory::newStorableId).collect(Collectors.toList());
+            for (MetricInfo storedField : repository.find(notCached.getKey(), storableIds).getItems()) {
+                String metricInfoId = storedField.getId().toString();
+                if (notCachedById.remove(metricInfoId) != null) {
                     datastoreCacheManager.getMetricsCache().put(metricInfoId, true);
-                    continue;
                 }
-                toUpsert.add(metricInfo);
             }
+            toUpsert.addAll(notCachedById.values());
         }
 
         final Set<String> changedIds;
@@ -27,6 +27,9 @@ public class MetricsDatastore {
     private static final String STORE = "store";
     private static final String PROCESSED = "processed";
     private static final String DUPLICATED_STORE = "duplicated_store";
+    private static final String MAPPING_UPDATE = "mapping_update";
+    private static final String ISSUED = "issued";
+    private static final String SUPPRESSED = "suppressed";
 
     private Counter alreadyInTheDatastore;
 
@@ -41,6 +44,9 @@ public class MetricsDatastore {
     private final Counter processedCommunicationError;
     private final Counter processedConfigurationError;
     private final Counter processedGenericError;
+    // mapping updates counters
+    private final Counter mappingUpdateIssued;
+    private final Counter mappingUpdateSuppressed;
 
     @Inject
     public MetricsDatastore(MetricsService metricsService) {
@@ -60,6 +66,10 @@ public class MetricsDatastore {
 
         // store timers
         dataSaveTime = metricsService.getTimer(CONSUMER_TELEMETRY, STORE, MetricsLabel.TIME, MetricsLabel.SECONDS);
+
+        // mapping updates
+        mappingUpdateIssued = metricsService.getCounter(CONSUMER_TELEMETRY, MAPPING_UPDATE, ISSUED);
+        mappingUpdateSuppressed = metricsService.getCounter(CONSUMER_TELEMETRY, MAPPING_UPDATE, SUPPRESSED);
     }
 
     public Counter getAlreadyInTheDatastore() {
@@ -102,4 +112,12 @@ public class MetricsDatastore {
         return processedGenericError;
     }
 
+    public Counter getMappingUpdateIssued() {
+        return mappingUpdateIssued;
+    }
+
+    public Counter getMappingUpdateSuppressed() {
+        return mappingUpdateSuppressed;
+    }
+
 }
@@ -13,6 +13,7 @@
 package org.eclipse.kapua.service.datastore.internal.converter;
 
 import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.eclipse.kapua.commons.model.id.KapuaEid;
 import org.eclipse.kapua.commons.util.KapuaDateUtils;
 import org.eclipse.kapua.message.KapuaPayload;
@@ -43,12 +44,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
+import java.io.IOException;
 import java.math.BigInteger;
 import java.text.ParseException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -125,6 +129,36 @@ public class ModelContextImpl implements ModelContext {
         throw new DatamodelMappingException(String.format(UNSUPPORTED_OBJECT_TYPE_ERROR_MSG, object.getClass().getName())); // FIXME: create specific exception and remove String.format
     }
 
+    @Override
+    public void marshal(Object object, JsonGenerator generator) throws DatamodelMappingException, IOException {
+        if (object == null) {
+            throw new DatamodelMappingException(MARSHAL_INVALID_PARAMETERS_ERROR_MSG);
+        }
+
+        try {
+            if (object instanceof DatastoreMessage) {
+                writeDatastoreMessage((DatastoreMessage) object, generator);
+                return;
+            }
+            if (object instanceof ClientInfo) {
+                writeClientInfo((ClientInfo) object, generator);
+                return;
+            }
+            if (object instanceof ChannelInfo) {
+                writeChannelInfo((ChannelInfo) object, generator);
+                return;
+            }
+            if (object instanceof MetricInfo) {
+                writeMetricInfo((MetricInfo) object, generator);
+                return;
+            }
+        } catch (ParseException e) {
+            throw new DatamodelMappingException(e, "Date conversion error");
+        }
+
+        throw new DatamodelMappingException(String.format(UNSUPPORTED_OBJECT_TYPE_ERROR_MSG, object.getClass().getName())); // FIXME: create specific exception and remove String.format
+    }
+
     /**
      * Unmarshals the {@link DatastoreMessage}.
      *
@@ -415,6 +449,118 @@ public class ModelContextImpl implements ModelContext {
         return unmarshalledMetricInfo;
     }
 
+    /**
+     * Writes the {@link DatastoreMessage} as {@link #marshalDatastoreMessage(DatastoreMessage)} marshals it.
+     *
+     * @param message   The {@link DatastoreMessage}.
+     * @param generator The {@link JsonGenerator} to write to.
+     * @throws ParseException
+     * @throws IOException
+     * @since 2.1.0
+     */
+    private void writeDatastoreMessage(DatastoreMessage message, JsonGenerator generator) throws ParseException, IOException {
+        generator.writeStartObject();
+        // Message
+        if (message.getId() != null) {
+            generator.writeStringField(MessageSchema.MESSAGE_ID, message.getId().toString());
+        }
+        generator.writeStringField(MessageSchema.MESSAGE_TIMESTAMP, KapuaDateUtils.formatDate(message.getTimestamp()));
+        generator.writeStringField(MessageSchema.MESSAGE_RECEIVED_ON, KapuaDateUtils.formatDate(message.getReceivedOn()));
+        generator.writeStringField(MessageSchema.MESSAGE_IP_ADDRESS, "127.0.0.1"); // FIXME: support this or remove?
+        generator.writeStringField(MessageSchema.MESSAGE_SCOPE_ID, message.getScopeId().toStringId());
+        generator.writeStringField(MessageSchema.MESSAGE_DEVICE_ID, message.getDeviceId() == null ? null : message.getDeviceId().toStringId());
+        generator.writeStringField(MessageSchema.MESSAGE_CLIENT_ID, message.getClientId());
+        // Channel
+        generator.writeStringField(MessageSchema.MESSAGE_CHANNEL, message.getChannel().toString());
+        generator.writeObjectField(MessageSchema.MESSAGE_CHANNEL_PARTS, message.getChannel().getSemanticParts());
+        generator.writeStringField(MessageSchema.MESSAGE_CAPTURED_ON, KapuaDateUtils.formatDate(message.getCapturedOn()));
+        generator.writeStringField(MessageSchema.MESSAGE_SENT_ON, KapuaDateUtils.formatDate(message.getSentOn()));
+        // Position
+        KapuaPosition kapuaPosition = message.getPosition();
+        if (kapuaPosition != null) {
+            generator.writeObjectFieldStart(MessageSchema.MESSAGE_POSITION);
+            if (kapuaPosition.getLongitude() != null && kapuaPosition.getLatitude() != null) {
+                generator.writeObjectFieldStart(MessageSchema.MESSAGE_POS_LOCATION);
+                generator.writeNumberField(MessageSchema.MESSAGE_POSITION_LONGITUDE, kapuaPosition.getLongitude());
+                generator.writeNumberField(MessageSchema.MESSAGE_POSITION_LATITUDE, kapuaPosition.getLatitude());
+                generator.writeEndObject();
+            } else {
+                generator.writeNullField(MessageSchema.MESSAGE_POS_LOCATION);
+            }
+            generator.writeObjectField(MessageSchema.MESSAGE_POS_ALT, kapuaPosition.getAltitude());
+            generator.writeObjectField(MessageSchema.MESSAGE_POS_PRECISION, kapuaPosition.getPrecision());
+            generator.writeObjectField(MessageSchema.MESSAGE_POS_HEADING, kapuaPosition.getHeading());
+            generator.writeObjectField(MessageSchema.MESSAGE_POS_SPEED, kapuaPosition.getSpeed());
+            generator.writeStringField(MessageSchema.MESSAGE_POS_TIMESTAMP, KapuaDateUtils.formatDate(kapuaPosition.getTimestamp()));
+            generator.writeObjectField(MessageSchema.MESSAGE_POS_SATELLITES, kapuaPosition.getSatellites());
+            generator.writeObjectField(MessageSchema.MESSAGE_POS_STATUS, kapuaPosition.getStatus());
+            generator.writeEndObject();
+        }
+        // Payload
+        KapuaPayload payload = message.getPayload();
+        if (payload != null) {
+            generator.writeObjectField(MessageSchema.MESSAGE_BODY, payload.getBody());
+            Map<String, Object> kapuaMetrics = payload.getMetrics();
+            if (kapuaMetrics != null) {
+                generator.writeObjectFieldStart(MessageSchema.MESSAGE_METRICS);
+                // Normalized names may collide, while a document cannot have duplicated fields
+                Set<String> metricNames = kapuaMetrics.size() > 1 ? new HashSet<>(kapuaMetrics.size() * 2) : null;
+                for (Map.Entry<String, Object> kapuaMetric : kapuaMetrics.entrySet()) {
+                    Object metricValue = kapuaMetric.getValue();
+                    // Sanitize field names: '.' is not allowed
+                    String metricName = datastoreUtils.normalizeMetricName(kapuaMetric.getKey());
+                    if (metricNames != null && !metricNames.add(metricName)) {
+                        continue;
+                    }
+                    String clientMetricType = datastoreUtils.getClientMetricFromType(metricValue.getClass());
+                    String clientMetricTypeAcronym = datastoreUtils.getClientMetricFromAcronym(clientMetricType);
+                    generator.writeObjectFieldStart(metricName);
+                    if (datastoreUtils.isDateMetric(clientMetricTypeAcronym) && metricValue instanceof Date) {
+                        generator.writeStringField(clientMetricTypeAcronym, KapuaDateUtils.formatDate((Date) metricValue));
+                    } else {
+                        generator.writeObjectField(clientMetricTypeAcronym, metricValue);
+                    }
+                    generator.writeEndObject();
+                }
+                generator.writeEndObject();
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeClientInfo(ClientInfo clientInfo, JsonGenerator generator) throws ParseException, IOException {
+        generator.writeStartObject();
+        generator.writeStringField(ClientInfoSchema.CLIENT_ID, clientInfo.getClientId());
+        generator.writeStringField(ClientInfoSchema.CLIENT_MESSAGE_ID, clientInfo.getFirstMessageId().toString());
+        generator.writeStringField(ClientInfoSchema.CLIENT_TIMESTAMP, KapuaDateUtils.formatDate(clientInfo.getFirstMessageOn()));
+        generator.writeStringField(ClientInfoSchema.CLIENT_SCOPE_ID, clientInfo.getScopeId().toStringId());
+        generator.writeEndObject();
+    }
+
+    private void writeChannelInfo(ChannelInfo channelInfo, JsonGenerator generator) throws ParseException, IOException {
+        generator.writeStartObject();
+        generator.writeStringField(ChannelInfoSchema.CHANNEL_NAME, channelInfo.getName());
+        generator.writeStringField(ChannelInfoSchema.CHANNEL_TIMESTAMP, KapuaDateUtils.formatDate(channelInfo.getFirstMessageOn()));
+        generator.writeStringField(ChannelInfoSchema.CHANNEL_CLIENT_ID, channelInfo.getClientId());
+        generator.writeStringField(ChannelInfoSchema.CHANNEL_SCOPE_ID, channelInfo.getScopeId().toStringId());
+        generator.writeStringField(ChannelInfoSchema.CHANNEL_MESSAGE_ID, channelInfo.getFirstMessageId().toString());
+        generator.writeEndObject();
+    }
+
+    private void writeMetricInfo(MetricInfo metricInfo, JsonGenerator generator) throws ParseException, IOException {
+        generator.writeStartObject();
+        generator.writeStringField(MetricInfoSchema.METRIC_SCOPE_ID, metricInfo.getScopeId().toStringId());
+        generator.writeStringField(MetricInfoSchema.METRIC_CLIENT_ID, metricInfo.getClientId());
+        generator.writeStringField(MetricInfoSchema.METRIC_CHANNEL, metricInfo.getChannel());
+        generator.writeObjectFieldStart(MetricInfoSchema.METRIC_MTR);
+        generator.writeStringField(MetricInfoSchema.METRIC_MTR_NAME, metricInfo.getName());
+        generator.writeStringField(MetricInfoSchema.METRIC_MTR_TYPE, datastoreUtils.convertToClientMetricType(metricInfo.getMetricType()));
+        generator.writeStringField(MetricInfoSchema.METRIC_MTR_TIMESTAMP, KapuaDateUtils.formatDate(metricInfo.getFirstMessageOn()));
+        generator.writeStringField(MetricInfoSchema.METRIC_MTR_MSG_ID, metricInfo.getFirstMessageId().toString());
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
     private StorableFetchStyle getStorableFetchStyle(Map<String, Object> objectMap) {
         Object storableFetchStyle = objectMap.get(QueryConverter.QUERY_FETCH_STYLE_KEY);
         if (storableFetchStyle instanceof StorableFetchStyle) {
@@ -18,12 +18,15 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.eclipse.kapua.service.elasticsearch.client.QueryConverter;
 import org.eclipse.kapua.service.elasticsearch.client.SchemaKeys;
 import org.eclipse.kapua.service.elasticsearch.client.exception.QueryMappingException;
+import org.eclipse.kapua.service.elasticsearch.client.utils.SearchAfterCursor;
 import org.eclipse.kapua.service.storable.exception.MappingException;
 import org.eclipse.kapua.service.storable.model.query.SortField;
 import org.eclipse.kapua.service.storable.model.query.StorableQuery;
 import org.eclipse.kapua.service.storable.model.utils.MappingUtils;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Query converter implementation
@@ -55,17 +58,34 @@ public class QueryConverterImpl implements QueryConverter {
 
             // sort
             ArrayNode sortNode = MappingUtils.newArrayNode();
+            Set<String> sortFieldNames = new HashSet<>();
             List<SortField> sortFields = storableQuery.getSortFields();
             if (sortFields != null) {
                 for (SortField field : sortFields) {
                     sortNode.add(MappingUtils.newObjectNode(field.getField(), field.getSortDirection().name()));
+                    sortFieldNames.add(field.getField());
+                }
+            }
+            // tiebreakers make the order unique, so that a page can be resumed with search_after
+            for (SortField field : storableQuery.getTiebreakerSortFields()) {
+                if (sortFieldNames.add(field.getField())) {
+                    sortNode.add(MappingUtils.newObjectNode(field.getField(), field.getSortDirection().name()));
                 }
             }
 
             // offset and limit settings
-            Integer offset = storableQuery.getOffset();
-            if (offset != null) {
-                rootNode.set(SchemaKeys.KEY_FROM, MappingUtils.newNumericNode(offset));
+            String searchAfter = storableQuery.getSearchAfter();
+            if (searchAfter != null) {
+                ArrayNode searchAfterNode = MappingUtils.newArrayNode();
+                for (Object sortValue : SearchAfterCursor.decode(searchAfter)) {
+                    searchAfterNode.addPOJO(sortValue);
+                }
+                rootNode.set(SchemaKeys.KEY_SEARCH_AFTER, searchAfterNode);
+            } else {
+                Integer offset = storableQuery.getOffset();
+                if (offset != null) {
+                    rootNode.set(SchemaKeys.KEY_FROM, MappingUtils.newNumericNode(offset));
+                }
             }
             Integer limit = storableQuery.getLimit();
             if (limit != null) {
@@ -75,6 +95,8 @@ public class QueryConverterImpl implements QueryConverter {
             return rootNode;
         } catch (MappingException me) {
             throw new QueryMappingException(me, "Cannot convert Storable Query");
+        } catch (IllegalArgumentException iae) {
+            throw new QueryMappingException(iae, "Cannot convert Storable Query search-after cursor");
         }
     }
 
@@ -85,7 +85,7 @@ public enum ChannelInfoField implements StorableField {
     private static String getOrDeriveId(StorableId id, KapuaId scopeId, String clientId, String channel) {
         if (id == null) {
             //TODO: FIXME: REMOVE: A collaborator in a data class? Behaviour should not be part of a data class!
-            return KapuaLocator.getInstance().getComponent(DatastoreUtils.class).getHashCode(scopeId.toCompactId(), clientId, channel);
+            return KapuaLocator.getInstance().getComponent(RegistryIdDeriver.class).deriveChannelInfoId(scopeId, clientId, channel);
         } else {
             return id.toString();
         }
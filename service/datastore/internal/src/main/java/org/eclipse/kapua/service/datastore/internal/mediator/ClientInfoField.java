@@ -77,7 +77,7 @@ public enum ClientInfoField implements StorableField {
     public static String getOrDeriveId(StorableId id, KapuaId scopeId, String clientId) {
         if (id == null) {
             //TODO: FIXME: REMOVE: A collaborator in a data class? Behaviour should not be part of a data class!
-            return KapuaLocator.getInstance().getComponent(DatastoreUtils.class).getHashCode(scopeId.toCompactId(), clientId);
+            return KapuaLocator.getInstance().getComponent(RegistryIdDeriver.class).deriveClientInfoId(scopeId, clientId);
         } else {
             return id.toString();
         }
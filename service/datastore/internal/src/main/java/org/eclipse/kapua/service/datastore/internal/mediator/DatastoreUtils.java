@@ -161,6 +161,38 @@ public class DatastoreUtils extends AbstractStoreUtils {
         }
         final String actualName = normalizedIndexName(scopeId.toStringId());
         sb.append(actualName).append('-').append("data-message").append('-');
+        sb.append(getDataIndexSuffix(timestamp, indexingWindowOption));
+        return sb.toString();
+    }
+
+    /**
+     * Get the data indexes of all the scopes for the specified timestamp
+     *
+     * @param timestamp            The timestamp of the indexing window.
+     * @param indexingWindowOption The indexing window.
+     * @return The expression matching the data indexes of all the scopes for the indexing window.
+     * @since 2.1.0
+     */
+    public String getDataIndexesName(long timestamp, String indexingWindowOption) {
+        final StringBuilder sb = new StringBuilder();
+        final String prefix = datastoreSettings.getString(DatastoreSettingsKey.INDEX_PREFIX);
+        if (StringUtils.isNotEmpty(prefix)) {
+            sb.append(prefix).append("-");
+        }
+        sb.append("*-").append("data-message").append('-');
+        sb.append(getDataIndexSuffix(timestamp, indexingWindowOption));
+        return sb.toString();
+    }
+
+    /**
+     * Get the suffix of the data indexes for the specified timestamp
+     *
+     * @param timestamp            The timestamp of the indexing window.
+     * @param indexingWindowOption The indexing window.
+     * @return The suffix which identifies the indexing window in the data index names.
+     * @since 2.1.0
+     */
+    public String getDataIndexSuffix(long timestamp, String indexingWindowOption) {
         DateTimeFormatter formatter;
         switch (indexingWindowOption) {
             default:
@@ -174,8 +206,7 @@ public class DatastoreUtils extends AbstractStoreUtils {
                 formatter = dataIndexFormatterHour;
                 break;
         }
-        formatter.formatTo(Instant.ofEpochMilli(timestamp).atOffset(ZoneOffset.UTC), sb);
-        return sb.toString();
+        return formatter.format(Instant.ofEpochMilli(timestamp).atOffset(ZoneOffset.UTC));
     }
 
     public String getChannelIndexName(KapuaId scopeId) {
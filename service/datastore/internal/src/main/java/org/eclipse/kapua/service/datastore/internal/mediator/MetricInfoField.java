@@ -109,10 +109,7 @@ public enum MetricInfoField implements StorableField {
     private static String getOrDeriveId(StorableId id, KapuaId scopeId, String clientId, String channel, String metricName, Class<?> metricType) {
         if (id == null) {
             //TODO: FIXME: REMOVE: A collaborator in a data class? Behaviour should not be part of a data class!
-            final DatastoreUtils datastoreUtils = KapuaLocator.getInstance().getComponent(DatastoreUtils.class);
-            String metricMappedName = datastoreUtils.getMetricValueQualifier(metricName, datastoreUtils.convertToClientMetricType(metricType));
-
-            return datastoreUtils.getHashCode(scopeId.toCompactId(), clientId, channel, metricMappedName);
+            return KapuaLocator.getInstance().getComponent(RegistryIdDeriver.class).deriveMetricInfoId(scopeId, clientId, channel, metricName, metricType);
         } else {
             return id.toString();
         }
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal.mediator;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettingsKey;
+import org.eclipse.kapua.service.datastore.model.ChannelInfo;
+import org.eclipse.kapua.service.datastore.model.ClientInfo;
+import org.eclipse.kapua.service.datastore.model.MetricInfo;
+
+import javax.inject.Inject;
+import java.util.Objects;
+
+/**
+ * Derives the ids of {@link ClientInfo}s, {@link ChannelInfo}s and {@link MetricInfo}s.
+ * <p>
+ * Derived ids are hashes of the registry entry coordinates and the same coordinates are seen over and over by the store operations,
+ * so the derived ids are memoized in a bounded table.
+ *
+ * @since 2.1.0
+ */
+public class RegistryIdDeriver {
+
+    private final DatastoreUtils datastoreUtils;
+    private final Cache<DerivedIdKey, String> derivedIds;
+
+    @Inject
+    public RegistryIdDeriver(DatastoreUtils datastoreUtils, DatastoreSettings datastoreSettings) {
+        this.datastoreUtils = datastoreUtils;
+        this.derivedIds = CacheBuilder.newBuilder()
+                .maximumSize(datastoreSettings.getInt(DatastoreSettingsKey.CONFIG_CACHE_DERIVED_ID_SIZE_MAXIMUM, 10000))
+                .build();
+    }
+
+    /**
+     * Derives the {@link ClientInfo} id.
+     *
+     * @param scopeId  The {@link ClientInfo#getScopeId()}.
+     * @param clientId The {@link ClientInfo#getClientId()}.
+     * @return The derived id.
+     * @since 2.1.0
+     */
+    public String deriveClientInfoId(KapuaId scopeId, String clientId) {
+        final DerivedIdKey key = new DerivedIdKey(scopeId, clientId, null, null, null);
+        String derivedId = derivedIds.getIfPresent(key);
+        if (derivedId == null) {
+            derivedId = datastoreUtils.getHashCode(scopeId.toCompactId(), clientId);
+            derivedIds.put(key, derivedId);
+        }
+        return derivedId;
+    }
+
+    /**
+     * Derives the {@link ChannelInfo} id.
+     *
+     * @param scopeId  The {@link ChannelInfo#getScopeId()}.
+     * @param clientId The {@link ChannelInfo#getClientId()}.
+     * @param channel  The {@link ChannelInfo#getName()}.
+     * @return The derived id.
+     * @since 2.1.0
+     */
+    public String deriveChannelInfoId(KapuaId scopeId, String clientId, String channel) {
+        final DerivedIdKey key = new DerivedIdKey(scopeId, clientId, channel, null, null);
+        String derivedId = derivedIds.getIfPresent(key);
+        if (derivedId == null) {
+            derivedId = datastoreUtils.getHashCode(scopeId.toCompactId(), clientId, channel);
+            derivedIds.put(key, derivedId);
+        }
+        return derivedId;
+    }
+
+    /**
+     * Derives the {@link MetricInfo} id.
+     *
+     * @param scopeId    The {@link MetricInfo#getScopeId()}.
+     * @param clientId   The {@link MetricInfo#getClientId()}.
+     * @param channel    The {@link MetricInfo#getChannel()}.
+     * @param metricName The {@link MetricInfo#getName()}.
+     * @param metricType The {@link MetricInfo#getMetricType()}.
+     * @return The derived id.
+     * @since 2.1.0
+     */
+    public String deriveMetricInfoId(KapuaId scopeId, String clientId, String channel, String metricName, Class<?> metricType) {
+        final DerivedIdKey key = new DerivedIdKey(scopeId, clientId, channel, metricName, metricType);
+        String derivedId = derivedIds.getIfPresent(key);
+        if (derivedId == null) {
+            String metricMappedName = datastoreUtils.getMetricValueQualifier(metricName, datastoreUtils.convertToClientMetricType(metricType));
+            derivedId = datastoreUtils.getHashCode(scopeId.toCompactId(), clientId, channel, metricMappedName);
+            derivedIds.put(key, derivedId);
+        }
+        return derivedId;
+    }
+
+    /**
+     * Coordinates of a registry entry.
+     * <p>
+     * Client keys have no channel and channel keys have no metric name, so the keys of different registries never collide.
+     *
+     * @since 2.1.0
+     */
+    private static final class DerivedIdKey {
+
+        private final KapuaId scopeId;
+        private final String clientId;
+        private final String channel;
+        private final String metricName;
+        private final Class<?> metricType;
+        private final int hashCode;
+
+        DerivedIdKey(KapuaId scopeId, String clientId, String channel, String metricName, Class<?> metricType) {
+            this.scopeId = scopeId;
+            this.clientId = clientId;
+            this.channel = channel;
+            this.metricName = metricName;
+            this.metricType = metricType;
+            this.hashCode = Objects.hash(scopeId, clientId, channel, metricName, metricType);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DerivedIdKey)) {
+                return false;
+            }
+            DerivedIdKey other = (DerivedIdKey) o;
+            return hashCode == other.hashCode &&
+                    Objects.equals(scopeId, other.scopeId) &&
+                    Objects.equals(clientId, other.clientId) &&
+                    Objects.equals(channel, other.channel) &&
+                    Objects.equals(metricName, other.metricName) &&
+                    metricType == other.metricType;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -20,7 +20,9 @@ import org.eclipse.kapua.service.storable.model.query.AbstractStorableQuery;
 import org.eclipse.kapua.service.storable.model.query.SortField;
 import org.eclipse.kapua.service.storable.model.query.StorableFetchStyle;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 /**
  * {@link ChannelInfoQuery} implementation.
@@ -29,6 +31,11 @@ import java.util.Collections;
  */
 public class ChannelInfoQueryImpl extends AbstractStorableQuery implements ChannelInfoQuery {
 
+    private static final List<SortField> TIEBREAKER_SORT_FIELDS = Collections.unmodifiableList(Arrays.asList(
+            SortField.ascending(ChannelInfoSchema.CHANNEL_SCOPE_ID),
+            SortField.ascending(ChannelInfoSchema.CHANNEL_CLIENT_ID),
+            SortField.ascending(ChannelInfoSchema.CHANNEL_NAME)));
+
     /**
      * Constructor.
      *
@@ -41,6 +48,11 @@ public class ChannelInfoQueryImpl extends AbstractStorableQuery implements Chann
         setSortFields(Collections.singletonList(SortField.ascending(ChannelInfoSchema.CHANNEL_NAME)));
     }
 
+    @Override
+    public List<SortField> getTiebreakerSortFields() {
+        return TIEBREAKER_SORT_FIELDS;
+    }
+
     @Override
     public String[] getIncludes(StorableFetchStyle fetchStyle) {
         return new String[]{"*"};
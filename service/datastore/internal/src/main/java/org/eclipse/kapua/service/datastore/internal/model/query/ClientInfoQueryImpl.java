@@ -20,7 +20,9 @@ import org.eclipse.kapua.service.storable.model.query.AbstractStorableQuery;
 import org.eclipse.kapua.service.storable.model.query.SortField;
 import org.eclipse.kapua.service.storable.model.query.StorableFetchStyle;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 /**
  * {@link ClientInfoQuery} implementation.
@@ -29,6 +31,10 @@ import java.util.Collections;
  */
 public class ClientInfoQueryImpl extends AbstractStorableQuery implements ClientInfoQuery {
 
+    private static final List<SortField> TIEBREAKER_SORT_FIELDS = Collections.unmodifiableList(Arrays.asList(
+            SortField.ascending(ClientInfoSchema.CLIENT_SCOPE_ID),
+            SortField.ascending(ClientInfoSchema.CLIENT_ID)));
+
     /**
      * Constructor.
      *
@@ -41,6 +47,11 @@ public class ClientInfoQueryImpl extends AbstractStorableQuery implements Client
         setSortFields(Collections.singletonList(SortField.ascending(ClientInfoSchema.CLIENT_ID)));
     }
 
+    @Override
+    public List<SortField> getTiebreakerSortFields() {
+        return TIEBREAKER_SORT_FIELDS;
+    }
+
     @Override
     public String[] getIncludes(StorableFetchStyle fetchStyle) {
         return new String[]{"*"};
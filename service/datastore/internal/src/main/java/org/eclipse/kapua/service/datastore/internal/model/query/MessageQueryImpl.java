@@ -21,6 +21,7 @@ import org.eclipse.kapua.service.storable.model.query.SortField;
 import org.eclipse.kapua.service.storable.model.query.StorableFetchStyle;
 
 import java.util.Collections;
+import java.util.List;
 
 /**
  * {@link MessageQuery} implementation
@@ -29,6 +30,8 @@ import java.util.Collections;
  */
 public class MessageQueryImpl extends AbstractStorableQuery implements MessageQuery {
 
+    private static final List<SortField> TIEBREAKER_SORT_FIELDS = Collections.singletonList(SortField.ascending(MessageSchema.MESSAGE_ID));
+
     /**
      * Constructor.
      *
@@ -41,6 +44,11 @@ public class MessageQueryImpl extends AbstractStorableQuery implements MessageQu
         setSortFields(Collections.singletonList(SortField.descending(MessageSchema.MESSAGE_TIMESTAMP)));
     }
 
+    @Override
+    public List<SortField> getTiebreakerSortFields() {
+        return TIEBREAKER_SORT_FIELDS;
+    }
+
     @Override
     public String[] getIncludes(StorableFetchStyle fetchStyle) {
         // Fetch mode
@@ -20,7 +20,9 @@ import org.eclipse.kapua.service.storable.model.query.AbstractStorableQuery;
 import org.eclipse.kapua.service.storable.model.query.SortField;
 import org.eclipse.kapua.service.storable.model.query.StorableFetchStyle;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 /**
  * {@link MetricInfoQuery} implementation.
@@ -29,6 +31,13 @@ import java.util.Collections;
  */
 public class MetricInfoQueryImpl extends AbstractStorableQuery implements MetricInfoQuery {
 
+    private static final List<SortField> TIEBREAKER_SORT_FIELDS = Collections.unmodifiableList(Arrays.asList(
+            SortField.ascending(MetricInfoSchema.METRIC_SCOPE_ID),
+            SortField.ascending(MetricInfoSchema.METRIC_CLIENT_ID),
+            SortField.ascending(MetricInfoSchema.METRIC_CHANNEL),
+            SortField.ascending(MetricInfoSchema.METRIC_MTR_NAME_FULL),
+            SortField.ascending(MetricInfoSchema.METRIC_MTR_TYPE_FULL)));
+
     /**
      * Constructor.
      *
@@ -41,6 +50,11 @@ public class MetricInfoQueryImpl extends AbstractStorableQuery implements Metric
         setSortFields(Collections.singletonList(SortField.ascending(MetricInfoSchema.METRIC_MTR_NAME_FULL)));
     }
 
+    @Override
+    public List<SortField> getTiebreakerSortFields() {
+        return TIEBREAKER_SORT_FIELDS;
+    }
+
     @Override
     public String[] getIncludes(StorableFetchStyle fetchStyle) {
         return new String[]{"*"};
@@ -135,7 +135,19 @@ public enum DatastoreElasticsearchClientSettingsKey implements SettingKey {
      *
      * @since 2.1.0
      */
-    REQUEST_SOCKET_TIMEOUT_MILLIS("datastore.elasticsearch.request.socket.timeout.millis");
+    REQUEST_SOCKET_TIMEOUT_MILLIS("datastore.elasticsearch.request.socket.timeout.millis"),
+    /**
+     * Elasticsearch client max number of asynchronous requests in flight
+     *
+     * @since 2.1.0
+     */
+    REQUEST_IN_FLIGHT_MAX("datastore.elasticsearch.request.in_flight.max"),
+    /**
+     * Elasticsearch client max wait time for an asynchronous request to be sent when the max number of requests are already in flight (in milliseconds)
+     *
+     * @since 2.1.0
+     */
+    REQUEST_IN_FLIGHT_WAIT("datastore.elasticsearch.request.in_flight.wait");
 
     /**
      * The key value in the configuration resources.
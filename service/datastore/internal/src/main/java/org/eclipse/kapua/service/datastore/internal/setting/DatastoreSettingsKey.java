@@ -70,6 +70,19 @@ public enum DatastoreSettingsKey implements SettingKey {
      * Metadata cache maximum size (default value is no specific cache value is defined)
      */
     CONFIG_CACHE_METADATA_LOCAL_SIZE_MAXIMUM("datastore.cache.metadata.local.size.maximum"),
+    /**
+     * Backend of the clients, channels and metrics caches (either LOCAL or JCACHE). If omitted, LOCAL will be assumed.
+     * The JCACHE backend uses the configured JCache provider, so that known registry entries can be shared across the cluster.
+     */
+    CONFIG_CACHE_BACKEND("datastore.cache.backend"),
+    /**
+     * Maximum number of memoized registry entry derived ids
+     */
+    CONFIG_CACHE_DERIVED_ID_SIZE_MAXIMUM("datastore.cache.derived.id.size.maximum"),
+    /**
+     * Maximum number of registry entries loaded into each of the clients, channels and metrics caches at startup (0 disables the warm-up)
+     */
+    CONFIG_CACHE_WARMUP_SIZE("datastore.cache.warmup.size"),
     /**
      * Enable datastore timing profile
      */
@@ -102,6 +115,14 @@ public enum DatastoreSettingsKey implements SettingKey {
      * Elasticsearch index width. Allowed values: "week", "day", "hour"
      */
     INDEXING_WINDOW_OPTION("datastore.index.window"),
+    /**
+     * How long (in milliseconds) before the start of the next indexing window its data indexes are created (0 disables the provisioning)
+     */
+    INDEX_PROVISIONING_LEAD("datastore.index.provisioning.lead"),
+    /**
+     * How often (in milliseconds) the data indexes of the next indexing window are provisioned
+     */
+    INDEX_PROVISIONING_INTERVAL("datastore.index.provisioning.interval"),
     /**
      * Disables the entire Datastore feature
      */
@@ -109,7 +130,23 @@ public enum DatastoreSettingsKey implements SettingKey {
     /**
      * Elasticsearch limit+offset maximum value
      */
-    MAX_RESULT_WINDOW_VALUE("datastore.max_result_window");
+    MAX_RESULT_WINDOW_VALUE("datastore.max_result_window"),
+    /**
+     * Maximum number of messages stored with a single bulk request by the batch store mode (1 disables batching)
+     */
+    BATCH_STORE_SIZE("datastore.batch.size"),
+    /**
+     * Maximum time (in milliseconds) a message waits for its batch to fill up before the batch is stored anyway
+     */
+    BATCH_STORE_LINGER("datastore.batch.linger"),
+    /**
+     * Whether the batch store mode sends the bulk requests asynchronously, releasing the consumer thread while Elasticsearch processes them
+     */
+    BATCH_STORE_ASYNC("datastore.batch.async"),
+    /**
+     * Time (in milliseconds) newly seen metrics of an index are collected before sending a single mapping update (0 sends it immediately)
+     */
+    MAPPING_UPDATE_WINDOW("datastore.mapping.update.window");
 
     private String key;
 
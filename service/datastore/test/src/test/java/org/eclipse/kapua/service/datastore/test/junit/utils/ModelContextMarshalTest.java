@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.test.junit.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.message.internal.KapuaPositionImpl;
+import org.eclipse.kapua.message.internal.device.data.KapuaDataChannelImpl;
+import org.eclipse.kapua.message.internal.device.data.KapuaDataPayloadImpl;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.datastore.internal.converter.ModelContextImpl;
+import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreUtils;
+import org.eclipse.kapua.service.datastore.internal.model.ChannelInfoImpl;
+import org.eclipse.kapua.service.datastore.internal.model.ClientInfoImpl;
+import org.eclipse.kapua.service.datastore.internal.model.DatastoreMessageImpl;
+import org.eclipse.kapua.service.datastore.internal.model.MetricInfoImpl;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
+import org.eclipse.kapua.service.elasticsearch.client.ModelContext;
+import org.eclipse.kapua.service.storable.model.id.StorableIdFactoryImpl;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Checks that {@link ModelContextImpl#marshal(Object, JsonGenerator)} writes the same documents as {@link ModelContextImpl#marshal(Object)}.
+ */
+@Category(JUnitTests.class)
+public class ModelContextMarshalTest {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.ONE);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ModelContext modelContext = new ModelContextImpl(new StorableIdFactoryImpl(), new DatastoreUtils(new DatastoreSettings()));
+
+    @Test
+    public void marshalFullMessageTest() throws Exception {
+        DatastoreMessageImpl message = newMessage();
+
+        KapuaPositionImpl position = new KapuaPositionImpl();
+        position.setLatitude(45.5);
+        position.setLongitude(13.7);
+        position.setAltitude(120.0);
+        position.setSatellites(7);
+        position.setTimestamp(new Date(1000L));
+        message.setPosition(position);
+
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("int", 1);
+        metrics.put("long", 2L);
+        metrics.put("float", 3.5f);
+        metrics.put("double", 4.25d);
+        metrics.put("boolean", true);
+        metrics.put("string", "text");
+        metrics.put("binary", new byte[]{1, 2, 3});
+        metrics.put("date", new Date(2000L));
+        metrics.put("dotted.name", 5);
+        KapuaDataPayloadImpl payload = new KapuaDataPayloadImpl();
+        payload.setMetrics(metrics);
+        payload.setBody(new byte[]{10, 20, 30, 40});
+        message.setPayload(payload);
+
+        assertSameDocument(message);
+    }
+
+    @Test
+    public void marshalMinimalMessageTest() throws Exception {
+        DatastoreMessageImpl message = newMessage();
+        message.setId(null);
+        message.setDeviceId(null);
+
+        KapuaPositionImpl position = new KapuaPositionImpl();
+        position.setAltitude(10.0);
+        message.setPosition(position);
+
+        assertSameDocument(message);
+
+        message.setPayload(new KapuaDataPayloadImpl());
+        assertSameDocument(message);
+    }
+
+    @Test
+    public void marshalRegistryEntriesTest() throws Exception {
+        ClientInfoImpl clientInfo = new ClientInfoImpl(SCOPE_ID);
+        clientInfo.setClientId("client-1");
+        clientInfo.setFirstMessageId(new StorableIdFactoryImpl().newStorableId("message-1"));
+        clientInfo.setFirstMessageOn(new Date(3000L));
+        assertSameDocument(clientInfo);
+
+        ChannelInfoImpl channelInfo = new ChannelInfoImpl(SCOPE_ID);
+        channelInfo.setClientId("client-1");
+        channelInfo.setName("a/b/c");
+        channelInfo.setFirstMessageId(new StorableIdFactoryImpl().newStorableId("message-1"));
+        channelInfo.setFirstMessageOn(new Date(3000L));
+        assertSameDocument(channelInfo);
+
+        MetricInfoImpl metricInfo = new MetricInfoImpl(SCOPE_ID);
+        metricInfo.setClientId("client-1");
+        metricInfo.setChannel("a/b/c");
+        metricInfo.setName("temperature");
+        metricInfo.setMetricType(Double.class);
+        metricInfo.setFirstMessageId(new StorableIdFactoryImpl().newStorableId("message-1"));
+        metricInfo.setFirstMessageOn(new Date(3000L));
+        assertSameDocument(metricInfo);
+    }
+
+    private DatastoreMessageImpl newMessage() {
+        KapuaDataChannelImpl channel = new KapuaDataChannelImpl();
+        channel.setSemanticParts(Arrays.asList("a", "b", "c"));
+
+        DatastoreMessageImpl message = new DatastoreMessageImpl();
+        message.setId(UUID.randomUUID());
+        message.setScopeId(SCOPE_ID);
+        message.setDeviceId(new KapuaEid(BigInteger.TEN));
+        message.setClientId("client-1");
+        message.setChannel(channel);
+        message.setTimestamp(new Date(4000L));
+        message.setReceivedOn(new Date(5000L));
+        message.setCapturedOn(new Date(6000L));
+        message.setSentOn(new Date(7000L));
+        return message;
+    }
+
+    private void assertSameDocument(Object storable) throws Exception {
+        JsonNode expected = objectMapper.readTree(objectMapper.writeValueAsBytes(modelContext.marshal(storable)));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            modelContext.marshal(storable, generator);
+        }
+        JsonNode actual = objectMapper.readTree(outputStream.toByteArray());
+
+        Assert.assertEquals(expected, actual);
+    }
+}
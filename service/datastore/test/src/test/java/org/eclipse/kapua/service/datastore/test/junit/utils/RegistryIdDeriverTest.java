@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.test.junit.utils;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreUtils;
+import org.eclipse.kapua.service.datastore.internal.mediator.RegistryIdDeriver;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(JUnitTests.class)
+public class RegistryIdDeriverTest {
+
+    private static final KapuaId ONE = new KapuaEid(BigInteger.ONE);
+    private static final KapuaId TWO = new KapuaEid(BigInteger.valueOf(2));
+
+    private DatastoreSettings datastoreSettings = new DatastoreSettings();
+    private DatastoreUtils datastoreUtils = new DatastoreUtils(datastoreSettings);
+    private RegistryIdDeriver registryIdDeriver = new RegistryIdDeriver(datastoreUtils, datastoreSettings);
+
+    @Test
+    public void deriveSameIdsAsHashingTest() {
+        // Twice: the second time the ids are memoized
+        for (int i = 0; i < 2; i++) {
+            Assert.assertEquals(datastoreUtils.getHashCode(ONE.toCompactId(), "client"), registryIdDeriver.deriveClientInfoId(ONE, "client"));
+            Assert.assertEquals(datastoreUtils.getHashCode(ONE.toCompactId(), "client", "a/b"), registryIdDeriver.deriveChannelInfoId(ONE, "client", "a/b"));
+            Assert.assertEquals(
+                    datastoreUtils.getHashCode(ONE.toCompactId(), "client", "a/b", datastoreUtils.getMetricValueQualifier("temp", datastoreUtils.convertToClientMetricType(Double.class))),
+                    registryIdDeriver.deriveMetricInfoId(ONE, "client", "a/b", "temp", Double.class));
+        }
+    }
+
+    @Test
+    public void deriveDifferentIdsForDifferentCoordinatesTest() {
+        Set<String> derivedIds = new HashSet<>();
+        for (int i = 0; i < 2; i++) {
+            derivedIds.clear();
+            derivedIds.add(registryIdDeriver.deriveClientInfoId(ONE, "client"));
+            derivedIds.add(registryIdDeriver.deriveClientInfoId(TWO, "client"));
+            derivedIds.add(registryIdDeriver.deriveClientInfoId(ONE, "other-client"));
+            derivedIds.add(registryIdDeriver.deriveChannelInfoId(ONE, "client", "a/b"));
+            derivedIds.add(registryIdDeriver.deriveChannelInfoId(ONE, "client", "a/c"));
+            derivedIds.add(registryIdDeriver.deriveMetricInfoId(ONE, "client", "a/b", "temp", Double.class));
+            derivedIds.add(registryIdDeriver.deriveMetricInfoId(ONE, "client", "a/b", "temp", Long.class));
+            derivedIds.add(registryIdDeriver.deriveMetricInfoId(ONE, "client", "a/c", "temp", Double.class));
+
+            Assert.assertEquals(8, derivedIds.size());
+        }
+    }
+}
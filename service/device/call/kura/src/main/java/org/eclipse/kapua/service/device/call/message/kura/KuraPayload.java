@@ -12,9 +12,13 @@
  *******************************************************************************/
 package org.eclipse.kapua.service.device.call.message.kura;
 
+import com.google.common.collect.Maps;
 import com.google.common.primitives.Booleans;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.ExtensionRegistryLite;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
 import org.eclipse.kapua.message.internal.MessageErrorCodes;
 import org.eclipse.kapua.message.internal.MessageException;
 import org.eclipse.kapua.service.device.call.message.DevicePayload;
@@ -25,9 +29,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.zip.Inflater;
 
 /**
  * {@link DevicePayload} {@link org.eclipse.kapua.service.device.call.kura.Kura} implementation.
@@ -43,6 +49,29 @@ public class KuraPayload implements DevicePayload {
      *
      * @since 1.0.0
      */
+    private static final int TIMESTAMP_TAG = (KuraPayloadProto.KuraPayload.TIMESTAMP_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_VARINT;
+    private static final int POSITION_TAG = (KuraPayloadProto.KuraPayload.POSITION_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+    private static final int METRIC_TAG = (KuraPayloadProto.KuraPayload.METRIC_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+    private static final int BODY_TAG = (KuraPayloadProto.KuraPayload.BODY_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+
+    private static final int METRIC_NAME_TAG = (KuraPayloadProto.KuraPayload.KuraMetric.NAME_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+    private static final int METRIC_TYPE_TAG = (KuraPayloadProto.KuraPayload.KuraMetric.TYPE_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_VARINT;
+    private static final int METRIC_DOUBLE_TAG = (KuraPayloadProto.KuraPayload.KuraMetric.DOUBLE_VALUE_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_FIXED64;
+    private static final int METRIC_FLOAT_TAG = (KuraPayloadProto.KuraPayload.KuraMetric.FLOAT_VALUE_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_FIXED32;
+    private static final int METRIC_LONG_TAG = (KuraPayloadProto.KuraPayload.KuraMetric.LONG_VALUE_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_VARINT;
+    private static final int METRIC_INT_TAG = (KuraPayloadProto.KuraPayload.KuraMetric.INT_VALUE_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_VARINT;
+    private static final int METRIC_BOOL_TAG = (KuraPayloadProto.KuraPayload.KuraMetric.BOOL_VALUE_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_VARINT;
+    private static final int METRIC_STRING_TAG = (KuraPayloadProto.KuraPayload.KuraMetric.STRING_VALUE_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+    private static final int METRIC_BYTES_TAG = (KuraPayloadProto.KuraPayload.KuraMetric.BYTES_VALUE_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+
+    /**
+     * Smallest realistic size of an encoded metric, used to presize the metrics {@link Map} from the payload length.
+     */
+    private static final int ESTIMATED_METRIC_SIZE = 16;
+    private static final int MAX_PRESIZED_METRICS = 256;
+
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
+
     protected Date timestamp;
 
     /**
@@ -164,67 +193,209 @@ public class KuraPayload implements DevicePayload {
         return protoMsg.build().toByteArray();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The protobuf message is decoded in a single pass, without building the intermediate {@link KuraPayloadProto.KuraPayload}.
+     * GZIP compressed payloads are inflated while decoding, using an {@link Inflater} reused by the current thread.
+     * <p>
+     * This {@link KuraPayload} is updated only if the whole payload has been decoded successfully.
+     *
+     * @since 1.0.0
+     */
     @Override
     public void readFromByteArray(byte[] bytes) throws MessageException {
-        // Decompress
-        if (GZIPUtils.isCompressed(bytes)) {
-            try {
-                bytes = GZIPUtils.decompress(bytes);
-            } catch (IOException ioe) {
-                throw new MessageException(MessageErrorCodes.INVALID_MESSAGE, ioe, (Object[]) null);
+        try {
+            if (GZIPUtils.isCompressed(bytes)) {
+                try (InputStream inflatingStream = GZIPUtils.decompressingStream(bytes, INFLATER.get())) {
+                    readFrom(CodedInputStream.newInstance(inflatingStream), bytes.length);
+                }
+            } else {
+                readFrom(CodedInputStream.newInstance(bytes), bytes.length);
             }
+        } catch (IOException ioe) {
+            throw new MessageException(MessageErrorCodes.INVALID_MESSAGE, ioe, (Object[]) null);
         }
-        // Convert protobuf
-        KuraPayloadProto.KuraPayload protoMsg = null;
-        try {
-            protoMsg = KuraPayloadProto.KuraPayload.parseFrom(bytes);
-        } catch (InvalidProtocolBufferException ipbe) {
-            throw new MessageException(MessageErrorCodes.INVALID_MESSAGE, ipbe, (Object[]) null);
+    }
+
+    // Private methods
+
+    /**
+     * Decodes a {@link KuraPayloadProto.KuraPayload} from the given {@link CodedInputStream}.
+     * <p>
+     * Unknown fields and extensions are skipped and required fields are checked, like {@link KuraPayloadProto.KuraPayload#parseFrom(byte[])} does.
+     *
+     * @param input         The {@link CodedInputStream} to read from.
+     * @param encodedLength The length of the encoded payload, used to presize the metrics {@link Map}.
+     * @throws IOException if the payload is not a valid {@link KuraPayloadProto.KuraPayload}.
+     * @since 2.1.0
+     */
+    private void readFrom(CodedInputStream input, int encodedLength) throws IOException {
+        Long readTimestamp = null;
+        KuraPayloadProto.KuraPayload.KuraPosition.Builder readPosition = null;
+        Map<String, Object> readMetrics = null;
+        byte[] readBody = null;
+
+        boolean done = false;
+        while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+                case 0:
+                    done = true;
+                    break;
+                case TIMESTAMP_TAG:
+                    readTimestamp = input.readInt64();
+                    break;
+                case POSITION_TAG:
+                    if (readPosition == null) {
+                        readPosition = KuraPayloadProto.KuraPayload.KuraPosition.newBuilder();
+                    }
+                    input.readMessage(readPosition, ExtensionRegistryLite.getEmptyRegistry());
+                    break;
+                case METRIC_TAG:
+                    if (readMetrics == null) {
+                        readMetrics = Maps.newHashMapWithExpectedSize(Math.min(encodedLength / ESTIMATED_METRIC_SIZE, MAX_PRESIZED_METRICS));
+                    }
+                    readMetric(input, readMetrics);
+                    break;
+                case BODY_TAG:
+                    readBody = input.readByteArray();
+                    break;
+                default:
+                    done = !input.skipField(tag);
+            }
         }
+
+        input.checkLastTagWas(0);
+
+        if (readPosition != null && !readPosition.isInitialized()) {
+            throw new InvalidProtocolBufferException("Message missing required fields: position");
+        }
+
         // Add timestamp
-        if (protoMsg.hasTimestamp()) {
-            timestamp = (new Date(protoMsg.getTimestamp()));
+        if (readTimestamp != null) {
+            timestamp = new Date(readTimestamp);
         }
         // Add position
-        if (protoMsg.hasPosition()) {
-            position = (buildFromProtoBuf(protoMsg.getPosition()));
+        if (readPosition != null) {
+            position = buildFromProtoBuf(readPosition.build());
         }
         // Add metrics
-        protoMsg.getMetricList().forEach(kuraMetric -> {
-            try {
-                Object value = getProtoKuraMetricValue(kuraMetric, kuraMetric.getType());
-                addMetric(kuraMetric.getName(), value);
-            } catch (MessageException me) {
-                LOG.warn("During deserialization, ignoring metric named: {}. Unrecognized value type: {}", kuraMetric.getName(), kuraMetric.getType(), me);
+        if (readMetrics != null) {
+            if (metrics == null || metrics.isEmpty()) {
+                metrics = readMetrics;
+            } else {
+                metrics.putAll(readMetrics);
             }
-        });
+        }
         // Set the body
-        if (protoMsg.hasBody()) {
-            setBody(protoMsg.getBody().toByteArray());
+        if (readBody != null) {
+            setBody(readBody);
         }
     }
 
-    // Private methods
-    private Object getProtoKuraMetricValue(KuraPayloadProto.KuraPayload.KuraMetric metric, KuraPayloadProto.KuraPayload.KuraMetric.ValueType type) throws MessageException {
+    /**
+     * Decodes a {@link KuraPayloadProto.KuraPayload.KuraMetric} from the given {@link CodedInputStream} and adds it to the given metrics.
+     *
+     * @param input   The {@link CodedInputStream} to read from.
+     * @param metrics The metrics to add the read metric to.
+     * @throws IOException if the metric is not a valid {@link KuraPayloadProto.KuraPayload.KuraMetric}.
+     * @since 2.1.0
+     */
+    private static void readMetric(CodedInputStream input, Map<String, Object> metrics) throws IOException {
+        int oldLimit = input.pushLimit(input.readRawVarint32());
+
+        String name = null;
+        KuraPayloadProto.KuraPayload.KuraMetric.ValueType type = null;
+        double doubleValue = 0D;
+        float floatValue = 0F;
+        long longValue = 0L;
+        int intValue = 0;
+        boolean boolValue = false;
+        String stringValue = "";
+        byte[] bytesValue = null;
+
+        boolean done = false;
+        while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+                case 0:
+                    done = true;
+                    break;
+                case METRIC_NAME_TAG:
+                    name = input.readString();
+                    break;
+                case METRIC_TYPE_TAG:
+                    KuraPayloadProto.KuraPayload.KuraMetric.ValueType readType = KuraPayloadProto.KuraPayload.KuraMetric.ValueType.forNumber(input.readEnum());
+                    // Unknown values are kept as unknown fields by the generated parser, leaving the type unset
+                    if (readType != null) {
+                        type = readType;
+                    }
+                    break;
+                case METRIC_DOUBLE_TAG:
+                    doubleValue = input.readDouble();
+                    break;
+                case METRIC_FLOAT_TAG:
+                    floatValue = input.readFloat();
+                    break;
+                case METRIC_LONG_TAG:
+                    longValue = input.readInt64();
+                    break;
+                case METRIC_INT_TAG:
+                    intValue = input.readInt32();
+                    break;
+                case METRIC_BOOL_TAG:
+                    boolValue = input.readBool();
+                    break;
+                case METRIC_STRING_TAG:
+                    stringValue = input.readString();
+                    break;
+                case METRIC_BYTES_TAG:
+                    bytesValue = input.readByteArray();
+                    break;
+                default:
+                    done = !input.skipField(tag);
+            }
+        }
+
+        input.checkLastTagWas(0);
+        if (input.getBytesUntilLimit() != 0) {
+            throw new InvalidProtocolBufferException("Message truncated: metric");
+        }
+        input.popLimit(oldLimit);
+
+        if (name == null || type == null) {
+            throw new InvalidProtocolBufferException("Message missing required fields: metric.name, metric.type");
+        }
+
+        Object value;
         switch (type) {
             case DOUBLE:
-                return metric.getDoubleValue();
+                value = doubleValue;
+                break;
             case FLOAT:
-                return metric.getFloatValue();
+                value = floatValue;
+                break;
             case INT64:
-                return metric.getLongValue();
+                value = longValue;
+                break;
             case INT32:
-                return metric.getIntValue();
+                value = intValue;
+                break;
             case BOOL:
-                return metric.getBoolValue();
+                value = boolValue;
+                break;
             case STRING:
-                return metric.getStringValue();
+                value = stringValue;
+                break;
             case BYTES:
-                ByteString bs = metric.getBytesValue();
-                return bs.toByteArray();
+                value = bytesValue != null ? bytesValue : new byte[0];
+                break;
             default:
-                throw new MessageException(MessageErrorCodes.INVALID_METRIC_TYPE, null, type);
+                throw new InvalidProtocolBufferException("Unrecognized metric type: " + type);
         }
+
+        metrics.put(name, value);
     }
 
     private static void setProtoKuraMetricValue(KuraPayloadProto.KuraPayload.KuraMetric.Builder metric, Object o) throws MessageException {
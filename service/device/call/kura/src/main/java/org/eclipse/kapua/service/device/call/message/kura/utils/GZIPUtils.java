@@ -18,10 +18,16 @@ import com.google.common.io.ByteStreams;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
 
 /**
  * Gzip utilities.
@@ -30,6 +36,14 @@ import java.util.zip.GZIPOutputStream;
  */
 public class GZIPUtils {
 
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private static final int HEADER_SIZE = 10;
+    private static final int TRAILER_SIZE = 8;
+
     private GZIPUtils() {
     }
 
@@ -61,13 +75,12 @@ public class GZIPUtils {
             return new byte[0];
         }
 
-        try (
-                ByteArrayOutputStream result = new ByteArrayOutputStream();
-                OutputStream out = new GZIPOutputStream(result)
-        ) {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        // The GZIP trailer is written when the stream is closed
+        try (OutputStream out = new GZIPOutputStream(result)) {
             ByteSource.wrap(source).copyTo(out);
-            return result.toByteArray();
         }
+        return result.toByteArray();
     }
 
     /**
@@ -90,4 +103,188 @@ public class GZIPUtils {
             return ByteStreams.toByteArray(inputStream);
         }
     }
+
+    /**
+     * Opens an {@link InputStream} which inflates the given GZIP compressed data while it is read.
+     * <p>
+     * Unlike {@link #decompress(byte[])} the uncompressed data is never materialized as a whole, and the given {@link Inflater} is used instead of allocating a new one.
+     * The {@link Inflater} must have been created with {@code nowrap} set to {@code true}, it is {@link Inflater#reset()} when the stream is opened and it is not {@link Inflater#end()}ed when the stream is closed,
+     * so it can be reused by the caller once it is done with the returned {@link InputStream}.
+     *
+     * @param source   The data to uncompress.
+     * @param inflater The {@link Inflater} to use.
+     * @return The {@link InputStream} of the uncompressed data.
+     * @throws IOException if the GZIP header is not valid.
+     * @since 2.1.0
+     */
+    public static InputStream decompressingStream(byte[] source, Inflater inflater) throws IOException {
+        return new InflatingInputStream(source, inflater);
+    }
+
+    /**
+     * Reads the GZIP members from a byte array, inflating them with a caller provided {@link Inflater}.
+     * <p>
+     * Header and trailer checks follow the ones of {@link GZIPInputStream}.
+     *
+     * @since 2.1.0
+     */
+    private static class InflatingInputStream extends InputStream {
+
+        private final byte[] source;
+        private final Inflater inflater;
+        private final CRC32 crc = new CRC32();
+
+        private int memberOffset;
+        private boolean eof;
+
+        private InflatingInputStream(byte[] source, Inflater inflater) throws IOException {
+            this.source = source;
+            this.inflater = inflater;
+
+            startMember(0);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+
+            while (!eof) {
+                int read;
+                try {
+                    read = inflater.inflate(b, off, len);
+                } catch (DataFormatException dfe) {
+                    String message = dfe.getMessage();
+                    throw new ZipException(message != null ? message : "Invalid ZLIB data format");
+                }
+
+                if (read > 0) {
+                    crc.update(b, off, read);
+                    return read;
+                }
+
+                if (inflater.finished()) {
+                    endMember();
+                } else if (inflater.needsInput()) {
+                    throw new EOFException("Unexpected end of ZLIB input stream");
+                } else if (inflater.needsDictionary()) {
+                    throw new ZipException("ZLIB dictionary missing");
+                }
+            }
+
+            return -1;
+        }
+
+        private void startMember(int offset) throws IOException {
+            memberOffset = readHeader(offset);
+            crc.reset();
+            inflater.reset();
+            inflater.setInput(source, memberOffset, source.length - memberOffset);
+        }
+
+        /**
+         * Reads a member header, in the same order of {@link GZIPInputStream} so that the same {@link IOException}s are thrown.
+         *
+         * @return The offset of the compressed data.
+         */
+        private int readHeader(int offset) throws IOException {
+            int position = checkAvailable(offset, 2);
+            if (!isCompressed(source, position)) {
+                throw new ZipException("Not in GZIP format");
+            }
+            position = checkAvailable(position + 2, 1);
+            if (source[position] != 8) {
+                throw new ZipException("Unsupported compression method");
+            }
+            position = checkAvailable(position + 1, 1);
+            int flags = source[position] & 0xff;
+            position = checkAvailable(position + 1, 6) + 6;
+
+            if ((flags & FEXTRA) == FEXTRA) {
+                checkAvailable(position, 2);
+                int extraLength = (source[position] & 0xff) | ((source[position + 1] & 0xff) << 8);
+                position = checkAvailable(position + 2, extraLength) + extraLength;
+            }
+            if ((flags & FNAME) == FNAME) {
+                position = skipZeroTerminated(position);
+            }
+            if ((flags & FCOMMENT) == FCOMMENT) {
+                position = skipZeroTerminated(position);
+            }
+            if ((flags & FHCRC) == FHCRC) {
+                crc.reset();
+                crc.update(source, offset, position - offset);
+
+                checkAvailable(position, 2);
+                int headerCrc = (source[position] & 0xff) | ((source[position + 1] & 0xff) << 8);
+                if (headerCrc != ((int) crc.getValue() & 0xffff)) {
+                    throw new ZipException("Corrupt GZIP header");
+                }
+                position += 2;
+            }
+            return position;
+        }
+
+        private void endMember() throws IOException {
+            int trailerOffset = memberOffset + (int) inflater.getBytesRead();
+            if (readUInt(checkTrailerAvailable(trailerOffset)) != crc.getValue() ||
+                    readUInt(checkTrailerAvailable(trailerOffset + 4)) != (inflater.getBytesWritten() & 0xffffffffL)) {
+                throw new ZipException("Corrupt GZIP trailer");
+            }
+
+            // Concatenated members are read as a single stream. Like GZIPInputStream does, anything else after the trailer is ignored,
+            // as long as it is too short to be a member or does not start with a valid header
+            int nextOffset = trailerOffset + TRAILER_SIZE;
+            if (source.length - nextOffset > HEADER_SIZE + TRAILER_SIZE) {
+                try {
+                    startMember(nextOffset);
+                    return;
+                } catch (IOException e) {
+                    // Not a member
+                }
+            }
+            eof = true;
+        }
+
+        private int checkTrailerAvailable(int position) throws EOFException {
+            if (source.length - position < 4) {
+                throw new EOFException("Unexpected end of GZIP trailer");
+            }
+            return position;
+        }
+
+        private int checkAvailable(int position, int length) throws EOFException {
+            if (source.length - position < length) {
+                throw new EOFException("Unexpected end of GZIP header");
+            }
+            return position;
+        }
+
+        private int skipZeroTerminated(int position) throws EOFException {
+            while (position < source.length) {
+                if (source[position++] == 0) {
+                    return position;
+                }
+            }
+            throw new EOFException("Unexpected end of GZIP header");
+        }
+
+        private long readUInt(int position) {
+            return ((source[position] & 0xffL)) |
+                    ((source[position + 1] & 0xffL) << 8) |
+                    ((source[position + 2] & 0xffL) << 16) |
+                    ((source[position + 3] & 0xffL) << 24);
+        }
+    }
+
+    private static boolean isCompressed(byte[] bytes, int offset) {
+        return bytes[offset] == (byte) GZIPInputStream.GZIP_MAGIC && bytes[offset + 1] == (byte) (GZIPInputStream.GZIP_MAGIC >> 8);
+    }
 }
@@ -0,0 +1,496 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.call.message.kura;
+
+import com.google.common.primitives.Bytes;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import org.eclipse.kapua.message.internal.MessageException;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.device.call.message.DevicePosition;
+import org.eclipse.kapua.service.device.call.message.kura.proto.KuraPayloadProto;
+import org.eclipse.kapua.service.device.call.message.kura.proto.KuraPayloadProto.KuraPayload.KuraMetric;
+import org.eclipse.kapua.service.device.call.message.kura.proto.KuraPayloadProto.KuraPayload.KuraMetric.ValueType;
+import org.eclipse.kapua.service.device.call.message.kura.utils.GZIPUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compares {@link KuraPayload#readFromByteArray(byte[])} with the generated {@link KuraPayloadProto.KuraPayload#parseFrom(byte[])},
+ * which was used to decode the payloads before.
+ */
+@Category(JUnitTests.class)
+public class KuraPayloadTest {
+
+    private static final int UNKNOWN_FIELD = 100;
+
+    @Test
+    public void metricTypesTest() throws Exception {
+        byte[] payload = fullPayload().toByteArray();
+
+        assertSameAsGenerated(payload);
+        assertSameAsGenerated(GZIPUtils.compress(payload));
+
+        KuraPayload kuraPayload = new KuraPayload();
+        kuraPayload.readFromByteArray(payload);
+        Assert.assertEquals(new Date(1234567890L), kuraPayload.getTimestamp());
+        Assert.assertEquals(45.5D, kuraPayload.getPosition().getLatitude(), 0D);
+        Assert.assertEquals(Integer.valueOf(4), kuraPayload.getPosition().getStatus());
+        Assert.assertEquals(1.5D, kuraPayload.getMetrics().get("double"));
+        Assert.assertEquals(2.5F, kuraPayload.getMetrics().get("float"));
+        Assert.assertEquals(Long.MIN_VALUE, kuraPayload.getMetrics().get("long"));
+        Assert.assertEquals(-1, kuraPayload.getMetrics().get("int"));
+        Assert.assertEquals(true, kuraPayload.getMetrics().get("bool"));
+        Assert.assertEquals("è€", kuraPayload.getMetrics().get("string"));
+        Assert.assertArrayEquals(new byte[] {0, 1, 2}, (byte[]) kuraPayload.getMetrics().get("bytes"));
+        Assert.assertArrayEquals(new byte[0], (byte[]) kuraPayload.getMetrics().get("emptyBytes"));
+        Assert.assertArrayEquals("body".getBytes(StandardCharsets.UTF_8), kuraPayload.getBody());
+    }
+
+    @Test
+    public void roundTripTest() throws Exception {
+        KuraPayload kuraPayload = new KuraPayload();
+        kuraPayload.readFromByteArray(fullPayload().toByteArray());
+
+        KuraPayload readKuraPayload = new KuraPayload();
+        readKuraPayload.readFromByteArray(kuraPayload.toByteArray());
+        Assert.assertEquals(snapshot(kuraPayload), snapshot(readKuraPayload));
+    }
+
+    @Test
+    public void defaultValuesTest() throws Exception {
+        // Metrics with the type only, whose values are the defaults of the fields
+        KuraPayloadProto.KuraPayload.Builder payload = KuraPayloadProto.KuraPayload.newBuilder();
+        for (ValueType type : ValueType.values()) {
+            payload.addMetric(KuraMetric.newBuilder().setName(type.name()).setType(type));
+        }
+        assertSameAsGenerated(payload.build().toByteArray());
+
+        // The last value of a repeated metric name wins
+        payload.addMetric(KuraMetric.newBuilder().setName("INT32").setType(ValueType.STRING).setStringValue("last"));
+        assertSameAsGenerated(payload.build().toByteArray());
+
+        // Values of other types than the declared one are ignored
+        payload.addMetric(KuraMetric.newBuilder().setName("mixed").setType(ValueType.BOOL).setIntValue(7).setStringValue("ignored").setBoolValue(true));
+        assertSameAsGenerated(payload.build().toByteArray());
+    }
+
+    @Test
+    public void emptyTest() throws Exception {
+        assertSameAsGenerated(new byte[0]);
+        assertSameAsGenerated(GZIPUtils.compress(new byte[0]));
+        assertSameAsGenerated(KuraPayloadProto.KuraPayload.newBuilder().setBody(ByteString.EMPTY).build().toByteArray());
+        assertSameAsGenerated(KuraPayloadProto.KuraPayload.newBuilder().setTimestamp(0L).build().toByteArray());
+
+        KuraPayload kuraPayload = new KuraPayload();
+        kuraPayload.readFromByteArray(KuraPayloadProto.KuraPayload.newBuilder().setBody(ByteString.EMPTY).build().toByteArray());
+        Assert.assertArrayEquals(new byte[0], kuraPayload.getBody());
+    }
+
+    @Test
+    public void unknownFieldsTest() throws Exception {
+        byte[] payload = fullPayload().toByteArray();
+        byte[] metric = KuraMetric.newBuilder().setName("known").setType(ValueType.INT64).setLongValue(42L).build().toByteArray();
+
+        for (byte[] unknownFields : Arrays.asList(
+                unknownField(UNKNOWN_FIELD, WireFormat.WIRETYPE_VARINT),
+                unknownField(UNKNOWN_FIELD, WireFormat.WIRETYPE_FIXED32),
+                unknownField(UNKNOWN_FIELD, WireFormat.WIRETYPE_FIXED64),
+                unknownField(UNKNOWN_FIELD, WireFormat.WIRETYPE_LENGTH_DELIMITED),
+                unknownField(UNKNOWN_FIELD, WireFormat.WIRETYPE_START_GROUP),
+                // Known field numbers with an unexpected wire type
+                unknownField(KuraPayloadProto.KuraPayload.TIMESTAMP_FIELD_NUMBER, WireFormat.WIRETYPE_FIXED64),
+                unknownField(KuraPayloadProto.KuraPayload.BODY_FIELD_NUMBER, WireFormat.WIRETYPE_VARINT),
+                unknownField(KuraPayloadProto.KuraPayload.METRIC_FIELD_NUMBER, WireFormat.WIRETYPE_FIXED32),
+                unknownField(KuraMetric.LONG_VALUE_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED))) {
+            assertSameAsGenerated(Bytes.concat(unknownFields, payload));
+            assertSameAsGenerated(Bytes.concat(payload, unknownFields));
+            assertSameAsGenerated(GZIPUtils.compress(Bytes.concat(payload, unknownFields)));
+
+            assertSameAsGenerated(metricField(Bytes.concat(unknownFields, metric)));
+            assertSameAsGenerated(metricField(Bytes.concat(metric, unknownFields)));
+        }
+
+        // Unknown enum value of the metric type
+        assertSameAsGenerated(metricField(Bytes.concat(metric, varintField(KuraMetric.TYPE_FIELD_NUMBER, 99))));
+        assertSameAsGenerated(metricField(Bytes.concat(varintField(KuraMetric.TYPE_FIELD_NUMBER, 99), metric)));
+    }
+
+    @Test
+    public void packedAndUnpackedFieldsTest() throws Exception {
+        byte[] metric = KuraMetric.newBuilder().setName("known").setType(ValueType.INT32).setIntValue(7).build().toByteArray();
+
+        // A repeated unknown field, both unpacked and packed
+        ByteArrayOutputStream unpacked = new ByteArrayOutputStream();
+        for (int i = 0; i < 5; i++) {
+            unpacked.write(varintField(UNKNOWN_FIELD, i * 1000L));
+        }
+        ByteArrayOutputStream packedValues = new ByteArrayOutputStream();
+        CodedOutputStream packedOutput = CodedOutputStream.newInstance(packedValues);
+        for (int i = 0; i < 5; i++) {
+            packedOutput.writeInt64NoTag(i * 1000L);
+        }
+        packedOutput.flush();
+        byte[] packed = lengthDelimitedField(UNKNOWN_FIELD, packedValues.toByteArray());
+
+        for (byte[] repeated : Arrays.asList(unpacked.toByteArray(), packed, Bytes.concat(packed, unpacked.toByteArray()))) {
+            assertSameAsGenerated(Bytes.concat(repeated, fullPayload().toByteArray()));
+            assertSameAsGenerated(metricField(Bytes.concat(metric, repeated)));
+        }
+
+        // Known scalar fields repeated: the last value wins
+        assertSameAsGenerated(Bytes.concat(varintField(KuraPayloadProto.KuraPayload.TIMESTAMP_FIELD_NUMBER, 1L), varintField(KuraPayloadProto.KuraPayload.TIMESTAMP_FIELD_NUMBER, 2L)));
+        assertSameAsGenerated(metricField(Bytes.concat(metric, varintField(KuraMetric.INT_VALUE_FIELD_NUMBER, 8L), varintField(KuraMetric.INT_VALUE_FIELD_NUMBER, 9L))));
+        // Known scalar field in packed encoding, which the generated parser does not accept for non repeated fields
+        assertSameAsGenerated(metricField(Bytes.concat(metric, lengthDelimitedField(KuraMetric.INT_VALUE_FIELD_NUMBER, new byte[] {9}))));
+        // Repeated messages are merged
+        assertSameAsGenerated(Bytes.concat(
+                lengthDelimitedField(KuraPayloadProto.KuraPayload.POSITION_FIELD_NUMBER, KuraPayloadProto.KuraPayload.KuraPosition.newBuilder().setLatitude(1D).setLongitude(2D).setStatus(4).build().toByteArray()),
+                lengthDelimitedField(KuraPayloadProto.KuraPayload.POSITION_FIELD_NUMBER, KuraPayloadProto.KuraPayload.KuraPosition.newBuilder().setLatitude(3D).setLongitude(4D).setSpeed(5D).build().toByteArray())));
+    }
+
+    @Test
+    public void missingRequiredFieldsTest() throws Exception {
+        assertSameAsGenerated(metricField(KuraMetric.newBuilder().setName("noType").buildPartial().toByteArray()));
+        assertSameAsGenerated(metricField(KuraMetric.newBuilder().setType(ValueType.BOOL).buildPartial().toByteArray()));
+        assertSameAsGenerated(lengthDelimitedField(KuraPayloadProto.KuraPayload.POSITION_FIELD_NUMBER, KuraPayloadProto.KuraPayload.KuraPosition.newBuilder().setLatitude(1D).buildPartial().toByteArray()));
+        assertSameAsGenerated(lengthDelimitedField(KuraPayloadProto.KuraPayload.POSITION_FIELD_NUMBER, new byte[0]));
+    }
+
+    @Test
+    public void truncatedTest() throws Exception {
+        byte[] payload = fullPayload().toByteArray();
+        byte[] compressed = GZIPUtils.compress(payload);
+
+        for (int length = 0; length < payload.length; length++) {
+            assertSameAsGenerated(Arrays.copyOf(payload, length));
+        }
+        for (int length = 0; length < compressed.length; length++) {
+            assertSameAsGenerated(Arrays.copyOf(compressed, length));
+        }
+    }
+
+    @Test
+    public void corruptTest() throws Exception {
+        Random random = new Random(42L);
+        byte[] payload = fullPayload().toByteArray();
+        byte[] compressed = GZIPUtils.compress(payload);
+
+        for (int i = 0; i < 10000; i++) {
+            byte[] corrupted = (i % 2 == 0 ? payload : compressed).clone();
+            for (int flips = random.nextInt(3) + 1; flips > 0; flips--) {
+                corrupted[random.nextInt(corrupted.length)] ^= (byte) (1 << random.nextInt(8));
+            }
+            assertSameAsGenerated(corrupted);
+        }
+    }
+
+    @Test
+    public void corruptGzipTrailerTest() throws Exception {
+        byte[] compressed = GZIPUtils.compress(fullPayload().toByteArray());
+
+        // CRC32 and ISIZE
+        for (int i = compressed.length - 8; i < compressed.length; i++) {
+            byte[] corrupted = compressed.clone();
+            corrupted[i] ^= 1;
+            assertInvalid(corrupted);
+            assertSameAsGenerated(corrupted);
+        }
+    }
+
+    @Test
+    public void multipleGzipMembersTest() throws Exception {
+        byte[] payload = fullPayload().toByteArray();
+        int split = payload.length / 2;
+        byte[] first = GZIPUtils.compress(Arrays.copyOf(payload, split));
+        byte[] second = GZIPUtils.compress(Arrays.copyOfRange(payload, split, payload.length));
+
+        KuraPayload kuraPayload = new KuraPayload();
+        kuraPayload.readFromByteArray(Bytes.concat(first, second));
+        Assert.assertEquals(snapshot(payload), snapshot(kuraPayload));
+
+        // Concatenated payloads are merged
+        byte[] other = KuraPayloadProto.KuraPayload.newBuilder()
+                .addMetric(KuraMetric.newBuilder().setName("other").setType(ValueType.STRING).setStringValue("value"))
+                .addMetric(KuraMetric.newBuilder().setName("int").setType(ValueType.INT32).setIntValue(5))
+                .build()
+                .toByteArray();
+        assertSameAsGenerated(Bytes.concat(GZIPUtils.compress(payload), GZIPUtils.compress(other)));
+        assertSameAsGenerated(Bytes.concat(GZIPUtils.compress(payload), GZIPUtils.compress(new byte[0]), GZIPUtils.compress(other)));
+    }
+
+    @Test
+    public void inflaterReuseAfterFailureTest() throws Exception {
+        byte[] payload = fullPayload().toByteArray();
+        byte[] compressed = GZIPUtils.compress(payload);
+
+        byte[] corruptData = compressed.clone();
+        corruptData[12] ^= (byte) 0xff;
+        byte[] corruptTrailer = compressed.clone();
+        corruptTrailer[compressed.length - 5] ^= 1;
+        byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+        byte[] invalidProtobuf = GZIPUtils.compress(Arrays.copyOf(payload, payload.length - 1));
+
+        for (byte[] failing : Arrays.asList(corruptData, corruptTrailer, truncated, invalidProtobuf)) {
+            assertInvalid(failing);
+
+            KuraPayload kuraPayload = new KuraPayload();
+            kuraPayload.readFromByteArray(compressed);
+            Assert.assertEquals(snapshot(payload), snapshot(kuraPayload));
+        }
+    }
+
+    @Test
+    public void randomTest() throws Exception {
+        Random random = new Random(42L);
+        ValueType[] types = ValueType.values();
+        for (int i = 0; i < 2000; i++) {
+            KuraPayloadProto.KuraPayload.Builder payload = KuraPayloadProto.KuraPayload.newBuilder();
+            if (random.nextBoolean()) {
+                payload.setTimestamp(random.nextLong());
+            }
+            if (random.nextBoolean()) {
+                payload.setPosition(KuraPayloadProto.KuraPayload.KuraPosition.newBuilder().setLatitude(random.nextDouble()).setLongitude(random.nextDouble()).setSatellites(random.nextInt()));
+            }
+            for (int m = random.nextInt(20); m > 0; m--) {
+                KuraMetric.Builder metric = KuraMetric.newBuilder().setName("metric-" + random.nextInt(10)).setType(types[random.nextInt(types.length)]);
+                switch (random.nextInt(7)) {
+                    case 0:
+                        metric.setDoubleValue(random.nextDouble());
+                        break;
+                    case 1:
+                        metric.setFloatValue(random.nextFloat());
+                        break;
+                    case 2:
+                        metric.setLongValue(random.nextLong());
+                        break;
+                    case 3:
+                        metric.setIntValue(random.nextInt());
+                        break;
+                    case 4:
+                        metric.setBoolValue(random.nextBoolean());
+                        break;
+                    case 5:
+                        metric.setStringValue(Long.toString(random.nextLong(), 36));
+                        break;
+                    default:
+                        byte[] bytes = new byte[random.nextInt(10)];
+                        random.nextBytes(bytes);
+                        metric.setBytesValue(ByteString.copyFrom(bytes));
+                }
+                payload.addMetric(metric);
+            }
+            if (random.nextBoolean()) {
+                byte[] body = new byte[random.nextInt(100)];
+                random.nextBytes(body);
+                payload.setBody(ByteString.copyFrom(body));
+            }
+
+            byte[] bytes = payload.build().toByteArray();
+            assertSameAsGenerated(random.nextBoolean() ? bytes : GZIPUtils.compress(bytes));
+        }
+    }
+
+    private static KuraPayloadProto.KuraPayload fullPayload() {
+        return KuraPayloadProto.KuraPayload.newBuilder()
+                .setTimestamp(1234567890L)
+                .setPosition(KuraPayloadProto.KuraPayload.KuraPosition.newBuilder()
+                        .setLatitude(45.5D)
+                        .setLongitude(13.2D)
+                        .setAltitude(100D)
+                        .setPrecision(1D)
+                        .setHeading(90D)
+                        .setSpeed(3D)
+                        .setTimestamp(1234567000L)
+                        .setSatellites(7)
+                        .setStatus(4))
+                .addMetric(KuraMetric.newBuilder().setName("double").setType(ValueType.DOUBLE).setDoubleValue(1.5D))
+                .addMetric(KuraMetric.newBuilder().setName("float").setType(ValueType.FLOAT).setFloatValue(2.5F))
+                .addMetric(KuraMetric.newBuilder().setName("long").setType(ValueType.INT64).setLongValue(Long.MIN_VALUE))
+                .addMetric(KuraMetric.newBuilder().setName("int").setType(ValueType.INT32).setIntValue(-1))
+                .addMetric(KuraMetric.newBuilder().setName("bool").setType(ValueType.BOOL).setBoolValue(true))
+                .addMetric(KuraMetric.newBuilder().setName("string").setType(ValueType.STRING).setStringValue("è€"))
+                .addMetric(KuraMetric.newBuilder().setName("bytes").setType(ValueType.BYTES).setBytesValue(ByteString.copyFrom(new byte[] {0, 1, 2})))
+                .addMetric(KuraMetric.newBuilder().setName("emptyBytes").setType(ValueType.BYTES))
+                .setBody(ByteString.copyFromUtf8("body"))
+                .build();
+    }
+
+    private static void assertInvalid(byte[] bytes) {
+        KuraPayload kuraPayload = new KuraPayload();
+        try {
+            kuraPayload.readFromByteArray(bytes);
+            Assert.fail("MessageException expected");
+        } catch (MessageException e) {
+            // Expected
+        }
+    }
+
+    /**
+     * Both either decode the same payload or reject it, in which case the {@link KuraPayload} is left untouched.
+     */
+    private static void assertSameAsGenerated(byte[] bytes) throws Exception {
+        Map<String, Object> expected;
+        try {
+            expected = snapshot(bytes);
+        } catch (IOException e) {
+            expected = null;
+        }
+
+        KuraPayload kuraPayload = new KuraPayload();
+        try {
+            kuraPayload.readFromByteArray(bytes);
+            Assert.assertNotNull("Payload should have been rejected", expected);
+            Assert.assertEquals(expected, snapshot(kuraPayload));
+        } catch (MessageException e) {
+            Assert.assertNull("Payload should have been decoded: " + e.getCause(), expected);
+            Assert.assertEquals(snapshot(new KuraPayload()), snapshot(kuraPayload));
+        }
+    }
+
+    /**
+     * The payload as decoded by the generated parser, like {@link KuraPayload} used to do.
+     */
+    private static Map<String, Object> snapshot(byte[] bytes) throws IOException {
+        KuraPayloadProto.KuraPayload protoMsg = KuraPayloadProto.KuraPayload.parseFrom(GZIPUtils.isCompressed(bytes) ? GZIPUtils.decompress(bytes) : bytes);
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("timestamp", protoMsg.hasTimestamp() ? new Date(protoMsg.getTimestamp()) : null);
+        KuraPayloadProto.KuraPayload.KuraPosition position = protoMsg.getPosition();
+        boolean hasPosition = protoMsg.hasPosition() && (position.hasLatitude() || position.hasLongitude() || position.hasAltitude() || position.hasPrecision() || position.hasHeading() ||
+                position.hasSpeed() || position.hasSatellites() || position.hasStatus() || position.hasTimestamp());
+        snapshot.put("position", !hasPosition ? null : Arrays.asList(
+                position.hasLatitude() ? position.getLatitude() : null,
+                position.hasLongitude() ? position.getLongitude() : null,
+                position.hasAltitude() ? position.getAltitude() : null,
+                position.hasPrecision() ? position.getPrecision() : null,
+                position.hasHeading() ? position.getHeading() : null,
+                position.hasSpeed() ? position.getSpeed() : null,
+                position.hasTimestamp() ? new Date(position.getTimestamp()) : null,
+                position.hasSatellites() ? position.getSatellites() : null,
+                position.hasStatus() ? position.getStatus() : null));
+        Map<String, Object> metrics = new HashMap<>();
+        for (KuraMetric metric : protoMsg.getMetricList()) {
+            switch (metric.getType()) {
+                case DOUBLE:
+                    metrics.put(metric.getName(), metric.getDoubleValue());
+                    break;
+                case FLOAT:
+                    metrics.put(metric.getName(), metric.getFloatValue());
+                    break;
+                case INT64:
+                    metrics.put(metric.getName(), metric.getLongValue());
+                    break;
+                case INT32:
+                    metrics.put(metric.getName(), metric.getIntValue());
+                    break;
+                case BOOL:
+                    metrics.put(metric.getName(), metric.getBoolValue());
+                    break;
+                case STRING:
+                    metrics.put(metric.getName(), metric.getStringValue());
+                    break;
+                default:
+                    metrics.put(metric.getName(), metric.getBytesValue());
+            }
+        }
+        snapshot.put("metrics", metrics);
+        snapshot.put("body", protoMsg.hasBody() ? protoMsg.getBody() : null);
+        return snapshot;
+    }
+
+    private static Map<String, Object> snapshot(KuraPayload kuraPayload) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("timestamp", kuraPayload.getTimestamp());
+        DevicePosition position = kuraPayload.getPosition();
+        snapshot.put("position", position == null ? null : Arrays.asList(
+                position.getLatitude(),
+                position.getLongitude(),
+                position.getAltitude(),
+                position.getPrecision(),
+                position.getHeading(),
+                position.getSpeed(),
+                position.getTimestamp(),
+                position.getSatellites(),
+                position.getStatus()));
+        Map<String, Object> metrics = new HashMap<>();
+        kuraPayload.getMetrics().forEach((name, value) -> metrics.put(name, value instanceof byte[] ? ByteString.copyFrom((byte[]) value) : value));
+        snapshot.put("metrics", metrics);
+        snapshot.put("body", kuraPayload.getBody() != null ? ByteString.copyFrom(kuraPayload.getBody()) : null);
+        return snapshot;
+    }
+
+    private static byte[] metricField(byte[] metric) throws IOException {
+        return lengthDelimitedField(KuraPayloadProto.KuraPayload.METRIC_FIELD_NUMBER, metric);
+    }
+
+    private static byte[] varintField(int fieldNumber, long value) throws IOException {
+        ByteArrayOutputStream field = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(field);
+        output.writeInt64(fieldNumber, value);
+        output.flush();
+        return field.toByteArray();
+    }
+
+    private static byte[] lengthDelimitedField(int fieldNumber, byte[] value) throws IOException {
+        ByteArrayOutputStream field = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(field);
+        output.writeByteArray(fieldNumber, value);
+        output.flush();
+        return field.toByteArray();
+    }
+
+    /**
+     * A field of the given wire type, with a nested group containing a field of each wire type for groups.
+     */
+    private static byte[] unknownField(int fieldNumber, int wireType) throws IOException {
+        ByteArrayOutputStream field = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(field);
+        switch (wireType) {
+            case WireFormat.WIRETYPE_VARINT:
+                output.writeUInt64(fieldNumber, -1L);
+                break;
+            case WireFormat.WIRETYPE_FIXED32:
+                output.writeFixed32(fieldNumber, 0xcafebabe);
+                break;
+            case WireFormat.WIRETYPE_FIXED64:
+                output.writeFixed64(fieldNumber, 0xcafebabecafebabeL);
+                break;
+            case WireFormat.WIRETYPE_LENGTH_DELIMITED:
+                output.writeString(fieldNumber, "unknown");
+                break;
+            default:
+                output.writeTag(fieldNumber, WireFormat.WIRETYPE_START_GROUP);
+                output.writeUInt64(1, 1L);
+                output.writeFixed32(2, 2);
+                output.writeTag(3, WireFormat.WIRETYPE_START_GROUP);
+                output.writeString(4, "nested");
+                output.writeTag(3, WireFormat.WIRETYPE_END_GROUP);
+                output.writeTag(fieldNumber, WireFormat.WIRETYPE_END_GROUP);
+        }
+        output.flush();
+        return field.toByteArray();
+    }
+}
@@ -0,0 +1,273 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.call.message.kura.utils;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.primitives.Bytes;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compares {@link GZIPUtils#decompressingStream(byte[], Inflater)} with {@link GZIPUtils#decompress(byte[])}, which reads through {@link java.util.zip.GZIPInputStream}.
+ */
+@Category(JUnitTests.class)
+public class GZIPUtilsTest {
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private final Inflater inflater = new Inflater(true);
+
+    @Test
+    public void decompressingStreamTest() throws Exception {
+        Random random = new Random(42L);
+        byte[] incompressible = new byte[100000];
+        random.nextBytes(incompressible);
+        byte[] compressible = new byte[100000];
+        for (int i = 0; i < compressible.length; i++) {
+            compressible[i] = (byte) ('a' + i % 7);
+        }
+
+        for (byte[] data : Arrays.asList(new byte[0], new byte[] {1}, "Kura payload".getBytes(StandardCharsets.UTF_8), incompressible, compressible)) {
+            byte[] compressed = GZIPUtils.compress(data);
+            Assert.assertArrayEquals(data, decompressingStream(compressed));
+            assertSameAsGZIPInputStream(compressed);
+        }
+    }
+
+    @Test
+    public void singleByteReadTest() throws Exception {
+        byte[] data = "Kura payload".getBytes(StandardCharsets.UTF_8);
+        try (InputStream inputStream = GZIPUtils.decompressingStream(GZIPUtils.compress(data), inflater)) {
+            Assert.assertEquals(0, inputStream.read(new byte[1], 0, 0));
+            for (byte expected : data) {
+                Assert.assertEquals(expected & 0xff, inputStream.read());
+            }
+            Assert.assertEquals(-1, inputStream.read());
+            Assert.assertEquals(-1, inputStream.read(new byte[1], 0, 1));
+        }
+    }
+
+    @Test
+    public void headerFlagsTest() throws Exception {
+        byte[] data = "Kura payload".getBytes(StandardCharsets.UTF_8);
+        for (int flags = 0; flags < 32; flags++) {
+            byte[] member = member(flags, data);
+            Assert.assertArrayEquals("Flags " + flags, data, decompressingStream(member));
+            assertSameAsGZIPInputStream(member);
+
+            // Every truncation of the header
+            for (int length = 0; length < member.length; length++) {
+                assertSameAsGZIPInputStream(Arrays.copyOf(member, length));
+            }
+        }
+    }
+
+    @Test
+    public void corruptHeaderTest() throws Exception {
+        byte[] member = member(FHCRC | FNAME, "Kura payload".getBytes(StandardCharsets.UTF_8));
+
+        byte[] badHeaderCrc = member.clone();
+        badHeaderCrc[15] ^= 1;
+        assertSameAsGZIPInputStream(badHeaderCrc);
+
+        byte[] badMethod = member.clone();
+        badMethod[2] = 7;
+        assertSameAsGZIPInputStream(badMethod);
+
+        byte[] badMagic = member.clone();
+        badMagic[1] = 0;
+        assertSameAsGZIPInputStream(badMagic);
+    }
+
+    @Test
+    public void corruptTrailerTest() throws Exception {
+        byte[] compressed = GZIPUtils.compress("Kura payload".getBytes(StandardCharsets.UTF_8));
+
+        // CRC32 and ISIZE
+        for (int i = compressed.length - 8; i < compressed.length; i++) {
+            byte[] corrupted = compressed.clone();
+            corrupted[i] ^= 1;
+            assertFailure(corrupted);
+            assertSameAsGZIPInputStream(corrupted);
+        }
+        // Truncated trailer
+        for (int length = compressed.length - 8; length < compressed.length; length++) {
+            assertFailure(Arrays.copyOf(compressed, length));
+            assertSameAsGZIPInputStream(Arrays.copyOf(compressed, length));
+        }
+    }
+
+    @Test
+    public void multipleMembersTest() throws Exception {
+        byte[] first = GZIPUtils.compress("Kura ".getBytes(StandardCharsets.UTF_8));
+        byte[] second = member(FNAME | FHCRC, "payload".getBytes(StandardCharsets.UTF_8));
+        byte[] empty = GZIPUtils.compress(new byte[0]);
+
+        Assert.assertArrayEquals("Kura payload".getBytes(StandardCharsets.UTF_8), decompressingStream(Bytes.concat(first, second)));
+        Assert.assertArrayEquals("Kura payload".getBytes(StandardCharsets.UTF_8), decompressingStream(Bytes.concat(first, empty, second, empty)));
+
+        assertSameAsGZIPInputStream(Bytes.concat(first, second));
+        assertSameAsGZIPInputStream(Bytes.concat(empty, first, empty, second));
+        // Anything after the trailer which is not a member is ignored
+        assertSameAsGZIPInputStream(Bytes.concat(first, new byte[] {1, 2, 3}));
+        assertSameAsGZIPInputStream(Bytes.concat(first, new byte[] {(byte) 0x1f, (byte) 0x8b}));
+        assertSameAsGZIPInputStream(Bytes.concat(first, new byte[20]));
+        // Every truncation of the second member
+        for (int length = first.length; length < first.length + second.length; length++) {
+            assertSameAsGZIPInputStream(Arrays.copyOf(Bytes.concat(first, second), length));
+        }
+    }
+
+    @Test
+    public void corruptDataTest() throws Exception {
+        Random random = new Random(42L);
+        byte[] data = new byte[2000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(4));
+        }
+        byte[] compressed = Bytes.concat(GZIPUtils.compress(data), member(FEXTRA | FCOMMENT, data));
+
+        for (int i = 0; i < 5000; i++) {
+            byte[] corrupted = compressed.clone();
+            for (int flips = random.nextInt(3) + 1; flips > 0; flips--) {
+                corrupted[random.nextInt(corrupted.length)] ^= (byte) (1 << random.nextInt(8));
+            }
+            assertSameAsGZIPInputStream(corrupted);
+        }
+    }
+
+    @Test
+    public void inflaterReuseAfterFailureTest() throws Exception {
+        byte[] data = "Kura payload".getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = GZIPUtils.compress(data);
+
+        byte[] corruptData = compressed.clone();
+        corruptData[10] = (byte) 0xff;
+        byte[] corruptTrailer = compressed.clone();
+        corruptTrailer[compressed.length - 1] ^= 1;
+        byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+
+        for (byte[] failing : Arrays.asList(corruptData, corruptTrailer, truncated)) {
+            assertFailure(failing);
+            Assert.assertArrayEquals(data, decompressingStream(compressed));
+        }
+
+        // A failure in the middle of a read, leaving the Inflater with pending input
+        try (InputStream inputStream = GZIPUtils.decompressingStream(corruptTrailer, inflater)) {
+            Assert.assertEquals(data[0], (byte) inputStream.read());
+        }
+        Assert.assertArrayEquals(data, decompressingStream(compressed));
+    }
+
+    private byte[] decompressingStream(byte[] compressed) throws IOException {
+        try (InputStream inputStream = GZIPUtils.decompressingStream(compressed, inflater)) {
+            return ByteStreams.toByteArray(inputStream);
+        }
+    }
+
+    private void assertFailure(byte[] compressed) {
+        try {
+            decompressingStream(compressed);
+            Assert.fail("IOException expected");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    /**
+     * Both either decompress the same data or fail with the same {@link IOException}.
+     */
+    private void assertSameAsGZIPInputStream(byte[] compressed) {
+        byte[] expected = null;
+        IOException expectedException = null;
+        try {
+            expected = GZIPUtils.decompress(compressed);
+        } catch (IOException e) {
+            expectedException = e;
+        }
+
+        try {
+            byte[] actual = decompressingStream(compressed);
+            Assert.assertNull("Expected " + expectedException, expectedException);
+            Assert.assertArrayEquals(expected, actual);
+        } catch (IOException e) {
+            Assert.assertNotNull("Unexpected " + e, expectedException);
+            Assert.assertEquals(expectedException.getClass(), e.getClass());
+        }
+    }
+
+    /**
+     * A GZIP member with the given header flags, setting the optional header fields accordingly.
+     */
+    private static byte[] member(int flags, byte[] data) {
+        ByteArrayOutputStream member = new ByteArrayOutputStream();
+        member.write(0x1f);
+        member.write(0x8b);
+        member.write(8);
+        member.write(flags);
+        member.write(new byte[6], 0, 6);
+        if ((flags & FEXTRA) == FEXTRA) {
+            member.write(3);
+            member.write(0);
+            member.write(new byte[] {'x', 'y', 'z'}, 0, 3);
+        }
+        if ((flags & FNAME) == FNAME) {
+            member.write(new byte[] {'n', 'a', 'm', 'e', 0}, 0, 5);
+        }
+        if ((flags & FCOMMENT) == FCOMMENT) {
+            member.write(new byte[] {'c', 0}, 0, 2);
+        }
+        if ((flags & FHCRC) == FHCRC) {
+            CRC32 headerCrc = new CRC32();
+            headerCrc.update(member.toByteArray());
+            writeLittleEndian(member, headerCrc.getValue(), 2);
+        }
+
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(data);
+        deflater.finish();
+        byte[] buffer = new byte[1024];
+        while (!deflater.finished()) {
+            int deflated = deflater.deflate(buffer);
+            member.write(buffer, 0, deflated);
+        }
+        deflater.end();
+
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        writeLittleEndian(member, crc.getValue(), 4);
+        writeLittleEndian(member, data.length, 4);
+        return member.toByteArray();
+    }
+
+    private static void writeLittleEndian(ByteArrayOutputStream out, long value, int bytes) {
+        for (int i = 0; i < bytes; i++) {
+            out.write((int) (value >> (8 * i)) & 0xff);
+        }
+    }
+}
@@ -19,6 +19,7 @@ import org.eclipse.kapua.service.KapuaEntityService;
 import org.eclipse.kapua.service.KapuaUpdatableEntityService;
 import org.eclipse.kapua.service.config.KapuaConfigurableService;
 
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -41,6 +42,17 @@ public interface DeviceConnectionService extends KapuaEntityService<DeviceConnec
      */
     DeviceConnection findByClientId(KapuaId scopeId, String clientId) throws KapuaException;
 
+    /**
+     * Updates all the given {@link DeviceConnection}s in a single transaction.
+     * <p>
+     * Either all the {@link DeviceConnection}s are updated or none is.
+     *
+     * @param deviceConnections The {@link DeviceConnection}s to update.
+     * @return The updated {@link DeviceConnection}s, in the same order as the given ones.
+     * @throws KapuaException
+     * @since 2.1.0
+     */
+    List<DeviceConnection> updateAll(List<DeviceConnection> deviceConnections) throws KapuaException;
 
     /**
      * Returns the {@link DeviceConnectionListResult} with elements matching the provided query.
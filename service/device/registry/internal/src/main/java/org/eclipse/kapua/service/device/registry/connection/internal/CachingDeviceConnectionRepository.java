@@ -36,7 +36,7 @@ public class CachingDeviceConnectionRepository
 
     @Override
     public DeviceConnection update(TxContext tx, DeviceConnection deviceConnection) throws KapuaException {
-        deviceRegistryCache.removeByDeviceConnectionId(deviceConnection.getScopeId(), deviceConnection.getId());
+        deviceRegistryCache.removeByDeviceConnectionId(tx, deviceConnection.getScopeId(), deviceConnection.getId());
         return wrapped.update(tx, deviceConnection);
     }
 
@@ -62,13 +62,13 @@ public class CachingDeviceConnectionRepository
 
     @Override
     public DeviceConnection delete(TxContext txContext, KapuaId scopeId, KapuaId entityId) throws KapuaException {
-        deviceRegistryCache.removeByDeviceConnectionId(scopeId, entityId);
+        deviceRegistryCache.removeByDeviceConnectionId(txContext, scopeId, entityId);
         return wrapped.delete(txContext, scopeId, entityId);
     }
 
     @Override
     public DeviceConnection delete(TxContext txContext, DeviceConnection entityToDelete) {
-        deviceRegistryCache.removeByDeviceConnectionId(entityToDelete.getScopeId(), entityToDelete.getId());
+        deviceRegistryCache.removeByDeviceConnectionId(txContext, entityToDelete.getScopeId(), entityToDelete.getId());
         return wrapped.delete(txContext, entityToDelete);
     }
 
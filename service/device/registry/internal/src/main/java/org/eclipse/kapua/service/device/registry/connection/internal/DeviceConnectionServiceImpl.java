@@ -46,6 +46,8 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -133,22 +135,33 @@ public class DeviceConnectionServiceImpl extends KapuaConfigurableServiceBase im
     public DeviceConnection update(DeviceConnection deviceConnection)
             throws KapuaException {
         // Argument Validation
-        ArgumentValidator.notNull(deviceConnection, "deviceConnection");
-        ArgumentValidator.notNull(deviceConnection.getId(), "deviceConnection.id");
-        ArgumentValidator.notNull(deviceConnection.getScopeId(), "deviceConnection.scopeId");
-        ArgumentValidator.notNull(deviceConnection.getStatus(), "deviceConnection.status");
-        ArgumentValidator.notNull(deviceConnection.getUserId(), "deviceConnection.userId");
-        ArgumentValidator.notNull(deviceConnection.getUserCouplingMode(), "deviceConnection.userCouplingMode");
-        ArgumentValidator.notNull(deviceConnection.getAuthenticationType(), "deviceConnection.authenticationType");
-        if (!availableDeviceConnectionAdapters.containsKey(deviceConnection.getAuthenticationType())) {
-            throw new KapuaIllegalArgumentException("deviceConnection.authenticationType", deviceConnection.getAuthenticationType());
-        }
+        validateForUpdate(deviceConnection);
         // Check Access
         authorizationService.checkPermission(permissionFactory.newPermission(Domains.DEVICE_CONNECTION, Actions.write, null));
         // Do Update
         return txManager.execute(tx -> repository.update(tx, deviceConnection));
     }
 
+    @Override
+    public List<DeviceConnection> updateAll(List<DeviceConnection> deviceConnections)
+            throws KapuaException {
+        // Argument Validation
+        ArgumentValidator.notNull(deviceConnections, "deviceConnections");
+        for (DeviceConnection deviceConnection : deviceConnections) {
+            validateForUpdate(deviceConnection);
+        }
+        // Check Access
+        authorizationService.checkPermission(permissionFactory.newPermission(Domains.DEVICE_CONNECTION, Actions.write, null));
+        // Do Update
+        return txManager.execute(tx -> {
+            final List<DeviceConnection> updatedDeviceConnections = new ArrayList<>(deviceConnections.size());
+            for (DeviceConnection deviceConnection : deviceConnections) {
+                updatedDeviceConnections.add(repository.update(tx, deviceConnection));
+            }
+            return updatedDeviceConnections;
+        });
+    }
+
     @Override
     public DeviceConnection find(KapuaId scopeId, KapuaId entityId)
             throws KapuaException {
@@ -266,6 +279,19 @@ public class DeviceConnectionServiceImpl extends KapuaConfigurableServiceBase im
     }
     // Private methods
 
+    private void validateForUpdate(DeviceConnection deviceConnection) throws KapuaException {
+        ArgumentValidator.notNull(deviceConnection, "deviceConnection");
+        ArgumentValidator.notNull(deviceConnection.getId(), "deviceConnection.id");
+        ArgumentValidator.notNull(deviceConnection.getScopeId(), "deviceConnection.scopeId");
+        ArgumentValidator.notNull(deviceConnection.getStatus(), "deviceConnection.status");
+        ArgumentValidator.notNull(deviceConnection.getUserId(), "deviceConnection.userId");
+        ArgumentValidator.notNull(deviceConnection.getUserCouplingMode(), "deviceConnection.userCouplingMode");
+        ArgumentValidator.notNull(deviceConnection.getAuthenticationType(), "deviceConnection.authenticationType");
+        if (!availableDeviceConnectionAdapters.containsKey(deviceConnection.getAuthenticationType())) {
+            throw new KapuaIllegalArgumentException("deviceConnection.authenticationType", deviceConnection.getAuthenticationType());
+        }
+    }
+
     private void deleteConnectionByAccountId(KapuaId scopeId, KapuaId accountId) throws KapuaException {
         DeviceConnectionQuery query = entityFactory.newQuery(accountId);
 
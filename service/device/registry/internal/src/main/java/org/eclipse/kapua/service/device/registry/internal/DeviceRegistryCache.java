@@ -18,6 +18,7 @@ import org.eclipse.kapua.commons.service.internal.cache.KapuaCacheManager;
 import org.eclipse.kapua.model.KapuaEntity;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.device.registry.Device;
+import org.eclipse.kapua.storage.TxContext;
 
 import javax.cache.Cache;
 import java.io.Serializable;
@@ -122,4 +123,20 @@ public class DeviceRegistryCache extends EntityCache {
         }
         return null;
     }
+
+    /**
+     * Removes the {@link Device} of the {@link org.eclipse.kapua.service.device.registry.connection.DeviceConnection}
+     * from this node right away, and from this and the other nodes once the transaction has been committed.
+     *
+     * @param txContext          the {@link TxContext} of the transaction changing the connection
+     * @param scopeId            a {@link KapuaId} representing the scopeId
+     * @param deviceConnectionId the {@link KapuaId} of the connection
+     */
+    public void removeByDeviceConnectionId(TxContext txContext, KapuaId scopeId, KapuaId deviceConnectionId) {
+        // Resolved now, since the device is no longer cached by this node once removed
+        KapuaEntity kapuaEntity = getByDeviceConnectionId(scopeId, deviceConnectionId);
+        if (kapuaEntity != null) {
+            remove(txContext, kapuaEntity.getScopeId(), kapuaEntity.getId());
+        }
+    }
 }
@@ -191,6 +191,9 @@ public class DeviceLifeCycleServiceImpl implements DeviceLifeCycleService {
                     throw new KapuaEntityNotFoundException(Device.TYPE, deviceId);
                 }
 
+                // The found Device can be the cached instance, which must not be modified
+                device = deviceFactory.clone(device);
+
                 // If the BirthMessage does not contain a 'Display Name' keep the one registered on the DeviceRegistryService.
                 if (!Strings.isNullOrEmpty(birthPayload.getDisplayName())) {
                     device.setDisplayName(birthPayload.getDisplayName());
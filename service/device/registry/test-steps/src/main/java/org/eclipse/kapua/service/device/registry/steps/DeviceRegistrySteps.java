@@ -88,6 +88,7 @@ import org.eclipse.kapua.service.device.registry.DeviceQuery;
 import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
 import org.eclipse.kapua.service.device.registry.DeviceStatus;
 import org.eclipse.kapua.service.device.registry.connection.DeviceConnection;
+import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionAttributes;
 import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionCreator;
 import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionFactory;
 import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionListResult;
@@ -1295,6 +1296,49 @@ public class DeviceRegistrySteps extends TestBase {
         }
     }
 
+    @When("I query for the connections with the client IDs {string}")
+    public void queryForConnectionsByClientIds(String clientIds) throws Exception {
+        DeviceConnectionQuery query = deviceConnectionFactory.newQuery(getCurrentScopeId());
+        query.setPredicate(query.attributePredicate(DeviceConnectionAttributes.CLIENT_ID, Arrays.asList(clientIds.split(","))));
+        primeException();
+        try {
+            stepData.remove(DEVICE_CONNECTION_LIST);
+            DeviceConnectionListResult connectionList = deviceConnectionService.query(query);
+            Assert.assertNotNull(connectionList);
+            stepData.put(DEVICE_CONNECTION_LIST, connectionList);
+        } catch (KapuaException ex) {
+            verifyException(ex);
+        }
+    }
+
+    @When("I set the status of all the connections to {string} at once")
+    public void updateAllConnectionsStatus(String status) throws Exception {
+        DeviceConnectionStatus tmpStat = parseConnectionStatusString(status);
+        DeviceConnectionListResult connectionList = (DeviceConnectionListResult) stepData.get(DEVICE_CONNECTION_LIST);
+        Assert.assertNotNull(connectionList);
+        connectionList.getItems().forEach(connection -> connection.setStatus(tmpStat));
+        primeException();
+        try {
+            List<DeviceConnection> updatedConnections = deviceConnectionService.updateAll(connectionList.getItems());
+            Assert.assertEquals(connectionList.getSize(), updatedConnections.size());
+            DeviceConnectionListResult updatedConnectionList = deviceConnectionFactory.newListResult();
+            updatedConnectionList.addItems(updatedConnections);
+            stepData.put(DEVICE_CONNECTION_LIST, updatedConnectionList);
+        } catch (KapuaException ex) {
+            verifyException(ex);
+        }
+    }
+
+    @Then("All the connections have status {string}")
+    public void checkAllDeviceConnectionsStatus(String status) {
+        DeviceConnectionStatus tmpStat = parseConnectionStatusString(status);
+        DeviceConnectionListResult connectionList = (DeviceConnectionListResult) stepData.get(DEVICE_CONNECTION_LIST);
+        Assert.assertNotNull(connectionList);
+        for (DeviceConnection connection : connectionList.getItems()) {
+            Assert.assertEquals(tmpStat, connection.getStatus());
+        }
+    }
+
     @Then("I find {int} connection(s)")
     public void checkResultListLength(int num) {
         DeviceConnectionListResult connectionList = (DeviceConnectionListResult) stepData.get(DEVICE_CONNECTION_LIST);
@@ -56,6 +56,24 @@ Feature: Device Registry Connection tests
       | clientIp    | serverIp   | protocol | allowUserChange |
       | 127.0.0.109 | 127.0.0.25 | udp      | true            |
 
+  Scenario: Device connections bulk lookup and update
+  It must be possible to look up the device connections of many client IDs with
+  a single query and to update all of them at once.
+
+    Given The User ID 1
+    And Scope with ID 1
+    And I have the following connections
+      | clientId    | clientIp    | serverIp   | protocol | allowUserChange |
+      | testClient1 | 127.0.0.101 | 127.0.0.10 | tcp      | true            |
+      | testClient2 | 127.0.0.102 | 127.0.0.10 | tcp      | true            |
+      | testClient3 | 127.0.0.103 | 127.0.0.10 | tcp      | true            |
+    When I set the status of all the connections to "DISCONNECTED" at once
+    Then No exception was thrown
+    And I find 3 connections
+    When I query for the connections with the client IDs "testClient1,testClient3,testClient4"
+    Then I find 2 connections
+    And All the connections have status "DISCONNECTED"
+
   Scenario: Try to modify the connection client ID
   It must not be possible to change the client ID of an existing device connection.
   Attempts to change the client ID must be silently ignored. No exceptions must
@@ -182,6 +182,12 @@ public enum KapuaAuthenticationErrorCodes implements KapuaErrorCode {
      * When changing password, the value inserted for current password is incorrect
      */
     INCORRECT_CURRENT_PASSWORD,
+    /**
+     * The provided password could not be verified because too many logins are being verified at the same time.
+     *
+     * @since 2.1.0
+     */
+    LOGIN_CREDENTIALS_VERIFIER_OVERLOADED,
     /**
      * Authentication error
      *
@@ -12,22 +12,24 @@
  *******************************************************************************/
 package org.eclipse.kapua.service.authentication.credential.cache;
 
+import java.security.MessageDigest;
 import java.util.Date;
 
 public class CachedCredential {
 
     private Date modifiedOn;
-    private String tmpHash;
+    private byte[] tmpHash;
     private String hash;
 
-    CachedCredential(Date modifiedOn, String tmpHash, String hash) {
+    CachedCredential(Date modifiedOn, byte[] tmpHash, String hash) {
         this.modifiedOn = modifiedOn;
         this.tmpHash = tmpHash;
         this.hash = hash;
     }
 
-    public boolean isTokenMatches(String tmpHash, String hash) {
-        return this.tmpHash.equals(tmpHash) && this.hash.equals(hash);
+    public boolean isTokenMatches(byte[] tmpHash, String hash) {
+        // Constant time comparison, to not leak how much of the hash matches
+        return MessageDigest.isEqual(this.tmpHash, tmpHash) && this.hash.equals(hash);
     }
 
     public boolean isStillValid(Date lastModifiedOn) {
@@ -22,62 +22,50 @@ import org.eclipse.kapua.service.authentication.shiro.setting.KapuaAuthenticatio
 import org.eclipse.kapua.service.authentication.shiro.setting.KapuaAuthenticationSettingKeys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.bcrypt.BCrypt;
 
-import javax.crypto.BadPaddingException;
-import javax.crypto.Cipher;
-import javax.crypto.IllegalBlockSizeException;
-import javax.crypto.NoSuchPaddingException;
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
-import javax.crypto.SecretKeyFactory;
-import javax.crypto.spec.GCMParameterSpec;
-import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
 import javax.inject.Inject;
-import java.io.UnsupportedEncodingException;
-import java.nio.ByteBuffer;
-import java.security.InvalidAlgorithmParameterException;
+import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
-import java.security.spec.InvalidKeySpecException;
-import java.security.spec.KeySpec;
-import java.util.Base64;
 
 public class CachedPasswordMatcher implements PasswordMatcher {
 
     protected static final Logger logger = LoggerFactory.getLogger(CachedPasswordMatcher.class);
 
+    private static final String KEYED_HASH_ALGORITHM = "HmacSHA256";
+
     private final Cache<String, CachedCredential> cachedCredentials;
 
     private CacheMetric cacheMetric;
+    private PasswordVerifier passwordVerifier;
+    //session key. before modifying this code be sure this key, once generated, will not be changed at runtime
     private SecretKey secret;
-    private byte[] salt;
-    private byte[] iv;
-    private int saltIvLength;
+    private ThreadLocal<Mac> keyedHashes;
 
     @Inject
-    public CachedPasswordMatcher(CacheMetric cacheMetric, KapuaAuthenticationSetting kapuaAuthenticationSetting) throws NoSuchAlgorithmException, InvalidKeyException, InvalidKeySpecException, UnsupportedEncodingException, NoSuchPaddingException, InvalidAlgorithmParameterException {
+    public CachedPasswordMatcher(CacheMetric cacheMetric, KapuaAuthenticationSetting kapuaAuthenticationSetting, PasswordVerifier passwordVerifier) throws NoSuchAlgorithmException, InvalidKeyException {
         this.cacheMetric = cacheMetric;
+        this.passwordVerifier = passwordVerifier;
         this.cachedCredentials = new LocalCache<String, CachedCredential>(
                 kapuaAuthenticationSetting.getInt(KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_CACHE_CACHE_SIZE, 1000),
                 kapuaAuthenticationSetting.getInt(KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_CACHE_CACHE_TTL, 60),
                 null);
-        SecureRandom random = SecureRandom.getInstance("SHA1PRNG");
-        byte[] passwordBytes = new byte[64];
-        random.nextBytes(passwordBytes);
-        String password = new String(passwordBytes, "UTF-8");
-        salt = new byte[32];
-        random.nextBytes(salt);
-        iv = new byte[16];
-        random.nextBytes(iv);
-        saltIvLength = iv.length + salt.length;
-        SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
-        int iterationCount = 65536;
-        int keyLength = 256;
-        KeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterationCount, keyLength);
-        //session key. before modifying this code be sure this key, once generated, will not be changed at runtime
-        secret = new SecretKeySpec(factory.generateSecret(spec).getEncoded(), "AES");
+        byte[] key = new byte[32];
+        SecureRandom.getInstance("SHA1PRNG").nextBytes(key);
+        secret = new SecretKeySpec(key, KEYED_HASH_ALGORITHM);
+        // Fail fast if the algorithm is not available, instead of failing at the first login
+        newKeyedHash();
+        keyedHashes = ThreadLocal.withInitial(() -> {
+            try {
+                return newKeyedHash();
+            } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+                throw new IllegalStateException(e);
+            }
+        });
     }
 
     public boolean checkPassword(String tokenUsername, String tokenPassword, Credential infoCredential) {
@@ -87,12 +75,12 @@ public class CachedPasswordMatcher implements PasswordMatcher {
             cacheMetric.getCacheHit().inc();
             return true;
         } catch (Exception e) {
-            if (BCrypt.checkpw(tokenPassword, infoCredential.getCredentialKey())) {
+            if (passwordVerifier.checkPassword(tokenPassword, infoCredential.getCredentialKey())) {
                 //should be synchronized?
                 try {
                     cachedCredentials.put(tokenUsername, new CachedCredential(
                             infoCredential.getModifiedOn(),
-                            encodeText(tokenPassword.getBytes()),
+                            keyedHash(tokenPassword),
                             infoCredential.getCredentialKey()));
                 } catch (KapuaException ke) {
                     //cannot cache password so no problem, we can return true (since password is matching) and ignore the error
@@ -109,27 +97,31 @@ public class CachedPasswordMatcher implements PasswordMatcher {
     private void checkFromCache(CachedCredential cachedCredential, Credential infoCredential, String tokenPassword) throws KapuaException {
         if (cachedCredential == null ||
                 !cachedCredential.isStillValid(infoCredential.getModifiedOn()) ||
-                !cachedCredential.isTokenMatches(encodeText(tokenPassword.getBytes()), infoCredential.getCredentialKey())) {
+                !cachedCredential.isTokenMatches(keyedHash(tokenPassword), infoCredential.getCredentialKey())) {
             //not the proper exception btw
             throw new KapuaAuthenticationException(KapuaAuthenticationErrorCodes.AUTHENTICATION_ERROR);
         }
     }
 
-    private String encodeText(byte[] text) throws KapuaException {
+    /**
+     * Computes the keyed hash of the given password with the session key.
+     * <p>
+     * Only the keyed hash is kept in the cache: it cannot be reversed and it can be compared in constant time,
+     * and computing it costs a fraction of an encryption.
+     */
+    private byte[] keyedHash(String text) throws KapuaException {
         try {
-            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
-            cipher.init(Cipher.ENCRYPT_MODE, secret, new GCMParameterSpec(128, iv));
-            byte[] cipherText = cipher.doFinal(text);
-            byte[] cipherTextWithIvSalt = ByteBuffer.allocate(saltIvLength + cipherText.length)
-                    .put(iv)
-                    .put(salt)
-                    .put(cipherText)
-                    .array();
-            return Base64.getEncoder().encodeToString(cipherTextWithIvSalt);
-        } catch (IllegalBlockSizeException | BadPaddingException | NoSuchAlgorithmException | NoSuchPaddingException | InvalidAlgorithmParameterException | InvalidKeyException e) {
+            return keyedHashes.get().doFinal(text.getBytes(StandardCharsets.UTF_8));
+        } catch (IllegalStateException e) {
             cacheMetric.getPasswordEncryptionError().inc();
             throw KapuaException.internalError(e);
         }
     }
 
-}
\ No newline at end of file
+    private Mac newKeyedHash() throws NoSuchAlgorithmException, InvalidKeyException {
+        Mac mac = Mac.getInstance(KEYED_HASH_ALGORITHM);
+        mac.init(secret);
+        return mac;
+    }
+
+}
@@ -13,12 +13,17 @@
 package org.eclipse.kapua.service.authentication.credential.cache;
 
 import org.eclipse.kapua.service.authentication.credential.Credential;
-import org.springframework.security.crypto.bcrypt.BCrypt;
 
 public class DefaultPasswordMatcher implements PasswordMatcher {
 
+    private final PasswordVerifier passwordVerifier;
+
+    public DefaultPasswordMatcher(PasswordVerifier passwordVerifier) {
+        this.passwordVerifier = passwordVerifier;
+    }
+
     public boolean checkPassword(String tokenUsername, String tokenPassword, Credential infoCredential) {
-        return BCrypt.checkpw(tokenPassword, infoCredential.getCredentialKey());
+        return passwordVerifier.checkPassword(tokenPassword, infoCredential.getCredentialKey());
     }
 
 }
\ No newline at end of file
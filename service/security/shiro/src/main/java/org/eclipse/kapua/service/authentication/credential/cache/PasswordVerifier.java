@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authentication.credential.cache;
+
+import org.eclipse.kapua.KapuaRuntimeException;
+import org.eclipse.kapua.service.authentication.shiro.exceptions.PasswordVerifierOverloadedException;
+import org.eclipse.kapua.service.authentication.shiro.setting.KapuaAuthenticationSetting;
+import org.eclipse.kapua.service.authentication.shiro.setting.KapuaAuthenticationSettingKeys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+
+/**
+ * Verifies passwords against their BCrypt hashes on a dedicated and bounded pool of threads.
+ * <p>
+ * BCrypt is expensive by design: running it on the requesting threads lets a burst of logins saturate all the processors,
+ * starving everything else running on the same node. Verifications are instead queued in arrival order and run by a fixed number of threads.
+ * A verification that cannot be queued, or that does not complete in time, fails with a {@link PasswordVerifierOverloadedException}
+ * rather than as a password mismatch, so that it does not count against the lockout policy of the credential.
+ * <p>
+ * BCrypt cannot be interrupted: a verification that times out while still queued is removed from the queue and never runs,
+ * but one that is already running keeps its thread until it completes. The work is bounded by the number of threads and the queue size,
+ * not by the timeout, which only bounds how long the requesting thread waits.
+ *
+ * @since 2.1.0
+ */
+@Singleton
+public class PasswordVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordVerifier.class);
+
+    private final ThreadPoolExecutor executor;
+    private final long timeout;
+    private final BiPredicate<String, String> passwordChecker;
+
+    @Inject
+    public PasswordVerifier(KapuaAuthenticationSetting kapuaAuthenticationSetting) {
+        this(kapuaAuthenticationSetting.getInt(KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_VERIFIER_THREADS, 0),
+                kapuaAuthenticationSetting.getInt(KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_VERIFIER_QUEUE_SIZE, 1000),
+                kapuaAuthenticationSetting.getLong(KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_VERIFIER_TIMEOUT, 10000L),
+                BCrypt::checkpw);
+    }
+
+    PasswordVerifier(int threads, int queueSize, long timeout, BiPredicate<String, String> passwordChecker) {
+        if (threads <= 0) {
+            threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        this.timeout = timeout;
+        this.passwordChecker = passwordChecker;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize, true),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-verifier-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Checks whether the given plain text password matches the given BCrypt hash.
+     * <p>
+     * The invoking thread waits for the result, at most for the configured timeout.
+     *
+     * @param plainPassword  The plain text password.
+     * @param hashedPassword The BCrypt hash to match.
+     * @return {@code true} if the password matches, {@code false} otherwise.
+     * @throws PasswordVerifierOverloadedException If the verification cannot be queued, does not complete in time or the waiting thread is interrupted.
+     * @since 2.1.0
+     */
+    public boolean checkPassword(String plainPassword, String hashedPassword) {
+        final Future<Boolean> verification;
+        try {
+            verification = executor.submit(() -> passwordChecker.test(plainPassword, hashedPassword));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Too many pending password verifications. The verification has been rejected");
+            throw new PasswordVerifierOverloadedException("Too many pending password verifications");
+        }
+
+        try {
+            return verification.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            abort(verification);
+            logger.warn("Password verification did not complete within {}ms. The verification has been aborted", timeout);
+            throw new PasswordVerifierOverloadedException("Password verification did not complete within " + timeout + "ms");
+        } catch (InterruptedException e) {
+            abort(verification);
+            Thread.currentThread().interrupt();
+            throw new PasswordVerifierOverloadedException("Interrupted while waiting for the password verification");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw KapuaRuntimeException.internalError(e.getCause(), "Error while verifying password");
+        }
+    }
+
+    /**
+     * Aborts the given verification.
+     * <p>
+     * A queued verification is removed from the queue, freeing its slot. A running one cannot be interrupted and completes anyway.
+     *
+     * @param verification The verification to abort.
+     */
+    private void abort(Future<Boolean> verification) {
+        verification.cancel(false);
+        if (verification instanceof Runnable) {
+            executor.remove((Runnable) verification);
+        }
+    }
+
+    /**
+     * Stops the verification threads.
+     *
+     * @since 2.1.0
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -54,6 +54,7 @@ import org.eclipse.kapua.service.authentication.credential.CredentialFactory;
 import org.eclipse.kapua.service.authentication.credential.CredentialRepository;
 import org.eclipse.kapua.service.authentication.credential.CredentialService;
 import org.eclipse.kapua.service.authentication.credential.cache.CacheMetric;
+import org.eclipse.kapua.service.authentication.credential.cache.PasswordVerifier;
 import org.eclipse.kapua.service.authentication.credential.mfa.MfaOptionFactory;
 import org.eclipse.kapua.service.authentication.credential.mfa.MfaOptionRepository;
 import org.eclipse.kapua.service.authentication.credential.mfa.MfaOptionService;
@@ -118,6 +119,7 @@ public class AuthenticationModule extends AbstractKapuaModule {
         bind(MfaAuthenticator.class).to(MfaAuthenticatorImpl.class).in(Singleton.class);
         bind(KapuaCryptoSetting.class).in(Singleton.class);
         bind(CacheMetric.class).in(Singleton.class);
+        bind(PasswordVerifier.class).in(Singleton.class);
     }
 
     @Provides
@@ -56,6 +56,7 @@ import org.eclipse.kapua.service.authentication.credential.mfa.MfaOptionService;
 import org.eclipse.kapua.service.authentication.exception.KapuaAuthenticationErrorCodes;
 import org.eclipse.kapua.service.authentication.exception.KapuaAuthenticationException;
 import org.eclipse.kapua.service.authentication.shiro.exceptions.MfaRequiredException;
+import org.eclipse.kapua.service.authentication.shiro.exceptions.PasswordVerifierOverloadedException;
 import org.eclipse.kapua.service.authentication.shiro.realm.CredentialsConverter;
 import org.eclipse.kapua.service.authentication.shiro.realm.KapuaAuthenticationToken;
 import org.eclipse.kapua.service.authentication.shiro.session.ShiroSessionKeys;
@@ -510,6 +511,8 @@ public class AuthenticationServiceShiroImpl implements AuthenticationService {
             kae = new KapuaAuthenticationException(KapuaAuthenticationErrorCodes.DISABLED_LOGIN_CREDENTIAL, se, authenticationToken.getPrincipal());
         } else if (se instanceof MfaRequiredException) {
             kae = new KapuaAuthenticationException(KapuaAuthenticationErrorCodes.REQUIRE_MFA_CREDENTIALS, se, authenticationToken.getPrincipal());
+        } else if (se instanceof PasswordVerifierOverloadedException) {
+            kae = new KapuaAuthenticationException(KapuaAuthenticationErrorCodes.LOGIN_CREDENTIALS_VERIFIER_OVERLOADED, se, authenticationToken.getPrincipal());
         } else if (se instanceof IncorrectCredentialsException) {
             if (checkIfCredentialHasJustBeenLocked(authenticationToken)) {
                 kae = new KapuaAuthenticationException(KapuaAuthenticationErrorCodes.LOCKED_LOGIN_CREDENTIAL, se, authenticationToken.getPrincipal());
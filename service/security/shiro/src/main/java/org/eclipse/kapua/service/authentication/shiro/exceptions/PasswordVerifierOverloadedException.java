@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authentication.shiro.exceptions;
+
+import org.apache.shiro.authc.AuthenticationException;
+import org.eclipse.kapua.service.authentication.credential.cache.PasswordVerifier;
+
+/**
+ * The password could not be verified because the {@link PasswordVerifier} is overloaded.
+ * <p>
+ * It says nothing about the provided password, so it does not count as a failed login attempt.
+ *
+ * @since 2.1.0
+ */
+public class PasswordVerifierOverloadedException extends AuthenticationException {
+
+    private static final long serialVersionUID = -5071716153404946112L;
+
+    public PasswordVerifierOverloadedException(String message) {
+        super(message);
+    }
+}
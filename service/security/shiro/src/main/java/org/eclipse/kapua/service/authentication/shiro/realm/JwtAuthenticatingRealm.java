@@ -39,6 +39,7 @@ import org.eclipse.kapua.service.authentication.shiro.JwtCredentialsImpl;
 import org.eclipse.kapua.service.authentication.shiro.setting.KapuaAuthenticationSetting;
 import org.eclipse.kapua.service.authentication.shiro.setting.KapuaAuthenticationSettingKeys;
 import org.eclipse.kapua.service.user.User;
+import org.eclipse.kapua.service.user.UserFactory;
 import org.eclipse.kapua.service.user.UserService;
 import org.jose4j.jwt.consumer.JwtContext;
 import org.slf4j.Logger;
@@ -59,6 +60,7 @@ public class JwtAuthenticatingRealm extends KapuaAuthenticatingRealm implements
     private final Boolean ssoUserExternalUsernameAutofill;
     // Get services
     private final UserService userService = KapuaLocator.getInstance().getService(UserService.class);
+    private final UserFactory userFactory = KapuaLocator.getInstance().getFactory(UserFactory.class);
     private final OpenIDService openIDService = KapuaLocator.getInstance().getComponent(OpenIDLocator.class).getService();
     private final KapuaAuthenticationSetting authenticationSetting = KapuaLocator.getInstance().getComponent(KapuaAuthenticationSetting.class);
     /**
@@ -121,6 +123,8 @@ public class JwtAuthenticatingRealm extends KapuaAuthenticatingRealm implements
                 String externalUsername = extractExternalUsername(jwtIdToken);
 
                 if (!Strings.isNullOrEmpty(externalUsername)) {
+                    // The found User can be the cached instance, which must not be modified
+                    user = userFactory.clone(user);
                     user.setExternalUsername(externalUsername);
                     user = updateUser(user);
                 }
@@ -144,6 +148,7 @@ public class JwtAuthenticatingRealm extends KapuaAuthenticatingRealm implements
                     // Update User.externalId if autofill is enabled
                     if (ssoUserExternalIdAutofill && user != null) {
                         String userExternalId = extractExternalId(jwtIdToken);
+                        user = userFactory.clone(user);
                         user.setExternalId(userExternalId);
                         user = updateUser(user);
                     }
@@ -275,6 +280,7 @@ public class JwtAuthenticatingRealm extends KapuaAuthenticatingRealm implements
                 String userExternalId = extractExternalId(jwtCredentials.getIdToken());
 
                 if (!Strings.isNullOrEmpty(userExternalId)) {
+                    user = userFactory.clone(user);
                     user.setExternalId(userExternalId);
                     user = updateUser(user);
                 }
@@ -27,6 +27,7 @@ import org.eclipse.kapua.service.authentication.credential.Credential;
 import org.eclipse.kapua.service.authentication.credential.handler.shiro.PasswordCredentialTypeHandler;
 import org.eclipse.kapua.service.authentication.shiro.UsernamePasswordCredentialsImpl;
 import org.eclipse.kapua.service.authentication.shiro.exceptions.MfaRequiredException;
+import org.eclipse.kapua.service.authentication.shiro.exceptions.PasswordVerifierOverloadedException;
 import org.eclipse.kapua.service.user.User;
 import org.eclipse.kapua.service.user.UserService;
 import org.slf4j.Logger;
@@ -120,6 +121,9 @@ public class UserPassAuthenticatingRealm extends KapuaAuthenticatingRealm {
             super.assertCredentialsMatch(authcToken, info);
         } catch (MfaRequiredException mfaRequiredException) {
             throw mfaRequiredException;
+        } catch (PasswordVerifierOverloadedException passwordVerifierOverloadedException) {
+            // The password has not been checked at all
+            throw passwordVerifierOverloadedException;
         } catch (AuthenticationException authenticationException) {
             // Increase count of failed attempts
             increaseLockoutPolicyCount(kapuaInfo);
@@ -26,6 +26,7 @@ import org.eclipse.kapua.service.authentication.credential.cache.CacheMetric;
 import org.eclipse.kapua.service.authentication.credential.cache.CachedPasswordMatcher;
 import org.eclipse.kapua.service.authentication.credential.cache.DefaultPasswordMatcher;
 import org.eclipse.kapua.service.authentication.credential.cache.PasswordMatcher;
+import org.eclipse.kapua.service.authentication.credential.cache.PasswordVerifier;
 import org.eclipse.kapua.service.authentication.credential.handler.shiro.PasswordCredentialTypeHandler;
 import org.eclipse.kapua.service.authentication.credential.mfa.MfaOptionService;
 import org.eclipse.kapua.service.authentication.shiro.AuthenticationServiceShiroImpl;
@@ -35,12 +36,8 @@ import org.eclipse.kapua.service.user.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.crypto.NoSuchPaddingException;
-import java.io.UnsupportedEncodingException;
-import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
-import java.security.spec.InvalidKeySpecException;
 
 /**
  * {@link ApiKeyCredentials} {@link CredentialsMatcher} implementation.
@@ -61,16 +58,17 @@ public class UserPassCredentialsMatcher implements CredentialsMatcher {
         locator = KapuaLocator.getInstance();
         mfaOptionService = locator.getService(MfaOptionService.class);
         kapuaAuthenticationSetting = locator.getComponent(KapuaAuthenticationSetting.class);
+        PasswordVerifier passwordVerifier = locator.getComponent(PasswordVerifier.class);
         if (kapuaAuthenticationSetting.getBoolean(KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_CACHE_ENABLE, true)) {
             logger.info("Cache enabled. Initializing CachePasswordChecker...");
             try {
-                passwordMatcher = new CachedPasswordMatcher(locator.getComponent(CacheMetric.class), locator.getComponent(KapuaAuthenticationSetting.class));
-            } catch (InvalidKeyException | NoSuchAlgorithmException | InvalidKeySpecException | UnsupportedEncodingException | InvalidAlgorithmParameterException | NoSuchPaddingException e) {
+                passwordMatcher = new CachedPasswordMatcher(locator.getComponent(CacheMetric.class), locator.getComponent(KapuaAuthenticationSetting.class), passwordVerifier);
+            } catch (InvalidKeyException | NoSuchAlgorithmException e) {
                 throw KapuaRuntimeException.internalError(e, "Cannot instantiate CachedPasswordMatcher");
             }
         } else {
             logger.info("Cache disabled. Initializing NoCachePasswordChecker...");
-            passwordMatcher = new DefaultPasswordMatcher();
+            passwordMatcher = new DefaultPasswordMatcher(passwordVerifier);
         }
     }
 
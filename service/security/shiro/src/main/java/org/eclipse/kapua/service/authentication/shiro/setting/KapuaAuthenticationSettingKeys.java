@@ -36,6 +36,9 @@ public enum KapuaAuthenticationSettingKeys implements SettingKey {
     AUTHENTICATION_CREDENTIAL_USERPASS_CACHE_CACHE_TTL("authentication.credential.userpass.cache.ttl"), //
     AUTHENTICATION_CREDENTIAL_USERPASS_CACHE_CACHE_SIZE("authentication.credential.userpass.cache.size"), //
     AUTHENTICATION_CREDENTIAL_USERPASS_PASSWORD_MINLENGTH("authentication.credential.userpass.password.minlength"), //
+    AUTHENTICATION_CREDENTIAL_USERPASS_VERIFIER_THREADS("authentication.credential.userpass.verifier.threads"), //
+    AUTHENTICATION_CREDENTIAL_USERPASS_VERIFIER_QUEUE_SIZE("authentication.credential.userpass.verifier.queue.size"), //
+    AUTHENTICATION_CREDENTIAL_USERPASS_VERIFIER_TIMEOUT("authentication.credential.userpass.verifier.timeout"), //
 
     AUTHENTICATION_CREDENTIAL_AUDIENCE_ALLOWED("authentication.credential.jwt.audience.allowed"), //
     AUTHENTICATION_CREDENTIAL_JWT_CACHE_ENABLE("authentication.credential.jwt.cache.enabled"), //
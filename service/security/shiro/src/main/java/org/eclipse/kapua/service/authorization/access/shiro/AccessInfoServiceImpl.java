@@ -42,6 +42,7 @@ import org.eclipse.kapua.service.authorization.permission.PermissionFactory;
 import org.eclipse.kapua.service.authorization.permission.shiro.PermissionValidator;
 import org.eclipse.kapua.service.authorization.role.Role;
 import org.eclipse.kapua.service.authorization.role.RoleRepository;
+import org.eclipse.kapua.service.authorization.shiro.PermissionIndexCache;
 import org.eclipse.kapua.storage.TxManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,6 +69,7 @@ public class AccessInfoServiceImpl implements AccessInfoService {
     private final AccessPermissionRepository accessPermissionRepository;
     private final AccessPermissionFactory accessPermissionFactory;
     private final PermissionValidator permissionValidator;
+    private final PermissionIndexCache permissionIndexCache;
 
     public AccessInfoServiceImpl(AuthorizationService authorizationService,
                                  PermissionFactory permissionFactory,
@@ -79,7 +81,8 @@ public class AccessInfoServiceImpl implements AccessInfoService {
                                  AccessInfoFactory accessInfoFactory,
                                  AccessPermissionRepository accessPermissionRepository,
                                  AccessPermissionFactory accessPermissionFactory,
-                                 PermissionValidator permissionValidator) {
+                                 PermissionValidator permissionValidator,
+                                 PermissionIndexCache permissionIndexCache) {
         this.authorizationService = authorizationService;
         this.permissionFactory = permissionFactory;
         this.txManager = txManager;
@@ -91,6 +94,7 @@ public class AccessInfoServiceImpl implements AccessInfoService {
         this.accessPermissionRepository = accessPermissionRepository;
         this.accessPermissionFactory = accessPermissionFactory;
         this.permissionValidator = permissionValidator;
+        this.permissionIndexCache = permissionIndexCache;
     }
 
     @Override
@@ -109,7 +113,7 @@ public class AccessInfoServiceImpl implements AccessInfoService {
         }
 
         permissionValidator.validatePermissions(accessInfoCreator.getPermissions());
-        return txManager.execute(tx -> {
+        final AccessInfo createdAccessInfo = txManager.execute(tx -> {
             if (accessInfoCreator.getRoleIds() != null) {
                 for (KapuaId roleId : accessInfoCreator.getRoleIds()) {
                     // This checks also that the role belong to the same scopeId in which the access info is created
@@ -155,6 +159,8 @@ public class AccessInfoServiceImpl implements AccessInfoService {
             return accessInfo;
 
         });
+        permissionIndexCache.invalidate(createdAccessInfo.getUserId());
+        return createdAccessInfo;
     }
 
     @Override
@@ -206,6 +212,7 @@ public class AccessInfoServiceImpl implements AccessInfoService {
         authorizationService.checkPermission(permissionFactory.newPermission(Domains.ACCESS_INFO, Actions.delete, scopeId));
 
         txManager.execute(tx -> accessInfoRepository.delete(tx, scopeId, accessInfoId));
+        permissionIndexCache.invalidateAll();
     }
 
     //@ListenServiceEvent(fromAddress="account")
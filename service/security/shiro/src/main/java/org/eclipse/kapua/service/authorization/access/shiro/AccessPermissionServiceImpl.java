@@ -34,6 +34,7 @@ import org.eclipse.kapua.service.authorization.access.AccessPermissionService;
 import org.eclipse.kapua.service.authorization.permission.Permission;
 import org.eclipse.kapua.service.authorization.permission.PermissionFactory;
 import org.eclipse.kapua.service.authorization.permission.shiro.PermissionValidator;
+import org.eclipse.kapua.service.authorization.shiro.PermissionIndexCache;
 import org.eclipse.kapua.storage.TxManager;
 
 import javax.inject.Inject;
@@ -57,6 +58,7 @@ public class AccessPermissionServiceImpl implements AccessPermissionService {
     private final AccessPermissionRepository accessPermissionRepository;
     private final AccessInfoRepository accessInfoRepository;
     private final PermissionValidator permissionValidator;
+    private final PermissionIndexCache permissionIndexCache;
 
     @Inject
     public AccessPermissionServiceImpl(
@@ -65,13 +67,15 @@ public class AccessPermissionServiceImpl implements AccessPermissionService {
             TxManager txManager,
             AccessPermissionRepository accessPermissionRepository,
             AccessInfoRepository accessInfoRepository,
-            PermissionValidator permissionValidator) {
+            PermissionValidator permissionValidator,
+            PermissionIndexCache permissionIndexCache) {
         this.authorizationService = authorizationService;
         this.permissionFactory = permissionFactory;
         this.txManager = txManager;
         this.accessPermissionRepository = accessPermissionRepository;
         this.accessInfoRepository = accessInfoRepository;
         this.permissionValidator = permissionValidator;
+        this.permissionIndexCache = permissionIndexCache;
     }
 
     @Override
@@ -91,7 +95,7 @@ public class AccessPermissionServiceImpl implements AccessPermissionService {
 
         permissionValidator.validatePermission(permission);
 
-        return txManager.execute(tx -> {
+        final AccessPermission createdAccessPermission = txManager.execute(tx -> {
             // Check duplicates
             AccessPermissionQuery query = new AccessPermissionQueryImpl(accessPermissionCreator.getScopeId());
             query.setPredicate(
@@ -127,6 +131,8 @@ public class AccessPermissionServiceImpl implements AccessPermissionService {
             accessPermission.setPermission(accessPermissionCreator.getPermission());
             return accessPermissionRepository.create(tx, accessPermission);
         });
+        permissionIndexCache.invalidateAll();
+        return createdAccessPermission;
     }
 
     @Override
@@ -138,6 +144,7 @@ public class AccessPermissionServiceImpl implements AccessPermissionService {
         authorizationService.checkPermission(permissionFactory.newPermission(Domains.ACCESS_INFO, Actions.delete, scopeId));
 
         txManager.execute(tx -> accessPermissionRepository.delete(tx, scopeId, accessPermissionId));
+        permissionIndexCache.invalidateAll();
     }
 
     @Override
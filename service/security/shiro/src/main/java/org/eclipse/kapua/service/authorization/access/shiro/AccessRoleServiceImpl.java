@@ -35,6 +35,7 @@ import org.eclipse.kapua.service.authorization.permission.PermissionFactory;
 import org.eclipse.kapua.service.authorization.role.Role;
 import org.eclipse.kapua.service.authorization.role.RolePermissionAttributes;
 import org.eclipse.kapua.service.authorization.role.RoleRepository;
+import org.eclipse.kapua.service.authorization.shiro.PermissionIndexCache;
 import org.eclipse.kapua.storage.TxManager;
 
 import javax.inject.Inject;
@@ -54,6 +55,7 @@ public class AccessRoleServiceImpl implements AccessRoleService {
     private final AccessRoleRepository accessRoleRepository;
     private final AuthorizationService authorizationService;
     private final PermissionFactory permissionFactory;
+    private final PermissionIndexCache permissionIndexCache;
 
     @Inject
     public AccessRoleServiceImpl(
@@ -62,13 +64,15 @@ public class AccessRoleServiceImpl implements AccessRoleService {
             AccessInfoRepository accessInfoRepository,
             AccessRoleRepository accessRoleRepository,
             AuthorizationService authorizationService,
-            PermissionFactory permissionFactory) {
+            PermissionFactory permissionFactory,
+            PermissionIndexCache permissionIndexCache) {
         this.txManager = txManager;
         this.roleRepository = roleRepository;
         this.accessInfoRepository = accessInfoRepository;
         this.accessRoleRepository = accessRoleRepository;
         this.authorizationService = authorizationService;
         this.permissionFactory = permissionFactory;
+        this.permissionIndexCache = permissionIndexCache;
     }
 
     @Override
@@ -80,7 +84,7 @@ public class AccessRoleServiceImpl implements AccessRoleService {
         // Check Access
         authorizationService.checkPermission(permissionFactory.newPermission(Domains.ACCESS_INFO, Actions.write, accessRoleCreator.getScopeId()));
 
-        return txManager.execute(tx -> {
+        final AccessRole createdAccessRole = txManager.execute(tx -> {
             // Check that AccessInfo exists
             final AccessInfo accessInfo = accessInfoRepository.find(tx, accessRoleCreator.getScopeId(), accessRoleCreator.getAccessInfoId())
                     .orElseThrow(() -> new KapuaEntityNotFoundException(AccessInfo.TYPE, accessRoleCreator.getAccessInfoId()));
@@ -108,6 +112,8 @@ public class AccessRoleServiceImpl implements AccessRoleService {
             accessRole.setRoleId(accessRoleCreator.getRoleId());
             return accessRoleRepository.create(tx, accessRole);
         });
+        permissionIndexCache.invalidateAll();
+        return createdAccessRole;
     }
 
     @Override
@@ -165,5 +171,6 @@ public class AccessRoleServiceImpl implements AccessRoleService {
         authorizationService.checkPermission(permissionFactory.newPermission(Domains.ACCESS_INFO, Actions.delete, scopeId));
         // Do delete
         txManager.execute(tx -> accessRoleRepository.delete(tx, scopeId, accessRoleId));
+        permissionIndexCache.invalidateAll();
     }
 }
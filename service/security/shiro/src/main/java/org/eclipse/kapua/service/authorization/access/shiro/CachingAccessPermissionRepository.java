@@ -37,7 +37,7 @@ public class CachingAccessPermissionRepository
     @Override
     public AccessPermission create(TxContext tx, AccessPermission entity) throws KapuaException {
         final AccessPermission created = super.create(tx, entity);
-        entityCache.removeList(created.getScopeId(), created.getAccessInfoId());
+        entityCache.removeList(tx, created.getScopeId(), created.getAccessInfoId());
         return created;
     }
 
@@ -46,7 +46,7 @@ public class CachingAccessPermissionRepository
 
         final AccessPermission deleted = super.delete(tx, scopeId, entityId);
         if (deleted != null) {
-            entityCache.removeList(scopeId, deleted.getAccessInfoId());
+            entityCache.removeList(tx, scopeId, deleted.getAccessInfoId());
         }
         return deleted;
     }
@@ -69,7 +69,7 @@ public class CachingAccessPermissionRepository
     public AccessPermissionListResult deleteAllByDomainAndAction(TxContext tx, String domainEntryName, Actions actionToDelete) throws KapuaException {
         final AccessPermissionListResult removed = wrapped.deleteAllByDomainAndAction(tx, domainEntryName, actionToDelete);
         if (!removed.isEmpty()) {
-            removed.getItems().forEach(item -> entityCache.removeList(item.getScopeId(), item.getAccessInfoId()));
+            removed.getItems().forEach(item -> entityCache.removeList(tx, item.getScopeId(), item.getAccessInfoId()));
         }
         return removed;
     }
@@ -44,7 +44,7 @@ public class CachingAccessRoleRepository extends KapuaEntityRepositoryCachingWra
     public AccessRole delete(TxContext tx, KapuaId scopeId, KapuaId entityId) throws KapuaException {
         final AccessRole deleted = super.delete(tx, scopeId, entityId);
         if (deleted != null) {
-            entityCache.removeList(scopeId, deleted.getAccessInfoId());
+            entityCache.removeList(tx, scopeId, deleted.getAccessInfoId());
         }
         return deleted;
     }
@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.domain.shiro;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.service.internal.cache.EntityCache;
+import org.eclipse.kapua.commons.storage.KapuaEntityRepositoryCachingWrapper;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.authorization.domain.Domain;
+import org.eclipse.kapua.service.authorization.domain.DomainListResult;
+import org.eclipse.kapua.service.authorization.domain.DomainRepository;
+import org.eclipse.kapua.storage.TxContext;
+
+import java.util.Optional;
+
+/**
+ * Caches the {@link Domain}s by id, so that their deletions are propagated to the other nodes by the {@link EntityCache}.
+ *
+ * @since 2.1.0
+ */
+public class CachingDomainRepository
+        extends KapuaEntityRepositoryCachingWrapper<Domain, DomainListResult>
+        implements DomainRepository {
+
+    private final DomainRepository wrapped;
+
+    public CachingDomainRepository(DomainRepository wrapped, EntityCache entityCache) {
+        super(wrapped, entityCache);
+        this.wrapped = wrapped;
+    }
+
+    @Override
+    public Optional<Domain> findByName(TxContext txContext, KapuaId scopeId, String name) throws KapuaException {
+        return wrapped.findByName(txContext, scopeId, name);
+    }
+}
@@ -36,21 +36,21 @@ public class RolePermissionCachingRepository
     @Override
     public RolePermission create(TxContext txContext, RolePermission entity) throws KapuaException {
         final RolePermission created = super.create(txContext, entity);
-        entityCache.removeList(entity.getScopeId(), entity.getRoleId());
+        entityCache.removeList(txContext, entity.getScopeId(), entity.getRoleId());
         return created;
     }
 
     @Override
     public RolePermission delete(TxContext txContext, KapuaId scopeId, KapuaId entityId) throws KapuaException {
         final RolePermission deleted = super.delete(txContext, scopeId, entityId);
-        entityCache.removeList(scopeId, deleted.getRoleId());
+        entityCache.removeList(txContext, scopeId, deleted.getRoleId());
         return deleted;
     }
 
     @Override
     public RolePermission delete(TxContext txContext, RolePermission entityToDelete) {
         final RolePermission deleted = super.delete(txContext, entityToDelete);
-        entityCache.removeList(deleted.getScopeId(), deleted.getRoleId());
+        entityCache.removeList(txContext, deleted.getScopeId(), deleted.getRoleId());
         return deleted;
     }
 
@@ -71,7 +71,7 @@ public class RolePermissionCachingRepository
     public RolePermissionListResult deleteAllByDomainAndAction(TxContext tx, String domainName, Actions actionToDelete) throws KapuaException {
         final RolePermissionListResult removed = wrapped.deleteAllByDomainAndAction(tx, domainName, actionToDelete);
         if (!removed.isEmpty()) {
-            removed.getItems().forEach(item -> entityCache.removeList(item.getScopeId(), item.getRoleId()));
+            removed.getItems().forEach(item -> entityCache.removeList(tx, item.getScopeId(), item.getRoleId()));
         }
         return removed;
     }
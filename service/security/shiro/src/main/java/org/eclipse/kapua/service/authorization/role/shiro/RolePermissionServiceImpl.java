@@ -35,6 +35,7 @@ import org.eclipse.kapua.service.authorization.role.RolePermissionQuery;
 import org.eclipse.kapua.service.authorization.role.RolePermissionRepository;
 import org.eclipse.kapua.service.authorization.role.RolePermissionService;
 import org.eclipse.kapua.service.authorization.role.RoleRepository;
+import org.eclipse.kapua.service.authorization.shiro.PermissionIndexCache;
 import org.eclipse.kapua.storage.TxManager;
 
 import javax.inject.Singleton;
@@ -57,18 +58,21 @@ public class RolePermissionServiceImpl implements RolePermissionService {
     private final RoleRepository roleRepository;
     private final RolePermissionRepository rolePermissionRepository;
     private final PermissionValidator permissionValidator;
+    private final PermissionIndexCache permissionIndexCache;
 
     public RolePermissionServiceImpl(
             AuthorizationService authorizationService, PermissionFactory permissionFactory, TxManager txManager,
             RoleRepository roleRepository,
             RolePermissionRepository rolePermissionRepository,
-            PermissionValidator permissionValidator) {
+            PermissionValidator permissionValidator,
+            PermissionIndexCache permissionIndexCache) {
         this.authorizationService = authorizationService;
         this.permissionFactory = permissionFactory;
         this.txManager = txManager;
         this.roleRepository = roleRepository;
         this.rolePermissionRepository = rolePermissionRepository;
         this.permissionValidator = permissionValidator;
+        this.permissionIndexCache = permissionIndexCache;
     }
 
     @Override
@@ -80,7 +84,7 @@ public class RolePermissionServiceImpl implements RolePermissionService {
         // Check Access
         authorizationService.checkPermission(permissionFactory.newPermission(Domains.ROLE, Actions.write, rolePermissionCreator.getScopeId()));
 
-        return txManager.execute(tx -> {
+        final RolePermission createdRolePermission = txManager.execute(tx -> {
             // Check role existence
             final Role role = roleRepository.find(tx, rolePermissionCreator.getScopeId(), rolePermissionCreator.getRoleId())
                     .orElseThrow(() -> new KapuaEntityNotFoundException(Role.TYPE, rolePermissionCreator.getRoleId()));
@@ -123,6 +127,8 @@ public class RolePermissionServiceImpl implements RolePermissionService {
             rolePermission.setPermission(rolePermissionCreator.getPermission());
             return rolePermissionRepository.create(tx, rolePermission);
         });
+        permissionIndexCache.invalidateAll();
+        return createdRolePermission;
     }
 
     @Override
@@ -137,6 +143,7 @@ public class RolePermissionServiceImpl implements RolePermissionService {
             throw new KapuaException(KapuaErrorCodes.PERMISSION_DELETE_NOT_ALLOWED);
         }
         txManager.execute(tx -> rolePermissionRepository.delete(tx, scopeId, rolePermissionId));
+        permissionIndexCache.invalidateAll();
     }
 
     @Override
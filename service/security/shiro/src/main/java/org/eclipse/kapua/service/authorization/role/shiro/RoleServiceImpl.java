@@ -50,6 +50,7 @@ import org.eclipse.kapua.service.authorization.role.RolePermissionRepository;
 import org.eclipse.kapua.service.authorization.role.RoleQuery;
 import org.eclipse.kapua.service.authorization.role.RoleRepository;
 import org.eclipse.kapua.service.authorization.role.RoleService;
+import org.eclipse.kapua.service.authorization.shiro.PermissionIndexCache;
 import org.eclipse.kapua.storage.TxManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -73,6 +74,7 @@ public class RoleServiceImpl extends KapuaConfigurableServiceBase implements Rol
     private final RoleRepository roleRepository;
     private final RolePermissionRepository rolePermissionRepository;
     private final PermissionValidator permissionValidator;
+    private final PermissionIndexCache permissionIndexCache;
     public AccessRoleFactory accessRoleFactory;
 
     public AccessInfoFactory accessInfoFactory;
@@ -105,7 +107,8 @@ public class RoleServiceImpl extends KapuaConfigurableServiceBase implements Rol
             TxManager txManager,
             RoleRepository roleRepository,
             RolePermissionRepository rolePermissionRepository,
-            PermissionValidator permissionValidator) {
+            PermissionValidator permissionValidator,
+            PermissionIndexCache permissionIndexCache) {
         super(txManager, serviceConfigurationManager, Domains.ROLE, authorizationService, permissionFactory);
         this.rolePermissionFactory = rolePermissionFactory;
         this.accessRoleFactory = accessRoleFactory;
@@ -115,6 +118,7 @@ public class RoleServiceImpl extends KapuaConfigurableServiceBase implements Rol
         this.roleRepository = roleRepository;
         this.rolePermissionRepository = rolePermissionRepository;
         this.permissionValidator = permissionValidator;
+        this.permissionIndexCache = permissionIndexCache;
     }
 
     @Override
@@ -185,7 +189,7 @@ public class RoleServiceImpl extends KapuaConfigurableServiceBase implements Rol
         // Check Access
         authorizationService.checkPermission(permissionFactory.newPermission(Domains.ROLE, Actions.write, role.getScopeId()));
 
-        return txManager.execute(tx -> {
+        final Role updatedRole = txManager.execute(tx -> {
             // Check existence
             final Role current = roleRepository.find(tx, role.getScopeId(), role.getId())
                     .orElseThrow(() -> new KapuaEntityNotFoundException(Role.TYPE, role.getId()));
@@ -196,6 +200,8 @@ public class RoleServiceImpl extends KapuaConfigurableServiceBase implements Rol
             // Do update
             return roleRepository.update(tx, current, role);
         });
+        permissionIndexCache.invalidateAll();
+        return updatedRole;
     }
 
     @Override
@@ -211,6 +217,7 @@ public class RoleServiceImpl extends KapuaConfigurableServiceBase implements Rol
         }
 
         txManager.execute(tx -> roleRepository.delete(tx, scopeId, roleId));
+        permissionIndexCache.invalidateAll();
     }
 
     @Override
@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.shiro;
+
+import org.eclipse.kapua.service.authorization.access.AccessInfo;
+import org.eclipse.kapua.service.authorization.access.AccessPermission;
+import org.eclipse.kapua.service.authorization.role.Role;
+import org.eclipse.kapua.service.authorization.role.RolePermission;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The whole set of {@link AccessPermission}s, {@link Role}s and {@link RolePermission}s reachable from the {@link AccessInfo} of a {@link org.eclipse.kapua.service.user.User}.
+ *
+ * @since 2.1.0
+ */
+public class AccessGraph {
+
+    private final List<AccessPermission> accessPermissions;
+    private final List<Role> roles;
+    private final List<RolePermission> rolePermissions;
+
+    /**
+     * Constructor.
+     *
+     * @param accessPermissions The {@link AccessPermission}s of the {@link AccessInfo}s.
+     * @param roles             The {@link Role}s assigned through the {@link org.eclipse.kapua.service.authorization.access.AccessRole}s of the {@link AccessInfo}s.
+     * @param rolePermissions   The {@link RolePermission}s of the {@link Role}s.
+     * @since 2.1.0
+     */
+    public AccessGraph(List<AccessPermission> accessPermissions, List<Role> roles, List<RolePermission> rolePermissions) {
+        this.accessPermissions = Collections.unmodifiableList(accessPermissions);
+        this.roles = Collections.unmodifiableList(roles);
+        this.rolePermissions = Collections.unmodifiableList(rolePermissions);
+    }
+
+    /**
+     * Gets the {@link AccessPermission}s of the {@link AccessInfo}s.
+     *
+     * @return The {@link AccessPermission}s of the {@link AccessInfo}s.
+     * @since 2.1.0
+     */
+    public List<AccessPermission> getAccessPermissions() {
+        return accessPermissions;
+    }
+
+    /**
+     * Gets the {@link Role}s assigned to the {@link AccessInfo}s.
+     *
+     * @return The {@link Role}s assigned to the {@link AccessInfo}s.
+     * @since 2.1.0
+     */
+    public List<Role> getRoles() {
+        return roles;
+    }
+
+    /**
+     * Gets the {@link RolePermission}s of the {@link Role}s.
+     *
+     * @return The {@link RolePermission}s of the {@link Role}s.
+     * @since 2.1.0
+     */
+    public List<RolePermission> getRolePermissions() {
+        return rolePermissions;
+    }
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.shiro;
+
+import org.eclipse.kapua.commons.jpa.JpaAwareTxContext;
+import org.eclipse.kapua.commons.model.AbstractKapuaEntity_;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.KapuaEntity;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.authorization.access.AccessPermission;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessInfoImpl;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessInfoImpl_;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessPermissionImpl;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessPermissionImpl_;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessRoleImpl;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessRoleImpl_;
+import org.eclipse.kapua.service.authorization.role.Role;
+import org.eclipse.kapua.service.authorization.role.RolePermission;
+import org.eclipse.kapua.service.authorization.role.shiro.RoleImpl;
+import org.eclipse.kapua.service.authorization.role.shiro.RolePermissionImpl;
+import org.eclipse.kapua.service.authorization.role.shiro.RolePermissionImpl_;
+import org.eclipse.kapua.storage.TxContext;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * JPA {@link AccessGraphRepository} implementation.
+ * <p>
+ * The {@link AccessGraph} is loaded with at most five queries: one for each of the entities in the graph, each one selecting all the entities
+ * related to the results of the previous ones at once.
+ * All the entities are looked up in the scope of the {@link org.eclipse.kapua.service.user.User}, as the services do when walking the graph one entity at a time:
+ * the {@link org.eclipse.kapua.service.authorization.access.AccessInfo}s are in that scope, and each entity is looked up in the scope of its parent.
+ *
+ * @since 2.1.0
+ */
+public class AccessGraphImplJpaRepository implements AccessGraphRepository {
+
+    @Override
+    public AccessGraph findByUserId(TxContext txContext, KapuaId scopeId, KapuaId userId) {
+        final EntityManager em = JpaAwareTxContext.extractEntityManager(txContext);
+
+        // Access Infos
+        final List<AccessInfoImpl> accessInfos = findAccessInfos(em, scopeId, userId);
+        if (accessInfos.isEmpty()) {
+            return new AccessGraph(Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+        }
+        final Set<KapuaEid> accessInfoIds = idsOf(accessInfos, KapuaEntity::getId);
+
+        // Access Permissions and Access Roles, in the scope of their Access Info as AccessPermissionService.findByAccessInfoId and AccessRoleService.findByAccessInfoId
+        final List<AccessPermission> accessPermissions = new ArrayList<>(findAllIn(em, AccessPermissionImpl.class, scopeId, AccessPermissionImpl_.ACCESS_INFO_ID, accessInfoIds));
+        final List<AccessRoleImpl> accessRoles = findAllIn(em, AccessRoleImpl.class, scopeId, AccessRoleImpl_.ACCESS_INFO_ID, accessInfoIds);
+        if (accessRoles.isEmpty()) {
+            return new AccessGraph(accessPermissions, Collections.emptyList(), Collections.emptyList());
+        }
+
+        // Roles, in the scope of the Access Roles as RoleService.find, kept in the order of the Access Roles
+        final Map<KapuaId, RoleImpl> rolesById = findAllIn(em, RoleImpl.class, scopeId, AbstractKapuaEntity_.ID, idsOf(accessRoles, AccessRoleImpl::getRoleId))
+                .stream()
+                .collect(Collectors.toMap(role -> KapuaEid.parseKapuaId(role.getId()), Function.identity()));
+
+        final List<Role> roles = new ArrayList<>();
+        for (AccessRoleImpl accessRole : accessRoles) {
+            RoleImpl role = rolesById.get(KapuaEid.parseKapuaId(accessRole.getRoleId()));
+            if (role != null) {
+                roles.add(role);
+            }
+        }
+        if (rolesById.isEmpty()) {
+            return new AccessGraph(accessPermissions, roles, Collections.emptyList());
+        }
+
+        // Role Permissions, in the scope of their Role as RolePermissionService.findByRoleId
+        final List<RolePermission> rolePermissions = new ArrayList<>(findAllIn(em, RolePermissionImpl.class, scopeId, RolePermissionImpl_.ROLE_ID, idsOf(new ArrayList<>(rolesById.values()), KapuaEntity::getId)));
+
+        return new AccessGraph(accessPermissions, roles, rolePermissions);
+    }
+
+    private List<AccessInfoImpl> findAccessInfos(EntityManager em, KapuaId scopeId, KapuaId userId) {
+        final CriteriaBuilder cb = em.getCriteriaBuilder();
+        final CriteriaQuery<AccessInfoImpl> query = cb.createQuery(AccessInfoImpl.class);
+        final Root<AccessInfoImpl> root = query.from(AccessInfoImpl.class);
+        query.where(
+                cb.and(
+                        cb.equal(root.get(AbstractKapuaEntity_.SCOPE_ID), KapuaEid.parseKapuaId(scopeId)),
+                        cb.equal(root.get(AccessInfoImpl_.USER_ID), KapuaEid.parseKapuaId(userId))
+                )
+        );
+        return em.createQuery(query).getResultList();
+    }
+
+    private <E> List<E> findAllIn(EntityManager em, Class<E> entityClass, KapuaId scopeId, String attributeName, Collection<KapuaEid> values) {
+        final CriteriaBuilder cb = em.getCriteriaBuilder();
+        final CriteriaQuery<E> query = cb.createQuery(entityClass);
+        final Root<E> root = query.from(entityClass);
+        // Embedded KapuaEid attributes do not support the IN clause, so it is expressed as a disjunction of equalities
+        final Path<Object> attribute = root.get(attributeName);
+        query.where(
+                cb.and(
+                        cb.equal(root.get(AbstractKapuaEntity_.SCOPE_ID), KapuaEid.parseKapuaId(scopeId)),
+                        cb.or(values.stream().map(value -> cb.equal(attribute, value)).toArray(Predicate[]::new))
+                )
+        );
+        return em.createQuery(query).getResultList();
+    }
+
+    private <E> Set<KapuaEid> idsOf(List<E> entities, Function<E, KapuaId> idExtractor) {
+        return entities.stream()
+                .map(idExtractor)
+                .map(KapuaEid::parseKapuaId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
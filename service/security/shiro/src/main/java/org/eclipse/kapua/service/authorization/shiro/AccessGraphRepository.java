@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.shiro;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.storage.TxContext;
+
+/**
+ * {@link AccessGraph} repository definition.
+ *
+ * @since 2.1.0
+ */
+public interface AccessGraphRepository {
+
+    /**
+     * Loads the {@link AccessGraph} of the given {@link org.eclipse.kapua.service.user.User}.
+     * <p>
+     * Implementations must issue a fixed number of queries, regardless of how many {@link org.eclipse.kapua.service.authorization.role.Role}s are assigned.
+     *
+     * @param txContext The {@link TxContext}.
+     * @param scopeId   The {@link org.eclipse.kapua.service.user.User#getScopeId()}.
+     * @param userId    The {@link org.eclipse.kapua.service.user.User#getId()}.
+     * @return The {@link AccessGraph}, empty if the {@link org.eclipse.kapua.service.user.User} has no {@link org.eclipse.kapua.service.authorization.access.AccessInfo}.
+     * @throws KapuaException
+     * @since 2.1.0
+     */
+    AccessGraph findByUserId(TxContext txContext, KapuaId scopeId, KapuaId userId) throws KapuaException;
+}
@@ -70,6 +70,7 @@ import org.eclipse.kapua.service.authorization.access.shiro.GroupQueryHelperImpl
 import org.eclipse.kapua.service.authorization.domain.DomainFactory;
 import org.eclipse.kapua.service.authorization.domain.DomainRegistryService;
 import org.eclipse.kapua.service.authorization.domain.DomainRepository;
+import org.eclipse.kapua.service.authorization.domain.shiro.CachingDomainRepository;
 import org.eclipse.kapua.service.authorization.domain.shiro.DomainFactoryImpl;
 import org.eclipse.kapua.service.authorization.domain.shiro.DomainImplJpaRepository;
 import org.eclipse.kapua.service.authorization.domain.shiro.DomainRegistryServiceImpl;
@@ -124,6 +125,7 @@ public class AuthorizationModule extends AbstractKapuaModule {
         bind(KapuaAuthorizationSetting.class).in(Singleton.class);
         bind(PermissionValidator.class).in(Singleton.class);
         bind(PermissionMapper.class).to(PermissionMapperImpl.class).in(Singleton.class);
+        bind(PermissionIndexCache.class).in(Singleton.class);
         bind(DomainsAligner.class).in(Singleton.class);
     }
 
@@ -208,8 +210,9 @@ public class AuthorizationModule extends AbstractKapuaModule {
 
     @Provides
     @Singleton
-    DomainRepository domainRepository(KapuaJpaRepositoryConfiguration jpaRepoConfig) {
-        return new DomainImplJpaRepository(jpaRepoConfig);
+    DomainRepository domainRepository(KapuaJpaRepositoryConfiguration jpaRepoConfig, EntityCacheFactory entityCacheFactory) {
+        return new CachingDomainRepository(new DomainImplJpaRepository(jpaRepoConfig),
+                entityCacheFactory.createCache("DomainId"));
     }
 
     @Provides
@@ -219,14 +222,16 @@ public class AuthorizationModule extends AbstractKapuaModule {
             RoleRepository roleRepository,
             RolePermissionRepository rolePermissionRepository,
             KapuaJpaTxManagerFactory jpaTxManagerFactory,
-            PermissionValidator permissionValidator) {
+            PermissionValidator permissionValidator,
+            PermissionIndexCache permissionIndexCache) {
         return new RolePermissionServiceImpl(
                 authorizationService,
                 permissionFactory,
                 jpaTxManagerFactory.create("kapua-authorization"),
                 roleRepository,
                 rolePermissionRepository,
-                permissionValidator
+                permissionValidator,
+                permissionIndexCache
         );
     }
 
@@ -243,7 +248,8 @@ public class AuthorizationModule extends AbstractKapuaModule {
             RoleRepository roleRepository,
             RolePermissionRepository rolePermissionRepository,
             KapuaJpaTxManagerFactory jpaTxManagerFactory,
-            PermissionValidator permissionValidator
+            PermissionValidator permissionValidator,
+            PermissionIndexCache permissionIndexCache
     ) {
         return new RoleServiceImpl(
                 permissionFactory,
@@ -257,7 +263,8 @@ public class AuthorizationModule extends AbstractKapuaModule {
                 jpaTxManagerFactory.create("kapua-authorization"),
                 roleRepository,
                 rolePermissionRepository,
-                permissionValidator
+                permissionValidator,
+                permissionIndexCache
         );
     }
 
@@ -289,6 +296,12 @@ public class AuthorizationModule extends AbstractKapuaModule {
                         xmlUtil));
     }
 
+    @Provides
+    @Singleton
+    AccessGraphRepository accessGraphRepository() {
+        return new AccessGraphImplJpaRepository();
+    }
+
     @Provides
     @Singleton
     RoleRepository roleRepository(NamedCacheFactory namedCacheFactory, KapuaJpaRepositoryConfiguration jpaRepoConfig) {
@@ -362,7 +375,8 @@ public class AuthorizationModule extends AbstractKapuaModule {
             AccessPermissionRepository accessPermissionRepository,
             AccessPermissionFactory accessPermissionFactory,
             KapuaJpaTxManagerFactory jpaTxManagerFactory,
-            PermissionValidator permissionValidator) {
+            PermissionValidator permissionValidator,
+            PermissionIndexCache permissionIndexCache) {
         return new AccessInfoServiceImpl(authorizationService,
                 permissionFactory,
                 jpaTxManagerFactory.create("kapua-authorization"),
@@ -373,7 +387,8 @@ public class AuthorizationModule extends AbstractKapuaModule {
                 accessInfoFactory,
                 accessPermissionRepository,
                 accessPermissionFactory,
-                permissionValidator);
+                permissionValidator,
+                permissionIndexCache);
     }
 
     @Provides
@@ -393,13 +408,15 @@ public class AuthorizationModule extends AbstractKapuaModule {
             AccessPermissionRepository accessPermissionRepository,
             AccessInfoRepository accessInfoRepository,
             KapuaJpaTxManagerFactory jpaTxManagerFactory,
-            PermissionValidator permissionValidator) {
+            PermissionValidator permissionValidator,
+            PermissionIndexCache permissionIndexCache) {
         return new AccessPermissionServiceImpl(authorizationService,
                 permissionFactory,
                 jpaTxManagerFactory.create("kapua-authorization"),
                 accessPermissionRepository,
                 accessInfoRepository,
-                permissionValidator);
+                permissionValidator,
+                permissionIndexCache);
     }
 
     @Provides
@@ -419,14 +436,16 @@ public class AuthorizationModule extends AbstractKapuaModule {
             AccessRoleRepository accessRoleRepository,
             AuthorizationService authorizationService,
             PermissionFactory permissionFactory,
-            KapuaJpaTxManagerFactory jpaTxManagerFactory) {
+            KapuaJpaTxManagerFactory jpaTxManagerFactory,
+            PermissionIndexCache permissionIndexCache) {
         return new AccessRoleServiceImpl(
                 jpaTxManagerFactory.create("kapua-authorization"),
                 roleRepository,
                 accessInfoRepository,
                 accessRoleRepository,
                 authorizationService,
-                permissionFactory
+                permissionFactory,
+                permissionIndexCache
         );
     }
 
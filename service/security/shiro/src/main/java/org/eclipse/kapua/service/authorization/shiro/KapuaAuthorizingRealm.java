@@ -17,38 +17,26 @@ import org.apache.shiro.ShiroException;
 import org.apache.shiro.authc.AuthenticationException;
 import org.apache.shiro.authc.AuthenticationInfo;
 import org.apache.shiro.authc.AuthenticationToken;
-import org.apache.shiro.authc.UnknownAccountException;
 import org.apache.shiro.authz.AuthorizationInfo;
-import org.apache.shiro.authz.SimpleAuthorizationInfo;
+import org.apache.shiro.authz.Permission;
 import org.apache.shiro.realm.AuthorizingRealm;
 import org.apache.shiro.subject.PrincipalCollection;
 import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
 import org.eclipse.kapua.locator.KapuaLocator;
-import org.eclipse.kapua.model.id.KapuaId;
-import org.eclipse.kapua.model.query.KapuaListResult;
-import org.eclipse.kapua.service.authorization.access.AccessInfo;
-import org.eclipse.kapua.service.authorization.access.AccessInfoAttributes;
-import org.eclipse.kapua.service.authorization.access.AccessInfoFactory;
-import org.eclipse.kapua.service.authorization.access.AccessInfoQuery;
-import org.eclipse.kapua.service.authorization.access.AccessInfoService;
 import org.eclipse.kapua.service.authorization.access.AccessPermission;
-import org.eclipse.kapua.service.authorization.access.AccessPermissionListResult;
-import org.eclipse.kapua.service.authorization.access.AccessPermissionService;
-import org.eclipse.kapua.service.authorization.access.AccessRole;
-import org.eclipse.kapua.service.authorization.access.AccessRoleListResult;
-import org.eclipse.kapua.service.authorization.access.AccessRoleService;
 import org.eclipse.kapua.service.authorization.permission.shiro.PermissionImpl;
 import org.eclipse.kapua.service.authorization.role.Role;
 import org.eclipse.kapua.service.authorization.role.RolePermission;
-import org.eclipse.kapua.service.authorization.role.RolePermissionListResult;
-import org.eclipse.kapua.service.authorization.role.RolePermissionService;
-import org.eclipse.kapua.service.authorization.role.RoleService;
 import org.eclipse.kapua.service.user.User;
 import org.eclipse.kapua.service.user.UserService;
+import org.eclipse.kapua.storage.TxManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * The JPA-based application's one and only configured Apache Shiro Realm.
  */
@@ -59,11 +47,40 @@ public class KapuaAuthorizingRealm extends AuthorizingRealm {
     public static final String REALM_NAME = "kapuaAuthorizingRealm";
 
     private final PermissionMapper permissionMapper;
+    private final PermissionIndexCache permissionIndexCache;
 
     public KapuaAuthorizingRealm() throws KapuaException {
         setName(REALM_NAME);
 
         permissionMapper = KapuaLocator.getInstance().getComponent(PermissionMapperImpl.class);
+        permissionIndexCache = KapuaLocator.getInstance().getComponent(PermissionIndexCache.class);
+    }
+
+    /**
+     * Gets the {@link PermissionIndex} of the {@link User}, building it only if not already cached.
+     *
+     * @since 2.1.0
+     */
+    @Override
+    protected AuthorizationInfo getAuthorizationInfo(PrincipalCollection principals) {
+        if (principals == null) {
+            return null;
+        }
+        User user = (User) principals.getPrimaryPrincipal();
+        return permissionIndexCache.get(user.getId(), () -> (PermissionIndex) doGetAuthorizationInfo(principals));
+    }
+
+    /**
+     * Checks the {@link Permission} against the {@link PermissionIndex}, instead of checking it against each {@link Permission} of the {@link User}.
+     *
+     * @since 2.1.0
+     */
+    @Override
+    protected boolean isPermitted(Permission permission, AuthorizationInfo info) {
+        if (info instanceof PermissionIndex && permission instanceof org.eclipse.kapua.service.authorization.permission.Permission) {
+            return permissionIndexCache.implies((PermissionIndex) info, (org.eclipse.kapua.service.authorization.permission.Permission) permission);
+        }
+        return super.isPermitted(permission, info);
     }
 
     /**
@@ -79,8 +96,8 @@ public class KapuaAuthorizingRealm extends AuthorizingRealm {
         KapuaLocator locator = KapuaLocator.getInstance();
 
         UserService userService = locator.getService(UserService.class);
-        AccessInfoService accessInfoService = locator.getService(AccessInfoService.class);
-        AccessInfoFactory accessInfoFactory = locator.getFactory(AccessInfoFactory.class);
+        AccessGraphRepository accessGraphRepository = locator.getComponent(AccessGraphRepository.class);
+        TxManager txManager = locator.getComponent(TxManager.class, "authorizationTxManager");
         // Get the associated user by name
         final User user;
         try {
@@ -96,89 +113,36 @@ public class KapuaAuthorizingRealm extends AuthorizingRealm {
 
             throw new AuthenticationException();
         }
-        // Get user access infos
-        AccessInfoQuery accessInfoQuery = accessInfoFactory.newQuery(user.getScopeId());
-        accessInfoQuery.setPredicate(accessInfoQuery.attributePredicate(AccessInfoAttributes.USER_ID, user.getId()));
-
-        final KapuaListResult<AccessInfo> accessInfos;
+        // Get user access infos, roles and related permissions all at once
+        final AccessGraph accessGraph;
         try {
-            accessInfos = KapuaSecurityUtils.doPrivileged(() -> accessInfoService.query(accessInfoQuery));
-        } catch (AuthenticationException e) {
-            throw e;
+            accessGraph = txManager.execute(tx -> accessGraphRepository.findByUserId(tx, user.getScopeId(), user.getId()));
         } catch (Exception e) {
             throw new ShiroException("Error while find access info!", e);
         }
-        // Check existence
-        if (accessInfos == null) {
-            throw new UnknownAccountException();
+        // Collect principals roles and permissions
+        List<String> roles = new ArrayList<>();
+        List<org.eclipse.kapua.service.authorization.permission.Permission> permissions = new ArrayList<>();
+
+        // Access Permissions
+        for (AccessPermission accessPermission : accessGraph.getAccessPermissions()) {
+            PermissionImpl p = accessPermission.getPermission();
+            logger.trace("User: {} has permission: {}", username, p);
+            permissions.add((org.eclipse.kapua.service.authorization.permission.Permission) permissionMapper.mapPermission(p));
         }
-        // Create SimpleAuthorizationInfo with principals permissions
-        SimpleAuthorizationInfo info = new SimpleAuthorizationInfo();
-
-        // Get user roles set and related permissions
-        for (AccessInfo accessInfo : accessInfos.getItems()) {
-
-            // Access Permissions
-            AccessPermissionService accessPermissionService = locator.getService(AccessPermissionService.class);
-            AccessPermissionListResult accessPermissions;
-            try {
-                accessPermissions = KapuaSecurityUtils.doPrivileged(() -> accessPermissionService.findByAccessInfoId(accessInfo.getScopeId(), accessInfo.getId()));
-            } catch (AuthenticationException e) {
-                throw e;
-            } catch (Exception e) {
-                throw new ShiroException("Error while find access permissions!", e);
-            }
-
-            for (AccessPermission accessPermission : accessPermissions.getItems()) {
-                PermissionImpl p = accessPermission.getPermission();
-                logger.trace("User: {} has permission: {}", username, p);
-                info.addObjectPermission(permissionMapper.mapPermission(p));
-            }
-
-            // Access Role Id
-            AccessRoleService accessRoleService = locator.getService(AccessRoleService.class);
-            AccessRoleListResult accessRoles;
-            try {
-                accessRoles = KapuaSecurityUtils.doPrivileged(() -> accessRoleService.findByAccessInfoId(accessInfo.getScopeId(), accessInfo.getId()));
-            } catch (AuthenticationException e) {
-                throw e;
-            } catch (Exception e) {
-                throw new ShiroException("Error while find access role ids!", e);
-            }
-
-            RoleService roleService = locator.getService(RoleService.class);
-            RolePermissionService rolePermissionService = locator.getService(RolePermissionService.class);
-            for (AccessRole accessRole : accessRoles.getItems()) {
-
-                KapuaId roleId = accessRole.getRoleId();
-
-                Role role;
-                try {
-                    role = KapuaSecurityUtils.doPrivileged(() -> roleService.find(accessRole.getScopeId(), roleId));
-                } catch (AuthenticationException e) {
-                    throw e;
-                } catch (Exception e) {
-                    throw new ShiroException("Error while find role ids!", e);
-                }
-
-                info.addRole(role.getName());
-                final RolePermissionListResult rolePermissions;
-                try {
-                    rolePermissions = KapuaSecurityUtils.doPrivileged(() -> rolePermissionService.findByRoleId(role.getScopeId(), role.getId()));
-                } catch (Exception e) {
-                    throw new ShiroException("Error while find role permission!", e);
-                }
-
-                for (RolePermission rolePermission : rolePermissions.getItems()) {
-
-                    PermissionImpl p = rolePermission.getPermission();
-                    logger.trace("Role: {} has permission: {}", role, p);
-                    info.addObjectPermission(permissionMapper.mapPermission(p));
-                }
-            }
+
+        // Roles
+        for (Role role : accessGraph.getRoles()) {
+            roles.add(role.getName());
+        }
+
+        for (RolePermission rolePermission : accessGraph.getRolePermissions()) {
+            PermissionImpl p = rolePermission.getPermission();
+            logger.trace("Role: {} has permission: {}", rolePermission.getRoleId(), p);
+            permissions.add((org.eclipse.kapua.service.authorization.permission.Permission) permissionMapper.mapPermission(p));
         }
         // Return authorization info
-        return info;
+        return new PermissionIndex(roles, permissions);
     }
 
     /**
@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.shiro;
+
+import org.apache.shiro.authz.AuthorizationInfo;
+import org.eclipse.kapua.model.domain.Actions;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.account.Account;
+import org.eclipse.kapua.service.authorization.group.Group;
+import org.eclipse.kapua.service.authorization.permission.Permission;
+
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Compiled, immutable index of the {@link Permission}s of a {@link org.eclipse.kapua.service.user.User}.
+ * <p>
+ * {@link Permission}s are indexed by {@link Permission#getDomain()} and {@link Permission#getAction()}, then by {@link Permission#getTargetScopeId()} and {@link Permission#getGroupId()},
+ * so that checking a {@link Permission} costs a few lookups instead of a scan of all the {@link Permission}s of the user.
+ * <p>
+ * It gives the same results of {@link PermissionMapperImpl.KapuaPermission#implies(org.apache.shiro.authz.Permission)} without altering any state.
+ *
+ * @since 2.1.0
+ */
+public final class PermissionIndex implements AuthorizationInfo {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Set<String> roles;
+    private final Collection<org.apache.shiro.authz.Permission> objectPermissions;
+
+    /**
+     * Domain ({@code null} for all) -> Action ({@code null} for all) -> {@link Grants}.
+     */
+    private final Map<String, Map<Actions, Grants>> grants = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param roles       The names of the roles of the user.
+     * @param permissions The {@link Permission}s of the user.
+     * @since 2.1.0
+     */
+    public PermissionIndex(Collection<String> roles, Collection<? extends Permission> permissions) {
+        this.roles = Collections.unmodifiableSet(roles != null ? new HashSet<>(roles) : new HashSet<>());
+
+        Set<org.apache.shiro.authz.Permission> shiroPermissions = new HashSet<>();
+        for (Permission permission : permissions) {
+            grants.computeIfAbsent(domainKey(permission.getDomain()), domain -> new HashMap<>())
+                    .computeIfAbsent(permission.getAction(), action -> new Grants())
+                    .add(permission);
+            if (permission instanceof org.apache.shiro.authz.Permission) {
+                shiroPermissions.add((org.apache.shiro.authz.Permission) permission);
+            }
+        }
+        this.objectPermissions = Collections.unmodifiableSet(shiroPermissions);
+    }
+
+    /**
+     * Checks whether the given {@link Permission} is implied by one of the indexed {@link Permission}s.
+     *
+     * @param target            The {@link Permission} to check.
+     * @param groupableDomain   Tells whether the given {@link Permission#getDomain()} is {@link org.eclipse.kapua.service.authorization.domain.Domain#getGroupable()}.
+     * @param parentAccountPath Gets the {@link Account#getParentAccountPath()} of the given {@link Account#getId()} to forward {@link Permission#getForwardable()} {@link Permission}s.
+     *                          It can return {@code null} when the {@link Account} is not found or it cannot be a target of a forward.
+     * @return {@code true} if the {@link Permission} is implied, {@code false} otherwise.
+     * @since 2.1.0
+     */
+    public boolean implies(Permission target, Predicate<String> groupableDomain, Function<KapuaId, String> parentAccountPath) {
+        BigInteger targetScopeId = target.getTargetScopeId() != null ? target.getTargetScopeId().getId() : null;
+        BigInteger targetGroupId = target.getGroupId() != null ? target.getGroupId().getId() : null;
+
+        boolean anyScope = KapuaId.ANY.getId().equals(targetScopeId);
+        boolean anyGroup = Group.ANY.getId().equals(targetGroupId) || (target.getDomain() != null && !groupableDomain.test(target.getDomain()));
+
+        Grants[] candidates = candidates(target.getDomain(), target.getAction());
+        for (Grants candidate : candidates) {
+            if (candidate != null && candidate.implies(targetScopeId, targetGroupId, anyScope, anyGroup)) {
+                return true;
+            }
+        }
+
+        // Try forwarding the forwardable Permissions to the target scope
+        if (targetScopeId == null || anyScope) {
+            return false;
+        }
+        String targetParentAccountPath = null;
+        for (Grants candidate : candidates) {
+            if (candidate != null && !candidate.forwardable.isEmpty()) {
+                if (targetParentAccountPath == null) {
+                    targetParentAccountPath = parentAccountPath.apply(target.getTargetScopeId());
+                    if (targetParentAccountPath == null) {
+                        return false;
+                    }
+                }
+                if (candidate.impliesForwarded(targetParentAccountPath, targetGroupId, anyGroup)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Grants[] candidates(String domain, Actions action) {
+        Grants[] candidates = new Grants[4];
+        Map<Actions, Grants> anyDomain = grants.get(null);
+        if (anyDomain != null) {
+            candidates[0] = anyDomain.get(null);
+            candidates[1] = action != null ? anyDomain.get(action) : null;
+        }
+        Map<Actions, Grants> sameDomain = domain != null ? grants.get(domainKey(domain)) : null;
+        if (sameDomain != null) {
+            candidates[2] = sameDomain.get(null);
+            candidates[3] = action != null ? sameDomain.get(action) : null;
+        }
+        return candidates;
+    }
+
+    /**
+     * Domains are matched ignoring the case, like the {@link org.apache.shiro.authz.permission.WildcardPermission} parts do.
+     */
+    private static String domainKey(String domain) {
+        return domain != null ? domain.toLowerCase() : null;
+    }
+
+    @Override
+    public Collection<String> getRoles() {
+        return roles;
+    }
+
+    @Override
+    public Collection<String> getStringPermissions() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public Collection<org.apache.shiro.authz.Permission> getObjectPermissions() {
+        return objectPermissions;
+    }
+
+    /**
+     * Grants of a single Domain and Action.
+     */
+    private static class Grants {
+
+        /**
+         * Target scope id ({@code null} for all) -> Group ids ({@code null} for all)
+         */
+        private final Map<BigInteger, Set<BigInteger>> groupsByScope = new HashMap<>();
+
+        /**
+         * Target scope id ({@code toStringId()} of the forwardable grants) -> Group ids ({@code null} for all)
+         */
+        private final Map<String, Set<BigInteger>> forwardable = new HashMap<>();
+
+        private void add(Permission permission) {
+            BigInteger scopeId = permission.getTargetScopeId() != null ? permission.getTargetScopeId().getId() : null;
+            BigInteger groupId = permission.getGroupId() != null ? permission.getGroupId().getId() : null;
+
+            groupsByScope.computeIfAbsent(scopeId, s -> new HashSet<>()).add(groupId);
+            if (permission.getForwardable() && scopeId != null) {
+                forwardable.computeIfAbsent(permission.getTargetScopeId().toStringId(), s -> new HashSet<>()).add(groupId);
+            }
+        }
+
+        private boolean implies(BigInteger targetScopeId, BigInteger targetGroupId, boolean anyScope, boolean anyGroup) {
+            if (anyScope) {
+                for (Set<BigInteger> groups : groupsByScope.values()) {
+                    if (impliesGroup(groups, targetGroupId, anyGroup)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return impliesGroup(groupsByScope.get(null), targetGroupId, anyGroup) ||
+                    (targetScopeId != null && impliesGroup(groupsByScope.get(targetScopeId), targetGroupId, anyGroup));
+        }
+
+        private boolean impliesForwarded(String targetParentAccountPath, BigInteger targetGroupId, boolean anyGroup) {
+            for (Map.Entry<String, Set<BigInteger>> forward : forwardable.entrySet()) {
+                if (targetParentAccountPath.contains("/" + forward.getKey() + "/") && impliesGroup(forward.getValue(), targetGroupId, anyGroup)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean impliesGroup(Set<BigInteger> groups, BigInteger targetGroupId, boolean anyGroup) {
+            if (groups == null) {
+                return false;
+            }
+            return anyGroup || groups.contains(null) || (targetGroupId != null && groups.contains(targetGroupId));
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.shiro;
+
+import org.eclipse.kapua.KapuaRuntimeException;
+import org.eclipse.kapua.commons.cache.LocalCache;
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.commons.service.internal.cache.EntityCacheInvalidator;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.account.Account;
+import org.eclipse.kapua.service.account.AccountService;
+import org.eclipse.kapua.service.authorization.domain.Domain;
+import org.eclipse.kapua.service.authorization.domain.DomainRegistryService;
+import org.eclipse.kapua.service.authorization.permission.Permission;
+import org.eclipse.kapua.service.authorization.shiro.setting.KapuaAuthorizationSetting;
+import org.eclipse.kapua.service.authorization.shiro.setting.KapuaAuthorizationSettingKeys;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Holds the {@link PermissionIndex} of each {@link org.eclipse.kapua.service.user.User}, along with the resolutions needed to check {@link Permission}s against them.
+ * <p>
+ * A {@link PermissionIndex} is built once and then reused until it expires or until {@link #invalidateAll()} is invoked
+ * by a change of the access infos, roles or permissions.
+ * <p>
+ * The resolved {@link Account#getParentAccountPath()}s and {@link Domain#getGroupable()}s are dropped on the invalidations of
+ * the {@link Account} and {@link Domain} {@link org.eclipse.kapua.commons.service.internal.cache.EntityCache}s,
+ * which the {@link EntityCacheInvalidator} delivers for the changes of this node and of the other ones.
+ *
+ * @since 2.1.0
+ */
+@Singleton
+public class PermissionIndexCache {
+
+    private static final String NOT_FORWARDABLE = "";
+
+    static final String ACCOUNT_ID_CACHE_NAME = "AccountId";
+    static final String DOMAIN_ID_CACHE_NAME = "DomainId";
+
+    private final DomainRegistryService domainService;
+    private final AccountService accountService;
+
+    private final LocalCache<BigInteger, PermissionIndex> permissionIndexes;
+    private final LocalCache<String, Boolean> groupableDomains;
+    private final LocalCache<BigInteger, String> parentAccountPaths;
+
+    /**
+     * Incremented on each invalidation, so that a {@link PermissionIndex} loaded concurrently to a change is not cached.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Inject
+    public PermissionIndexCache(DomainRegistryService domainService, AccountService accountService, KapuaAuthorizationSetting authorizationSetting, EntityCacheInvalidator entityCacheInvalidator) {
+        this.domainService = domainService;
+        this.accountService = accountService;
+
+        int cacheSize = authorizationSetting.getInt(KapuaAuthorizationSettingKeys.AUTHORIZATION_PERMISSION_INDEX_CACHE_SIZE, 10000);
+        int cacheTtl = authorizationSetting.getInt(KapuaAuthorizationSettingKeys.AUTHORIZATION_PERMISSION_INDEX_CACHE_TTL, 60);
+        permissionIndexes = new LocalCache<>(cacheSize, cacheTtl, null);
+        groupableDomains = new LocalCache<>(cacheSize, cacheTtl, null);
+        parentAccountPaths = new LocalCache<>(cacheSize, cacheTtl, null);
+
+        entityCacheInvalidator.addListener(ACCOUNT_ID_CACHE_NAME, (scopeId, accountId) -> invalidateAccount(accountId));
+        entityCacheInvalidator.addListener(DOMAIN_ID_CACHE_NAME, (scopeId, domainId) -> invalidateDomains());
+    }
+
+    /**
+     * Gets the {@link PermissionIndex} of the given {@link org.eclipse.kapua.service.user.User}, loading it if not cached.
+     *
+     * @param userId The {@link org.eclipse.kapua.service.user.User#getId()}.
+     * @param loader The loader of the {@link PermissionIndex}.
+     * @return The {@link PermissionIndex} of the {@link org.eclipse.kapua.service.user.User}.
+     * @since 2.1.0
+     */
+    public PermissionIndex get(KapuaId userId, Supplier<PermissionIndex> loader) {
+        PermissionIndex permissionIndex = permissionIndexes.get(userId.getId());
+        if (permissionIndex == null) {
+            long loadGeneration = generation.get();
+            permissionIndex = loader.get();
+            if (permissionIndex != null && loadGeneration == generation.get()) {
+                permissionIndexes.put(userId.getId(), permissionIndex);
+            }
+        }
+        return permissionIndex;
+    }
+
+    /**
+     * Checks whether the given {@link Permission} is implied by the given {@link PermissionIndex}.
+     *
+     * @param permissionIndex The {@link PermissionIndex} to check.
+     * @param target          The {@link Permission} to check.
+     * @return {@code true} if the {@link Permission} is implied, {@code false} otherwise.
+     * @since 2.1.0
+     */
+    public boolean implies(PermissionIndex permissionIndex, Permission target) {
+        return permissionIndex.implies(target, this::isGroupable, this::getParentAccountPath);
+    }
+
+    /**
+     * Invalidates the {@link PermissionIndex} of the given {@link org.eclipse.kapua.service.user.User}.
+     *
+     * @param userId The {@link org.eclipse.kapua.service.user.User#getId()}.
+     * @since 2.1.0
+     */
+    public void invalidate(KapuaId userId) {
+        generation.incrementAndGet();
+        permissionIndexes.remove(userId.getId());
+    }
+
+    /**
+     * Invalidates all the {@link PermissionIndex}es.
+     * <p>
+     * To be invoked on changes that can affect many {@link org.eclipse.kapua.service.user.User}s, like changes of a role.
+     *
+     * @since 2.1.0
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        permissionIndexes.invalidateAll();
+    }
+
+    /**
+     * Invalidates the resolved {@link Account#getParentAccountPath()} of the given {@link Account}.
+     *
+     * @param accountId The {@link Account#getId()}.
+     * @since 2.1.0
+     */
+    public void invalidateAccount(KapuaId accountId) {
+        if (accountId != null) {
+            parentAccountPaths.remove(accountId.getId());
+        }
+    }
+
+    /**
+     * Invalidates all the resolved {@link Domain#getGroupable()}s.
+     * <p>
+     * They are cached by {@link Domain#getName()}, while the invalidations carry the {@link Domain#getId()}: there are few of them anyway.
+     *
+     * @since 2.1.0
+     */
+    public void invalidateDomains() {
+        groupableDomains.invalidateAll();
+    }
+
+    private boolean isGroupable(String domainName) {
+        Boolean groupable = groupableDomains.get(domainName);
+        if (groupable == null) {
+            try {
+                Domain domain = KapuaSecurityUtils.doPrivileged(() -> domainService.findByName(domainName));
+                if (domain == null) {
+                    // Unknown domains keep the group check, as the Permission.implies does, and are not cached since they can be created later
+                    return true;
+                }
+                groupable = domain.getGroupable();
+            } catch (Exception e) {
+                throw KapuaRuntimeException.internalError(e, "Error while resolving target Permission.domain: " + domainName);
+            }
+            groupableDomains.put(domainName, groupable);
+        }
+        return groupable;
+    }
+
+    private String getParentAccountPath(KapuaId accountId) {
+        String parentAccountPath = parentAccountPaths.get(accountId.getId());
+        if (parentAccountPath == null) {
+            try {
+                Account account = KapuaSecurityUtils.doPrivileged(() -> accountService.find(accountId));
+                parentAccountPath = account != null && account.getScopeId() != null ? account.getParentAccountPath() : NOT_FORWARDABLE;
+            } catch (Exception e) {
+                throw KapuaRuntimeException.internalError(e, "Error while forwarding target Permission to scope: " + accountId);
+            }
+            parentAccountPaths.put(accountId.getId(), parentAccountPath);
+        }
+        return NOT_FORWARDABLE.equals(parentAccountPath) ? null : parentAccountPath;
+    }
+}
@@ -20,7 +20,9 @@ import org.eclipse.kapua.commons.setting.SettingKey;
  */
 public enum KapuaAuthorizationSettingKeys implements SettingKey {
     AUTHORIZATION_KEY("authorization.key"),
-    AUTHORIZATION_EVENT_ADDRESS("authorization.eventAddress");
+    AUTHORIZATION_EVENT_ADDRESS("authorization.eventAddress"),
+    AUTHORIZATION_PERMISSION_INDEX_CACHE_SIZE("authorization.permission_index.cache.size"),
+    AUTHORIZATION_PERMISSION_INDEX_CACHE_TTL("authorization.permission_index.cache.ttl");
 
     private String key;
 
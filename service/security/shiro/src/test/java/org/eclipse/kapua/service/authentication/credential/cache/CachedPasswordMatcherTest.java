@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authentication.credential.cache;
+
+import com.codahale.metrics.Counter;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.authentication.credential.Credential;
+import org.eclipse.kapua.service.authentication.shiro.setting.KapuaAuthenticationSetting;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.util.Date;
+
+
+@Category(JUnitTests.class)
+public class CachedPasswordMatcherTest {
+
+    private static final String PASSWORD = "Welcome12345!";
+    private static final String HASHED_PASSWORD = BCrypt.hashpw(PASSWORD, BCrypt.gensalt(4));
+
+    CachedPasswordMatcher cachedPasswordMatcher;
+    PasswordVerifier passwordVerifier;
+    CacheMetric cacheMetric;
+    Credential credential;
+
+    @Before
+    public void initialize() throws Exception {
+        cacheMetric = Mockito.mock(CacheMetric.class);
+        Mockito.when(cacheMetric.getCacheHit()).thenReturn(new Counter());
+        Mockito.when(cacheMetric.getCacheMiss()).thenReturn(new Counter());
+        Mockito.when(cacheMetric.getCachePutError()).thenReturn(new Counter());
+        Mockito.when(cacheMetric.getPasswordEncryptionError()).thenReturn(new Counter());
+
+        passwordVerifier = new PasswordVerifier(new KapuaAuthenticationSetting());
+        cachedPasswordMatcher = new CachedPasswordMatcher(cacheMetric, new KapuaAuthenticationSetting(), passwordVerifier);
+
+        credential = Mockito.mock(Credential.class);
+        Mockito.when(credential.getCredentialKey()).thenReturn(HASHED_PASSWORD);
+        Mockito.when(credential.getModifiedOn()).thenReturn(new Date(1000L));
+    }
+
+    @After
+    public void tearDown() {
+        passwordVerifier.shutdown();
+    }
+
+    @Test
+    public void checkPasswordTest() {
+        Assert.assertTrue("True expected.", cachedPasswordMatcher.checkPassword("user", PASSWORD, credential));
+        Assert.assertEquals("Expected and actual values should be the same.", 1, cacheMetric.getCacheMiss().getCount());
+        Assert.assertEquals("Expected and actual values should be the same.", 0, cacheMetric.getCacheHit().getCount());
+
+        Assert.assertTrue("True expected.", cachedPasswordMatcher.checkPassword("user", PASSWORD, credential));
+        Assert.assertEquals("Expected and actual values should be the same.", 1, cacheMetric.getCacheMiss().getCount());
+        Assert.assertEquals("Expected and actual values should be the same.", 1, cacheMetric.getCacheHit().getCount());
+    }
+
+    @Test
+    public void checkPasswordWrongPasswordTest() {
+        Assert.assertFalse("False expected.", cachedPasswordMatcher.checkPassword("user", "wrongPassword", credential));
+        Assert.assertTrue("True expected.", cachedPasswordMatcher.checkPassword("user", PASSWORD, credential));
+        Assert.assertFalse("False expected.", cachedPasswordMatcher.checkPassword("user", "wrongPassword", credential));
+        Assert.assertEquals("Expected and actual values should be the same.", 0, cacheMetric.getCacheHit().getCount());
+
+        // The wrong password evicted the cached credential
+        Assert.assertTrue("True expected.", cachedPasswordMatcher.checkPassword("user", PASSWORD, credential));
+        Assert.assertEquals("Expected and actual values should be the same.", 2, cacheMetric.getCacheMiss().getCount());
+    }
+
+    @Test
+    public void checkPasswordModifiedCredentialTest() {
+        Assert.assertTrue("True expected.", cachedPasswordMatcher.checkPassword("user", PASSWORD, credential));
+
+        Mockito.when(credential.getModifiedOn()).thenReturn(new Date(2000L));
+
+        Assert.assertTrue("True expected.", cachedPasswordMatcher.checkPassword("user", PASSWORD, credential));
+        Assert.assertEquals("Expected and actual values should be the same.", 2, cacheMetric.getCacheMiss().getCount());
+        Assert.assertEquals("Expected and actual values should be the same.", 0, cacheMetric.getCacheHit().getCount());
+    }
+
+    @Test
+    public void checkPasswordChangedPasswordTest() {
+        Assert.assertTrue("True expected.", cachedPasswordMatcher.checkPassword("user", PASSWORD, credential));
+
+        Mockito.when(credential.getCredentialKey()).thenReturn(BCrypt.hashpw("AnotherPassword1!", BCrypt.gensalt(4)));
+
+        Assert.assertFalse("False expected.", cachedPasswordMatcher.checkPassword("user", PASSWORD, credential));
+    }
+}
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authentication.credential.cache;
+
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.authentication.shiro.exceptions.PasswordVerifierOverloadedException;
+import org.eclipse.kapua.service.authentication.shiro.setting.KapuaAuthenticationSetting;
+import org.eclipse.kapua.service.authentication.shiro.setting.KapuaAuthenticationSettingKeys;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+
+
+@Category(JUnitTests.class)
+public class PasswordVerifierTest {
+
+    private static final String PASSWORD = "Welcome12345!";
+
+    @Test
+    public void checkPasswordTest() {
+        PasswordVerifier passwordVerifier = new PasswordVerifier(new KapuaAuthenticationSetting());
+        try {
+            String hashedPassword = BCrypt.hashpw(PASSWORD, BCrypt.gensalt(4));
+
+            Assert.assertTrue("True expected.", passwordVerifier.checkPassword(PASSWORD, hashedPassword));
+            Assert.assertFalse("False expected.", passwordVerifier.checkPassword("wrongPassword", hashedPassword));
+        } finally {
+            passwordVerifier.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void checkPasswordInvalidHashTest() {
+        PasswordVerifier passwordVerifier = new PasswordVerifier(new KapuaAuthenticationSetting());
+        try {
+            passwordVerifier.checkPassword(PASSWORD, "notABCryptHash");
+        } finally {
+            passwordVerifier.shutdown();
+        }
+    }
+
+    @Test(expected = PasswordVerifierOverloadedException.class)
+    public void checkPasswordTimeoutTest() {
+        PasswordVerifier passwordVerifier = new PasswordVerifier(verifierSetting(1L));
+        try {
+            passwordVerifier.checkPassword(PASSWORD, BCrypt.hashpw(PASSWORD, BCrypt.gensalt(12)));
+        } finally {
+            passwordVerifier.shutdown();
+        }
+    }
+
+    @Test
+    public void checkPasswordRejectedOnSaturatedPoolTest() throws Exception {
+        BlockingChecker checker = new BlockingChecker();
+        PasswordVerifier passwordVerifier = new PasswordVerifier(1, 1, 10000L, checker);
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        try {
+            // One verification running and one queued fill the verifier: the third one is rejected right away
+            List<Future<Boolean>> verifications = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                verifications.add(callers.submit(() -> passwordVerifier.checkPassword(PASSWORD, PASSWORD)));
+            }
+
+            Future<Boolean> rejected = awaitFirstDone(verifications);
+            try {
+                rejected.get();
+                Assert.fail("The verification should have been rejected");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof PasswordVerifierOverloadedException);
+                Assert.assertTrue(e.getCause().getMessage().startsWith("Too many pending"));
+            }
+            Assert.assertEquals(1, checker.invocations.get());
+
+            // The accepted verifications complete once the running one is released
+            checker.release.countDown();
+            verifications.remove(rejected);
+            for (Future<Boolean> verification : verifications) {
+                Assert.assertTrue(verification.get(10, TimeUnit.SECONDS));
+            }
+            Assert.assertEquals(2, checker.invocations.get());
+        } finally {
+            callers.shutdownNow();
+            passwordVerifier.shutdown();
+        }
+    }
+
+    @Test
+    public void checkPasswordTimedOutWhileQueuedIsNotRunTest() throws Exception {
+        BlockingChecker checker = new BlockingChecker();
+        PasswordVerifier passwordVerifier = new PasswordVerifier(1, 1, 200L, checker);
+        ExecutorService callers = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> running = callers.submit(() -> passwordVerifier.checkPassword(PASSWORD, PASSWORD));
+            Assert.assertTrue(checker.running.await(10, TimeUnit.SECONDS));
+
+            // The queued verification times out and frees its slot in the queue: the next one is queued again and not rejected
+            for (int i = 0; i < 2; i++) {
+                try {
+                    passwordVerifier.checkPassword(PASSWORD, PASSWORD);
+                    Assert.fail("The verification should have timed out");
+                } catch (PasswordVerifierOverloadedException e) {
+                    Assert.assertTrue(e.getMessage().startsWith("Password verification did not complete"));
+                }
+            }
+
+            // The running verification cannot be interrupted and completes, while the timed out ones never run
+            checker.release.countDown();
+            try {
+                running.get(10, TimeUnit.SECONDS);
+                Assert.fail("The running verification should have timed out");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof PasswordVerifierOverloadedException);
+            }
+            Assert.assertTrue(passwordVerifier.checkPassword(PASSWORD, PASSWORD));
+            Assert.assertEquals(2, checker.invocations.get());
+        } finally {
+            callers.shutdownNow();
+            passwordVerifier.shutdown();
+        }
+    }
+
+    private static <T> Future<T> awaitFirstDone(List<Future<T>> futures) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000L;
+        while (System.currentTimeMillis() < deadline) {
+            for (Future<T> future : futures) {
+                if (future.isDone()) {
+                    return future;
+                }
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("No verification has completed");
+    }
+
+    /**
+     * Matches equal passwords, blocking the first check until released.
+     */
+    private static class BlockingChecker implements BiPredicate<String, String> {
+
+        private final CountDownLatch running = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        @Override
+        public boolean test(String plainPassword, String hashedPassword) {
+            invocations.incrementAndGet();
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return plainPassword.equals(hashedPassword);
+        }
+    }
+
+    private static KapuaAuthenticationSetting verifierSetting(long timeout) {
+        KapuaAuthenticationSetting kapuaAuthenticationSetting = Mockito.mock(KapuaAuthenticationSetting.class);
+        Mockito.when(kapuaAuthenticationSetting.getInt(KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_VERIFIER_THREADS, 0)).thenReturn(1);
+        Mockito.when(kapuaAuthenticationSetting.getInt(KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_VERIFIER_QUEUE_SIZE, 1000)).thenReturn(1);
+        Mockito.when(kapuaAuthenticationSetting.getLong(KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_VERIFIER_TIMEOUT, 10000L)).thenReturn(timeout);
+        return kapuaAuthenticationSetting;
+    }
+}
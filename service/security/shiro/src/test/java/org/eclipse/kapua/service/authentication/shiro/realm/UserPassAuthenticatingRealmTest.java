@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authentication.shiro.realm;
+
+import org.apache.shiro.authc.IncorrectCredentialsException;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.account.internal.AccountImpl;
+import org.eclipse.kapua.service.authentication.credential.Credential;
+import org.eclipse.kapua.service.authentication.credential.CredentialStatus;
+import org.eclipse.kapua.service.authentication.credential.cache.PasswordVerifier;
+import org.eclipse.kapua.service.authentication.credential.handler.shiro.PasswordCredentialTypeHandler;
+import org.eclipse.kapua.service.authentication.credential.shiro.CredentialImpl;
+import org.eclipse.kapua.service.authentication.shiro.UsernamePasswordCredentialsImpl;
+import org.eclipse.kapua.service.authentication.shiro.exceptions.PasswordVerifierOverloadedException;
+import org.eclipse.kapua.service.authentication.shiro.setting.KapuaAuthenticationSetting;
+import org.eclipse.kapua.service.authentication.shiro.setting.KapuaAuthenticationSettingKeys;
+import org.eclipse.kapua.service.authorization.access.shiro.MockitoLocator;
+import org.eclipse.kapua.service.user.internal.UserImpl;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Checks that the logins whose password cannot be verified because the {@link PasswordVerifier} is overloaded
+ * do not count against the lockout policy of the {@link Credential}.
+ */
+@Category(JUnitTests.class)
+public class UserPassAuthenticatingRealmTest {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.valueOf(10));
+    private static final String USERNAME = "user";
+    private static final String PASSWORD = "Welcome12345!";
+
+    private static PasswordVerifier passwordVerifier;
+
+    private UserPassAuthenticatingRealm realm;
+    private CredentialImpl credential;
+    private LoginAuthenticationInfo loginAuthenticationInfo;
+
+    @Before
+    public void setUp() {
+        System.setProperty(KapuaLocator.LOCATOR_CLASS_NAME_SYSTEM_PROPERTY, PasswordVerifierLocator.class.getName());
+        KapuaLocator.clearInstance();
+
+        UserImpl user = new UserImpl(SCOPE_ID, USERNAME);
+        user.setId(new KapuaEid(BigInteger.valueOf(100)));
+        credential = new CredentialImpl(SCOPE_ID, user.getId(), PasswordCredentialTypeHandler.TYPE, BCrypt.hashpw(PASSWORD, BCrypt.gensalt(4)), CredentialStatus.ENABLED, null);
+        credential.setLoginFailures(0);
+
+        Map<String, Object> credentialServiceConfig = new HashMap<>();
+        credentialServiceConfig.put("lockoutPolicy.enabled", true);
+        credentialServiceConfig.put("lockoutPolicy.resetAfter", 3600);
+        credentialServiceConfig.put("lockoutPolicy.maxFailures", 3);
+        credentialServiceConfig.put("lockoutPolicy.lockDuration", 60);
+        loginAuthenticationInfo = new LoginAuthenticationInfo(UserPassAuthenticatingRealm.REALM_NAME, new AccountImpl(KapuaId.ONE, "account"), user, credential, credentialServiceConfig);
+    }
+
+    @After
+    public void tearDown() {
+        if (passwordVerifier != null) {
+            passwordVerifier.shutdown();
+            passwordVerifier = null;
+        }
+        System.clearProperty(KapuaLocator.LOCATOR_CLASS_NAME_SYSTEM_PROPERTY);
+        KapuaLocator.clearInstance();
+    }
+
+    @Test
+    public void wrongPasswordIsCountedTest() throws Exception {
+        passwordVerifier = new PasswordVerifier(new KapuaAuthenticationSetting());
+        realm = new UserPassAuthenticatingRealm();
+
+        try {
+            realm.assertCredentialsMatch(new UsernamePasswordCredentialsImpl(USERNAME, "wrongPassword"), loginAuthenticationInfo);
+            Assert.fail("IncorrectCredentialsException expected");
+        } catch (IncorrectCredentialsException e) {
+            // Expected
+        }
+
+        Assert.assertEquals(1, credential.getLoginFailures());
+        Mockito.verify(realm.credentialService).update(Matchers.same(credential));
+    }
+
+    @Test
+    public void rejectedVerificationIsNotCountedTest() throws Exception {
+        passwordVerifier = new PasswordVerifier(verifierSetting(10000L));
+        realm = new UserPassAuthenticatingRealm();
+
+        // One verification running and one queued fill the verifier
+        String slowHash = BCrypt.hashpw(PASSWORD, BCrypt.gensalt(14));
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            AtomicReferenceArray<Thread> callerThreads = new AtomicReferenceArray<>(2);
+            for (int i = 0; i < callerThreads.length(); i++) {
+                int caller = i;
+                callers.submit(() -> {
+                    callerThreads.set(caller, Thread.currentThread());
+                    return passwordVerifier.checkPassword(PASSWORD, slowHash);
+                });
+            }
+            awaitWaitingForVerification(callerThreads);
+
+            assertOverloadedNotCounted();
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void timedOutVerificationIsNotCountedTest() throws Exception {
+        passwordVerifier = new PasswordVerifier(verifierSetting(1L));
+        realm = new UserPassAuthenticatingRealm();
+        credential.setCredentialKey(BCrypt.hashpw(PASSWORD, BCrypt.gensalt(12)));
+
+        assertOverloadedNotCounted();
+    }
+
+    private void assertOverloadedNotCounted() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            try {
+                realm.assertCredentialsMatch(new UsernamePasswordCredentialsImpl(USERNAME, PASSWORD), loginAuthenticationInfo);
+                Assert.fail("PasswordVerifierOverloadedException expected");
+            } catch (PasswordVerifierOverloadedException e) {
+                // Expected
+            }
+        }
+
+        Assert.assertEquals(0, credential.getLoginFailures());
+        Assert.assertNull(credential.getLockoutReset());
+        Mockito.verify(realm.credentialService, Mockito.never()).update(Matchers.any(Credential.class));
+    }
+
+    /**
+     * The callers have submitted their verifications once they wait for their results.
+     */
+    private static void awaitWaitingForVerification(AtomicReferenceArray<Thread> callerThreads) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000L;
+        for (int i = 0; i < callerThreads.length(); i++) {
+            while (callerThreads.get(i) == null || callerThreads.get(i).getState() != Thread.State.TIMED_WAITING) {
+                if (System.currentTimeMillis() > deadline) {
+                    Assert.fail("The verifications have not been submitted");
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private static KapuaAuthenticationSetting verifierSetting(long timeout) {
+        KapuaAuthenticationSetting kapuaAuthenticationSetting = Mockito.mock(KapuaAuthenticationSetting.class);
+        Mockito.when(kapuaAuthenticationSetting.getInt(KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_VERIFIER_THREADS, 0)).thenReturn(1);
+        Mockito.when(kapuaAuthenticationSetting.getInt(KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_VERIFIER_QUEUE_SIZE, 1000)).thenReturn(1);
+        Mockito.when(kapuaAuthenticationSetting.getLong(KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_VERIFIER_TIMEOUT, 10000L)).thenReturn(timeout);
+        return kapuaAuthenticationSetting;
+    }
+
+    /**
+     * {@link MockitoLocator} which provides the {@link PasswordVerifier} of the test.
+     */
+    public static class PasswordVerifierLocator extends MockitoLocator {
+
+        @Override
+        public <T> T getComponent(Class<T> componentClass) {
+            if (PasswordVerifier.class.equals(componentClass)) {
+                return componentClass.cast(passwordVerifier);
+            }
+            return super.getComponent(componentClass);
+        }
+    }
+}
@@ -32,6 +32,9 @@ public class KapuaAuthenticationSettingKeysTest {
         Assert.assertEquals("Expected and actual values should be the same.", "authentication.credential.userpass.cache.enabled", KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_CACHE_ENABLE.key());
         Assert.assertEquals("Expected and actual values should be the same.", "authentication.credential.userpass.cache.ttl", KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_CACHE_CACHE_TTL.key());
         Assert.assertEquals("Expected and actual values should be the same.", "authentication.credential.userpass.password.minlength", KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_PASSWORD_MINLENGTH.key());
+        Assert.assertEquals("Expected and actual values should be the same.", "authentication.credential.userpass.verifier.threads", KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_VERIFIER_THREADS.key());
+        Assert.assertEquals("Expected and actual values should be the same.", "authentication.credential.userpass.verifier.queue.size", KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_VERIFIER_QUEUE_SIZE.key());
+        Assert.assertEquals("Expected and actual values should be the same.", "authentication.credential.userpass.verifier.timeout", KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_VERIFIER_TIMEOUT.key());
         Assert.assertEquals("Expected and actual values should be the same.", "authentication.credential.jwt.audience.allowed", KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_AUDIENCE_ALLOWED.key());
         Assert.assertEquals("Expected and actual values should be the same.", "authentication.credential.jwt.cache.enabled", KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_JWT_CACHE_ENABLE.key());
         Assert.assertEquals("Expected and actual values should be the same.", "authentication.credential.jwt.cache.ttl", KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_JWT_CACHE_CACHE_TTL.key());
@@ -0,0 +1,342 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.shiro;
+
+import com.google.common.base.MoreObjects;
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.jpa.JdbcConnectionUrlResolvers;
+import org.eclipse.kapua.commons.jpa.JpaAwareTxContext;
+import org.eclipse.kapua.commons.jpa.KapuaJpaRepositoryConfiguration;
+import org.eclipse.kapua.commons.jpa.KapuaJpaTxManagerFactory;
+import org.eclipse.kapua.commons.liquibase.KapuaLiquibaseClient;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.commons.setting.system.SystemSetting;
+import org.eclipse.kapua.commons.setting.system.SystemSettingKey;
+import org.eclipse.kapua.model.KapuaEntity;
+import org.eclipse.kapua.model.domain.Actions;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.authorization.access.AccessInfo;
+import org.eclipse.kapua.service.authorization.access.AccessInfoAttributes;
+import org.eclipse.kapua.service.authorization.access.AccessInfoQuery;
+import org.eclipse.kapua.service.authorization.access.AccessPermission;
+import org.eclipse.kapua.service.authorization.access.AccessRole;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessInfoImpl;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessInfoImplJpaRepository;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessInfoQueryImpl;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessPermissionImpl;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessPermissionImplJpaRepository;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessRoleImpl;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessRoleImplJpaRepository;
+import org.eclipse.kapua.service.authorization.permission.shiro.PermissionImpl;
+import org.eclipse.kapua.service.authorization.role.Role;
+import org.eclipse.kapua.service.authorization.role.RolePermission;
+import org.eclipse.kapua.service.authorization.role.shiro.RoleImpl;
+import org.eclipse.kapua.service.authorization.role.shiro.RoleImplJpaRepository;
+import org.eclipse.kapua.service.authorization.role.shiro.RolePermissionImpl;
+import org.eclipse.kapua.service.authorization.role.shiro.RolePermissionImplJpaRepository;
+import org.eclipse.kapua.storage.TxContext;
+import org.eclipse.kapua.storage.TxManager;
+import org.eclipse.persistence.jpa.JpaEntityManager;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Checks the {@link AccessGraph}s loaded by the {@link AccessGraphImplJpaRepository} from the embedded H2 database
+ * against the ones built walking the graph one entity at a time, as the {@link KapuaAuthorizingRealm} did through the services,
+ * and the number of SQL statements executed to load them.
+ */
+@Category(JUnitTests.class)
+public class AccessGraphImplJpaRepositoryTest {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.valueOf(10));
+    private static final KapuaId OTHER_SCOPE_ID = new KapuaEid(BigInteger.valueOf(20));
+    private static final KapuaId USER_ID = new KapuaEid(BigInteger.valueOf(100));
+    private static final KapuaId OTHER_USER_ID = new KapuaEid(BigInteger.valueOf(200));
+    private static final KapuaId NO_ROLES_USER_ID = new KapuaEid(BigInteger.valueOf(300));
+    private static final KapuaId NO_ACCESS_USER_ID = new KapuaEid(BigInteger.valueOf(400));
+    private static final KapuaId MANY_ROLES_USER_ID = new KapuaEid(BigInteger.valueOf(500));
+    private static final int MANY_ROLES_COUNT = 20;
+    private static final int MAX_QUERIES = 5;
+
+    private static Connection connection;
+    private static TxManager txManager;
+    private static AccessInfoImplJpaRepository accessInfoRepository;
+    private static AccessPermissionImplJpaRepository accessPermissionRepository;
+    private static AccessRoleImplJpaRepository accessRoleRepository;
+    private static RoleImplJpaRepository roleRepository;
+    private static RolePermissionImplJpaRepository rolePermissionRepository;
+    private static StatementCounter statementCounter;
+
+    private final AccessGraphImplJpaRepository accessGraphRepository = new AccessGraphImplJpaRepository();
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        SystemSetting config = SystemSetting.getInstance();
+        String dbUsername = config.getString(SystemSettingKey.DB_USERNAME);
+        String dbPassword = config.getString(SystemSettingKey.DB_PASSWORD);
+        String schema = MoreObjects.firstNonNull(config.getString(SystemSettingKey.DB_SCHEMA_ENV), config.getString(SystemSettingKey.DB_SCHEMA));
+        String jdbcUrl = JdbcConnectionUrlResolvers.resolveJdbcUrl();
+
+        // Keep the in-memory database open for the whole test
+        connection = DriverManager.getConnection(jdbcUrl, dbUsername, dbPassword);
+        new KapuaLiquibaseClient(jdbcUrl, dbUsername, dbPassword, schema).update();
+
+        KapuaJpaRepositoryConfiguration jpaRepoConfig = new KapuaJpaRepositoryConfiguration();
+        txManager = new KapuaJpaTxManagerFactory(3).create("kapua-authorization");
+        accessInfoRepository = new AccessInfoImplJpaRepository(jpaRepoConfig);
+        accessPermissionRepository = new AccessPermissionImplJpaRepository(jpaRepoConfig);
+        accessRoleRepository = new AccessRoleImplJpaRepository(jpaRepoConfig);
+        roleRepository = new RoleImplJpaRepository(jpaRepoConfig);
+        rolePermissionRepository = new RolePermissionImplJpaRepository(jpaRepoConfig);
+
+        KapuaSecurityUtils.doPrivileged(() -> txManager.execute(tx -> {
+            Role admin = role(tx, SCOPE_ID, "admin", new PermissionImpl(null, null, SCOPE_ID, null), new PermissionImpl("user", Actions.read, SCOPE_ID, null));
+            Role viewer = role(tx, SCOPE_ID, "viewer", new PermissionImpl("device", Actions.read, SCOPE_ID, null));
+            Role unassigned = role(tx, SCOPE_ID, "unassigned", new PermissionImpl("account", Actions.delete, SCOPE_ID, null));
+            Role otherScopeRole = role(tx, OTHER_SCOPE_ID, "other", new PermissionImpl("device", Actions.write, OTHER_SCOPE_ID, null));
+
+            // A Role Permission of the admin Role stored in another scope
+            rolePermissionRepository.create(tx, rolePermission(OTHER_SCOPE_ID, admin, new PermissionImpl("device", Actions.delete, OTHER_SCOPE_ID, null)));
+
+            // The user: Access Permissions, the admin and viewer Roles, and a Role of another scope
+            AccessInfo accessInfo = accessInfo(tx, SCOPE_ID, USER_ID);
+            accessPermissionRepository.create(tx, accessPermission(SCOPE_ID, accessInfo, new PermissionImpl("datastore", Actions.read, SCOPE_ID, null)));
+            accessPermissionRepository.create(tx, accessPermission(SCOPE_ID, accessInfo, new PermissionImpl("device", Actions.execute, SCOPE_ID, null, true)));
+            accessRoleRepository.create(tx, accessRole(SCOPE_ID, accessInfo, admin));
+            accessRoleRepository.create(tx, accessRole(SCOPE_ID, accessInfo, viewer));
+            accessRoleRepository.create(tx, accessRole(SCOPE_ID, accessInfo, otherScopeRole));
+
+            // Access Permissions and Access Roles of the user stored in another scope
+            accessPermissionRepository.create(tx, accessPermission(OTHER_SCOPE_ID, accessInfo, new PermissionImpl("user", Actions.delete, OTHER_SCOPE_ID, null)));
+            accessRoleRepository.create(tx, accessRole(OTHER_SCOPE_ID, accessInfo, unassigned));
+
+            // Another user of the same scope
+            AccessInfo otherAccessInfo = accessInfo(tx, SCOPE_ID, OTHER_USER_ID);
+            accessPermissionRepository.create(tx, accessPermission(SCOPE_ID, otherAccessInfo, new PermissionImpl("job", Actions.read, SCOPE_ID, null)));
+            accessRoleRepository.create(tx, accessRole(SCOPE_ID, otherAccessInfo, unassigned));
+
+            // A user with Access Permissions only
+            AccessInfo noRolesAccessInfo = accessInfo(tx, SCOPE_ID, NO_ROLES_USER_ID);
+            accessPermissionRepository.create(tx, accessPermission(SCOPE_ID, noRolesAccessInfo, new PermissionImpl("tag", Actions.read, SCOPE_ID, null)));
+
+            // A user with many Roles, each one with several Role Permissions
+            AccessInfo manyRolesAccessInfo = accessInfo(tx, SCOPE_ID, MANY_ROLES_USER_ID);
+            accessPermissionRepository.create(tx, accessPermission(SCOPE_ID, manyRolesAccessInfo, new PermissionImpl("tag", Actions.write, SCOPE_ID, null)));
+            accessPermissionRepository.create(tx, accessPermission(SCOPE_ID, manyRolesAccessInfo, new PermissionImpl("job", Actions.write, SCOPE_ID, null)));
+            for (int i = 0; i < MANY_ROLES_COUNT; i++) {
+                Role manyRole = role(tx, SCOPE_ID, "role-" + i,
+                        new PermissionImpl("device", Actions.read, SCOPE_ID, null),
+                        new PermissionImpl("device", Actions.write, SCOPE_ID, null),
+                        new PermissionImpl("datastore", Actions.read, SCOPE_ID, null));
+                accessRoleRepository.create(tx, accessRole(SCOPE_ID, manyRolesAccessInfo, manyRole));
+            }
+
+            // The listeners of the server session are copied to the sessions of the transactions created afterwards
+            statementCounter = new StatementCounter();
+            JpaAwareTxContext.extractEntityManager(tx).unwrap(JpaEntityManager.class).getServerSession().getEventManager().addListener(statementCounter);
+            return null;
+        }));
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void findByUserIdTest() throws Exception {
+        AccessGraph accessGraph = assertSameAsWalked(SCOPE_ID, USER_ID);
+
+        Assert.assertEquals(2, accessGraph.getAccessPermissions().size());
+        Assert.assertEquals(2, accessGraph.getRoles().size());
+        Assert.assertEquals(3, accessGraph.getRolePermissions().size());
+    }
+
+    @Test
+    public void findByUserIdOfAnotherUserTest() throws Exception {
+        AccessGraph accessGraph = assertSameAsWalked(SCOPE_ID, OTHER_USER_ID);
+
+        Assert.assertEquals(1, accessGraph.getAccessPermissions().size());
+        Assert.assertEquals(1, accessGraph.getRoles().size());
+        Assert.assertEquals(1, accessGraph.getRolePermissions().size());
+    }
+
+    @Test
+    public void findByUserIdWithoutRolesTest() throws Exception {
+        AccessGraph accessGraph = assertSameAsWalked(SCOPE_ID, NO_ROLES_USER_ID);
+
+        Assert.assertEquals(1, accessGraph.getAccessPermissions().size());
+        Assert.assertTrue(accessGraph.getRoles().isEmpty());
+        Assert.assertTrue(accessGraph.getRolePermissions().isEmpty());
+    }
+
+    @Test
+    public void findByUserIdWithoutAccessInfoTest() throws Exception {
+        AccessGraph accessGraph = assertSameAsWalked(SCOPE_ID, NO_ACCESS_USER_ID);
+
+        Assert.assertTrue(accessGraph.getAccessPermissions().isEmpty());
+        Assert.assertTrue(accessGraph.getRoles().isEmpty());
+        Assert.assertTrue(accessGraph.getRolePermissions().isEmpty());
+    }
+
+    @Test
+    public void findByUserIdInAnotherScopeTest() throws Exception {
+        AccessGraph accessGraph = assertSameAsWalked(OTHER_SCOPE_ID, USER_ID);
+
+        Assert.assertTrue(accessGraph.getAccessPermissions().isEmpty());
+        Assert.assertTrue(accessGraph.getRoles().isEmpty());
+        Assert.assertTrue(accessGraph.getRolePermissions().isEmpty());
+    }
+
+    @Test
+    public void findByUserIdWithManyRolesTest() throws Exception {
+        AccessGraph accessGraph = assertSameAsWalked(SCOPE_ID, MANY_ROLES_USER_ID);
+
+        Assert.assertEquals(2, accessGraph.getAccessPermissions().size());
+        Assert.assertEquals(MANY_ROLES_COUNT, accessGraph.getRoles().size());
+        Assert.assertEquals(MANY_ROLES_COUNT * 3, accessGraph.getRolePermissions().size());
+    }
+
+    @Test
+    public void findByUserIdQueryCountTest() throws Exception {
+        Assert.assertEquals(1, countStatements(tx -> accessGraphRepository.findByUserId(tx, SCOPE_ID, NO_ACCESS_USER_ID)));
+        Assert.assertEquals(3, countStatements(tx -> accessGraphRepository.findByUserId(tx, SCOPE_ID, NO_ROLES_USER_ID)));
+        Assert.assertEquals(MAX_QUERIES, countStatements(tx -> accessGraphRepository.findByUserId(tx, SCOPE_ID, USER_ID)));
+        Assert.assertEquals(MAX_QUERIES, countStatements(tx -> accessGraphRepository.findByUserId(tx, SCOPE_ID, MANY_ROLES_USER_ID)));
+
+        // The counter does count each statement: walking the graph costs at least a statement per Role
+        Assert.assertTrue(countStatements(tx -> walk(tx, SCOPE_ID, MANY_ROLES_USER_ID)) > MANY_ROLES_COUNT);
+    }
+
+    private int countStatements(TxManager.TxConsumer<?> action) throws KapuaException {
+        statementCounter.count.set(0);
+        statementCounter.counting = true;
+        try {
+            KapuaSecurityUtils.doPrivileged(() -> txManager.execute(action));
+        } finally {
+            statementCounter.counting = false;
+        }
+        return statementCounter.count.get();
+    }
+
+    private AccessGraph assertSameAsWalked(KapuaId scopeId, KapuaId userId) throws KapuaException {
+        AccessGraph loaded = KapuaSecurityUtils.doPrivileged(() -> txManager.execute(tx -> accessGraphRepository.findByUserId(tx, scopeId, userId)));
+        AccessGraph walked = KapuaSecurityUtils.doPrivileged(() -> txManager.execute(tx -> walk(tx, scopeId, userId)));
+
+        Assert.assertEquals(idsOf(walked.getAccessPermissions()), idsOf(loaded.getAccessPermissions()));
+        Assert.assertEquals(idsOf(walked.getRoles()), idsOf(loaded.getRoles()));
+        Assert.assertEquals(idsOf(walked.getRolePermissions()), idsOf(loaded.getRolePermissions()));
+        return loaded;
+    }
+
+    /**
+     * Walks the graph one entity at a time, with the same lookups of the services.
+     */
+    private AccessGraph walk(TxContext tx, KapuaId scopeId, KapuaId userId) throws KapuaException {
+        AccessInfoQuery accessInfoQuery = new AccessInfoQueryImpl(scopeId);
+        accessInfoQuery.setPredicate(accessInfoQuery.attributePredicate(AccessInfoAttributes.USER_ID, userId));
+
+        List<AccessPermission> accessPermissions = new ArrayList<>();
+        List<Role> roles = new ArrayList<>();
+        List<RolePermission> rolePermissions = new ArrayList<>();
+        for (AccessInfo accessInfo : accessInfoRepository.query(tx, accessInfoQuery).getItems()) {
+            accessPermissions.addAll(accessPermissionRepository.findByAccessInfoId(tx, accessInfo.getScopeId(), accessInfo.getId()).getItems());
+
+            for (AccessRole accessRole : accessRoleRepository.findByAccessInfoId(tx, accessInfo.getScopeId(), accessInfo.getId()).getItems()) {
+                Optional<Role> role = roleRepository.find(tx, accessRole.getScopeId(), accessRole.getRoleId());
+                if (role.isPresent()) {
+                    roles.add(role.get());
+                    rolePermissions.addAll(rolePermissionRepository.findByRoleId(tx, role.get().getScopeId(), role.get().getId()).getItems());
+                }
+            }
+        }
+        return new AccessGraph(accessPermissions, roles, rolePermissions);
+    }
+
+    private static List<BigInteger> idsOf(List<? extends KapuaEntity> entities) {
+        return entities.stream()
+                .map(entity -> entity.getId().getId())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static Role role(TxContext tx, KapuaId scopeId, String name, PermissionImpl... permissions) throws KapuaException {
+        RoleImpl role = new RoleImpl(scopeId);
+        role.setName(name);
+        Role created = roleRepository.create(tx, role);
+        for (PermissionImpl permission : permissions) {
+            rolePermissionRepository.create(tx, rolePermission(scopeId, created, permission));
+        }
+        return created;
+    }
+
+    private static RolePermissionImpl rolePermission(KapuaId scopeId, Role role, PermissionImpl permission) {
+        RolePermissionImpl rolePermission = new RolePermissionImpl(scopeId, permission);
+        rolePermission.setRoleId(role.getId());
+        return rolePermission;
+    }
+
+    private static AccessInfo accessInfo(TxContext tx, KapuaId scopeId, KapuaId userId) throws KapuaException {
+        AccessInfoImpl accessInfo = new AccessInfoImpl(scopeId);
+        accessInfo.setUserId(userId);
+        return accessInfoRepository.create(tx, accessInfo);
+    }
+
+    private static AccessPermissionImpl accessPermission(KapuaId scopeId, AccessInfo accessInfo, PermissionImpl permission) {
+        AccessPermissionImpl accessPermission = new AccessPermissionImpl(scopeId);
+        accessPermission.setAccessInfoId(accessInfo.getId());
+        accessPermission.setPermission(permission);
+        return accessPermission;
+    }
+
+    private static AccessRoleImpl accessRole(KapuaId scopeId, AccessInfo accessInfo, Role role) {
+        AccessRoleImpl accessRole = new AccessRoleImpl(scopeId);
+        accessRole.setAccessInfoId(accessInfo.getId());
+        accessRole.setRoleId(role.getId());
+        return accessRole;
+    }
+
+    /**
+     * Counts the SQL statements executed by EclipseLink.
+     */
+    private static class StatementCounter extends SessionEventAdapter {
+
+        private final AtomicInteger count = new AtomicInteger();
+        private volatile boolean counting;
+
+        @Override
+        public void postExecuteCall(SessionEvent event) {
+            if (counting) {
+                count.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.shiro;
+
+import org.eclipse.kapua.commons.metric.CommonsMetric;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.commons.service.internal.cache.EntityCache;
+import org.eclipse.kapua.commons.service.internal.cache.EntityCacheInvalidator;
+import org.eclipse.kapua.commons.service.internal.cache.KapuaCacheManager;
+import org.eclipse.kapua.commons.service.internal.cache.local.CachingProvider;
+import org.eclipse.kapua.commons.setting.system.SystemSetting;
+import org.eclipse.kapua.event.ServiceEvent;
+import org.eclipse.kapua.model.domain.Actions;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.account.AccountService;
+import org.eclipse.kapua.service.account.internal.AccountImpl;
+import org.eclipse.kapua.service.authorization.domain.DomainRegistryService;
+import org.eclipse.kapua.service.authorization.domain.shiro.DomainImpl;
+import org.eclipse.kapua.service.authorization.permission.shiro.PermissionImpl;
+import org.eclipse.kapua.service.authorization.shiro.setting.KapuaAuthorizationSetting;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.Collections;
+import java.util.UUID;
+
+@Category(JUnitTests.class)
+public class PermissionIndexCacheTest {
+
+    private static final KapuaId SCOPE_A = new KapuaEid(BigInteger.valueOf(10));
+    private static final KapuaId SCOPE_B = new KapuaEid(BigInteger.valueOf(20));
+    private static final KapuaId SCOPE_C = new KapuaEid(BigInteger.valueOf(30));
+    private static final KapuaId GROUP_1 = new KapuaEid(BigInteger.valueOf(100));
+    private static final KapuaId GROUP_2 = new KapuaEid(BigInteger.valueOf(200));
+
+    private DomainRegistryService domainService;
+    private AccountService accountService;
+    private EntityCacheInvalidator entityCacheInvalidator;
+    private KapuaCacheManager kapuaCacheManager;
+    private PermissionIndexCache permissionIndexCache;
+
+    @Before
+    public void setUp() {
+        CommonsMetric commonsMetric = Mockito.mock(CommonsMetric.class, Mockito.RETURNS_DEEP_STUBS);
+        domainService = Mockito.mock(DomainRegistryService.class);
+        accountService = Mockito.mock(AccountService.class);
+        entityCacheInvalidator = new EntityCacheInvalidator(commonsMetric);
+        kapuaCacheManager = new KapuaCacheManager(
+                new CachingProvider().createCacheManager(URI.create(UUID.randomUUID().toString()), 100, commonsMetric),
+                commonsMetric,
+                SystemSetting.getInstance(),
+                entityCacheInvalidator);
+        permissionIndexCache = new PermissionIndexCache(domainService, accountService, new KapuaAuthorizationSetting(), entityCacheInvalidator);
+    }
+
+    @Test
+    public void accountInvalidationTest() throws Exception {
+        Mockito.when(accountService.find(SCOPE_B)).thenReturn(account(SCOPE_A), account(SCOPE_C));
+        EntityCache accountCache = new EntityCache(kapuaCacheManager, Mockito.mock(CommonsMetric.class, Mockito.RETURNS_DEEP_STUBS), PermissionIndexCache.ACCOUNT_ID_CACHE_NAME);
+        PermissionIndex permissionIndex = index(new PermissionImpl("device", Actions.read, SCOPE_A, null, true));
+        PermissionImpl target = new PermissionImpl("device", Actions.read, SCOPE_B, null);
+
+        Assert.assertTrue(permissionIndexCache.implies(permissionIndex, target));
+        // The parent account path is cached
+        Assert.assertTrue(permissionIndexCache.implies(permissionIndex, target));
+        Mockito.verify(accountService, Mockito.times(1)).find(SCOPE_B);
+
+        // The account is moved under SCOPE_C: the change of the account invalidates its EntityCache entry
+        accountCache.remove(KapuaId.ANY, SCOPE_B);
+
+        Assert.assertFalse(permissionIndexCache.implies(permissionIndex, target));
+        Mockito.verify(accountService, Mockito.times(2)).find(SCOPE_B);
+    }
+
+    @Test
+    public void remoteAccountInvalidationTest() throws Exception {
+        Mockito.when(accountService.find(SCOPE_B)).thenReturn(account(SCOPE_A), account(SCOPE_C));
+        PermissionIndex permissionIndex = index(new PermissionImpl("device", Actions.read, SCOPE_A, null, true));
+        PermissionImpl target = new PermissionImpl("device", Actions.read, SCOPE_B, null);
+
+        Assert.assertTrue(permissionIndexCache.implies(permissionIndex, target));
+
+        ServiceEvent serviceEvent = new ServiceEvent();
+        serviceEvent.setService("entity-cache");
+        serviceEvent.setOperation("invalidate");
+        serviceEvent.setEntityType(PermissionIndexCache.ACCOUNT_ID_CACHE_NAME);
+        serviceEvent.setEntityScopeId(SCOPE_A);
+        serviceEvent.setEntityId(SCOPE_B);
+        serviceEvent.setNote("another-node");
+        entityCacheInvalidator.onServiceEvent(serviceEvent);
+
+        Assert.assertFalse(permissionIndexCache.implies(permissionIndex, target));
+        Mockito.verify(accountService, Mockito.times(2)).find(SCOPE_B);
+    }
+
+    @Test
+    public void domainInvalidationTest() throws Exception {
+        Mockito.when(domainService.findByName("device")).thenReturn(domain(true), domain(false));
+        EntityCache domainCache = new EntityCache(kapuaCacheManager, Mockito.mock(CommonsMetric.class, Mockito.RETURNS_DEEP_STUBS), PermissionIndexCache.DOMAIN_ID_CACHE_NAME);
+        PermissionIndex permissionIndex = index(new PermissionImpl("device", Actions.read, SCOPE_A, GROUP_1));
+        PermissionImpl target = new PermissionImpl("device", Actions.read, SCOPE_A, GROUP_2);
+
+        Assert.assertFalse(permissionIndexCache.implies(permissionIndex, target));
+        Assert.assertFalse(permissionIndexCache.implies(permissionIndex, target));
+        Mockito.verify(domainService, Mockito.times(1)).findByName("device");
+
+        domainCache.remove(KapuaId.ANY, new KapuaEid(BigInteger.ONE));
+
+        Assert.assertTrue(permissionIndexCache.implies(permissionIndex, target));
+        Mockito.verify(domainService, Mockito.times(2)).findByName("device");
+    }
+
+    private static PermissionIndex index(PermissionImpl permission) {
+        return new PermissionIndex(Collections.singletonList("role"), Collections.singletonList(permission));
+    }
+
+    private static AccountImpl account(KapuaId parentId) {
+        AccountImpl account = new AccountImpl(parentId, "account-b");
+        account.setId(SCOPE_B);
+        account.setParentAccountPath("/1/" + parentId.toStringId() + "/" + SCOPE_B.toStringId());
+        return account;
+    }
+
+    private static DomainImpl domain(boolean groupable) {
+        DomainImpl domain = new DomainImpl();
+        domain.setName("device");
+        domain.setGroupable(groupable);
+        return domain;
+    }
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.shiro;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.domain.Actions;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.authorization.group.Group;
+import org.eclipse.kapua.service.authorization.permission.Permission;
+import org.eclipse.kapua.service.authorization.permission.shiro.PermissionImpl;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+
+@Category(JUnitTests.class)
+public class PermissionIndexTest {
+
+    private static final KapuaId SCOPE_A = new KapuaEid(BigInteger.valueOf(10));
+    private static final KapuaId SCOPE_B = new KapuaEid(BigInteger.valueOf(20));
+    private static final KapuaId GROUP_1 = new KapuaEid(BigInteger.valueOf(100));
+    private static final KapuaId GROUP_2 = new KapuaEid(BigInteger.valueOf(200));
+
+    private static final Predicate<String> ALL_GROUPABLE = domain -> true;
+    private static final Function<KapuaId, String> NO_ACCOUNT = accountId -> null;
+
+    private static PermissionIndex index(Permission... permissions) {
+        return new PermissionIndex(Collections.singletonList("role"), Arrays.asList(permissions));
+    }
+
+    @Test
+    public void impliesExactTest() {
+        PermissionIndex index = index(new PermissionImpl("device", Actions.read, SCOPE_A, GROUP_1));
+
+        Assert.assertTrue(index.implies(new PermissionImpl("device", Actions.read, SCOPE_A, GROUP_1), ALL_GROUPABLE, NO_ACCOUNT));
+        Assert.assertFalse(index.implies(new PermissionImpl("device", Actions.write, SCOPE_A, GROUP_1), ALL_GROUPABLE, NO_ACCOUNT));
+        Assert.assertFalse(index.implies(new PermissionImpl("user", Actions.read, SCOPE_A, GROUP_1), ALL_GROUPABLE, NO_ACCOUNT));
+        Assert.assertFalse(index.implies(new PermissionImpl("device", Actions.read, SCOPE_B, GROUP_1), ALL_GROUPABLE, NO_ACCOUNT));
+        Assert.assertFalse(index.implies(new PermissionImpl("device", Actions.read, SCOPE_A, GROUP_2), ALL_GROUPABLE, NO_ACCOUNT));
+        Assert.assertFalse(index.implies(new PermissionImpl("device", Actions.read, SCOPE_A, null), ALL_GROUPABLE, NO_ACCOUNT));
+        Assert.assertFalse(index.implies(new PermissionImpl("device", Actions.read, null, GROUP_1), ALL_GROUPABLE, NO_ACCOUNT));
+    }
+
+    @Test
+    public void impliesWildcardTest() {
+        PermissionIndex index = index(new PermissionImpl(null, null, SCOPE_A, null));
+
+        Assert.assertTrue(index.implies(new PermissionImpl("device", Actions.read, SCOPE_A, GROUP_1), ALL_GROUPABLE, NO_ACCOUNT));
+        Assert.assertTrue(index.implies(new PermissionImpl("user", Actions.delete, SCOPE_A, null), ALL_GROUPABLE, NO_ACCOUNT));
+        Assert.assertTrue(index.implies(new PermissionImpl(null, null, SCOPE_A, null), ALL_GROUPABLE, NO_ACCOUNT));
+        Assert.assertFalse(index.implies(new PermissionImpl("device", Actions.read, SCOPE_B, null), ALL_GROUPABLE, NO_ACCOUNT));
+        Assert.assertFalse(index.implies(new PermissionImpl("device", Actions.read, null, null), ALL_GROUPABLE, NO_ACCOUNT));
+    }
+
+    @Test
+    public void impliesDomainIgnoringCaseTest() {
+        PermissionIndex index = index(new PermissionImpl("Device", Actions.read, SCOPE_A, null));
+
+        Assert.assertTrue(index.implies(new PermissionImpl("device", Actions.read, SCOPE_A, null), ALL_GROUPABLE, NO_ACCOUNT));
+    }
+
+    @Test
+    public void impliesAnyScopeAndAnyGroupTest() {
+        PermissionIndex index = index(new PermissionImpl("device", Actions.read, SCOPE_A, GROUP_1));
+
+        Assert.assertTrue(index.implies(new PermissionImpl("device", Actions.read, KapuaId.ANY, GROUP_1), ALL_GROUPABLE, NO_ACCOUNT));
+        Assert.assertTrue(index.implies(new PermissionImpl("device", Actions.read, SCOPE_A, Group.ANY), ALL_GROUPABLE, NO_ACCOUNT));
+        Assert.assertTrue(index.implies(new PermissionImpl("device", Actions.read, KapuaId.ANY, Group.ANY), ALL_GROUPABLE, NO_ACCOUNT));
+        Assert.assertFalse(index.implies(new PermissionImpl("device", Actions.write, KapuaId.ANY, Group.ANY), ALL_GROUPABLE, NO_ACCOUNT));
+    }
+
+    @Test
+    public void impliesNotGroupableDomainTest() {
+        PermissionIndex index = index(new PermissionImpl("user", Actions.read, SCOPE_A, GROUP_1));
+
+        Assert.assertTrue(index.implies(new PermissionImpl("user", Actions.read, SCOPE_A, null), domain -> false, NO_ACCOUNT));
+        Assert.assertFalse(index.implies(new PermissionImpl("user", Actions.read, SCOPE_A, null), ALL_GROUPABLE, NO_ACCOUNT));
+    }
+
+    @Test
+    public void impliesForwardableTest() {
+        Function<KapuaId, String> parentAccountPath = accountId -> SCOPE_B.equals(accountId) ? "/1/" + SCOPE_A.toStringId() + "/" + SCOPE_B.toStringId() : null;
+
+        PermissionIndex forwardable = index(new PermissionImpl("device", Actions.read, SCOPE_A, null, true));
+        Assert.assertTrue(forwardable.implies(new PermissionImpl("device", Actions.read, SCOPE_B, null), ALL_GROUPABLE, parentAccountPath));
+        Assert.assertFalse(forwardable.implies(new PermissionImpl("device", Actions.write, SCOPE_B, null), ALL_GROUPABLE, parentAccountPath));
+        Assert.assertFalse(forwardable.implies(new PermissionImpl("device", Actions.read, new KapuaEid(BigInteger.valueOf(30)), null), ALL_GROUPABLE, parentAccountPath));
+
+        PermissionIndex notForwardable = index(new PermissionImpl("device", Actions.read, SCOPE_A, null, false));
+        Assert.assertFalse(notForwardable.implies(new PermissionImpl("device", Actions.read, SCOPE_B, null), ALL_GROUPABLE, parentAccountPath));
+    }
+
+    @Test
+    public void authorizationInfoTest() {
+        PermissionIndex index = index(new PermissionImpl("device", Actions.read, SCOPE_A, null));
+
+        Assert.assertEquals(Collections.singleton("role"), index.getRoles());
+        Assert.assertTrue(index.getStringPermissions().isEmpty());
+    }
+}
@@ -25,5 +25,7 @@ public class KapuaAuthorizationSettingKeysTest {
     public void keyTest() {
         Assert.assertEquals("Expected and actual values should be the same.", "authorization.key", KapuaAuthorizationSettingKeys.AUTHORIZATION_KEY.key());
         Assert.assertEquals("Expected and actual values should be the same.", "authorization.eventAddress", KapuaAuthorizationSettingKeys.AUTHORIZATION_EVENT_ADDRESS.key());
+        Assert.assertEquals("Expected and actual values should be the same.", "authorization.permission_index.cache.size", KapuaAuthorizationSettingKeys.AUTHORIZATION_PERMISSION_INDEX_CACHE_SIZE.key());
+        Assert.assertEquals("Expected and actual values should be the same.", "authorization.permission_index.cache.ttl", KapuaAuthorizationSettingKeys.AUTHORIZATION_PERMISSION_INDEX_CACHE_TTL.key());
     }
 }
\ No newline at end of file
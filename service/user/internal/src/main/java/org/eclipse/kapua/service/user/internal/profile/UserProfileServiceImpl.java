@@ -19,6 +19,7 @@ import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
 import org.eclipse.kapua.commons.util.ArgumentValidator;
 import org.eclipse.kapua.commons.util.CommonsValidationRegex;
 import org.eclipse.kapua.service.user.User;
+import org.eclipse.kapua.service.user.UserFactory;
 import org.eclipse.kapua.service.user.UserService;
 import org.eclipse.kapua.service.user.profile.UserProfile;
 import org.eclipse.kapua.service.user.profile.UserProfileFactory;
@@ -30,11 +31,13 @@ import javax.inject.Singleton;
 @Singleton
 public class UserProfileServiceImpl implements UserProfileService {
     private final UserService userService;
+    private final UserFactory userFactory;
     private final UserProfileFactory userProfileFactory;
 
     @Inject
-    public UserProfileServiceImpl(UserService userService, UserProfileFactory userProfileFactory) {
+    public UserProfileServiceImpl(UserService userService, UserFactory userFactory, UserProfileFactory userProfileFactory) {
         this.userService = userService;
+        this.userFactory = userFactory;
         this.userProfileFactory = userProfileFactory;
     }
 
@@ -49,6 +52,8 @@ public class UserProfileServiceImpl implements UserProfileService {
             if (user == null) {
                 throw new KapuaEntityNotFoundException(User.TYPE, KapuaSecurityUtils.getSession().getUserId());
             }
+            // The found User can be the cached instance, which must not be modified
+            user = userFactory.clone(user);
             user.setEmail(userProfile.getEmail());
             user.setDisplayName(userProfile.getDisplayName());
             user.setPhoneNumber(userProfile.getPhoneNumber());
@@ -17,12 +17,43 @@ import com.google.inject.Inject;
 import org.eclipse.kapua.message.Message;
 import org.eclipse.kapua.translator.exception.TranslatorNotFoundException;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * {@link TranslatorHub} implementation.
+ * <p>
+ * The available {@link Translator}s are indexed by their {@link Translator#getClassFrom()} and {@link Translator#getClassTo()} when the hub is created.
+ * Each requested pair of types is resolved only once, the first time it is requested, and the result is remembered, including when no {@link Translator} is found.
+ * <p>
+ * A {@link Translator} whose types are exactly the requested ones is preferred.
+ * Otherwise, the first {@link Translator} whose types are assignable to the requested ones is used.
+ *
+ * @since 1.0.0
+ */
 public class TranslatorHubImpl implements TranslatorHub {
     private final Set<Translator> availableTranslators;
 
+    /**
+     * {@link Translator}s by {@link Translator#getClassFrom()} and {@link Translator#getClassTo()}.
+     *
+     * @since 2.1.0
+     */
+    private final Map<Class<?>, Map<Class<?>, Translator>> exactTranslators;
+
+    /**
+     * Resolved {@link Translator}s by requested from and to types.
+     *
+     * @since 2.1.0
+     */
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, Optional<Translator>>> resolvedTranslators = new ConcurrentHashMap<>();
+
     /**
      * Sometimes just translators-api is imported a dependency - with no implementation class. In such cases, there is not Translator implementation to inject.
      * In order to be able to inject an empty list of Translators, this trick must be used, as java does not support default parameters and guice does not support optional injection in the constructors.
@@ -36,19 +67,46 @@ public class TranslatorHubImpl implements TranslatorHub {
 
     @Inject
     public TranslatorHubImpl(TranslatorsHolder availableTranslators) {
-        this.availableTranslators = availableTranslators.value;
+        this.availableTranslators = Collections.unmodifiableSet(new HashSet<>(availableTranslators.value));
+
+        Map<Class<?>, Map<Class<?>, Translator>> exactTranslators = new HashMap<>();
+        this.availableTranslators.forEach(t -> exactTranslators
+                .computeIfAbsent(t.getClassFrom(), from -> new HashMap<>())
+                .putIfAbsent(t.getClassTo(), t));
+        exactTranslators.replaceAll((from, translatorsTo) -> Collections.unmodifiableMap(translatorsTo));
+        this.exactTranslators = Collections.unmodifiableMap(exactTranslators);
     }
 
     @Override
     public <FROM_MESSAGE extends Message, TO_MESSAGE extends Message, TRANSLATOR extends Translator<FROM_MESSAGE, TO_MESSAGE>> TRANSLATOR getTranslatorFor(Class<? extends FROM_MESSAGE> fromMessageClass, Class<? extends TO_MESSAGE> toMessageClass) {
+        if (fromMessageClass == null || toMessageClass == null) {
+            throw new TranslatorNotFoundException(fromMessageClass, toMessageClass);
+        }
+
+        return (TRANSLATOR) resolvedTranslators
+                .computeIfAbsent(fromMessageClass, from -> new ConcurrentHashMap<>())
+                .computeIfAbsent(toMessageClass, to -> resolveTranslator(fromMessageClass, toMessageClass))
+                .orElseThrow(() -> new TranslatorNotFoundException(fromMessageClass, toMessageClass));
+    }
+
+    /**
+     * Looks for the {@link Translator} to use for the given types among the available ones.
+     *
+     * @param fromMessageClass The {@link Message} type to translate from.
+     * @param toMessageClass   The {@link Message} type to translate to.
+     * @return The {@link Translator} to use, or {@link Optional#empty()} if there is none.
+     * @since 2.1.0
+     */
+    private Optional<Translator> resolveTranslator(Class<?> fromMessageClass, Class<?> toMessageClass) {
+        Translator exactTranslator = exactTranslators.getOrDefault(fromMessageClass, Collections.emptyMap()).get(toMessageClass);
+        if (exactTranslator != null) {
+            return Optional.of(exactTranslator);
+        }
+
         return this.availableTranslators
                 .stream()
-                .filter(t -> fromMessageClass != null)
-                .filter(t -> toMessageClass != null)
                 .filter(t -> fromMessageClass.isAssignableFrom(t.getClassFrom()))
                 .filter(t -> toMessageClass.isAssignableFrom(t.getClassTo()))
-                .map(t -> (TRANSLATOR) t)
-                .findFirst()
-                .orElseThrow(() -> new TranslatorNotFoundException(fromMessageClass, toMessageClass));
+                .findFirst();
     }
 }
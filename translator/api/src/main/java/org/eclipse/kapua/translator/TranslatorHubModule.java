@@ -15,9 +15,11 @@ package org.eclipse.kapua.translator;
 
 import org.eclipse.kapua.commons.core.AbstractKapuaModule;
 
+import javax.inject.Singleton;
+
 public class TranslatorHubModule extends AbstractKapuaModule {
     @Override
     protected void configureModule() {
-        bind(TranslatorHub.class).to(TranslatorHubImpl.class);
+        bind(TranslatorHub.class).to(TranslatorHubImpl.class).in(Singleton.class);
     }
 }
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.translator;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.eclipse.kapua.message.Channel;
+import org.eclipse.kapua.message.Message;
+import org.eclipse.kapua.message.Payload;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.translator.exception.TranslatorNotFoundException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(JUnitTests.class)
+public class TranslatorHubImplTest {
+
+    @Test
+    public void exactTranslatorIsPreferredToAssignableTranslatorsTest() {
+        TestTranslator exactTranslator = new TestTranslator(FromMessage.class, ToMessage.class);
+        // Many assignable ones, so that the exact one is unlikely to be the first in the set
+        TranslatorHubImpl translatorHub = newTranslatorHub(
+                new TestTranslator(SpecificFromMessage.class, ToMessage.class),
+                new TestTranslator(FromMessage.class, SpecificToMessage.class),
+                new TestTranslator(SpecificFromMessage.class, SpecificToMessage.class),
+                new TestTranslator(SpecificFromMessage.class, ToMessage.class),
+                new TestTranslator(FromMessage.class, SpecificToMessage.class),
+                exactTranslator);
+
+        for (int i = 0; i < 2; i++) {
+            Assert.assertSame(exactTranslator, translatorHub.getTranslatorFor(FromMessage.class, ToMessage.class));
+        }
+    }
+
+    @Test
+    public void assignableTranslatorIsUsedWithoutExactTranslatorTest() {
+        TestTranslator assignableTranslator = new TestTranslator(SpecificFromMessage.class, SpecificToMessage.class);
+        TranslatorHubImpl translatorHub = newTranslatorHub(
+                new TestTranslator(OtherMessage.class, ToMessage.class),
+                assignableTranslator);
+
+        Assert.assertSame(assignableTranslator, translatorHub.getTranslatorFor(FromMessage.class, ToMessage.class));
+    }
+
+    @Test
+    public void cachedMissIsStillAMissTest() {
+        TestTranslator translator = new TestTranslator(FromMessage.class, ToMessage.class);
+        TranslatorHubImpl translatorHub = newTranslatorHub(translator);
+
+        assertTranslatorNotFound(translatorHub, OtherMessage.class, ToMessage.class);
+        int lookups = translator.lookups;
+
+        // The miss is remembered...
+        assertTranslatorNotFound(translatorHub, OtherMessage.class, ToMessage.class);
+        Assert.assertEquals(lookups, translator.lookups);
+
+        // ...and does not affect the other pairs of types
+        Assert.assertSame(translator, translatorHub.getTranslatorFor(FromMessage.class, ToMessage.class));
+        assertTranslatorNotFound(translatorHub, ToMessage.class, FromMessage.class);
+    }
+
+    @Test
+    public void translatorNotFoundForNullTypesTest() {
+        TranslatorHubImpl translatorHub = newTranslatorHub(new TestTranslator(FromMessage.class, ToMessage.class));
+
+        assertTranslatorNotFound(translatorHub, null, ToMessage.class);
+        assertTranslatorNotFound(translatorHub, FromMessage.class, null);
+    }
+
+    private static TranslatorHubImpl newTranslatorHub(Translator<?, ?>... translators) {
+        TranslatorHubImpl.TranslatorsHolder translatorsHolder = new TranslatorHubImpl.TranslatorsHolder();
+        translatorsHolder.value = new HashSet<>(Arrays.asList(translators));
+        return new TranslatorHubImpl(translatorsHolder);
+    }
+
+    private static void assertTranslatorNotFound(TranslatorHubImpl translatorHub, Class<? extends Message> fromMessageClass, Class<? extends Message> toMessageClass) {
+        try {
+            translatorHub.getTranslatorFor(fromMessageClass, toMessageClass);
+            Assert.fail("No translator should have been found");
+        } catch (TranslatorNotFoundException e) {
+            Assert.assertEquals(fromMessageClass, e.getFromMessageClass());
+            Assert.assertEquals(toMessageClass, e.getToMessageClass());
+        }
+    }
+
+    private interface FromMessage extends Message<Channel, Payload> {
+    }
+
+    private interface SpecificFromMessage extends FromMessage {
+    }
+
+    private interface ToMessage extends Message<Channel, Payload> {
+    }
+
+    private interface SpecificToMessage extends ToMessage {
+    }
+
+    private interface OtherMessage extends Message<Channel, Payload> {
+    }
+
+    /**
+     * {@link Translator} which counts how many times its types are looked up.
+     */
+    private static class TestTranslator extends Translator<Message, Message> {
+
+        private final Class<? extends Message> classFrom;
+        private final Class<? extends Message> classTo;
+        private int lookups;
+
+        private TestTranslator(Class<? extends Message> classFrom, Class<? extends Message> classTo) {
+            this.classFrom = classFrom;
+            this.classTo = classTo;
+        }
+
+        @Override
+        public Message translate(Message message) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Class<Message> getClassFrom() {
+            lookups++;
+            return (Class<Message>) classFrom;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Class<Message> getClassTo() {
+            lookups++;
+            return (Class<Message>) classTo;
+        }
+    }
+}
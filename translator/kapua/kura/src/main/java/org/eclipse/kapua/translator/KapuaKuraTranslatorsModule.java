@@ -19,8 +19,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
 import com.google.inject.multibindings.Multibinder;
+import com.google.inject.multibindings.ProvidesIntoSet;
 import org.eclipse.kapua.commons.core.AbstractKapuaModule;
+import org.eclipse.kapua.commons.core.ServiceModule;
 import org.eclipse.kapua.commons.setting.system.SystemSetting;
+import org.eclipse.kapua.event.ServiceEventBus;
 import org.eclipse.kapua.message.KapuaMessageFactory;
 import org.eclipse.kapua.translator.kapua.kura.TranslatorAppAssetKapuaKura;
 import org.eclipse.kapua.translator.kapua.kura.TranslatorAppBundleKapuaKura;
@@ -48,6 +51,8 @@ import org.eclipse.kapua.translator.kura.kapua.TranslatorAppSnapshotKuraKapua;
 import org.eclipse.kapua.translator.kura.kapua.TranslatorDataKuraKapua;
 import org.eclipse.kapua.translator.kura.kapua.TranslatorKuraKapuaUtils;
 import org.eclipse.kapua.translator.kura.kapua.TranslatorKuraKapuaUtilsImpl;
+import org.eclipse.kapua.translator.kura.kapua.TranslatorKuraKapuaResolutionCache;
+import org.eclipse.kapua.translator.kura.kapua.TranslatorKuraKapuaResolutionCacheServiceModule;
 import org.eclipse.kapua.translator.kura.kapua.TranslatorLifeAppsKuraKapua;
 import org.eclipse.kapua.translator.kura.kapua.TranslatorLifeBirthKuraKapua;
 import org.eclipse.kapua.translator.kura.kapua.TranslatorLifeDisconnectKuraKapua;
@@ -64,6 +69,7 @@ import org.eclipse.kapua.translator.kura.kapua.keystore.TranslatorAppKeystoreIte
 import org.eclipse.kapua.translator.kura.kapua.keystore.TranslatorAppKeystoreItemsKuraKapua;
 import org.eclipse.kapua.translator.kura.kapua.keystore.TranslatorAppKeystoreNoContentKuraKapua;
 import org.eclipse.kapua.translator.kura.kapua.keystore.TranslatorAppKeystoresKuraKapua;
+import org.eclipse.kapua.translator.setting.TranslatorKapuaKuraSettingKeys;
 import org.eclipse.kapua.translator.setting.TranslatorKapuaKuraSettings;
 
 public class KapuaKuraTranslatorsModule extends AbstractKapuaModule {
@@ -131,4 +137,14 @@ public class KapuaKuraTranslatorsModule extends AbstractKapuaModule {
     public TranslatorKuraKapuaUtils translatorKuraKapuaUtils(KapuaMessageFactory kapuaMessageFactory) {
         return new TranslatorKuraKapuaUtilsImpl(kapuaMessageFactory, SystemSetting.getInstance().getMessageClassifier());
     }
+
+    @ProvidesIntoSet
+    public ServiceModule translatorKuraKapuaResolutionCacheServiceModule(TranslatorKuraKapuaResolutionCache resolutionCache,
+                                                                         ServiceEventBus serviceEventBus,
+                                                                         TranslatorKapuaKuraSettings translatorKapuaKuraSettings) {
+        return new TranslatorKuraKapuaResolutionCacheServiceModule(
+                resolutionCache,
+                serviceEventBus,
+                translatorKapuaKuraSettings.getString(TranslatorKapuaKuraSettingKeys.TRANSLATOR_KURA_KAPUA_RESOLUTION_CACHE_ACCOUNT_EVENT_ADDRESS, "account"));
+    }
 }
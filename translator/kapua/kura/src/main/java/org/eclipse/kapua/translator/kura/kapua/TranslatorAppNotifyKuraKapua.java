@@ -13,9 +13,9 @@
 package org.eclipse.kapua.translator.kura.kapua;
 
 import org.eclipse.kapua.KapuaEntityNotFoundException;
+import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.model.id.KapuaIdFactory;
 import org.eclipse.kapua.service.account.Account;
-import org.eclipse.kapua.service.account.AccountService;
 import org.eclipse.kapua.service.device.call.kura.model.asset.AssetMetrics;
 import org.eclipse.kapua.service.device.call.kura.model.bundle.BundleMetrics;
 import org.eclipse.kapua.service.device.call.kura.model.command.CommandMetrics;
@@ -38,7 +38,6 @@ import org.eclipse.kapua.service.device.management.message.notification.KapuaNot
 import org.eclipse.kapua.service.device.management.message.notification.NotifyStatus;
 import org.eclipse.kapua.service.device.management.packages.message.internal.PackageAppProperties;
 import org.eclipse.kapua.service.device.registry.Device;
-import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
 import org.eclipse.kapua.translator.Translator;
 import org.eclipse.kapua.translator.exception.InvalidChannelException;
 import org.eclipse.kapua.translator.exception.InvalidMessageException;
@@ -58,9 +57,7 @@ import java.util.Map;
 public class TranslatorAppNotifyKuraKapua extends Translator<KuraNotifyMessage, KapuaNotifyMessage> {
 
     @Inject
-    private AccountService accountService;
-    @Inject
-    private DeviceRegistryService deviceRegistryService;
+    private TranslatorKuraKapuaResolutionCache resolutionCache;
     @Inject
     private KapuaIdFactory kapuaIdFactory;
     @Inject
@@ -95,18 +92,18 @@ public class TranslatorAppNotifyKuraKapua extends Translator<KuraNotifyMessage,
             kapuaNotifyMessage.setChannel(translate(kuraNotifyMessage.getChannel()));
             kapuaNotifyMessage.setPayload(translate(kuraNotifyMessage.getPayload()));
 
-            Account account = accountService.findByName(kuraNotifyMessage.getChannel().getScope());
-            if (account == null) {
+            KapuaId scopeId = resolutionCache.findAccountId(kuraNotifyMessage.getChannel().getScope());
+            if (scopeId == null) {
                 throw new KapuaEntityNotFoundException(Account.TYPE, kuraNotifyMessage.getChannel().getScope());
             }
 
-            Device device = deviceRegistryService.findByClientId(account.getId(), kuraNotifyMessage.getChannel().getClientId());
-            if (device == null) {
+            KapuaId deviceId = resolutionCache.findDeviceId(scopeId, kuraNotifyMessage.getChannel().getClientId());
+            if (deviceId == null) {
                 throw new KapuaEntityNotFoundException(Device.class.toString(), kuraNotifyMessage.getChannel().getClientId());
             }
 
-            kapuaNotifyMessage.setDeviceId(device.getId());
-            kapuaNotifyMessage.setScopeId(account.getId());
+            kapuaNotifyMessage.setDeviceId(deviceId);
+            kapuaNotifyMessage.setScopeId(scopeId);
             kapuaNotifyMessage.setCapturedOn(kuraNotifyMessage.getPayload().getTimestamp());
             kapuaNotifyMessage.setSentOn(kuraNotifyMessage.getPayload().getTimestamp());
             kapuaNotifyMessage.setReceivedOn(kuraNotifyMessage.getTimestamp());
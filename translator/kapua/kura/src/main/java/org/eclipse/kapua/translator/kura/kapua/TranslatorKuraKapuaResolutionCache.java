@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.translator.kura.kapua;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.cache.LocalCache;
+import org.eclipse.kapua.event.ServiceEvent;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.account.Account;
+import org.eclipse.kapua.service.account.AccountService;
+import org.eclipse.kapua.service.device.registry.Device;
+import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
+import org.eclipse.kapua.translator.setting.TranslatorKapuaKuraSettingKeys;
+import org.eclipse.kapua.translator.setting.TranslatorKapuaKuraSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves the {@link Account#getId()} from the {@link Account#getName()} and the {@link Device#getId()} from the {@link Device#getClientId()}
+ * for the {@link org.eclipse.kapua.translator.Translator}s from Kura to Kapua, which would otherwise look them up for each translated message.
+ * <p>
+ * Resolutions of {@link Account}s are cached for {@link TranslatorKapuaKuraSettingKeys#TRANSLATOR_KURA_KAPUA_RESOLUTION_CACHE_TTL}, while the ones of {@link Account}s and {@link Device}s not found
+ * are cached for the shorter {@link TranslatorKapuaKuraSettingKeys#TRANSLATOR_KURA_KAPUA_RESOLUTION_CACHE_NEGATIVE_TTL}, so that newly created ones are picked up quickly.
+ * The resolutions of an {@link Account} and of its {@link Device}s are invalidated when the {@link Account} is deleted (see {@link #onServiceEvent(ServiceEvent)}).
+ * <p>
+ * The deletion of a single {@link Device} does not raise any {@link ServiceEvent}, so the resolutions of {@link Device}s are only expired after
+ * {@link TranslatorKapuaKuraSettingKeys#TRANSLATOR_KURA_KAPUA_RESOLUTION_CACHE_DEVICE_TTL}, which bounds how long a deleted {@link Device} can still be resolved.
+ *
+ * @since 2.1.0
+ */
+@Singleton
+public class TranslatorKuraKapuaResolutionCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TranslatorKuraKapuaResolutionCache.class);
+
+    private final AccountService accountService;
+    private final DeviceRegistryService deviceRegistryService;
+    private final TranslatorKuraKapuaResolutionCacheMetric resolutionCacheMetric;
+
+    private final LocalCache<String, KapuaId> accountIds;
+    private final LocalCache<String, Boolean> accountsNotFound;
+    private final LocalCache<DeviceKey, KapuaId> deviceIds;
+    private final LocalCache<DeviceKey, Boolean> devicesNotFound;
+
+    /**
+     * Incremented on each invalidation, so that a resolution loaded concurrently to an invalidation is not cached.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Inject
+    public TranslatorKuraKapuaResolutionCache(AccountService accountService,
+                                              DeviceRegistryService deviceRegistryService,
+                                              TranslatorKuraKapuaResolutionCacheMetric resolutionCacheMetric,
+                                              TranslatorKapuaKuraSettings translatorKapuaKuraSettings) {
+        this.accountService = accountService;
+        this.deviceRegistryService = deviceRegistryService;
+        this.resolutionCacheMetric = resolutionCacheMetric;
+
+        int cacheSize = translatorKapuaKuraSettings.getInt(TranslatorKapuaKuraSettingKeys.TRANSLATOR_KURA_KAPUA_RESOLUTION_CACHE_SIZE, 10000);
+        int cacheTtl = translatorKapuaKuraSettings.getInt(TranslatorKapuaKuraSettingKeys.TRANSLATOR_KURA_KAPUA_RESOLUTION_CACHE_TTL, 60);
+        int deviceCacheTtl = translatorKapuaKuraSettings.getInt(TranslatorKapuaKuraSettingKeys.TRANSLATOR_KURA_KAPUA_RESOLUTION_CACHE_DEVICE_TTL, 10);
+        int negativeCacheTtl = translatorKapuaKuraSettings.getInt(TranslatorKapuaKuraSettingKeys.TRANSLATOR_KURA_KAPUA_RESOLUTION_CACHE_NEGATIVE_TTL, 5);
+
+        accountIds = new LocalCache<>(cacheSize, cacheTtl, null);
+        accountsNotFound = new LocalCache<>(cacheSize, negativeCacheTtl, null);
+        deviceIds = new LocalCache<>(cacheSize, deviceCacheTtl, null);
+        devicesNotFound = new LocalCache<>(cacheSize, negativeCacheTtl, null);
+    }
+
+    /**
+     * Resolves the {@link Account#getId()} of the {@link Account} with the given {@link Account#getName()}.
+     *
+     * @param accountName The {@link Account#getName()}.
+     * @return The {@link Account#getId()}, or {@code null} if the {@link Account} does not exist.
+     * @throws KapuaException if the {@link Account} cannot be looked up.
+     * @since 2.1.0
+     */
+    public KapuaId findAccountId(String accountName) throws KapuaException {
+        KapuaId accountId = accountIds.get(accountName);
+        if (accountId != null || accountsNotFound.containsKey(accountName)) {
+            resolutionCacheMetric.getAccountHit().inc();
+            return accountId;
+        }
+
+        resolutionCacheMetric.getAccountMiss().inc();
+        long loadGeneration = generation.get();
+        Account account = accountService.findByName(accountName);
+        if (loadGeneration == generation.get()) {
+            if (account != null) {
+                accountIds.put(accountName, account.getId());
+            } else {
+                accountsNotFound.put(accountName, Boolean.TRUE);
+            }
+        }
+
+        return account != null ? account.getId() : null;
+    }
+
+    /**
+     * Resolves the {@link Device#getId()} of the {@link Device} with the given {@link Device#getClientId()}.
+     *
+     * @param scopeId  The {@link Device#getScopeId()}.
+     * @param clientId The {@link Device#getClientId()}.
+     * @return The {@link Device#getId()}, or {@code null} if the {@link Device} does not exist.
+     * @throws KapuaException if the {@link Device} cannot be looked up.
+     * @since 2.1.0
+     */
+    public KapuaId findDeviceId(KapuaId scopeId, String clientId) throws KapuaException {
+        DeviceKey deviceKey = new DeviceKey(scopeId, clientId);
+
+        KapuaId deviceId = deviceIds.get(deviceKey);
+        if (deviceId != null || devicesNotFound.containsKey(deviceKey)) {
+            resolutionCacheMetric.getDeviceHit().inc();
+            return deviceId;
+        }
+
+        resolutionCacheMetric.getDeviceMiss().inc();
+        long loadGeneration = generation.get();
+        Device device = deviceRegistryService.findByClientId(scopeId, clientId);
+        if (loadGeneration == generation.get()) {
+            if (device != null) {
+                deviceIds.put(deviceKey, device.getId());
+            } else {
+                devicesNotFound.put(deviceKey, Boolean.TRUE);
+            }
+        }
+
+        return device != null ? device.getId() : null;
+    }
+
+    /**
+     * Invalidates the resolutions affected by the given {@link ServiceEvent}.
+     * <p>
+     * When an {@link Account} is deleted, its resolution and the ones of its {@link Device}s are invalidated.
+     *
+     * @param serviceEvent The received {@link ServiceEvent}.
+     * @since 2.1.0
+     */
+    public void onServiceEvent(ServiceEvent serviceEvent) {
+        if (Account.TYPE.equals(serviceEvent.getService()) && "delete".equals(serviceEvent.getOperation())) {
+            KapuaId accountId = serviceEvent.getEntityId();
+            LOG.debug("Invalidating resolutions of deleted account {}", accountId);
+
+            generation.incrementAndGet();
+            accountIds.getAllKeys()
+                    .stream()
+                    .filter(accountName -> Objects.equals(accountIds.get(accountName), accountId))
+                    .forEach(accountIds::remove);
+            deviceIds.getAllKeys()
+                    .stream()
+                    .filter(deviceKey -> Objects.equals(deviceKey.scopeId, accountId))
+                    .forEach(deviceIds::remove);
+
+            resolutionCacheMetric.getInvalidation().inc();
+        }
+    }
+
+    /**
+     * Invalidates all the cached resolutions.
+     *
+     * @since 2.1.0
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        accountIds.invalidateAll();
+        accountsNotFound.invalidateAll();
+        deviceIds.invalidateAll();
+        devicesNotFound.invalidateAll();
+
+        resolutionCacheMetric.getInvalidation().inc();
+    }
+
+    /**
+     * Key of the {@link Device} resolutions.
+     *
+     * @since 2.1.0
+     */
+    private static class DeviceKey {
+
+        private final KapuaId scopeId;
+        private final String clientId;
+
+        private DeviceKey(KapuaId scopeId, String clientId) {
+            this.scopeId = scopeId;
+            this.clientId = clientId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            DeviceKey deviceKey = (DeviceKey) o;
+            return Objects.equals(scopeId, deviceKey.scopeId) && Objects.equals(clientId, deviceKey.clientId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scopeId, clientId);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.translator.kura.kapua;
+
+import com.codahale.metrics.Counter;
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.metric.MetricsService;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+/**
+ * Metrics of the {@link TranslatorKuraKapuaResolutionCache}.
+ *
+ * @since 2.1.0
+ */
+@Singleton
+public class TranslatorKuraKapuaResolutionCacheMetric {
+
+    private static final String RESOLUTION_CACHE = "translator_resolution_cache";
+
+    private final Counter accountHit;
+    private final Counter accountMiss;
+    private final Counter deviceHit;
+    private final Counter deviceMiss;
+    private final Counter invalidation;
+
+    @Inject
+    public TranslatorKuraKapuaResolutionCacheMetric(MetricsService metricsService,
+                                                    @Named("metricModuleName")
+                                                    String metricModuleName) throws KapuaException {
+        accountHit = metricsService.getCounter(metricModuleName, RESOLUTION_CACHE, "account", "hit");
+        accountMiss = metricsService.getCounter(metricModuleName, RESOLUTION_CACHE, "account", "miss");
+        deviceHit = metricsService.getCounter(metricModuleName, RESOLUTION_CACHE, "device", "hit");
+        deviceMiss = metricsService.getCounter(metricModuleName, RESOLUTION_CACHE, "device", "miss");
+        invalidation = metricsService.getCounter(metricModuleName, RESOLUTION_CACHE, "invalidation");
+    }
+
+    public Counter getAccountHit() {
+        return accountHit;
+    }
+
+    public Counter getAccountMiss() {
+        return accountMiss;
+    }
+
+    public Counter getDeviceHit() {
+        return deviceHit;
+    }
+
+    public Counter getDeviceMiss() {
+        return deviceMiss;
+    }
+
+    public Counter getInvalidation() {
+        return invalidation;
+    }
+}
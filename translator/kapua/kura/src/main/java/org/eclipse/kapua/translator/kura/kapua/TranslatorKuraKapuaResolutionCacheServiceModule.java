@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.translator.kura.kapua;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.core.ServiceModule;
+import org.eclipse.kapua.event.ServiceEventBus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.UUID;
+
+/**
+ * {@link ServiceModule} which subscribes the {@link TranslatorKuraKapuaResolutionCache} to the {@link org.eclipse.kapua.service.account.AccountService} events.
+ * <p>
+ * Each instance subscribes with its own name, so that the events are received by each node and not shared among them.
+ *
+ * @since 2.1.0
+ */
+public class TranslatorKuraKapuaResolutionCacheServiceModule implements ServiceModule {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TranslatorKuraKapuaResolutionCacheServiceModule.class);
+
+    private static final String SUBSCRIBER_NAME = "translator-resolution-cache";
+
+    private final TranslatorKuraKapuaResolutionCache resolutionCache;
+    private final ServiceEventBus serviceEventBus;
+    private final String accountEventAddress;
+
+    public TranslatorKuraKapuaResolutionCacheServiceModule(TranslatorKuraKapuaResolutionCache resolutionCache, ServiceEventBus serviceEventBus, String accountEventAddress) {
+        this.resolutionCache = resolutionCache;
+        this.serviceEventBus = serviceEventBus;
+        this.accountEventAddress = accountEventAddress;
+    }
+
+    @Override
+    public void start() throws KapuaException {
+        String subscriptionName = String.format("%s-%s-%s", accountEventAddress, SUBSCRIBER_NAME, UUID.randomUUID());
+
+        LOG.info("Subscribing translator resolution cache to address {} as {}", accountEventAddress, subscriptionName);
+        serviceEventBus.subscribe(accountEventAddress, subscriptionName, serviceEvent -> resolutionCache.onServiceEvent(serviceEvent));
+    }
+
+    @Override
+    public void stop() throws KapuaException {
+        // The ServiceEventBus subscriptions are closed with the ServiceEventBus itself
+        resolutionCache.invalidateAll();
+    }
+}
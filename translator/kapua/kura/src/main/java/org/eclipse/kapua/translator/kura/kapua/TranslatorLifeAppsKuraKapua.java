@@ -21,13 +21,12 @@ import org.eclipse.kapua.message.device.lifecycle.KapuaAppsPayload;
 import org.eclipse.kapua.message.internal.device.lifecycle.KapuaAppsChannelImpl;
 import org.eclipse.kapua.message.internal.device.lifecycle.KapuaAppsMessageImpl;
 import org.eclipse.kapua.message.internal.device.lifecycle.KapuaAppsPayloadImpl;
+import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.account.Account;
-import org.eclipse.kapua.service.account.AccountService;
 import org.eclipse.kapua.service.device.call.message.kura.lifecycle.KuraAppsChannel;
 import org.eclipse.kapua.service.device.call.message.kura.lifecycle.KuraAppsMessage;
 import org.eclipse.kapua.service.device.call.message.kura.lifecycle.KuraAppsPayload;
 import org.eclipse.kapua.service.device.registry.Device;
-import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
 import org.eclipse.kapua.translator.Translator;
 import org.eclipse.kapua.translator.exception.InvalidChannelException;
 import org.eclipse.kapua.translator.exception.InvalidMessageException;
@@ -42,9 +41,7 @@ import org.eclipse.kapua.translator.exception.TranslateException;
 public class TranslatorLifeAppsKuraKapua extends Translator<KuraAppsMessage, KapuaAppsMessage> {
 
     @Inject
-    private AccountService accountService;
-    @Inject
-    private DeviceRegistryService deviceRegistryService;
+    private TranslatorKuraKapuaResolutionCache resolutionCache;
     @Inject
     private TranslatorKuraKapuaUtils translatorKuraKapuaUtils;
 
@@ -55,18 +52,18 @@ public class TranslatorLifeAppsKuraKapua extends Translator<KuraAppsMessage, Kap
             kapuaAppsMessage.setChannel(translate(kuraAppsMessage.getChannel()));
             kapuaAppsMessage.setPayload(translate(kuraAppsMessage.getPayload()));
 
-            Account account = accountService.findByName(kuraAppsMessage.getChannel().getScope());
-            if (account == null) {
+            KapuaId scopeId = resolutionCache.findAccountId(kuraAppsMessage.getChannel().getScope());
+            if (scopeId == null) {
                 throw new KapuaEntityNotFoundException(Account.TYPE, kuraAppsMessage.getChannel().getScope());
             }
 
-            Device device = deviceRegistryService.findByClientId(account.getId(), kuraAppsMessage.getChannel().getClientId());
-            if (device == null) {
+            KapuaId deviceId = resolutionCache.findDeviceId(scopeId, kuraAppsMessage.getChannel().getClientId());
+            if (deviceId == null) {
                 throw new KapuaEntityNotFoundException(Device.class.toString(), kuraAppsMessage.getChannel().getClientId());
             }
 
-            kapuaAppsMessage.setDeviceId(device.getId());
-            kapuaAppsMessage.setScopeId(account.getId());
+            kapuaAppsMessage.setDeviceId(deviceId);
+            kapuaAppsMessage.setScopeId(scopeId);
             kapuaAppsMessage.setCapturedOn(kuraAppsMessage.getPayload().getTimestamp());
             kapuaAppsMessage.setSentOn(kuraAppsMessage.getPayload().getTimestamp());
             kapuaAppsMessage.setReceivedOn(kuraAppsMessage.getTimestamp());
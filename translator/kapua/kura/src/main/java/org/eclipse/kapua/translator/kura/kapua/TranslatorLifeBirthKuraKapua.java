@@ -21,13 +21,11 @@ import org.eclipse.kapua.message.device.lifecycle.KapuaBirthPayload;
 import org.eclipse.kapua.message.internal.device.lifecycle.KapuaBirthChannelImpl;
 import org.eclipse.kapua.message.internal.device.lifecycle.KapuaBirthMessageImpl;
 import org.eclipse.kapua.message.internal.device.lifecycle.KapuaBirthPayloadImpl;
+import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.account.Account;
-import org.eclipse.kapua.service.account.AccountService;
 import org.eclipse.kapua.service.device.call.message.kura.lifecycle.KuraBirthChannel;
 import org.eclipse.kapua.service.device.call.message.kura.lifecycle.KuraBirthMessage;
 import org.eclipse.kapua.service.device.call.message.kura.lifecycle.KuraBirthPayload;
-import org.eclipse.kapua.service.device.registry.Device;
-import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
 import org.eclipse.kapua.translator.Translator;
 import org.eclipse.kapua.translator.exception.InvalidChannelException;
 import org.eclipse.kapua.translator.exception.InvalidMessageException;
@@ -42,9 +40,7 @@ import org.eclipse.kapua.translator.exception.TranslateException;
 public class TranslatorLifeBirthKuraKapua extends Translator<KuraBirthMessage, KapuaBirthMessage> {
 
     @Inject
-    private AccountService accountService;
-    @Inject
-    private DeviceRegistryService deviceRegistryService;
+    private TranslatorKuraKapuaResolutionCache resolutionCache;
     @Inject
     private TranslatorKuraKapuaUtils translatorKuraKapuaUtils;
 
@@ -55,15 +51,15 @@ public class TranslatorLifeBirthKuraKapua extends Translator<KuraBirthMessage, K
             kapuaBirthMessage.setChannel(translate(kuraBirthMessage.getChannel()));
             kapuaBirthMessage.setPayload(translate(kuraBirthMessage.getPayload()));
 
-            Account account = accountService.findByName(kuraBirthMessage.getChannel().getScope());
-            if (account == null) {
+            KapuaId scopeId = resolutionCache.findAccountId(kuraBirthMessage.getChannel().getScope());
+            if (scopeId == null) {
                 throw new KapuaEntityNotFoundException(Account.TYPE, kuraBirthMessage.getChannel().getScope());
             }
-            kapuaBirthMessage.setScopeId(account.getId());
+            kapuaBirthMessage.setScopeId(scopeId);
 
-            Device device = deviceRegistryService.findByClientId(account.getId(), kuraBirthMessage.getChannel().getClientId());
-            if (device != null) {
-                kapuaBirthMessage.setDeviceId(device.getId());
+            KapuaId deviceId = resolutionCache.findDeviceId(scopeId, kuraBirthMessage.getChannel().getClientId());
+            if (deviceId != null) {
+                kapuaBirthMessage.setDeviceId(deviceId);
             } else {
                 kapuaBirthMessage.setClientId(kuraBirthMessage.getChannel().getClientId());
             }
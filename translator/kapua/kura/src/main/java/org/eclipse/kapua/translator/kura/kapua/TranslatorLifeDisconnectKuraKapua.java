@@ -19,13 +19,12 @@ import org.eclipse.kapua.message.device.lifecycle.KapuaDisconnectPayload;
 import org.eclipse.kapua.message.internal.device.lifecycle.KapuaDisconnectChannelImpl;
 import org.eclipse.kapua.message.internal.device.lifecycle.KapuaDisconnectMessageImpl;
 import org.eclipse.kapua.message.internal.device.lifecycle.KapuaDisconnectPayloadImpl;
+import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.account.Account;
-import org.eclipse.kapua.service.account.AccountService;
 import org.eclipse.kapua.service.device.call.message.kura.lifecycle.KuraDisconnectChannel;
 import org.eclipse.kapua.service.device.call.message.kura.lifecycle.KuraDisconnectMessage;
 import org.eclipse.kapua.service.device.call.message.kura.lifecycle.KuraDisconnectPayload;
 import org.eclipse.kapua.service.device.registry.Device;
-import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
 import org.eclipse.kapua.translator.Translator;
 import org.eclipse.kapua.translator.exception.InvalidChannelException;
 import org.eclipse.kapua.translator.exception.InvalidMessageException;
@@ -42,9 +41,7 @@ import javax.inject.Inject;
 public class TranslatorLifeDisconnectKuraKapua extends Translator<KuraDisconnectMessage, KapuaDisconnectMessage> {
 
     @Inject
-    private AccountService accountService;
-    @Inject
-    private DeviceRegistryService deviceRegistryService;
+    private TranslatorKuraKapuaResolutionCache resolutionCache;
     @Inject
     private TranslatorKuraKapuaUtils translatorKuraKapuaUtils;
 
@@ -55,18 +52,18 @@ public class TranslatorLifeDisconnectKuraKapua extends Translator<KuraDisconnect
             kapuaDisconnectMessage.setChannel(translate(kuraDisconnectMessage.getChannel()));
             kapuaDisconnectMessage.setPayload(translate(kuraDisconnectMessage.getPayload()));
 
-            Account account = accountService.findByName(kuraDisconnectMessage.getChannel().getScope());
-            if (account == null) {
+            KapuaId scopeId = resolutionCache.findAccountId(kuraDisconnectMessage.getChannel().getScope());
+            if (scopeId == null) {
                 throw new KapuaEntityNotFoundException(Account.TYPE, kuraDisconnectMessage.getChannel().getScope());
             }
 
-            Device device = deviceRegistryService.findByClientId(account.getId(), kuraDisconnectMessage.getChannel().getClientId());
-            if (device == null) {
+            KapuaId deviceId = resolutionCache.findDeviceId(scopeId, kuraDisconnectMessage.getChannel().getClientId());
+            if (deviceId == null) {
                 throw new KapuaEntityNotFoundException(Device.class.toString(), kuraDisconnectMessage.getChannel().getClientId());
             }
 
-            kapuaDisconnectMessage.setDeviceId(device.getId());
-            kapuaDisconnectMessage.setScopeId(account.getId());
+            kapuaDisconnectMessage.setDeviceId(deviceId);
+            kapuaDisconnectMessage.setScopeId(scopeId);
             kapuaDisconnectMessage.setCapturedOn(kuraDisconnectMessage.getPayload().getTimestamp());
             kapuaDisconnectMessage.setSentOn(kuraDisconnectMessage.getPayload().getTimestamp());
             kapuaDisconnectMessage.setReceivedOn(kuraDisconnectMessage.getTimestamp());
@@ -19,13 +19,12 @@ import org.eclipse.kapua.message.device.lifecycle.KapuaMissingPayload;
 import org.eclipse.kapua.message.internal.device.lifecycle.KapuaMissingChannelImpl;
 import org.eclipse.kapua.message.internal.device.lifecycle.KapuaMissingMessageImpl;
 import org.eclipse.kapua.message.internal.device.lifecycle.KapuaMissingPayloadImpl;
+import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.account.Account;
-import org.eclipse.kapua.service.account.AccountService;
 import org.eclipse.kapua.service.device.call.message.kura.lifecycle.KuraMissingChannel;
 import org.eclipse.kapua.service.device.call.message.kura.lifecycle.KuraMissingMessage;
 import org.eclipse.kapua.service.device.call.message.kura.lifecycle.KuraMissingPayload;
 import org.eclipse.kapua.service.device.registry.Device;
-import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
 import org.eclipse.kapua.translator.Translator;
 import org.eclipse.kapua.translator.exception.InvalidChannelException;
 import org.eclipse.kapua.translator.exception.InvalidMessageException;
@@ -42,9 +41,7 @@ import javax.inject.Inject;
 public class TranslatorLifeMissingKuraKapua extends Translator<KuraMissingMessage, KapuaMissingMessage> {
 
     @Inject
-    private DeviceRegistryService deviceRegistryService;
-    @Inject
-    private AccountService accountService;
+    private TranslatorKuraKapuaResolutionCache resolutionCache;
     @Inject
     private TranslatorKuraKapuaUtils translatorKuraKapuaUtils;
 
@@ -55,18 +52,18 @@ public class TranslatorLifeMissingKuraKapua extends Translator<KuraMissingMessag
             kapuaMissingMessage.setChannel(translate(kuraMissingMessage.getChannel()));
             kapuaMissingMessage.setPayload(translate(kuraMissingMessage.getPayload()));
 
-            Account account = accountService.findByName(kuraMissingMessage.getChannel().getScope());
-            if (account == null) {
+            KapuaId scopeId = resolutionCache.findAccountId(kuraMissingMessage.getChannel().getScope());
+            if (scopeId == null) {
                 throw new KapuaEntityNotFoundException(Account.TYPE, kuraMissingMessage.getChannel().getScope());
             }
 
-            Device device = deviceRegistryService.findByClientId(account.getId(), kuraMissingMessage.getChannel().getClientId());
-            if (device == null) {
+            KapuaId deviceId = resolutionCache.findDeviceId(scopeId, kuraMissingMessage.getChannel().getClientId());
+            if (deviceId == null) {
                 throw new KapuaEntityNotFoundException(Device.class.toString(), kuraMissingMessage.getChannel().getClientId());
             }
 
-            kapuaMissingMessage.setDeviceId(device.getId());
-            kapuaMissingMessage.setScopeId(account.getId());
+            kapuaMissingMessage.setDeviceId(deviceId);
+            kapuaMissingMessage.setScopeId(scopeId);
             kapuaMissingMessage.setCapturedOn(kuraMissingMessage.getPayload().getTimestamp());
             kapuaMissingMessage.setSentOn(kuraMissingMessage.getPayload().getTimestamp());
             kapuaMissingMessage.setReceivedOn(kuraMissingMessage.getTimestamp());
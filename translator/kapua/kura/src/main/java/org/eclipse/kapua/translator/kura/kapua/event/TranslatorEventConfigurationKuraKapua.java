@@ -15,8 +15,8 @@ package org.eclipse.kapua.translator.kura.kapua.event;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.eclipse.kapua.KapuaEntityNotFoundException;
+import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.account.Account;
-import org.eclipse.kapua.service.account.AccountService;
 import org.eclipse.kapua.service.device.call.kura.model.asset.AssetMetrics;
 import org.eclipse.kapua.service.device.call.kura.model.bundle.BundleMetrics;
 import org.eclipse.kapua.service.device.call.kura.model.command.CommandMetrics;
@@ -40,7 +40,6 @@ import org.eclipse.kapua.service.device.management.configuration.message.event.i
 import org.eclipse.kapua.service.device.management.message.KapuaAppProperties;
 import org.eclipse.kapua.service.device.management.packages.message.internal.PackageAppProperties;
 import org.eclipse.kapua.service.device.registry.Device;
-import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
 import org.eclipse.kapua.translator.Translator;
 import org.eclipse.kapua.translator.exception.InvalidBodyContentException;
 import org.eclipse.kapua.translator.exception.InvalidBodyEncodingException;
@@ -49,6 +48,7 @@ import org.eclipse.kapua.translator.exception.InvalidChannelException;
 import org.eclipse.kapua.translator.exception.InvalidMessageException;
 import org.eclipse.kapua.translator.exception.InvalidPayloadException;
 import org.eclipse.kapua.translator.exception.TranslateException;
+import org.eclipse.kapua.translator.kura.kapua.TranslatorKuraKapuaResolutionCache;
 import org.eclipse.kapua.translator.kura.kapua.TranslatorKuraKapuaUtils;
 
 import javax.inject.Inject;
@@ -67,9 +67,7 @@ import java.util.Map;
 public class TranslatorEventConfigurationKuraKapua extends Translator<KuraConfigurationEventMessage, DeviceConfigurationEventMessage> {
 
     @Inject
-    private AccountService accountService;
-    @Inject
-    private DeviceRegistryService deviceRegistryService;
+    private TranslatorKuraKapuaResolutionCache resolutionCache;
     @Inject
     private DeviceConfigurationFactory deviceConfigurationFactory;
     @Inject
@@ -102,18 +100,18 @@ public class TranslatorEventConfigurationKuraKapua extends Translator<KuraConfig
             deviceConfigurationEventMessage.setChannel(translate(kuraNotifyMessage.getChannel()));
             deviceConfigurationEventMessage.setPayload(translate(kuraNotifyMessage.getPayload()));
 
-            Account account = accountService.findByName(kuraNotifyMessage.getChannel().getScope());
-            if (account == null) {
+            KapuaId scopeId = resolutionCache.findAccountId(kuraNotifyMessage.getChannel().getScope());
+            if (scopeId == null) {
                 throw new KapuaEntityNotFoundException(Account.TYPE, kuraNotifyMessage.getChannel().getScope());
             }
 
-            Device device = deviceRegistryService.findByClientId(account.getId(), kuraNotifyMessage.getChannel().getClientId());
-            if (device == null) {
+            KapuaId deviceId = resolutionCache.findDeviceId(scopeId, kuraNotifyMessage.getChannel().getClientId());
+            if (deviceId == null) {
                 throw new KapuaEntityNotFoundException(Device.class.toString(), kuraNotifyMessage.getChannel().getClientId());
             }
 
-            deviceConfigurationEventMessage.setDeviceId(device.getId());
-            deviceConfigurationEventMessage.setScopeId(account.getId());
+            deviceConfigurationEventMessage.setDeviceId(deviceId);
+            deviceConfigurationEventMessage.setScopeId(scopeId);
             deviceConfigurationEventMessage.setCapturedOn(kuraNotifyMessage.getPayload().getTimestamp());
             deviceConfigurationEventMessage.setSentOn(kuraNotifyMessage.getPayload().getTimestamp());
             deviceConfigurationEventMessage.setReceivedOn(kuraNotifyMessage.getTimestamp());
@@ -30,7 +30,44 @@ public enum TranslatorKapuaKuraSettingKeys implements SettingKey {
      *
      * @since 2.1.0
      */
-    TRANSLATOR_KURA_KAPUA_DATA_DEVICE_ID_RESOLVE("translator.kura.kapua.data.deviceId.resolve");
+    TRANSLATOR_KURA_KAPUA_DATA_DEVICE_ID_RESOLVE("translator.kura.kapua.data.deviceId.resolve"),
+
+    /**
+     * The maximum number of {@link org.eclipse.kapua.service.account.Account#getName()} and {@link KuraChannel#getClientId()} resolutions kept by the {@link org.eclipse.kapua.translator.kura.kapua.TranslatorKuraKapuaResolutionCache}.
+     *
+     * @since 2.1.0
+     */
+    TRANSLATOR_KURA_KAPUA_RESOLUTION_CACHE_SIZE("translator.kura.kapua.resolution.cache.size"),
+
+    /**
+     * The time to live, in seconds, of the resolutions of existing {@link org.eclipse.kapua.service.account.Account}s.
+     *
+     * @since 2.1.0
+     */
+    TRANSLATOR_KURA_KAPUA_RESOLUTION_CACHE_TTL("translator.kura.kapua.resolution.cache.ttl"),
+
+    /**
+     * The time to live, in seconds, of the resolutions of existing {@link Device}s.
+     * <p>
+     * It is shorter than {@link #TRANSLATOR_KURA_KAPUA_RESOLUTION_CACHE_TTL} since the deletion of a {@link Device} does not raise any {@link org.eclipse.kapua.event.ServiceEvent}.
+     *
+     * @since 2.1.0
+     */
+    TRANSLATOR_KURA_KAPUA_RESOLUTION_CACHE_DEVICE_TTL("translator.kura.kapua.resolution.cache.device.ttl"),
+
+    /**
+     * The time to live, in seconds, of the resolutions of {@link org.eclipse.kapua.service.account.Account}s and {@link Device}s which were not found.
+     *
+     * @since 2.1.0
+     */
+    TRANSLATOR_KURA_KAPUA_RESOLUTION_CACHE_NEGATIVE_TTL("translator.kura.kapua.resolution.cache.negative.ttl"),
+
+    /**
+     * The {@link org.eclipse.kapua.event.ServiceEventBus} address of the {@link org.eclipse.kapua.service.account.AccountService} events which invalidate the resolutions.
+     *
+     * @since 2.1.0
+     */
+    TRANSLATOR_KURA_KAPUA_RESOLUTION_CACHE_ACCOUNT_EVENT_ADDRESS("translator.kura.kapua.resolution.cache.account.eventAddress");
 
     /**
      * The key value of the {@link SettingKey}.
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2023, 2022 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.translator.kura.kapua;
+
+import com.codahale.metrics.Counter;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.event.ServiceEvent;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.account.Account;
+import org.eclipse.kapua.service.account.AccountService;
+import org.eclipse.kapua.service.device.registry.Device;
+import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
+import org.eclipse.kapua.translator.setting.TranslatorKapuaKuraSettingKeys;
+import org.eclipse.kapua.translator.setting.TranslatorKapuaKuraSettings;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+
+
+@Category(JUnitTests.class)
+public class TranslatorKuraKapuaResolutionCacheTest {
+
+    private static final KapuaId ACCOUNT_ID = new KapuaEid(BigInteger.valueOf(42));
+    private static final KapuaId DEVICE_ID = new KapuaEid(BigInteger.valueOf(4242));
+
+    AccountService accountService;
+    DeviceRegistryService deviceRegistryService;
+    TranslatorKuraKapuaResolutionCacheMetric resolutionCacheMetric;
+    TranslatorKuraKapuaResolutionCache resolutionCache;
+
+    @Before
+    public void initialize() throws Exception {
+        Account account = Mockito.mock(Account.class);
+        Mockito.when(account.getId()).thenReturn(ACCOUNT_ID);
+        Device device = Mockito.mock(Device.class);
+        Mockito.when(device.getId()).thenReturn(DEVICE_ID);
+
+        accountService = Mockito.mock(AccountService.class);
+        Mockito.when(accountService.findByName("kapua-sys")).thenReturn(account);
+        deviceRegistryService = Mockito.mock(DeviceRegistryService.class);
+        Mockito.when(deviceRegistryService.findByClientId(ACCOUNT_ID, "device-1")).thenReturn(device);
+
+        resolutionCacheMetric = Mockito.mock(TranslatorKuraKapuaResolutionCacheMetric.class);
+        Mockito.when(resolutionCacheMetric.getAccountHit()).thenReturn(new Counter());
+        Mockito.when(resolutionCacheMetric.getAccountMiss()).thenReturn(new Counter());
+        Mockito.when(resolutionCacheMetric.getDeviceHit()).thenReturn(new Counter());
+        Mockito.when(resolutionCacheMetric.getDeviceMiss()).thenReturn(new Counter());
+        Mockito.when(resolutionCacheMetric.getInvalidation()).thenReturn(new Counter());
+
+        resolutionCache = new TranslatorKuraKapuaResolutionCache(accountService, deviceRegistryService, resolutionCacheMetric, new TranslatorKapuaKuraSettings());
+    }
+
+    @Test
+    public void repeatedMessagesFromSameDeviceTest() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            KapuaId scopeId = resolutionCache.findAccountId("kapua-sys");
+            Assert.assertEquals("Expected and actual values should be the same.", ACCOUNT_ID, scopeId);
+            Assert.assertEquals("Expected and actual values should be the same.", DEVICE_ID, resolutionCache.findDeviceId(scopeId, "device-1"));
+        }
+
+        Mockito.verify(accountService, Mockito.times(1)).findByName("kapua-sys");
+        Mockito.verify(deviceRegistryService, Mockito.times(1)).findByClientId(ACCOUNT_ID, "device-1");
+
+        Assert.assertEquals("Expected and actual values should be the same.", 1, resolutionCacheMetric.getAccountMiss().getCount());
+        Assert.assertEquals("Expected and actual values should be the same.", 99, resolutionCacheMetric.getAccountHit().getCount());
+        Assert.assertEquals("Expected and actual values should be the same.", 1, resolutionCacheMetric.getDeviceMiss().getCount());
+        Assert.assertEquals("Expected and actual values should be the same.", 99, resolutionCacheMetric.getDeviceHit().getCount());
+    }
+
+    @Test
+    public void notFoundTest() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            Assert.assertNull("Null expected.", resolutionCache.findAccountId("unknown-account"));
+            Assert.assertNull("Null expected.", resolutionCache.findDeviceId(ACCOUNT_ID, "unknown-device"));
+        }
+
+        Mockito.verify(accountService, Mockito.times(1)).findByName("unknown-account");
+        Mockito.verify(deviceRegistryService, Mockito.times(1)).findByClientId(ACCOUNT_ID, "unknown-device");
+    }
+
+    @Test
+    public void accountDeletedTest() throws Exception {
+        resolutionCache.findAccountId("kapua-sys");
+        resolutionCache.findDeviceId(ACCOUNT_ID, "device-1");
+
+        ServiceEvent serviceEvent = new ServiceEvent();
+        serviceEvent.setService("account");
+        serviceEvent.setOperation("delete");
+        serviceEvent.setEntityId(new KapuaEid(BigInteger.valueOf(42)));
+        resolutionCache.onServiceEvent(serviceEvent);
+
+        resolutionCache.findAccountId("kapua-sys");
+        resolutionCache.findDeviceId(ACCOUNT_ID, "device-1");
+
+        Mockito.verify(accountService, Mockito.times(2)).findByName("kapua-sys");
+        Mockito.verify(deviceRegistryService, Mockito.times(2)).findByClientId(ACCOUNT_ID, "device-1");
+        Assert.assertEquals("Expected and actual values should be the same.", 1, resolutionCacheMetric.getInvalidation().getCount());
+    }
+
+    @Test
+    public void otherAccountEventTest() throws Exception {
+        resolutionCache.findAccountId("kapua-sys");
+        resolutionCache.findDeviceId(ACCOUNT_ID, "device-1");
+
+        ServiceEvent serviceEvent = new ServiceEvent();
+        serviceEvent.setService("account");
+        serviceEvent.setOperation("delete");
+        serviceEvent.setEntityId(new KapuaEid(BigInteger.valueOf(43)));
+        resolutionCache.onServiceEvent(serviceEvent);
+
+        resolutionCache.findAccountId("kapua-sys");
+        resolutionCache.findDeviceId(ACCOUNT_ID, "device-1");
+
+        Mockito.verify(accountService, Mockito.times(1)).findByName("kapua-sys");
+        Mockito.verify(deviceRegistryService, Mockito.times(1)).findByClientId(ACCOUNT_ID, "device-1");
+    }
+
+    @Test
+    public void deviceResolutionsExpireBeforeAccountResolutionsTest() throws Exception {
+        TranslatorKapuaKuraSettings translatorKapuaKuraSettings = Mockito.spy(new TranslatorKapuaKuraSettings());
+        Mockito.doReturn(0).when(translatorKapuaKuraSettings).getInt(TranslatorKapuaKuraSettingKeys.TRANSLATOR_KURA_KAPUA_RESOLUTION_CACHE_DEVICE_TTL, 10);
+        resolutionCache = new TranslatorKuraKapuaResolutionCache(accountService, deviceRegistryService, resolutionCacheMetric, translatorKapuaKuraSettings);
+
+        for (int i = 0; i < 3; i++) {
+            resolutionCache.findAccountId("kapua-sys");
+            resolutionCache.findDeviceId(ACCOUNT_ID, "device-1");
+        }
+
+        Mockito.verify(accountService, Mockito.times(1)).findByName("kapua-sys");
+        Mockito.verify(deviceRegistryService, Mockito.times(3)).findByClientId(ACCOUNT_ID, "device-1");
+    }
+
+    @Test
+    public void invalidateAllTest() throws Exception {
+        resolutionCache.findAccountId("kapua-sys");
+        resolutionCache.findAccountId("unknown-account");
+
+        resolutionCache.invalidateAll();
+
+        resolutionCache.findAccountId("kapua-sys");
+        resolutionCache.findAccountId("unknown-account");
+
+        Mockito.verify(accountService, Mockito.times(2)).findByName("kapua-sys");
+        Mockito.verify(accountService, Mockito.times(2)).findByName("unknown-account");
+    }
+}